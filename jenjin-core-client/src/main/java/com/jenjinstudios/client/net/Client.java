@@ -95,6 +95,13 @@ public class Client extends Connection
         }
     }
 
+    /**
+     * Get the number of updates per second that this client is meant to execute.
+     *
+     * @return The number of updates per second that this client is meant to execute.
+     */
+    public int getUps() { return UPDATES_PER_SECOND; }
+
     /**
      * Get the average number of updates per second that this client is executing.
      *
@@ -4,7 +4,6 @@ import com.jenjinstudios.core.io.Message;
 import com.jenjinstudios.server.net.ClientHandler;
 import com.jenjinstudios.server.net.User;
 import com.jenjinstudios.server.sql.Authenticator;
-import com.jenjinstudios.server.sql.LoginException;
 
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -41,20 +40,48 @@ public class ExecutableLoginRequest extends ServerExecutableMessage
 		ClientHandler handler = getClientHandler();
 		String username = (String) getMessage().getArgument("username");
 		String password = (String) getMessage().getArgument("password");
-		try
+		authenticator.logInUserAsync(username, password).whenComplete((user, throwable) ->
+			  handler.getServer().addSyncedTask(() -> completeLogin(user, throwable)));
+	}
+
+	/**
+	 * Called on the server update thread once the asynchronous login attempt has finished.
+	 *
+	 * @param user The user that was logged in, or null if the attempt failed.
+	 * @param throwable The reason the login attempt failed, or null if it succeeded.
+	 */
+	private void completeLogin(User user, Throwable throwable) {
+		ClientHandler handler = getClientHandler();
+		if (handler.isShutDown())
+		{
+			if (user != null) { logOutAbandonedUser(user); }
+		} else if (user != null && throwable == null)
 		{
-			User user = authenticator.logInUser(username, password);
 			long loggedInTime = handler.getServer().getCycleStartTime();
 			handler.setLoggedInTime(loggedInTime);
 			queueLoginSuccessResponse(loggedInTime);
 			handler.setUser(user);
-		} catch (LoginException | NullPointerException e)
+		} else
 		{
-			LOGGER.log(Level.FINEST, "User login failure: ", e);
+			LOGGER.log(Level.FINEST, "User login failure: ", throwable);
 			queueLoginFailureResponse();
 		}
 	}
 
+	/**
+	 * Log out a user whose client disconnected while the login attempt was running; no handler is left to do so.
+	 *
+	 * @param user The user that was logged in.
+	 */
+	private void logOutAbandonedUser(User user) {
+		authenticator.logOutUserAsync(user.getUsername()).whenComplete((loggedOut, throwable) -> {
+			if (throwable != null)
+			{
+				LOGGER.log(Level.WARNING, "Unable to log out user of closed connection.", throwable);
+			}
+		});
+	}
+
 	private void queueLoginSuccessResponse(long loggedInTime) {
 		Message loginResponse = getClientHandler().getMessageFactory().generateLoginResponse(true, loggedInTime);
 		getClientHandler().getMessageIO().queueOutgoingMessage(loginResponse);
@@ -30,4 +30,11 @@ public class AuthServer extends TaskedServer
 	 * @return The SQLHandler used by this Server.
 	 */
 	public Authenticator getAuthenticator() { return authenticator; }
+
+	@Override
+	public void shutdown() throws IOException {
+		super.shutdown();
+		if (authenticator != null && authenticator.getAuthenticationExecutor() != null)
+			authenticator.getAuthenticationExecutor().shutdown();
+	}
 }
@@ -26,6 +26,8 @@ public class ClientHandler extends Connection
     /** The time at which this client was successfully logged in. */
     private long loggedInTime;
     private User user;
+    /** Whether this client handler has been shut down. */
+    private volatile boolean shutDown;
 
     /**
      * Construct a new Client Handler using the given socket.  When constructing a new ClientHandler, it is necessary to
@@ -58,6 +60,7 @@ public class ClientHandler extends Connection
     /** Shut down the client handler. */
     @Override
     public void shutdown() {
+        shutDown = true;
         if (getUser() != null)
         {
             try
@@ -71,6 +74,14 @@ public class ClientHandler extends Connection
         getServer().removeClient(this);
     }
 
+    /**
+     * Whether this client handler has been shut down; a user logged in after this point will never be logged out by
+     * this handler.
+     *
+     * @return Whether this client handler has been shut down.
+     */
+    public boolean isShutDown() { return shutDown; }
+
     public ServerMessageFactory getMessageFactory() { return messageFactory; }
 
     /**
@@ -148,6 +148,18 @@ public class Server extends Thread
         clientListener.stopListening();
     }
 
+    /**
+     * Get a snapshot of the client handlers currently working for this server.
+     *
+     * @return A copy of the collection of client handlers working for this server.
+     */
+    protected Collection<ClientHandler> getClientHandlers() {
+        synchronized (clientHandlers)
+        {
+            return new ArrayList<>(clientHandlers.values());
+        }
+    }
+
     /**
      * Schedule a client to be removed during the next update.
      *
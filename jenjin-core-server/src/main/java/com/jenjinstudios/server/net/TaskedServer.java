@@ -54,6 +54,17 @@ public class TaskedServer extends Server
 		}
 	}
 
+	/**
+	 * Add a task to be run once, on the server update thread, at the start of the next update.
+	 * @param r The {@code Runnable} containing the task to be run.
+	 */
+	public void addSyncedTask(Runnable r) {
+		synchronized (syncedTasks)
+		{
+			syncedTasks.add(r);
+		}
+	}
+
 	@Override
 	public void run() {
 		super.run();
@@ -72,6 +83,23 @@ public class TaskedServer extends Server
 			loopTimer.shutdown();
 	}
 
+	/**
+	 * Stop the server loop, and wait for the update in progress, if any, to finish.  Once this method returns, no more
+	 * updates or synced tasks will be run.
+	 */
+	protected void stopUpdateLoop() {
+		if (loopTimer == null)
+			return;
+		loopTimer.shutdown();
+		try
+		{
+			loopTimer.awaitTermination(PERIOD * 10, TimeUnit.MILLISECONDS);
+		} catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+		}
+	}
+
 	public double getAverageUPS() { return serverUpdateTask.getAverageUPS(); }
 
 	public int getUps() { return UPS; }
@@ -0,0 +1,158 @@
+package com.jenjinstudios.server.sql;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The {@code AuthenticationExecutor} class runs {@code AuthenticationTask}s on a bounded pool of worker threads, so that
+ * blocking database calls and password hashing are kept off of the connection reader threads.
+ * <p>
+ * When the queue of waiting tasks is full, new tasks are rejected immediately rather than blocking the caller; the
+ * returned future is completed exceptionally with a {@code LoginException}.
+ *
+ * @author Caleb Brinkman
+ */
+public class AuthenticationExecutor
+{
+    /** The default number of worker threads. */
+    public static final int DEFAULT_THREADS = 4;
+    /** The default maximum number of tasks waiting for a worker. */
+    public static final int DEFAULT_QUEUE_CAPACITY = 256;
+    /** The number of seconds an idle worker thread is kept alive. */
+    private static final long KEEP_ALIVE_SECONDS = 60;
+    private static final double NANOS_PER_MILLI = 1000000d;
+    private final ThreadPoolExecutor executor;
+    private final AtomicLong completedCount = new AtomicLong();
+    private final AtomicLong rejectedCount = new AtomicLong();
+    private final AtomicLong totalLatency = new AtomicLong();
+    private final AtomicLong maxLatency = new AtomicLong();
+
+    /**
+     * Construct a new {@code AuthenticationExecutor} with the default number of threads and queue capacity.
+     */
+    public AuthenticationExecutor() { this(DEFAULT_THREADS, DEFAULT_QUEUE_CAPACITY); }
+
+    /**
+     * Construct a new {@code AuthenticationExecutor}.
+     *
+     * @param threads The number of worker threads.
+     * @param queueCapacity The maximum number of tasks that may be waiting for a worker.
+     */
+    public AuthenticationExecutor(int threads, int queueCapacity) {
+        executor = new ThreadPoolExecutor(threads, threads, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+              new ArrayBlockingQueue<>(queueCapacity), new AuthenticationThreadFactory(),
+              new ThreadPoolExecutor.AbortPolicy());
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Submit a task to be run by a worker thread.
+     *
+     * @param task The task to run.
+     * @param <T> The type of the result of the task.
+     *
+     * @return A future which is completed with the result of the task, or exceptionally if the task throws an exception
+     * or is rejected because the queue is full.
+     */
+    public <T> CompletableFuture<T> submit(AuthenticationTask<T> task) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        long submitted = System.nanoTime();
+        try
+        {
+            executor.execute(() -> runTask(task, future, submitted));
+        } catch (RejectedExecutionException e)
+        {
+            rejectedCount.incrementAndGet();
+            future.completeExceptionally(new LoginException("Authentication queue is full; login rejected."));
+        }
+        return future;
+    }
+
+    private <T> void runTask(AuthenticationTask<T> task, CompletableFuture<T> future, long submitted) {
+        try
+        {
+            T result = task.call();
+            recordLatency(submitted);
+            future.complete(result);
+        } catch (Throwable t)
+        {
+            // Any failure, even an Error, must complete the future; otherwise the client waits for a response forever.
+            recordLatency(submitted);
+            future.completeExceptionally(t);
+        }
+    }
+
+    private void recordLatency(long submitted) {
+        long latency = System.nanoTime() - submitted;
+        completedCount.incrementAndGet();
+        totalLatency.addAndGet(latency);
+        maxLatency.accumulateAndGet(latency, Math::max);
+    }
+
+    /**
+     * Get the number of tasks waiting for a worker thread.
+     *
+     * @return The number of tasks waiting for a worker thread.
+     */
+    public int getQueueDepth() { return executor.getQueue().size(); }
+
+    /**
+     * Get the number of tasks currently being run by worker threads.
+     *
+     * @return The number of tasks currently being run.
+     */
+    public int getActiveCount() { return executor.getActiveCount(); }
+
+    /**
+     * Get the number of tasks that have finished, successfully or not.
+     *
+     * @return The number of tasks that have finished.
+     */
+    public long getCompletedCount() { return completedCount.get(); }
+
+    /**
+     * Get the number of tasks that were rejected because the queue was full.
+     *
+     * @return The number of rejected tasks.
+     */
+    public long getRejectedCount() { return rejectedCount.get(); }
+
+    /**
+     * Get the average time, in milliseconds, between a task being submitted and finishing.
+     *
+     * @return The average task latency in milliseconds.
+     */
+    public double getAverageLatency() {
+        long completed = completedCount.get();
+        return completed == 0 ? 0 : totalLatency.get() / NANOS_PER_MILLI / completed;
+    }
+
+    /**
+     * Get the longest time, in milliseconds, between a task being submitted and finishing.
+     *
+     * @return The maximum task latency in milliseconds.
+     */
+    public double getMaxLatency() { return maxLatency.get() / NANOS_PER_MILLI; }
+
+    /**
+     * Stop accepting new tasks; tasks which have already been submitted will still be run.
+     */
+    public void shutdown() { executor.shutdown(); }
+
+    /**
+     * Creates the daemon worker threads used by an {@code AuthenticationExecutor}.
+     */
+    private static class AuthenticationThreadFactory implements ThreadFactory
+    {
+        private final AtomicInteger threadNumber = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r);
+            thread.setName("Authentication Thread " + threadNumber.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.jenjinstudios.server.sql;
+
+/**
+ * A unit of authentication work, such as logging in a user or looking up their properties, that is run by an {@code
+ * AuthenticationExecutor} worker thread.
+ *
+ * @param <T> The type of the result produced by the task.
+ *
+ * @author Caleb Brinkman
+ */
+@FunctionalInterface
+public interface AuthenticationTask<T>
+{
+    /**
+     * Perform the authentication work.
+     *
+     * @return The result of the work.
+     *
+     * @throws LoginException If the work could not be completed.
+     */
+    T call() throws LoginException;
+}
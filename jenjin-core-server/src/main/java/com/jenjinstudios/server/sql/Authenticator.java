@@ -9,12 +9,8 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.Map;
-import java.util.Set;
-
-import static java.sql.ResultSet.*;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * The SQLHandler class is responsible for connecting to and querying the SQL database associated with a given Server.
@@ -35,19 +31,54 @@ public class Authenticator
     private static final String PROPERTY_VALUE = "propertyValue";
     /** The name of the column in the user table specifying whether the user is currently logged in. */
     private static final String LOGGED_IN = "loggedin";
-    /** The connection used to communicate with the SQL database. */
-    private final Connection dbConnection;
-    /** The string used to get all information about the user. */
-    private final String USER_QUERY;
-    private final String PROPERTIES_QUERY;
+    /** The SQL used to get all information about the user. */
+    private static final String USER_QUERY = "SELECT * FROM " + USER_TABLE + " WHERE " + USER + " = ?";
+    private static final String PROPERTIES_QUERY = "SELECT * FROM " + PROPERTIES_TABLE + " WHERE " + USER + " = ?";
+    private static final String PROPERTY_QUERY = "SELECT * FROM " + PROPERTIES_TABLE + " " +
+          "WHERE " + USER + " = ? AND " + PROPERTY_NAME + " = ?";
+    private static final String UPDATE_LOGGED_IN = "UPDATE " + USER_TABLE + " SET " + LOGGED_IN + " = ? WHERE " +
+          USER + " = ?";
+    private static final String CLAIM_LOGGED_IN = "UPDATE " + USER_TABLE + " SET " + LOGGED_IN + " = 1 WHERE " +
+          USER + " = ? AND " + LOGGED_IN + " = 0";
+    /** The SQL used to insert or update a single property in one statement. */
+    private static final String UPSERT_PROPERTY = "MERGE INTO " + PROPERTIES_TABLE + " " +
+          "(`" + USER + "`, `" + PROPERTY_NAME + "`, `" + PROPERTY_VALUE + "`) " +
+          "KEY (`" + USER + "`, `" + PROPERTY_NAME + "`) VALUES (?, ?, ?)";
+    /** The pool of connections used to communicate with the SQL database. */
+    private final ConnectionPool connectionPool;
+    /** The executor used to run logins off of the connection reader threads. */
+    private final AuthenticationExecutor authenticationExecutor;
+    /** The cache of users and their properties. */
+    private final UserCache userCache;
+
+    /**
+     * Create a new SQLHandler which communicates with the database over the given connection.
+     */
+    public Authenticator(Connection dbConnection) { this(new ConnectionPool(dbConnection)); }
+
+    /**
+     * Create a new SQLHandler which communicates with the database using connections from the given pool.
+     */
+    public Authenticator(ConnectionPool connectionPool) { this(connectionPool, new AuthenticationExecutor()); }
+
+    /**
+     * Create a new SQLHandler which communicates with the database using connections from the given pool, and uses
+     * the given executor to perform asynchronous logins.
+     */
+    public Authenticator(ConnectionPool connectionPool, AuthenticationExecutor authenticationExecutor) {
+        this(connectionPool, authenticationExecutor, new UserCache());
+    }
 
     /**
-     * Create a new SQLHandler with the given database information, and connect to the database.
+     * Create a new SQLHandler which communicates with the database using connections from the given pool, uses the
+     * given executor to perform asynchronous logins, and stores users and their properties in the given cache.
      */
-    public Authenticator(Connection dbConnection) {
-        USER_QUERY = "SELECT * FROM " + USER_TABLE + " WHERE username = ?";
-        PROPERTIES_QUERY = "SELECT * FROM " + PROPERTIES_TABLE + " WHERE username = ?";
-        this.dbConnection = dbConnection;
+    public Authenticator(ConnectionPool connectionPool, AuthenticationExecutor authenticationExecutor,
+                         UserCache userCache)
+    {
+        this.connectionPool = connectionPool;
+        this.authenticationExecutor = authenticationExecutor;
+        this.userCache = userCache;
     }
 
     private static String getSHA256String(String input) {
@@ -105,11 +136,43 @@ public class Authenticator
      */
     public User logInUser(String username, String password) throws LoginException {
         User user = getUserWithValidPassword(username, password);
-        updateLoggedinColumn(username, true);
+        if (!claimLoggedinColumn(username))
+            throw new LoginException("User " + username + " is already logged in.");
         user.setLoggedIn(true);
         return user;
     }
 
+    /**
+     * Attempt to log the given user with the given password into the database using a worker thread of this
+     * authenticator's {@code AuthenticationExecutor}.  If the executor's queue is full, the returned future is completed
+     * exceptionally without the database being queried.
+     *
+     * @param username The username of the user to log in.
+     * @param password The password of the user to log in.
+     *
+     * @return A future which is completed with the logged in user, or exceptionally if the login fails.
+     */
+    public CompletableFuture<User> logInUserAsync(String username, String password) {
+        return submit(() -> logInUser(username, password));
+    }
+
+    /**
+     * Run the given task using a worker thread of this authenticator's {@code AuthenticationExecutor}.
+     *
+     * @param task The task to run.
+     * @param <T> The type of the result of the task.
+     *
+     * @return A future which is completed with the result of the task.
+     */
+    public <T> CompletableFuture<T> submit(AuthenticationTask<T> task) { return authenticationExecutor.submit(task); }
+
+    /**
+     * Get the executor used to run asynchronous logins.
+     *
+     * @return The executor used to run asynchronous logins.
+     */
+    public AuthenticationExecutor getAuthenticationExecutor() { return authenticationExecutor; }
+
     private User getUserWithValidPassword(String username, String password) throws LoginException {
         User user = lookUpUser(username);
         if (user.isLoggedIn())
@@ -122,20 +185,19 @@ public class Authenticator
     }
 
     public User lookUpUser(String username) throws LoginException {
-        try (ResultSet results = makeUserQuery(username))
+        User cached = userCache.getUser(username);
+        if (cached != null)
         {
-            if (!results.next())
+            return cached;
+        }
+        try
+        {
+            User user = connectionPool.execute(connection -> queryUser(connection, username));
+            if (user == null)
             {
                 throw new LoginException("User " + username + " does not exist.");
             }
-            boolean loggedIn = results.getBoolean(LOGGED_IN);
-            String salt = results.getString(SALT);
-            String dbPass = results.getString(PASSWORD);
-            User user = new User();
-            user.setUsername(username);
-            user.setPassword(dbPass);
-            user.setSalt(salt);
-            user.setLoggedIn(loggedIn);
+            userCache.putUser(user);
             return user;
         } catch (SQLException e)
         {
@@ -144,22 +206,21 @@ public class Authenticator
     }
 
     public Map<String, Object> lookUpUserProperties(String username) throws LoginException {
-        Map<String, Object> properties = new HashMap<>();
-
-        try (ResultSet results = makePropertiesQuery(username))
+        Map<String, Object> cached = userCache.getProperties(username);
+        if (cached != null)
         {
-            while (results.next())
-            {
-                String propertyName = results.getString(PROPERTY_NAME);
-                Object propertyValue = results.getObject(PROPERTY_VALUE);
-                properties.put(propertyName, propertyValue);
-            }
+            return cached;
+        }
+        try
+        {
+            Map<String, Object> properties = connectionPool.execute(connection ->
+                  queryUserProperties(connection, username));
+            userCache.putProperties(username, properties);
+            return properties;
         } catch (SQLException e)
         {
             throw new LoginException("Unable to retrieve" + username + " properties because of SQL Exception.", e);
         }
-
-        return properties;
     }
 
     /**
@@ -180,35 +241,68 @@ public class Authenticator
         return user;
     }
 
+    /**
+     * Attempt to log out the user with the given username using a worker thread of this authenticator's {@code
+     * AuthenticationExecutor}.
+     *
+     * @param username The username of the user to be logged out.
+     *
+     * @return A future which is completed with the user that was logged out, or exceptionally if the logout fails.
+     */
+    public CompletableFuture<User> logOutUserAsync(String username) { return submit(() -> logOutUser(username)); }
+
     /**
      * Query the database for user info.
      *
+     * @param connection The connection used to query the database.
      * @param username The username of the user we're looking for.
      *
-     * @return The ResultSet returned by the query.
+     * @return The user, or null if no such user exists.
      *
      * @throws SQLException If there is a SQL error.
      */
-    protected ResultSet makeUserQuery(String username) throws SQLException {
-        PreparedStatement statement;
-        synchronized (dbConnection)
+    protected User queryUser(PooledConnection connection, String username) throws SQLException {
+        PreparedStatement statement = connection.prepareStatement(USER_QUERY);
+        statement.setString(1, username);
+        try (ResultSet results = statement.executeQuery())
         {
-            statement = dbConnection.prepareStatement(USER_QUERY,
-                  TYPE_SCROLL_SENSITIVE, CONCUR_UPDATABLE);
-            statement.setString(1, username);
-
+            if (!results.next())
+            {
+                return null;
+            }
+            User user = new User();
+            user.setUsername(username);
+            user.setPassword(results.getString(PASSWORD));
+            user.setSalt(results.getString(SALT));
+            user.setLoggedIn(results.getBoolean(LOGGED_IN));
+            return user;
         }
-        return statement.executeQuery();
     }
 
-    protected ResultSet makePropertiesQuery(String username) throws SQLException {
-        PreparedStatement statement;
-        synchronized (dbConnection)
+    /**
+     * Query the database for the properties of a user.
+     *
+     * @param connection The connection used to query the database.
+     * @param username The username of the user whose properties we're looking for.
+     *
+     * @return A map of property names to values.
+     *
+     * @throws SQLException If there is a SQL error.
+     */
+    protected Map<String, Object> queryUserProperties(PooledConnection connection, String username)
+          throws SQLException
+    {
+        Map<String, Object> properties = new HashMap<>();
+        PreparedStatement statement = connection.prepareStatement(PROPERTIES_QUERY);
+        statement.setString(1, username);
+        try (ResultSet results = statement.executeQuery())
         {
-            statement = dbConnection.prepareStatement(PROPERTIES_QUERY, TYPE_SCROLL_INSENSITIVE, CONCUR_UPDATABLE);
-            statement.setString(1, username);
+            while (results.next())
+            {
+                properties.put(results.getString(PROPERTY_NAME), results.getObject(PROPERTY_VALUE));
+            }
         }
-        return statement.executeQuery();
+        return properties;
     }
 
     /**
@@ -220,58 +314,168 @@ public class Authenticator
      * @throws com.jenjinstudios.server.sql.LoginException If there is a SQL error.
      */
     protected void updateLoggedinColumn(String username, boolean status) throws LoginException {
-        String s = status ? "1" : "0";
-        String updateQuery = "UPDATE " + USER_TABLE + " SET " + LOGGED_IN + "=" + s + " WHERE " + USER + " = ?";
-        synchronized (dbConnection)
+        try
+        {
+            connectionPool.execute(connection -> {
+                PreparedStatement updateLoggedIn = connection.prepareStatement(UPDATE_LOGGED_IN);
+                updateLoggedIn.setInt(1, status ? 1 : 0);
+                updateLoggedIn.setString(2, username);
+                return updateLoggedIn.executeUpdate();
+            });
+            userCache.setLoggedIn(username, status);
+        } catch (SQLException e)
         {
-            try (PreparedStatement updateLoggedIn = dbConnection.prepareStatement(updateQuery))
+            throw new LoginException("Unable to update " + username + "; SQLException when updating loggedin " +
+                  "column.", e);
+        }
+    }
+
+    /**
+     * Set the loggedin column for the given user, only if they are not already logged in.  Because the check and the
+     * update are a single statement, two concurrent logins for the same user cannot both succeed.
+     *
+     * @param username The user being logged in.
+     *
+     * @return Whether the column was updated; false if the user was already logged in.
+     *
+     * @throws LoginException If there is a SQL error.
+     */
+    private boolean claimLoggedinColumn(String username) throws LoginException {
+        try
+        {
+            boolean claimed = connectionPool.execute(connection -> {
+                PreparedStatement claimLoggedIn = connection.prepareStatement(CLAIM_LOGGED_IN);
+                claimLoggedIn.setString(1, username);
+                return claimLoggedIn.executeUpdate() > 0;
+            });
+            if (claimed)
             {
-                updateLoggedIn.setString(1, username);
-                updateLoggedIn.executeUpdate();
-                updateLoggedIn.close();
-            } catch (SQLException e)
+                userCache.setLoggedIn(username, true);
+            } else
             {
-                throw new LoginException("Unable to update " + username + "; SQLException when updating loggedin " +
-                      "column.");
+                userCache.invalidate(username);
             }
+            return claimed;
+        } catch (SQLException e)
+        {
+            throw new LoginException("Unable to update " + username + "; SQLException when updating loggedin " +
+                  "column.", e);
         }
     }
 
     public Object lookUpUserProperty(String username, String propertyName) throws SQLException {
-        String propertyQuery = "SELECT * FROM " + PROPERTIES_TABLE + " " +
-              "WHERE " + USER + " = ? AND " + PROPERTY_NAME + " = ?";
-        Object r = null;
-        synchronized (dbConnection)
+        Map<String, Object> cached = userCache.getProperties(username);
+        if (cached != null)
         {
-            PreparedStatement statement = dbConnection.prepareStatement(propertyQuery);
-            statement.setString(1, username);
-            statement.setString(2, propertyName);
-            ResultSet results = statement.executeQuery();
-            if (results.next())
-            {
-                r = results.getObject(PROPERTY_VALUE);
-            }
+            return cached.get(propertyName);
         }
-        return r;
+        return connectionPool.execute(connection -> queryUserProperty(connection, username, propertyName));
     }
 
-    protected void updateUserProperties(User user) throws SQLException {
-        HashMap<String, Object> properties = user.getProperties();
-        for (String name : properties.keySet())
+    private static Object queryUserProperty(PooledConnection connection, String username, String propertyName)
+          throws SQLException
+    {
+        PreparedStatement statement = connection.prepareStatement(PROPERTY_QUERY);
+        statement.setString(1, username);
+        statement.setString(2, propertyName);
+        try (ResultSet results = statement.executeQuery())
         {
-            Object value = properties.get(name);
-            if (value != null && !isWrapperType(value.getClass())) { continue; }
-            Object existing = lookUpUserProperty(user.getUsername(), name);
-            if (existing == null)
+            return results.next() ? results.getObject(PROPERTY_VALUE) : null;
+        }
+    }
+
+    protected void updateUserProperties(User user) throws SQLException {
+        updateUserProperties(Collections.singletonList(user));
+    }
+
+    /**
+     * Save the properties of all of the given users in a single transaction, using one batch of upsert statements.
+     * Properties whose values are known to be unchanged are skipped, as are values which are not primitive wrappers or
+     * strings.
+     *
+     * @param users The users whose properties should be saved.
+     *
+     * @throws SQLException If there is a SQL error; in this case none of the properties are saved.
+     */
+    public void updateUserProperties(Collection<User> users) throws SQLException {
+        Collection<String> updatedUsers = connectionPool.execute(connection -> {
+            Connection dbConnection = connection.getConnection();
+            boolean autoCommit = dbConnection.getAutoCommit();
+            dbConnection.setAutoCommit(false);
+            try
+            {
+                PreparedStatement upsert = connection.prepareStatement(getPropertyUpsertSql());
+                Collection<String> batched = addPropertyUpserts(upsert, users);
+                if (!batched.isEmpty())
+                {
+                    upsert.executeBatch();
+                }
+                dbConnection.commit();
+                return batched;
+            } catch (SQLException e)
             {
-                insertUserProperty(user.getUsername(), name, value);
-            } else if (!existing.equals(value))
+                dbConnection.rollback();
+                throw e;
+            } finally
             {
-                updateUserProperty(user.getUsername(), name, value);
+                dbConnection.setAutoCommit(autoCommit);
             }
+        });
+        // Cached values must have the types the database returns, so they are re-read on the next lookup.
+        updatedUsers.forEach(userCache::invalidateProperties);
+    }
+
+    private Collection<String> addPropertyUpserts(PreparedStatement upsert, Collection<User> users)
+          throws SQLException
+    {
+        Collection<String> batched = new LinkedList<>();
+        upsert.clearBatch();
+        for (User user : users)
+        {
+            String username = user.getUsername();
+            Map<String, Object> existingProperties = userCache.getProperties(username);
+            boolean changed = false;
+            for (Map.Entry<String, Object> property : user.getProperties().entrySet())
+            {
+                Object value = property.getValue();
+                if (value != null && !isWrapperType(value.getClass())) { continue; }
+                if (existingProperties != null && existingProperties.containsKey(property.getKey()) &&
+                      Objects.equals(existingProperties.get(property.getKey()), value)) { continue; }
+                upsert.setString(1, username);
+                upsert.setString(2, property.getKey());
+                upsert.setObject(3, value);
+                upsert.addBatch();
+                changed = true;
+            }
+            if (changed) { batched.add(username); }
         }
+        return batched;
     }
 
+    /**
+     * Get the SQL used to insert or update a single user property.  The parameters are the username, property name
+     * and property value, in that order.  The default implementation uses the H2 {@code MERGE ... KEY} syntax;
+     * implementations backed by another database (such as MySQL, which would use {@code INSERT ... ON DUPLICATE KEY
+     * UPDATE}) should override this method.
+     *
+     * @return The SQL used to insert or update a single user property.
+     */
+    protected String getPropertyUpsertSql() { return UPSERT_PROPERTY; }
+
+    /**
+     * Get the cache of users and their properties.
+     *
+     * @return The cache of users and their properties.
+     */
+    public UserCache getUserCache() { return userCache; }
+
+    /**
+     * Get the pool of connections used to communicate with the database.
+     *
+     * @return The pool of connections used to communicate with the database.
+     */
+    public ConnectionPool getConnectionPool() { return connectionPool; }
+
     public static boolean isWrapperType(Class<?> clazz) { return WRAPPER_TYPES.contains(clazz); }
 
     private static Set<Class<?>> getWrapperTypes() {
@@ -288,33 +492,4 @@ public class Authenticator
         ret.add(Void.class);
         return ret;
     }
-
-    private void insertUserProperty(String username, String propertyName, Object propertyValue) throws SQLException {
-        String insertPropertyQuery = "INSERT INTO " + PROPERTIES_TABLE + " " +
-              "(`" + USER + "`, `" + PROPERTY_NAME + "`, `" + PROPERTY_VALUE + "`) VALUES " +
-              "(?, ?, ?)";
-        synchronized (dbConnection)
-        {
-            PreparedStatement statement = dbConnection.prepareStatement(insertPropertyQuery);
-            statement.setString(1, username);
-            statement.setString(2, propertyName);
-            statement.setObject(3, propertyValue);
-            statement.executeUpdate();
-            statement.close();
-        }
-    }
-
-    private void updateUserProperty(String username, String propertyName, Object propertyValue) throws SQLException {
-        String updatePropertyQuery = "UPDATE " + PROPERTIES_TABLE + " SET " + PROPERTY_VALUE + " = ? WHERE " +
-              USER + " = ? AND " + PROPERTY_NAME + " = ?";
-        synchronized (dbConnection)
-        {
-            PreparedStatement statement = dbConnection.prepareStatement(updatePropertyQuery);
-            statement.setObject(1, propertyValue);
-            statement.setString(2, username);
-            statement.setObject(3, propertyName);
-            statement.executeUpdate();
-            statement.close();
-        }
-    }
 }
@@ -0,0 +1,22 @@
+package com.jenjinstudios.server.sql;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Used by a {@code ConnectionPool} to open new database connections.
+ *
+ * @author Caleb Brinkman
+ */
+@FunctionalInterface
+public interface ConnectionFactory
+{
+    /**
+     * Open a new connection to the database.
+     *
+     * @return The new connection.
+     *
+     * @throws SQLException If the connection could not be opened.
+     */
+    Connection createConnection() throws SQLException;
+}
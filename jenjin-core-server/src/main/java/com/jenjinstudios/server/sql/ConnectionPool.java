@@ -0,0 +1,144 @@
+package com.jenjinstudios.server.sql;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * The {@code ConnectionPool} class maintains a fixed number of database connections, each with its own cache of
+ * prepared statements, and lends them out to threads performing database work.  Threads requesting a connection when
+ * all are in use wait until one is returned.
+ *
+ * @author Caleb Brinkman
+ */
+public class ConnectionPool
+{
+    private static final Logger LOGGER = Logger.getLogger(ConnectionPool.class.getName());
+    /** The connections not currently in use. */
+    private final BlockingQueue<PooledConnection> idleConnections;
+    /** All connections owned by this pool. */
+    private final List<PooledConnection> connections;
+    /** Used to replace connections which have been closed; null if connections cannot be replaced. */
+    private final ConnectionFactory connectionFactory;
+
+    /**
+     * Construct a new {@code ConnectionPool} which opens the given number of connections using the given factory.
+     *
+     * @param connectionFactory The factory used to open connections.
+     * @param size The number of connections in the pool.
+     *
+     * @throws SQLException If any of the connections could not be opened.
+     */
+    public ConnectionPool(ConnectionFactory connectionFactory, int size) throws SQLException {
+        this.connectionFactory = connectionFactory;
+        idleConnections = new ArrayBlockingQueue<>(size);
+        connections = new ArrayList<>(size);
+        for (int i = 0; i < size; i++)
+        {
+            PooledConnection connection = new PooledConnection(connectionFactory.createConnection());
+            connections.add(connection);
+            idleConnections.add(connection);
+        }
+    }
+
+    /**
+     * Construct a new {@code ConnectionPool} containing only the given connection.
+     *
+     * @param connection The connection to be lent out by this pool.
+     */
+    public ConnectionPool(Connection connection) {
+        connectionFactory = null;
+        idleConnections = new ArrayBlockingQueue<>(1);
+        connections = new ArrayList<>(1);
+        PooledConnection pooledConnection = new PooledConnection(connection);
+        connections.add(pooledConnection);
+        idleConnections.add(pooledConnection);
+    }
+
+    /**
+     * Borrow a connection from this pool, perform the given work with it, and return it to the pool.
+     *
+     * @param function The work to perform.
+     * @param <T> The type of the result of the work.
+     *
+     * @return The result of the work.
+     *
+     * @throws SQLException If there is a SQL error, or the thread is interrupted while waiting for a connection.
+     */
+    public <T> T execute(SqlFunction<T> function) throws SQLException {
+        PooledConnection connection = borrowConnection();
+        try
+        {
+            return function.apply(connection);
+        } finally
+        {
+            returnConnection(connection);
+        }
+    }
+
+    private PooledConnection borrowConnection() throws SQLException {
+        try
+        {
+            return idleConnections.take();
+        } catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection.", e);
+        }
+    }
+
+    private void returnConnection(PooledConnection connection) {
+        PooledConnection returned = connection;
+        if (!connection.isUsable() && connectionFactory != null)
+        {
+            returned = replaceConnection(connection);
+        }
+        idleConnections.add(returned);
+    }
+
+    private PooledConnection replaceConnection(PooledConnection connection) {
+        try
+        {
+            PooledConnection replacement = new PooledConnection(connectionFactory.createConnection());
+            synchronized (connections)
+            {
+                connections.set(connections.indexOf(connection), replacement);
+            }
+            connection.close();
+            return replacement;
+        } catch (SQLException e)
+        {
+            LOGGER.log(Level.WARNING, "Unable to replace closed database connection.", e);
+            return connection;
+        }
+    }
+
+    /**
+     * Get the number of connections owned by this pool.
+     *
+     * @return The number of connections owned by this pool.
+     */
+    public int getSize() { return connections.size(); }
+
+    /**
+     * Get the number of connections not currently in use.
+     *
+     * @return The number of connections not currently in use.
+     */
+    public int getIdleCount() { return idleConnections.size(); }
+
+    /**
+     * Close all connections owned by this pool, along with their cached statements.
+     */
+    public void close() {
+        synchronized (connections)
+        {
+            connections.forEach(PooledConnection::close);
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.jenjinstudios.server.sql;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A database connection owned by a {@code ConnectionPool}, along with a cache of the statements that have been
+ * prepared on it.  A {@code PooledConnection} is only ever used by one thread at a time, so its cached statements can
+ * be reused without any locking.
+ *
+ * @author Caleb Brinkman
+ */
+public class PooledConnection
+{
+    private static final Logger LOGGER = Logger.getLogger(PooledConnection.class.getName());
+    /** The connection to the database. */
+    private final Connection connection;
+    /** The statements prepared on this connection, keyed by their SQL. */
+    private final Map<String, PreparedStatement> statementCache = new HashMap<>();
+
+    /**
+     * Construct a new {@code PooledConnection} wrapping the given connection.
+     *
+     * @param connection The connection to the database.
+     */
+    PooledConnection(Connection connection) { this.connection = connection; }
+
+    /**
+     * Get a prepared statement for the given SQL, preparing and caching it if this is the first time it has been
+     * requested on this connection.  Any parameters set by a previous user of the statement are cleared.
+     * <p>
+     * The returned statement is owned by this connection and must not be closed by the caller.
+     *
+     * @param sql The SQL of the statement.
+     *
+     * @return The prepared statement.
+     *
+     * @throws SQLException If the statement could not be prepared.
+     */
+    public PreparedStatement prepareStatement(String sql) throws SQLException {
+        PreparedStatement statement = statementCache.get(sql);
+        if (statement == null || statement.isClosed())
+        {
+            statement = connection.prepareStatement(sql);
+            statementCache.put(sql, statement);
+        } else
+        {
+            statement.clearParameters();
+        }
+        return statement;
+    }
+
+    /**
+     * Get the underlying connection to the database.
+     *
+     * @return The underlying connection to the database.
+     */
+    public Connection getConnection() { return connection; }
+
+    /**
+     * Get the number of statements cached by this connection.
+     *
+     * @return The number of statements cached by this connection.
+     */
+    public int getCachedStatementCount() { return statementCache.size(); }
+
+    /**
+     * Close all cached statements.
+     */
+    void clearStatementCache() {
+        for (PreparedStatement statement : statementCache.values())
+        {
+            try
+            {
+                statement.close();
+            } catch (SQLException e)
+            {
+                LOGGER.log(Level.FINE, "Unable to close cached statement.", e);
+            }
+        }
+        statementCache.clear();
+    }
+
+    /**
+     * Close all cached statements and the underlying connection.
+     */
+    void close() {
+        clearStatementCache();
+        try
+        {
+            connection.close();
+        } catch (SQLException e)
+        {
+            LOGGER.log(Level.FINE, "Unable to close pooled connection.", e);
+        }
+    }
+
+    /**
+     * Determine whether the underlying connection is still usable.
+     *
+     * @return Whether the underlying connection is still usable.
+     */
+    boolean isUsable() {
+        try
+        {
+            return !connection.isClosed();
+        } catch (SQLException e)
+        {
+            return false;
+        }
+    }
+}
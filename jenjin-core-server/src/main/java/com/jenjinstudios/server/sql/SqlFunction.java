@@ -0,0 +1,25 @@
+package com.jenjinstudios.server.sql;
+
+import java.sql.SQLException;
+
+/**
+ * A unit of database work performed with a connection borrowed from a {@code ConnectionPool}.
+ *
+ * @param <T> The type of the result produced by the work.
+ *
+ * @author Caleb Brinkman
+ */
+@FunctionalInterface
+public interface SqlFunction<T>
+{
+    /**
+     * Perform the database work.
+     *
+     * @param connection The connection borrowed from the pool; it must not be used after this method returns.
+     *
+     * @return The result of the work.
+     *
+     * @throws SQLException If there is a SQL error.
+     */
+    T apply(PooledConnection connection) throws SQLException;
+}
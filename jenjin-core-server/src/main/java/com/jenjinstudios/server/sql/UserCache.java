@@ -0,0 +1,236 @@
+package com.jenjinstudios.server.sql;
+
+import com.jenjinstudios.server.net.User;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The {@code UserCache} class stores users and their properties in memory, so that an {@code Authenticator} does not
+ * have to query the database each time a user logs in or out.  Entries are evicted when they have not been accessed for
+ * longer than the time-to-live, or when the cache is full and they are the least recently used.
+ * <p>
+ * The cache is kept up to date by the {@code Authenticator} that owns it, and assumes that no other process modifies
+ * the rows of users who are cached; the time-to-live bounds how stale an entry can become if one does.
+ *
+ * @author Caleb Brinkman
+ */
+public class UserCache
+{
+    /** The default maximum number of users stored in the cache. */
+    public static final int DEFAULT_CAPACITY = 1024;
+    /** The default number of milliseconds an entry may go unused before it is evicted. */
+    public static final long DEFAULT_TTL = TimeUnit.MINUTES.toMillis(5);
+    private final int capacity;
+    private final long ttlNanos;
+    private final LruMap entries;
+    private long hits;
+    private long misses;
+    /** The number of entries evicted because they expired. */
+    private long expirations;
+
+    /**
+     * Construct a new {@code UserCache} with the default capacity and time-to-live.
+     */
+    public UserCache() { this(DEFAULT_CAPACITY, DEFAULT_TTL); }
+
+    /**
+     * Construct a new {@code UserCache}.
+     *
+     * @param capacity The maximum number of users stored in the cache; if zero, nothing is cached.
+     * @param ttl The number of milliseconds an entry may go unused before it is evicted.
+     */
+    public UserCache(int capacity, long ttl) {
+        this.capacity = capacity;
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttl);
+        entries = new LruMap(capacity);
+    }
+
+    /**
+     * Get a copy of the cached user with the given username.  The properties of the returned user are empty.
+     *
+     * @param username The username.
+     *
+     * @return A copy of the cached user, or null if the user is not cached.
+     */
+    public synchronized User getUser(String username) {
+        Entry entry = getEntry(username);
+        if (entry == null)
+        {
+            misses++;
+            return null;
+        }
+        hits++;
+        return entry.toUser();
+    }
+
+    /**
+     * Get a copy of the cached properties of the user with the given username.
+     *
+     * @param username The username.
+     *
+     * @return A copy of the cached properties, or null if the properties are not cached.
+     */
+    public synchronized Map<String, Object> getProperties(String username) {
+        Entry entry = getEntry(username);
+        if (entry == null || entry.properties == null)
+        {
+            misses++;
+            return null;
+        }
+        hits++;
+        return new HashMap<>(entry.properties);
+    }
+
+    /**
+     * Store the given user in the cache, replacing any cached information other than properties.
+     *
+     * @param user The user.
+     */
+    public synchronized void putUser(User user) {
+        if (capacity <= 0) { return; }
+        Entry entry = getEntry(user.getUsername());
+        Map<String, Object> properties = entry != null ? entry.properties : null;
+        entries.put(user.getUsername(), new Entry(user, properties, System.nanoTime()));
+    }
+
+    /**
+     * Store the given properties in the cache.  If the user with the given username is not cached, this method has no
+     * effect.
+     *
+     * @param username The username.
+     * @param properties The properties of the user.
+     */
+    public synchronized void putProperties(String username, Map<String, Object> properties) {
+        Entry entry = getEntry(username);
+        if (entry != null) { entry.properties = new HashMap<>(properties); }
+    }
+
+    /**
+     * Remove the cached properties of the user with the given username, so that they are read from the database the
+     * next time they are requested.
+     *
+     * @param username The username.
+     */
+    public synchronized void invalidateProperties(String username) {
+        Entry entry = entries.get(username);
+        if (entry != null) { entry.properties = null; }
+    }
+
+    /**
+     * Update the logged in status of the cached user with the given username.  If the user is not cached, this method
+     * has no effect.
+     *
+     * @param username The username.
+     * @param loggedIn Whether the user is logged in.
+     */
+    public synchronized void setLoggedIn(String username, boolean loggedIn) {
+        Entry entry = getEntry(username);
+        if (entry != null) { entry.loggedIn = loggedIn; }
+    }
+
+    /**
+     * Remove the user with the given username from the cache.
+     *
+     * @param username The username.
+     */
+    public synchronized void invalidate(String username) { entries.remove(username); }
+
+    /**
+     * Get the number of lookups which were served from the cache.
+     *
+     * @return The number of cache hits.
+     */
+    public synchronized long getHitCount() { return hits; }
+
+    /**
+     * Get the number of lookups which could not be served from the cache.
+     *
+     * @return The number of cache misses.
+     */
+    public synchronized long getMissCount() { return misses; }
+
+    /**
+     * Get the number of entries which have been evicted because they expired or the cache was full.
+     *
+     * @return The number of evictions.
+     */
+    public synchronized long getEvictionCount() { return expirations + entries.evictions; }
+
+    /**
+     * Get the number of users currently stored in the cache.
+     *
+     * @return The number of users currently stored in the cache.
+     */
+    public synchronized int size() { return entries.size(); }
+
+    private Entry getEntry(String username) {
+        Entry entry = entries.get(username);
+        long now = System.nanoTime();
+        if (entry != null && now - entry.lastAccess > ttlNanos)
+        {
+            entries.remove(username);
+            expirations++;
+            return null;
+        }
+        if (entry != null) { entry.lastAccess = now; }
+        return entry;
+    }
+
+    /**
+     * A map in least-recently-accessed order which evicts its eldest entry once it holds more than a given number of
+     * entries.
+     */
+    private static class LruMap extends LinkedHashMap<String, Entry>
+    {
+        private static final long serialVersionUID = 1L;
+        private final int capacity;
+        /** The number of entries evicted because the map was full. */
+        private long evictions;
+
+        LruMap(int capacity) {
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+            boolean evict = size() > capacity;
+            if (evict) { evictions++; }
+            return evict;
+        }
+    }
+
+    /**
+     * The cached information about a single user.
+     */
+    private static class Entry
+    {
+        private final String username;
+        private final String password;
+        private final String salt;
+        private boolean loggedIn;
+        private Map<String, Object> properties;
+        private long lastAccess;
+
+        Entry(User user, Map<String, Object> properties, long lastAccess) {
+            this.username = user.getUsername();
+            this.password = user.getPassword();
+            this.salt = user.getSalt();
+            this.loggedIn = user.isLoggedIn();
+            this.properties = properties;
+            this.lastAccess = lastAccess;
+        }
+
+        User toUser() {
+            User user = new User();
+            user.setUsername(username);
+            user.setPassword(password);
+            user.setSalt(salt);
+            user.setLoggedIn(loggedIn);
+            return user;
+        }
+    }
+}
@@ -6,12 +6,19 @@ import com.jenjinstudios.core.io.MessageRegistry;
 import com.jenjinstudios.server.net.AuthServer;
 import com.jenjinstudios.server.net.ClientHandler;
 import com.jenjinstudios.server.net.User;
+import com.jenjinstudios.server.sql.AuthenticationExecutor;
 import com.jenjinstudios.server.sql.Authenticator;
 import com.jenjinstudios.server.sql.LoginException;
 import org.mockito.Mockito;
+import org.testng.Assert;
 import org.testng.annotations.Test;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+
+import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
@@ -38,7 +45,8 @@ public class ExecutableLoginRequestTest
 		MessageIO messageIO = mock(MessageIO.class);
 		when(server.getAuthenticator()).thenReturn(authenticator);
 		when(server.getCycleStartTime()).thenReturn(12345l);
-		when(authenticator.logInUser("foo", "bar")).thenReturn(user);
+		when(authenticator.logInUserAsync("foo", "bar")).thenReturn(CompletableFuture.completedFuture(user));
+		runSyncedTasksImmediately(server);
 		when(clientHandler.getServer()).thenReturn(server);
 		when(clientHandler.getMessageFactory()).thenReturn(serverMessageFactory);
 		when(clientHandler.getMessageIO()).thenReturn(messageIO);
@@ -68,8 +76,11 @@ public class ExecutableLoginRequestTest
 		MessageIO messageIO = mock(MessageIO.class);
 		when(server.getAuthenticator()).thenReturn(authenticator);
 		when(server.getCycleStartTime()).thenReturn(12345l);
-		when(authenticator.logInUser("foo", "bar")).thenReturn(user);
-		when(authenticator.logInUser("foo-dapoo", "bar")).thenThrow(new LoginException("Nope"));
+		CompletableFuture<User> failedLogin = new CompletableFuture<>();
+		failedLogin.completeExceptionally(new LoginException("Nope"));
+		when(authenticator.logInUserAsync("foo", "bar")).thenReturn(CompletableFuture.completedFuture(user));
+		when(authenticator.logInUserAsync("foo-dapoo", "bar")).thenReturn(failedLogin);
+		runSyncedTasksImmediately(server);
 		when(clientHandler.getServer()).thenReturn(server);
 		when(clientHandler.getMessageFactory()).thenReturn(serverMessageFactory);
 		when(clientHandler.getMessageIO()).thenReturn(messageIO);
@@ -80,4 +91,85 @@ public class ExecutableLoginRequestTest
 
 		Mockito.verify(clientHandler, Mockito.never()).setLoggedInTime(anyLong());
 	}
+
+	@Test
+	public void testLoginAfterDisconnect() throws Exception {
+		Message message = MessageRegistry.getInstance().createMessage("LoginRequest");
+		message.setArgument("username", "foo");
+		message.setArgument("password", "bar");
+
+		User user = new User();
+		user.setUsername("foo");
+		user.setLoggedIn(true);
+		ClientHandler clientHandler = mock(ClientHandler.class);
+		AuthServer server = mock(AuthServer.class);
+		Authenticator authenticator = mock(Authenticator.class);
+		MessageIO messageIO = mock(MessageIO.class);
+		when(server.getAuthenticator()).thenReturn(authenticator);
+		when(authenticator.logInUserAsync("foo", "bar")).thenReturn(CompletableFuture.completedFuture(user));
+		when(authenticator.logOutUserAsync("foo")).thenReturn(CompletableFuture.completedFuture(user));
+		runSyncedTasksImmediately(server);
+		when(clientHandler.getServer()).thenReturn(server);
+		when(clientHandler.getMessageIO()).thenReturn(messageIO);
+		when(clientHandler.isShutDown()).thenReturn(true);
+
+		ExecutableLoginRequest executableLoginRequest = new ExecutableLoginRequest(clientHandler, message);
+		executableLoginRequest.runImmediate();
+		executableLoginRequest.runDelayed();
+
+		Mockito.verify(authenticator).logOutUserAsync("foo");
+		Mockito.verify(clientHandler, Mockito.never()).setUser(any(User.class));
+		Mockito.verify(messageIO, Mockito.never()).queueOutgoingMessage(any(Message.class));
+	}
+
+	@Test
+	public void testRejectedLogin() throws Exception {
+		Message message = MessageRegistry.getInstance().createMessage("LoginRequest");
+		message.setArgument("username", "foo");
+		message.setArgument("password", "bar");
+
+		ClientHandler clientHandler = mock(ClientHandler.class);
+		AuthServer server = mock(AuthServer.class);
+		ServerMessageFactory serverMessageFactory = new ServerMessageFactory();
+		AuthenticationExecutor executor = new AuthenticationExecutor(1, 1);
+		Authenticator authenticator = mock(Authenticator.class);
+		MessageIO messageIO = mock(MessageIO.class);
+		CountDownLatch latch = new CountDownLatch(1);
+		executor.submit(() -> awaitLatch(latch));
+		executor.submit(() -> awaitLatch(latch));
+		when(authenticator.logInUserAsync("foo", "bar")).thenReturn(executor.submit(() -> null));
+		when(server.getAuthenticator()).thenReturn(authenticator);
+		runSyncedTasksImmediately(server);
+		when(clientHandler.getServer()).thenReturn(server);
+		when(clientHandler.getMessageFactory()).thenReturn(serverMessageFactory);
+		when(clientHandler.getMessageIO()).thenReturn(messageIO);
+
+		ExecutableLoginRequest executableLoginRequest = new ExecutableLoginRequest(clientHandler, message);
+		executableLoginRequest.runImmediate();
+		executableLoginRequest.runDelayed();
+		latch.countDown();
+		executor.shutdown();
+
+		Assert.assertEquals(executor.getRejectedCount(), 1);
+		Mockito.verify(clientHandler, Mockito.never()).setLoggedInTime(anyLong());
+		Mockito.verify(messageIO).queueOutgoingMessage(Mockito.any());
+	}
+
+	private static Object awaitLatch(CountDownLatch latch) throws LoginException {
+		try
+		{
+			latch.await();
+		} catch (InterruptedException e)
+		{
+			throw new LoginException("Interrupted");
+		}
+		return null;
+	}
+
+	private static void runSyncedTasksImmediately(AuthServer server) {
+		doAnswer(invocation -> {
+			((Runnable) invocation.getArguments()[0]).run();
+			return null;
+		}).when(server).addSyncedTask(any(Runnable.class));
+	}
 }
@@ -0,0 +1,70 @@
+package com.jenjinstudios.server.sql;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * @author Caleb Brinkman
+ */
+public class AuthenticationExecutorTest
+{
+	@Test
+	public void testSubmit() throws Exception {
+		AuthenticationExecutor executor = new AuthenticationExecutor();
+		CompletableFuture<String> future = executor.submit(() -> "Foo");
+
+		Assert.assertEquals(future.get(), "Foo");
+		Assert.assertEquals(executor.getCompletedCount(), 1);
+		executor.shutdown();
+	}
+
+	@Test(expectedExceptions = ExecutionException.class)
+	public void testFailedTask() throws Exception {
+		AuthenticationExecutor executor = new AuthenticationExecutor();
+		CompletableFuture<String> future = executor.submit(() -> { throw new LoginException("Nope"); });
+		executor.shutdown();
+		future.get();
+	}
+
+	@Test(expectedExceptions = ExecutionException.class)
+	public void testTaskThrowingError() throws Exception {
+		AuthenticationExecutor executor = new AuthenticationExecutor();
+		CompletableFuture<String> future = executor.submit(() -> { throw new AssertionError("Nope"); });
+		executor.shutdown();
+		future.get();
+	}
+
+	@Test
+	public void testQueueFull() throws Exception {
+		AuthenticationExecutor executor = new AuthenticationExecutor(1, 1);
+		CountDownLatch latch = new CountDownLatch(1);
+		CompletableFuture<Object> running = executor.submit(() -> awaitLatch(latch));
+		CompletableFuture<Object> queued = executor.submit(() -> awaitLatch(latch));
+		CompletableFuture<Object> rejected = executor.submit(() -> awaitLatch(latch));
+
+		Assert.assertTrue(rejected.isCompletedExceptionally());
+		Assert.assertEquals(executor.getQueueDepth(), 1);
+		Assert.assertEquals(executor.getRejectedCount(), 1);
+
+		latch.countDown();
+		running.get();
+		queued.get();
+		Assert.assertEquals(executor.getCompletedCount(), 2);
+		executor.shutdown();
+	}
+
+	private static Object awaitLatch(CountDownLatch latch) throws LoginException {
+		try
+		{
+			latch.await();
+		} catch (InterruptedException e)
+		{
+			throw new LoginException("Interrupted");
+		}
+		return null;
+	}
+}
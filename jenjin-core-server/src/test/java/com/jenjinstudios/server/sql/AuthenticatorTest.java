@@ -8,8 +8,14 @@ import org.testng.annotations.Test;
 
 import java.sql.Connection;
 import java.sql.DriverManager;
+import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 
 /**
  * @author Caleb Brinkman
@@ -18,6 +24,7 @@ public class AuthenticatorTest
 {
 	private static int connectionNumber = 0;
 	private static Connection connection;
+	private static String connectionUrl;
 
 	/**
 	 * Create a unique connection with some dummy data that we can test on.
@@ -26,7 +33,7 @@ public class AuthenticatorTest
 	 */
 	private static Connection createTestConnection() throws Exception {
 		Class.forName("org.h2.Driver");
-		String connectionUrl = "jdbc:h2:mem:jenjin_test" + connectionNumber;
+		connectionUrl = "jdbc:h2:mem:jenjin_test" + connectionNumber;
 		Connection testConnection = DriverManager.getConnection(connectionUrl, "sa", "");
 		Statement statement = testConnection.createStatement();
 		statement.executeUpdate("CREATE TABLE jenjin_users (" +
@@ -95,6 +102,52 @@ public class AuthenticatorTest
 
 	}
 
+	@Test
+	public void testLogInUserAsync() throws Exception {
+		Authenticator connector = new Authenticator(connection);
+		String username = "TestAccount6";
+		String password = "testPassword";
+		User loggedIn = connector.logInUserAsync(username, password).get();
+		Assert.assertTrue(loggedIn.isLoggedIn());
+		Assert.assertTrue(connector.lookUpUser(username).isLoggedIn());
+		Assert.assertEquals(connector.getAuthenticationExecutor().getCompletedCount(), 1);
+	}
+
+	@Test(expectedExceptions = ExecutionException.class)
+	public void testInvalidPasswordAsync() throws Exception {
+		Authenticator connector = new Authenticator(connection);
+		connector.logInUserAsync("TestAccount7", "incorrectPassword").get();
+	}
+
+	@Test
+	public void testPooledLogins() throws Exception {
+		ConnectionPool pool = new ConnectionPool(() -> DriverManager.getConnection(connectionUrl, "sa", ""), 4);
+		Authenticator authenticator = new Authenticator(pool, new AuthenticationExecutor(4, 16));
+		List<CompletableFuture<User>> logins = new LinkedList<>();
+		for (int i = 8; i < 10; i++)
+		{
+			// Two simultaneous logins per account; only one of each may succeed.
+			logins.add(authenticator.logInUserAsync("TestAccount" + i, "testPassword"));
+			logins.add(authenticator.logInUserAsync("TestAccount" + i, "testPassword"));
+		}
+		int successful = 0;
+		for (CompletableFuture<User> login : logins)
+		{
+			try
+			{
+				login.get();
+				successful++;
+			} catch (ExecutionException ignored)
+			{
+			}
+		}
+		Assert.assertEquals(successful, 2);
+		Assert.assertTrue(authenticator.lookUpUser("TestAccount8").isLoggedIn());
+		Assert.assertTrue(authenticator.lookUpUser("TestAccount9").isLoggedIn());
+		Assert.assertEquals(pool.getIdleCount(), 4);
+		pool.close();
+	}
+
 	@Test(expectedExceptions = LoginException.class)
 	public void testConcurrentLogins() throws Exception {
 		Authenticator connector = new Authenticator(connection);
@@ -135,6 +188,21 @@ public class AuthenticatorTest
 		Assert.assertEquals(properties.get("Foo"), "Bar");
 	}
 
+	@Test
+	public void testCachedLogInAndOut() throws Exception {
+		Authenticator authenticator = new Authenticator(connection);
+		String username = "TestAccount1";
+		authenticator.logInUser(username, "testPassword");
+		authenticator.lookUpUserProperties(username);
+		authenticator.lookUpUserProperties(username);
+		authenticator.logOutUser(username);
+
+		UserCache userCache = authenticator.getUserCache();
+		Assert.assertEquals(userCache.getHitCount(), 2);
+		Assert.assertFalse(authenticator.lookUpUser(username).isLoggedIn());
+		Assert.assertFalse(new Authenticator(connection).lookUpUser(username).isLoggedIn());
+	}
+
 	@Test
 	public void testLookUpUserProperty() throws Exception {
 		Authenticator authenticator = new Authenticator(connection);
@@ -164,4 +232,39 @@ public class AuthenticatorTest
 		Object o = authenticator.lookUpUserProperty("TestAccount1", "Foo");
 		Assert.assertEquals(o, "Hotey");
 	}
+
+	@Test
+	public void testBulkUpdateProperties() throws Exception {
+		Authenticator authenticator = new Authenticator(connection);
+		User first = authenticator.lookUpUser("TestAccount2");
+		User second = authenticator.lookUpUser("TestAccount3");
+		first.getProperties().put("Bulk", "First");
+		second.getProperties().put("Bulk", "Second");
+		second.getProperties().put("Foo", "Baz");
+		authenticator.updateUserProperties(Arrays.asList(first, second));
+
+		Assert.assertEquals(authenticator.lookUpUserProperty("TestAccount2", "Bulk"), "First");
+		Assert.assertEquals(authenticator.lookUpUserProperty("TestAccount3", "Bulk"), "Second");
+		Assert.assertEquals(authenticator.lookUpUserProperty("TestAccount3", "Foo"), "Baz");
+	}
+
+	@Test
+	public void testFailedBulkUpdateRollsBack() throws Exception {
+		Authenticator authenticator = new Authenticator(connection);
+		User first = authenticator.lookUpUser("TestAccount4");
+		User second = authenticator.lookUpUser("TestAccount5");
+		first.getProperties().put("Rollback", "First");
+		// Longer than the propertyValue column allows.
+		second.getProperties().put("Rollback", "This value is far too long to fit in the property value column, so " +
+			  "the batch will fail.");
+		try
+		{
+			authenticator.updateUserProperties(Arrays.asList(first, second));
+			Assert.fail("Expected SQLException");
+		} catch (SQLException ignored)
+		{
+		}
+
+		Assert.assertNull(authenticator.lookUpUserProperty("TestAccount4", "Rollback"));
+	}
 }
@@ -0,0 +1,63 @@
+package com.jenjinstudios.server.sql;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+
+/**
+ * @author Caleb Brinkman
+ */
+public class ConnectionPoolTest
+{
+	private static final String CONNECTION_URL = "jdbc:h2:mem:jenjin_pool_test";
+
+	@Test
+	public void testStatementCache() throws Exception {
+		Class.forName("org.h2.Driver");
+		ConnectionPool pool = new ConnectionPool(DriverManager.getConnection(CONNECTION_URL, "sa", ""));
+		PreparedStatement first = pool.execute(connection -> connection.prepareStatement("SELECT 1"));
+		PreparedStatement second = pool.execute(connection -> connection.prepareStatement("SELECT 1"));
+		int cached = pool.execute(PooledConnection::getCachedStatementCount);
+
+		Assert.assertSame(first, second);
+		Assert.assertEquals(cached, 1);
+		pool.close();
+	}
+
+	@Test
+	public void testExecute() throws Exception {
+		Class.forName("org.h2.Driver");
+		ConnectionPool pool = new ConnectionPool(() -> DriverManager.getConnection(CONNECTION_URL, "sa", ""), 2);
+		int result = pool.execute(connection -> {
+			Assert.assertEquals(pool.getIdleCount(), 1);
+			try (ResultSet results = connection.prepareStatement("SELECT 42").executeQuery())
+			{
+				results.next();
+				return results.getInt(1);
+			}
+		});
+
+		Assert.assertEquals(result, 42);
+		Assert.assertEquals(pool.getIdleCount(), 2);
+		pool.close();
+	}
+
+	@Test
+	public void testReplaceClosedConnection() throws Exception {
+		Class.forName("org.h2.Driver");
+		ConnectionPool pool = new ConnectionPool(() -> DriverManager.getConnection(CONNECTION_URL, "sa", ""), 1);
+		Connection closed = pool.execute(connection -> {
+			connection.getConnection().close();
+			return connection.getConnection();
+		});
+		Connection replacement = pool.execute(PooledConnection::getConnection);
+
+		Assert.assertNotSame(closed, replacement);
+		Assert.assertFalse(replacement.isClosed());
+		pool.close();
+	}
+}
@@ -0,0 +1,90 @@
+package com.jenjinstudios.server.sql;
+
+import com.jenjinstudios.server.net.User;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * @author Caleb Brinkman
+ */
+public class UserCacheTest
+{
+	@Test
+	public void testGetUser() {
+		UserCache userCache = new UserCache();
+		userCache.putUser(createUser("Foo"));
+		User cached = userCache.getUser("Foo");
+
+		Assert.assertEquals(cached.getUsername(), "Foo");
+		Assert.assertEquals(cached.getSalt(), "salt");
+		Assert.assertNull(userCache.getUser("Bar"));
+		Assert.assertEquals(userCache.getHitCount(), 1);
+		Assert.assertEquals(userCache.getMissCount(), 1);
+	}
+
+	@Test
+	public void testGetProperties() {
+		UserCache userCache = new UserCache();
+		Map<String, Object> properties = new HashMap<>();
+		properties.put("Foo", "Bar");
+		userCache.putProperties("Foo", properties);
+		Assert.assertNull(userCache.getProperties("Foo"));
+
+		userCache.putUser(createUser("Foo"));
+		userCache.putProperties("Foo", properties);
+		properties.put("Foo", "Baz");
+		Assert.assertEquals(userCache.getProperties("Foo").get("Foo"), "Bar");
+	}
+
+	@Test
+	public void testSetLoggedIn() {
+		UserCache userCache = new UserCache();
+		userCache.putUser(createUser("Foo"));
+		userCache.setLoggedIn("Foo", true);
+
+		Assert.assertTrue(userCache.getUser("Foo").isLoggedIn());
+	}
+
+	@Test
+	public void testLeastRecentlyUsedEviction() {
+		UserCache userCache = new UserCache(2, UserCache.DEFAULT_TTL);
+		userCache.putUser(createUser("Foo"));
+		userCache.putUser(createUser("Bar"));
+		userCache.getUser("Foo");
+		userCache.putUser(createUser("Baz"));
+
+		Assert.assertNotNull(userCache.getUser("Foo"));
+		Assert.assertNull(userCache.getUser("Bar"));
+		Assert.assertEquals(userCache.size(), 2);
+		Assert.assertEquals(userCache.getEvictionCount(), 1);
+	}
+
+	@Test
+	public void testExpiredEviction() throws Exception {
+		UserCache userCache = new UserCache(2, 1);
+		userCache.putUser(createUser("Foo"));
+		Thread.sleep(10);
+
+		Assert.assertNull(userCache.getUser("Foo"));
+		Assert.assertEquals(userCache.getEvictionCount(), 1);
+	}
+
+	@Test
+	public void testDisabled() {
+		UserCache userCache = new UserCache(0, UserCache.DEFAULT_TTL);
+		userCache.putUser(createUser("Foo"));
+
+		Assert.assertNull(userCache.getUser("Foo"));
+	}
+
+	private static User createUser(String username) {
+		User user = new User();
+		user.setUsername(username);
+		user.setPassword("password");
+		user.setSalt("salt");
+		return user;
+	}
+}
@@ -19,7 +19,7 @@ public class Bullet extends Actor
 
 	public Bullet(Actor actorFiring) {
 		super("Bullet");
-		getProperties().put(Collision.SIZE_PROPERTY, 1.0);
+		setDouble(Collision.SIZE, 1.0);
 		setVector2D(actorFiring.getVector2D());
 		double targetAngle = actorFiring.getAngle().getAbsoluteAngle();
 		setAngle(new Angle(targetAngle, FRONT));
@@ -40,9 +40,12 @@ public class Bullet extends Actor
 					{
 						idle = idle.reverseAbsoluteAngle();
 					}
-					long forceTime = collided.getWorld().getLastUpdateCompleted();
-					actor.setVector2D(Vector2D.ORIGIN);
-					actor.setForcedState(new MoveState(idle, Vector2D.ORIGIN, forceTime));
+					MoveState forcedState = new MoveState(idle, Vector2D.ORIGIN,
+						  collided.getWorld().getClock().getTimeMillis());
+					getWorld().runLater(() -> {
+						actor.setVector2D(Vector2D.ORIGIN);
+						actor.setForcedState(forcedState);
+					});
 					getWorld().getWorldObjects().remove(Bullet.this);
 				}
 			}
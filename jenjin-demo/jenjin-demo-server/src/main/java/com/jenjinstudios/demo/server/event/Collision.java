@@ -1,6 +1,7 @@
 package com.jenjinstudios.demo.server.event;
 
 import com.jenjinstudios.world.Location;
+import com.jenjinstudios.world.PropertyKey;
 import com.jenjinstudios.world.WorldObject;
 import com.jenjinstudios.world.event.PostUpdateEvent;
 import com.jenjinstudios.world.math.Vector2D;
@@ -17,13 +18,23 @@ public abstract class Collision implements PostUpdateEvent
 	public static final String SIZE_PROPERTY = "ObjectSize";
 	public static final double DEFAULT_OBJECT_SIZE = Location.SIZE;
 	private static final Logger LOGGER = Logger.getLogger(Collision.class.getName());
+	/** The largest object size checked for collisions; objects larger than this may be missed. */
+	public static final double MAX_OBJECT_SIZE = Location.SIZE * 2;
+	/** The width and height of an object, if it differs from the default. */
+	public static final PropertyKey<Double> SIZE = PropertyKey.of(SIZE_PROPERTY, Double.class, DEFAULT_OBJECT_SIZE);
 	private final WorldObject worldObject;
 
 	public Collision(WorldObject worldObject) { this.worldObject = worldObject; }
 
 	@Override
 	public void onPostUpdate() {
-		worldObject.getWorld().getWorldObjects().stream().filter(this::checkForCollision).forEach(this::onCollision);
+		double range = calculateCollisionRad(worldObject) + MAX_OBJECT_SIZE / 2;
+		Vector2D vector2D = worldObject.getVector2D();
+		double x = vector2D.getXCoordinate();
+		double y = vector2D.getYCoordinate();
+		worldObject.getWorld().queryRect(worldObject.getZoneID(), x - range, y - range, x + range, y + range).stream().
+			  filter(this::checkForCollision).
+			  forEach(this::onCollision);
 	}
 
 	private boolean checkForCollision(WorldObject collider) {
@@ -58,15 +69,12 @@ public abstract class Collision implements PostUpdateEvent
 	}
 
 	protected double calculateCollisionRad(WorldObject collider) {
-		Object o = collider.getProperties().get(SIZE_PROPERTY);
-		try
-		{
-			return (o != null ? (double) o : DEFAULT_OBJECT_SIZE) / 2;
-		} catch (ClassCastException ex)
+		if (!collider.hasProperty(SIZE) && collider.getProperties().containsKey(SIZE_PROPERTY))
 		{
+			Object o = collider.getProperties().get(SIZE_PROPERTY);
 			LOGGER.log(Level.WARNING, "Object size not instance of double: {0}, {1}", new Object[]{collider, o});
-			return DEFAULT_OBJECT_SIZE / 2;
 		}
+		return collider.getDouble(SIZE) / 2;
 	}
 
 	public abstract void onCollision(WorldObject collided);
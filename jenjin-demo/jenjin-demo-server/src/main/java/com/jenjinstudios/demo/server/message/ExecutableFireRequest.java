@@ -5,7 +5,6 @@ import com.jenjinstudios.demo.server.Bullet;
 import com.jenjinstudios.world.Actor;
 import com.jenjinstudios.world.World;
 import com.jenjinstudios.world.server.WorldClientHandler;
-import com.jenjinstudios.world.server.WorldServer;
 import com.jenjinstudios.world.server.message.WorldExecutableMessage;
 
 /**
@@ -25,7 +24,7 @@ public class ExecutableFireRequest extends WorldExecutableMessage
 	/** Run the synced portion of this message. */
 	@Override
 	public void runDelayed() {
-		World world = ((WorldServer) getClientHandler().getServer()).getWorld();
+		World world = getClientHandler().getServer().getWorld();
 		Actor player = getClientHandler().getPlayer();
 		Bullet bullet = new Bullet(player);
 		world.getWorldObjects().add(bullet);
@@ -30,7 +30,7 @@ public class WorldClient extends AuthClient
         super(messageIO, clientUser);
         this.messageFactory = new WorldClientMessageFactory();
         serverWorldFileTracker = new ServerWorldFileTracker(this, worldFile);
-        world = serverWorldFileTracker.readWorldFromFile();
+        readWorldFile();
     }
 
     public WorldClientMessageFactory getMessageFactory() {return messageFactory; }
@@ -43,7 +43,15 @@ public class WorldClient extends AuthClient
 
     public World getWorld() { return world; }
 
-    public void readWorldFile() throws WorldDocumentException { world = serverWorldFileTracker.readWorldFromFile(); }
+    /**
+     * Read the world from the world file, timing its ticks at the rate this client updates.
+     *
+     * @throws WorldDocumentException If the world file could not be read.
+     */
+    public void readWorldFile() throws WorldDocumentException {
+        world = serverWorldFileTracker.readWorldFromFile();
+        if (world != null) { world.getClock().setTicksPerSecond(getUps()); }
+    }
 
     public void initializeWorldFromServer() throws WorldDocumentException {
         getServerWorldFileTracker().setWaitingForChecksum(true);
@@ -7,8 +7,6 @@ import com.jenjinstudios.world.client.message.WorldClientMessageFactory;
 import com.jenjinstudios.world.event.EventStack;
 import com.jenjinstudios.world.state.MoveState;
 
-import java.util.List;
-
 /**
  * Responsible for updating the world.
  *
@@ -40,11 +38,9 @@ public class WorldClientUpdater implements Runnable
 			if (eventStack != null && eventStack instanceof StateChangeStack)
 			{
 				StateChangeStack stateChangeStack = (StateChangeStack) eventStack;
-				List<MoveState> newStates = stateChangeStack.getStateChanges();
-				while (!newStates.isEmpty())
+				WorldClientMessageFactory messageFactory = worldClient.getMessageFactory();
+				for (MoveState moveState : stateChangeStack.getStateChanges())
 				{
-					MoveState moveState = newStates.remove(0);
-					WorldClientMessageFactory messageFactory = worldClient.getMessageFactory();
 					Message stateChangeRequest = messageFactory.generateStateChangeRequest(moveState);
 					worldClient.getMessageIO().queueOutgoingMessage(stateChangeRequest);
 				}
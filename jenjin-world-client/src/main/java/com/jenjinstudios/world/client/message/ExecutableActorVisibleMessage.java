@@ -57,10 +57,11 @@ public class ExecutableActorVisibleMessage extends WorldClientExecutableMessage
         newlyVisible = new Actor(name);
         newlyVisible.setId(id);
         newlyVisible.setResourceID(resourceID);
-        double dist = moveSpeed * ((double) (System.currentTimeMillis() - timeOfVisibility) / 1000d);
+        long timePast = getConnection().getWorld().getClock().currentTimeMillis() - timeOfVisibility;
+        double dist = moveSpeed * ((double) timePast / 1000d);
         Angle angle = new Angle(absoluteAngle, relativeAngle);
         Vector2D oldVector = new Vector2D(xCoordinate, yCoordinate);
-        Vector2D newVector = oldVector.getVectorInDirection(dist, angle.getStepAngle());
+        Vector2D newVector = oldVector.getVectorInDirection(dist, angle);
         newlyVisible.setVector2D(newVector);
         newlyVisible.setAngle(new Angle(absoluteAngle, relativeAngle));
         newlyVisible.setMoveSpeed(moveSpeed);
@@ -23,8 +23,9 @@ public class ExecutableForceStateMessage extends WorldClientExecutableMessage
     @Override
     public void runDelayed() {
         Actor player = getConnection().getPlayer();
-        double dist = ((player.getWorld().getLastUpdateCompleted() - timeOfForce) / 1000) * player.getMoveSpeed();
-        Vector2D corrected = vector2D.getVectorInDirection(dist, angle.getStepAngle());
+        long timePast = player.getWorld().getClock().getTimeMillis() - timeOfForce;
+        double dist = (timePast / 1000d) * player.getMoveSpeed();
+        Vector2D corrected = vector2D.getVectorInDirection(dist, angle);
         player.setVector2D(corrected);
         player.setAngle(angle);
 
@@ -36,8 +36,9 @@ public class ExecutableStateChangeMessage extends WorldClientExecutableMessage
         if (obj != null && obj instanceof Actor)
         {
             Actor actor = (Actor) obj;
-            double dist = actor.getMoveSpeed() * ((double) (System.currentTimeMillis() - time) / 1000d);
-            Vector2D position = oldVector.getVectorInDirection(dist, angle.getStepAngle());
+            long timePast = getConnection().getWorld().getClock().currentTimeMillis() - time;
+            double dist = actor.getMoveSpeed() * ((double) timePast / 1000d);
+            Vector2D position = oldVector.getVectorInDirection(dist, angle);
             actor.setAngle(angle);
             actor.setVector2D(position);
         }
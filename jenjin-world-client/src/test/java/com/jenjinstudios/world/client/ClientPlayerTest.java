@@ -50,25 +50,19 @@ public class ClientPlayerTest
 	}
 
 	@Test(timeOut = 5000)
-	public void testStep() throws InterruptedException {
+	public void testStep() {
 		World world = WorldUtils.createDefaultWorld();
 		Actor player = new Actor("ClientActor");
 		world.getWorldObjects().add(player);
 		world.update();
 		Angle angle = new Angle(0, Angle.FRONT);
 		player.setAngle(angle);
-		world.update();
-		long l = System.currentTimeMillis();
-		waitOneSecond();
-		l = System.currentTimeMillis() - l;
-		world.update();
+		int ticksPerSecond = (int) Math.round(1 / world.getClock().getDeltaSeconds());
+		for (int i = 0; i < ticksPerSecond; i++)
+		{
+			world.update();
+		}
 		double distance = Vector2D.ORIGIN.getDistanceToVector(player.getVector2D());
-		double expectedDistance = player.getMoveSpeed() * ((double) l / 1000);
-		Assert.assertEquals(distance, expectedDistance, expectedDistance * 0.1);
-	}
-
-	private void waitOneSecond() throws InterruptedException {
-		long startTime = System.currentTimeMillis();
-		while (System.currentTimeMillis() - startTime < 1000) Thread.sleep(1);
+		Assert.assertEquals(distance, player.getMoveSpeed(), 0.001);
 	}
 }
@@ -3,6 +3,7 @@ package com.jenjinstudios.world.client.message;
 import com.jenjinstudios.core.io.Message;
 import com.jenjinstudios.core.io.MessageRegistry;
 import com.jenjinstudios.world.World;
+import com.jenjinstudios.world.WorldClock;
 import com.jenjinstudios.world.client.WorldClient;
 import com.jenjinstudios.world.collections.WorldObjectList;
 import com.jenjinstudios.world.math.Angle;
@@ -31,6 +32,7 @@ public class ExecutableActorVisibleMessageTest
 
 		WorldClient worldClient = mock(WorldClient.class);
 		World world = mock(World.class);
+		when(world.getClock()).thenReturn(new WorldClock());
 		WorldObjectList worldObjectMap = mock(WorldObjectList.class);
 		when(world.getWorldObjects()).thenReturn(worldObjectMap);
 		when(worldClient.getWorld()).thenReturn(world);
@@ -4,6 +4,7 @@ import com.jenjinstudios.core.io.Message;
 import com.jenjinstudios.core.io.MessageRegistry;
 import com.jenjinstudios.world.Actor;
 import com.jenjinstudios.world.World;
+import com.jenjinstudios.world.WorldClock;
 import com.jenjinstudios.world.client.WorldClient;
 import com.jenjinstudios.world.math.Angle;
 import com.jenjinstudios.world.math.Vector2D;
@@ -31,6 +32,7 @@ public class ExecutableForceStateMessageTest
 		WorldClient worldClient = mock(WorldClient.class);
 		Actor clientPlayer = mock(Actor.class);
 		World world = mock(World.class);
+		when(world.getClock()).thenReturn(new WorldClock());
 		when(clientPlayer.getWorld()).thenReturn(world);
 		when(worldClient.getPlayer()).thenReturn(clientPlayer);
 		when(clientPlayer.getAngle()).thenReturn(new Angle());
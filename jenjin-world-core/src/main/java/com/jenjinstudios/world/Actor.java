@@ -1,6 +1,9 @@
 package com.jenjinstudios.world;
 
+import com.jenjinstudios.world.actor.MovementSystem;
 import com.jenjinstudios.world.actor.StateChangeStack;
+import com.jenjinstudios.world.math.Angle;
+import com.jenjinstudios.world.math.Vector2D;
 import com.jenjinstudios.world.state.MoveState;
 import com.jenjinstudios.world.util.ActorUtils;
 
@@ -18,6 +21,9 @@ import com.jenjinstudios.world.util.ActorUtils;
  * will always be facing the angle of the most recently added move state (even if the state causes an illegal move) and
  * IDLE. The "steps until change" value is determined from the number of steps that were taken until the state was
  * forced.
+ * <p>
+ * If the Actor's world has a {@code MovementSystem}, the system moves the Actor along with every other actor in the
+ * world, and holds its position, angle and speed, instead of the Actor stepping itself forward during its update.
  *
  * @author Caleb Brinkman
  */
@@ -26,6 +32,8 @@ public class Actor extends WorldObject
 	public static double DEFAULT_MOVE_SPEED = 30.0d;
 	private double moveSpeed;
 	private MoveState forcedState;
+	private transient MovementSystem movementSystem;
+	private transient int movementIndex = -1;
 
 	public Actor(String name) {
 		super(name);
@@ -42,7 +50,25 @@ public class Actor extends WorldObject
 	@Override
 	public void update() {
 		super.update();
-		ActorUtils.stepForward(this);
+		if (movementSystem == null) { ActorUtils.stepForward(this); }
+	}
+
+	@Override
+	public Vector2D getVector2D() {
+		return movementSystem != null ? movementSystem.getVector2D(movementIndex) : super.getVector2D();
+	}
+
+	@Override
+	public void setVector2D(Vector2D vector2D) {
+		Vector2D previous = getVector2D();
+		if (movementSystem != null) { movementSystem.setVector2D(movementIndex, vector2D); }
+		moveTo(vector2D, previous);
+	}
+
+	@Override
+	public void setAngle(Angle angle) {
+		super.setAngle(angle);
+		if (movementSystem != null) { movementSystem.setAngle(movementIndex, angle); }
 	}
 
 	public MoveState getForcedState() { return forcedState; }
@@ -51,6 +77,31 @@ public class Actor extends WorldObject
 
 	public double getMoveSpeed() { return moveSpeed; }
 
-	public void setMoveSpeed(double moveSpeed) { this.moveSpeed = moveSpeed; }
+	public void setMoveSpeed(double moveSpeed) {
+		this.moveSpeed = moveSpeed;
+		if (movementSystem != null) { movementSystem.setSpeed(movementIndex, moveSpeed); }
+	}
+
+	/**
+	 * Get the movement system managing this Actor.
+	 * @return The movement system managing this Actor, or null if the Actor moves itself.
+	 */
+	public MovementSystem getMovementSystem() { return movementSystem; }
+
+	/**
+	 * Get the index of this Actor in the arrays of its movement system.
+	 * @return The index of this Actor in its movement system, or -1 if it has none.
+	 */
+	public int getMovementIndex() { return movementIndex; }
+
+	/**
+	 * Set the movement system managing this Actor and the Actor's index in it; called by the movement system.
+	 * @param movementSystem The movement system, or null if the Actor moves itself.
+	 * @param movementIndex The index of the Actor in the movement system.
+	 */
+	public void setMovementSlot(MovementSystem movementSystem, int movementIndex) {
+		this.movementSystem = movementSystem;
+		this.movementIndex = movementIndex;
+	}
 
 }
@@ -11,6 +11,8 @@ public class Location
 {
 	/** The size, int units, of each location. */
 	public static final int SIZE = 10;
+	/** The property which, when set to "false", prevents a location from being walked on. */
+	public static final String WALKABLE_PROPERTY = "walkable";
 	/** The x coordinate of the location in it's zone's grid. */
 	private int x;
 	/** The y coordinate of the location in it's zone's grid. */
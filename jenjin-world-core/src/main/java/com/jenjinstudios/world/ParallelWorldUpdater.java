@@ -0,0 +1,133 @@
+package com.jenjinstudios.world;
+
+import com.jenjinstudios.world.math.SightCalculator;
+import com.jenjinstudios.world.math.Vector2D;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Consumer;
+
+/**
+ * The {@code ParallelWorldUpdater} class runs each phase of a world update across a {@code ForkJoinPool}.  The objects
+ * in the world are divided into partitions by zone and by square regions of {@link #getPartitionSize()} within each
+ * zone; the objects in one partition are updated in order on a single thread, and different partitions are updated at
+ * the same time.  Every partition finishes a phase before any partition starts the next, so the phases act as barriers.
+ * <p>
+ * Objects updated in parallel must follow these rules:
+ * <ul>
+ * <li>During pre-update, an object may read any other object, but should change only itself.  No object moves during
+ * this phase.</li>
+ * <li>During update, an object may move and change itself.  Positions read from other objects may be from before or
+ * after their own update.  The spatial indexes are not updated until every partition has finished, so queries made
+ * during this phase find objects where they were before it began.</li>
+ * <li>During post-update, every position is final; an object may read any other object, but changes to any other
+ * object, such as the effects of a collision, must be scheduled with {@link World#runLater(Runnable)}.  These actions
+ * are run one at a time once every partition has finished.</li>
+ * <li>Objects added to or removed from the world are, as always, only added or removed at the next refresh.</li>
+ * </ul>
+ * <p>
+ * The partitions of a zone still share its spatial index.  Index updates are batched until the end of the update phase
+ * for this reason, but waking the sleeping neighbours of a moving object queries the index, so while any object is
+ * asleep those queries are made one at a time per zone.
+ *
+ * @author Caleb Brinkman
+ */
+public class ParallelWorldUpdater
+{
+	/** The default width and height of the region covered by a partition. */
+	public static final double DEFAULT_PARTITION_SIZE = SightCalculator.DEFAULT_VISION_RADIUS * 4;
+	private final ForkJoinPool pool;
+	private final double partitionSize;
+
+	/**
+	 * Construct a new {@code ParallelWorldUpdater} which uses partitions of the default size.
+	 * @param pool The pool on which partitions are updated.
+	 */
+	public ParallelWorldUpdater(ForkJoinPool pool) { this(pool, DEFAULT_PARTITION_SIZE); }
+
+	/**
+	 * Construct a new {@code ParallelWorldUpdater}.
+	 * @param pool The pool on which partitions are updated.
+	 * @param partitionSize The width and height of the region covered by a partition.
+	 */
+	public ParallelWorldUpdater(ForkJoinPool pool, double partitionSize) {
+		if (partitionSize <= 0)
+			throw new IllegalArgumentException("Partition size must be positive: " + partitionSize);
+		this.pool = pool;
+		this.partitionSize = partitionSize;
+	}
+
+	/**
+	 * Divide the given objects into partitions by zone and region.
+	 * @param worldObjects The objects to divide.
+	 * @return The objects in each partition.
+	 */
+	public List<List<WorldObject>> partition(Collection<WorldObject> worldObjects) {
+		Map<Long, List<WorldObject>> partitions = new HashMap<>();
+		worldObjects.forEach(worldObject -> partitions.computeIfAbsent(getPartitionKey(worldObject),
+			  k -> new ArrayList<>()).add(worldObject));
+		return new ArrayList<>(partitions.values());
+	}
+
+	/**
+	 * Run the given phase on every object in the given partitions, returning once every partition has finished.
+	 * @param partitions The partitions of objects.
+	 * @param phase The phase to run on each object.
+	 */
+	public void runPhase(List<List<WorldObject>> partitions, Consumer<WorldObject> phase) {
+		if (partitions.isEmpty()) { return; }
+		pool.invoke(new PhaseTask(partitions, 0, partitions.size(), phase));
+	}
+
+	public double getPartitionSize() { return partitionSize; }
+
+	public ForkJoinPool getPool() { return pool; }
+
+	private long getPartitionKey(WorldObject worldObject) {
+		Vector2D vector2D = worldObject.getVector2D();
+		long regionX = 0;
+		long regionY = 0;
+		if (vector2D != null)
+		{
+			regionX = (long) Math.floor(vector2D.getXCoordinate() / partitionSize) & 0xFFFFF;
+			regionY = (long) Math.floor(vector2D.getYCoordinate() / partitionSize) & 0xFFFFF;
+		}
+		return ((long) worldObject.getZoneID() << 40) | (regionX << 20) | regionY;
+	}
+
+	/**
+	 * Runs a phase on a range of partitions, splitting the range in half until a single partition remains.
+	 */
+	private static class PhaseTask extends RecursiveAction
+	{
+		private static final long serialVersionUID = 1L;
+		private final List<List<WorldObject>> partitions;
+		private final int start;
+		private final int end;
+		private final Consumer<WorldObject> phase;
+
+		PhaseTask(List<List<WorldObject>> partitions, int start, int end, Consumer<WorldObject> phase) {
+			this.partitions = partitions;
+			this.start = start;
+			this.end = end;
+			this.phase = phase;
+		}
+
+		@Override
+		protected void compute() {
+			if (end - start == 1)
+			{
+				partitions.get(start).forEach(phase);
+			} else
+			{
+				int middle = (start + end) >>> 1;
+				invokeAll(new PhaseTask(partitions, start, middle, phase), new PhaseTask(partitions, middle, end, phase));
+			}
+		}
+	}
+}
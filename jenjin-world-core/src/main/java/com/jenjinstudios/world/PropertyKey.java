@@ -0,0 +1,172 @@
+package com.jenjinstudios.world;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * A typed key for a property of a {@code WorldObject}.
+ * <p>
+ * Each key is registered once by name, and is given a slot which every object uses to store its value of the property,
+ * so reading it is an array access rather than a string lookup.  The values of {@code Double}, {@code Float},
+ * {@code Long} and {@code Integer} keys are kept unboxed, and can be read and written without boxing through
+ * {@link WorldObject#getDouble(PropertyKey)} and the other numeric accessors.  A property with a registered name is
+ * also found under that name in {@link WorldObject#getProperties()}.
+ * @param <T> The type of the value of the property.
+ * @author Caleb Brinkman
+ */
+public final class PropertyKey<T>
+{
+	private static final Map<String, PropertyKey<?>> KEYS = new ConcurrentHashMap<>();
+	private static final List<PropertyKey<?>> SLOTS = new CopyOnWriteArrayList<>();
+	private static int numericSlotCount;
+	private static int objectSlotCount;
+	private final String name;
+	private final Class<T> type;
+	private final T defaultValue;
+	private final int slot;
+	private final int storageIndex;
+	private final boolean numeric;
+
+	private PropertyKey(String name, Class<T> type, T defaultValue, int slot, int storageIndex) {
+		this.name = name;
+		this.type = type;
+		this.defaultValue = defaultValue;
+		this.slot = slot;
+		this.storageIndex = storageIndex;
+		this.numeric = isNumeric(type);
+	}
+
+	/**
+	 * Get the key with the given name and type, registering it if it does not exist; its value is null until set.
+	 * @param name The name of the property.
+	 * @param type The type of the value of the property.
+	 * @param <T> The type of the value of the property.
+	 * @return The key.
+	 * @throws IllegalArgumentException If a key with the same name but a different type or default is registered.
+	 */
+	public static <T> PropertyKey<T> of(String name, Class<T> type) { return of(name, type, null); }
+
+	/**
+	 * Get the key with the given name and type, registering it if it does not exist.
+	 * @param name The name of the property.
+	 * @param type The type of the value of the property.
+	 * @param defaultValue The value read from an object on which the property has not been set.
+	 * @param <T> The type of the value of the property.
+	 * @return The key.
+	 * @throws IllegalArgumentException If a key with the same name but a different type or default is registered.
+	 */
+	@SuppressWarnings("unchecked")
+	public static synchronized <T> PropertyKey<T> of(String name, Class<T> type, T defaultValue) {
+		PropertyKey<?> existing = KEYS.get(name);
+		if (existing != null)
+		{
+			if (existing.type != type || !Objects.equals(existing.defaultValue, defaultValue))
+				throw new IllegalArgumentException("Property " + name + " is already registered as " + existing);
+			return (PropertyKey<T>) existing;
+		}
+		int storageIndex = isNumeric(type) ? numericSlotCount++ : objectSlotCount++;
+		PropertyKey<T> key = new PropertyKey<>(name, type, defaultValue, SLOTS.size(), storageIndex);
+		SLOTS.add(key);
+		KEYS.put(name, key);
+		return key;
+	}
+
+	/**
+	 * Get the key registered with the given name.
+	 * @param name The name of the property.
+	 * @return The key, or null if no key has the given name.
+	 */
+	public static PropertyKey<?> forName(String name) { return KEYS.get(name); }
+
+	public String getName() { return name; }
+
+	public Class<T> getType() { return type; }
+
+	public T getDefaultValue() { return defaultValue; }
+
+	/**
+	 * Get the slot of this key, which is unique among all keys; keys are numbered from zero in the order they are
+	 * registered.
+	 * @return The slot of this key.
+	 */
+	public int getSlot() { return slot; }
+
+	/**
+	 * Get whether the values of this key are numbers kept unboxed.
+	 * @return Whether the values of this key are numbers kept unboxed.
+	 */
+	public boolean isNumeric() { return numeric; }
+
+	@Override
+	public String toString() { return name + ": " + type.getSimpleName(); }
+
+	/** Get the index of the value of this key among the numeric or the other values of an object. */
+	int getStorageIndex() { return storageIndex; }
+
+	/**
+	 * Convert the given value to the type of this key; a number is converted to any numeric type.
+	 * @throws ClassCastException If the value cannot be converted.
+	 */
+	T cast(Object value) {
+		if (numeric && value instanceof Number) { return decode(encode((Number) value, type)); }
+		return type.cast(value);
+	}
+
+	/** Get the raw bits in which a number of this key's type is stored. */
+	long encode(Number value) { return encode(value, type); }
+
+	/** Get the boxed value of this key's type stored in the given raw bits. */
+	T decode(long bits) {
+		Object value;
+		if (type == Double.class) { value = Double.longBitsToDouble(bits); }
+		else if (type == Float.class) { value = (float) Double.longBitsToDouble(bits); }
+		else if (type == Long.class) { value = bits; }
+		else { value = (int) bits; }
+		return type.cast(value);
+	}
+
+	/** Get the value stored in the given raw bits as a double. */
+	double toDouble(long bits) {
+		return type == Double.class || type == Float.class ? Double.longBitsToDouble(bits) : bits;
+	}
+
+	/** Get the value stored in the given raw bits as a long. */
+	long toLong(long bits) {
+		return type == Double.class || type == Float.class ? (long) Double.longBitsToDouble(bits) : bits;
+	}
+
+	/** Get the raw bits in which the given double is stored by this key. */
+	long fromDouble(double value) {
+		if (type == Double.class) { return Double.doubleToRawLongBits(value); }
+		if (type == Float.class) { return Double.doubleToRawLongBits((float) value); }
+		return type == Long.class ? (long) value : (int) value;
+	}
+
+	/** Get the raw bits in which the given long is stored by this key. */
+	long fromLong(long value) {
+		if (type == Double.class || type == Float.class) { return fromDouble(value); }
+		return type == Long.class ? value : (int) value;
+	}
+
+	/** Get the key with the given slot. */
+	static PropertyKey<?> forSlot(int slot) { return SLOTS.get(slot); }
+
+	/** Get the number of keys registered. */
+	static int getKeyCount() { return SLOTS.size(); }
+
+	private static long encode(Number value, Class<?> type) {
+		if (type == Double.class || type == Float.class)
+		{
+			double d = type == Float.class ? value.floatValue() : value.doubleValue();
+			return Double.doubleToRawLongBits(d);
+		}
+		return type == Long.class ? value.longValue() : value.intValue();
+	}
+
+	private static boolean isNumeric(Class<?> type) {
+		return type == Double.class || type == Float.class || type == Long.class || type == Integer.class;
+	}
+}
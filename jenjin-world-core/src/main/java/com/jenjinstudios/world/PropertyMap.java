@@ -0,0 +1,230 @@
+package com.jenjinstudios.world;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * The properties of an object by name.  A property whose name belongs to a registered {@code PropertyKey} is read from
+ * and written to the object's typed slot, so both views always agree; any other property is kept in a hash map.
+ * <p>
+ * A property set by name before its key was registered is moved into its slot by {@link #sync()}, which the object
+ * calls before reading any slot.  Whether it is set before or after its key is registered, a value which does not
+ * match the type of the key stays in the hash map; it is found by name, and the key reads its default value.
+ * @author Caleb Brinkman
+ */
+class PropertyMap extends AbstractMap<String, Object>
+{
+	private final PropertySlots slots;
+	private final Map<String, Object> untyped = new HashMap<>();
+	private final Set<Entry<String, Object>> entrySet = new EntrySet();
+	/** The number of keys which were registered when the untyped properties were last moved into their slots. */
+	private int syncedKeyCount;
+
+	PropertyMap(PropertySlots slots) { this.slots = slots; }
+
+	@Override
+	public Object get(Object name) {
+		sync();
+		PropertyKey<?> key = getKey(name);
+		return key != null && slots.contains(key) ? slots.get(key) : untyped.get(name);
+	}
+
+	@Override
+	public boolean containsKey(Object name) {
+		sync();
+		PropertyKey<?> key = getKey(name);
+		return key != null && slots.contains(key) || untyped.containsKey(name);
+	}
+
+	/**
+	 * Set the property with the given name; a null value removes a typed property.  If the name belongs to a key whose
+	 * type does not match the value, the slot of the key is cleared and the value is kept by name.
+	 */
+	@Override
+	public Object put(String name, Object value) {
+		sync();
+		PropertyKey<?> key = PropertyKey.forName(name);
+		if (key == null) { return untyped.put(name, value); }
+		Object previous;
+		Object replaced;
+		try
+		{
+			previous = putTyped(key, value);
+			replaced = untyped.remove(name);
+		} catch (ClassCastException e)
+		{
+			previous = slots.remove(key);
+			replaced = untyped.put(name, value);
+		}
+		return previous != null ? previous : replaced;
+	}
+
+	@Override
+	public Object remove(Object name) {
+		sync();
+		PropertyKey<?> key = getKey(name);
+		Object previous = key != null ? slots.remove(key) : null;
+		Object removed = untyped.remove(name);
+		return previous != null ? previous : removed;
+	}
+
+	@Override
+	public int size() {
+		sync();
+		return slots.size() + untyped.size();
+	}
+
+	@Override
+	public void clear() {
+		slots.clear();
+		untyped.clear();
+	}
+
+	@Override
+	public Set<Entry<String, Object>> entrySet() { return entrySet; }
+
+	/**
+	 * Move each property set by name whose key has since been registered into its slot.
+	 */
+	void sync() {
+		int keyCount = PropertyKey.getKeyCount();
+		if (keyCount == syncedKeyCount) { return; }
+		syncedKeyCount = keyCount;
+		Iterator<Entry<String, Object>> iterator = untyped.entrySet().iterator();
+		while (iterator.hasNext())
+		{
+			Entry<String, Object> entry = iterator.next();
+			PropertyKey<?> key = PropertyKey.forName(entry.getKey());
+			if (key == null || entry.getValue() == null) { continue; }
+			try
+			{
+				putTyped(key, entry.getValue());
+				iterator.remove();
+			} catch (ClassCastException ignored)
+			{
+				// The value cannot be read through the key, but is still found by name.
+			}
+		}
+	}
+
+	/**
+	 * Forget any value set by name which did not match the type of the given key, once the key has been set.
+	 */
+	void typedValueSet(PropertyKey<?> key) {
+		if (!untyped.isEmpty()) { untyped.remove(key.getName()); }
+	}
+
+	private <T> T putTyped(PropertyKey<T> key, Object value) {
+		return slots.put(key, value == null ? null : key.cast(value));
+	}
+
+	private static PropertyKey<?> getKey(Object name) {
+		return name instanceof String ? PropertyKey.forName((String) name) : null;
+	}
+
+	/**
+	 * The typed properties in order of slot, followed by the untyped properties.
+	 */
+	private final class EntrySet extends AbstractSet<Entry<String, Object>>
+	{
+		@Override
+		public Iterator<Entry<String, Object>> iterator() { return new EntryIterator(); }
+
+		@Override
+		public int size() { return PropertyMap.this.size(); }
+
+		@Override
+		public void clear() { PropertyMap.this.clear(); }
+	}
+
+	private final class EntryIterator implements Iterator<Entry<String, Object>>
+	{
+		private final Iterator<Entry<String, Object>> untypedIterator;
+		private int nextSlot;
+		private PropertyKey<?> lastKey;
+		private boolean lastUntyped;
+
+		private EntryIterator() {
+			sync();
+			untypedIterator = untyped.entrySet().iterator();
+			nextSlot = slots.nextSetSlot(0);
+		}
+
+		@Override
+		public boolean hasNext() { return nextSlot >= 0 || untypedIterator.hasNext(); }
+
+		@Override
+		public Entry<String, Object> next() {
+			if (nextSlot >= 0)
+			{
+				PropertyKey<?> key = PropertyKey.forSlot(nextSlot);
+				nextSlot = slots.nextSetSlot(nextSlot + 1);
+				lastKey = key;
+				lastUntyped = false;
+				return new TypedEntry(key);
+			}
+			if (!untypedIterator.hasNext()) { throw new NoSuchElementException(); }
+			lastKey = null;
+			lastUntyped = true;
+			return untypedIterator.next();
+		}
+
+		@Override
+		public void remove() {
+			if (lastUntyped)
+			{
+				untypedIterator.remove();
+				lastUntyped = false;
+			} else if (lastKey != null)
+			{
+				slots.remove(lastKey);
+				lastKey = null;
+			} else
+			{
+				throw new IllegalStateException();
+			}
+		}
+	}
+
+	/**
+	 * An entry which reads and writes a typed property through its key.
+	 */
+	private final class TypedEntry implements Entry<String, Object>
+	{
+		private final PropertyKey<?> key;
+
+		private TypedEntry(PropertyKey<?> key) { this.key = key; }
+
+		@Override
+		public String getKey() { return key.getName(); }
+
+		@Override
+		public Object getValue() { return slots.get(key); }
+
+		@Override
+		public Object setValue(Object value) { return putTyped(key, value); }
+
+		@Override
+		public boolean equals(Object o) {
+			if (!(o instanceof Entry)) return false;
+			Entry<?, ?> that = (Entry<?, ?>) o;
+			Object value = getValue();
+			return getKey().equals(that.getKey()) && (value == null ? that.getValue() == null : value.equals(that
+				  .getValue()));
+		}
+
+		@Override
+		public int hashCode() {
+			Object value = getValue();
+			return getKey().hashCode() ^ (value == null ? 0 : value.hashCode());
+		}
+
+		@Override
+		public String toString() { return getKey() + "=" + getValue(); }
+	}
+}
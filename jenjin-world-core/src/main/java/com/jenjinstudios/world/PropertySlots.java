@@ -0,0 +1,145 @@
+package com.jenjinstudios.world;
+
+import java.util.Arrays;
+
+/**
+ * The values of the typed properties of one object, stored by the slot of their {@code PropertyKey}; numbers are kept
+ * unboxed in an array of raw bits.  One bit per slot records whether the property is set, and another whether it has
+ * changed since changes were last cleared.  The arrays grow when a key registered after they were created is first
+ * set.
+ * @author Caleb Brinkman
+ */
+class PropertySlots
+{
+	private static final long[] NO_BITS = new long[0];
+	private static final Object[] NO_OBJECTS = new Object[0];
+	private long[] numbers = NO_BITS;
+	private Object[] objects = NO_OBJECTS;
+	private long[] present = NO_BITS;
+	private long[] changed = NO_BITS;
+	private int size;
+
+	boolean contains(PropertyKey<?> key) { return isSet(present, key.getSlot()); }
+
+	/** Get the value of the given key, or null if it is not set. */
+	<T> T get(PropertyKey<T> key) {
+		if (!contains(key)) { return null; }
+		int index = key.getStorageIndex();
+		return key.isNumeric() ? key.decode(numbers[index]) : key.getType().cast(objects[index]);
+	}
+
+	/** Get the value of the given numeric key as a double, or its default value if it is not set. */
+	double getDouble(PropertyKey<? extends Number> key) {
+		if (contains(key)) { return key.toDouble(numbers[key.getStorageIndex()]); }
+		Number defaultValue = key.getDefaultValue();
+		return defaultValue == null ? 0 : defaultValue.doubleValue();
+	}
+
+	/** Get the value of the given numeric key as a long, or its default value if it is not set. */
+	long getLong(PropertyKey<? extends Number> key) {
+		if (contains(key)) { return key.toLong(numbers[key.getStorageIndex()]); }
+		Number defaultValue = key.getDefaultValue();
+		return defaultValue == null ? 0 : defaultValue.longValue();
+	}
+
+	/**
+	 * Set the value of the given key, marking it as changed.
+	 * @return The previous value, or null if it was not set.
+	 */
+	<T> T put(PropertyKey<T> key, T value) {
+		if (value == null) { return remove(key); }
+		T previous = get(key);
+		if (key.isNumeric())
+		{
+			putBits(key, key.encode((Number) value));
+		} else
+		{
+			int index = key.getStorageIndex();
+			if (index >= objects.length) { objects = Arrays.copyOf(objects, grow(objects.length, index)); }
+			objects[index] = value;
+			markSet(key);
+		}
+		return previous;
+	}
+
+	/** Set the raw bits of the value of the given numeric key, marking it as changed. */
+	void putBits(PropertyKey<?> key, long bits) {
+		int index = key.getStorageIndex();
+		if (index >= numbers.length) { numbers = Arrays.copyOf(numbers, grow(numbers.length, index)); }
+		numbers[index] = bits;
+		markSet(key);
+	}
+
+	/**
+	 * Remove the value of the given key, marking it as changed if it was set.
+	 * @return The previous value, or null if it was not set.
+	 */
+	<T> T remove(PropertyKey<T> key) {
+		if (!contains(key)) { return null; }
+		T previous = get(key);
+		if (!key.isNumeric()) { objects[key.getStorageIndex()] = null; }
+		present[key.getSlot() >> 6] &= ~(1L << key.getSlot());
+		changed = set(changed, key.getSlot());
+		size--;
+		return previous;
+	}
+
+	boolean isChanged(PropertyKey<?> key) { return isSet(changed, key.getSlot()); }
+
+	void clearChanges() { Arrays.fill(changed, 0); }
+
+	/**
+	 * Get the first slot at or after the given one whose property is set.
+	 * @return The slot, or -1 if there is none.
+	 */
+	int nextSetSlot(int from) { return nextSlot(present, from); }
+
+	/**
+	 * Get the first slot at or after the given one whose property has changed.
+	 * @return The slot, or -1 if there is none.
+	 */
+	int nextChangedSlot(int from) { return nextSlot(changed, from); }
+
+	int size() { return size; }
+
+	void clear() {
+		for (int slot = nextSetSlot(0); slot >= 0; slot = nextSetSlot(slot + 1))
+		{
+			remove(PropertyKey.forSlot(slot));
+		}
+	}
+
+	private void markSet(PropertyKey<?> key) {
+		int slot = key.getSlot();
+		if (!isSet(present, slot)) { size++; }
+		present = set(present, slot);
+		changed = set(changed, slot);
+	}
+
+	private static int nextSlot(long[] bits, int from) {
+		int word = from >> 6;
+		if (word >= bits.length) { return -1; }
+		long remaining = bits[word] & (-1L << from);
+		while (remaining == 0)
+		{
+			if (++word == bits.length) { return -1; }
+			remaining = bits[word];
+		}
+		return (word << 6) + Long.numberOfTrailingZeros(remaining);
+	}
+
+	private static boolean isSet(long[] bits, int slot) {
+		int word = slot >> 6;
+		return word < bits.length && (bits[word] & (1L << slot)) != 0;
+	}
+
+	/** Set the bit of the given slot, growing the array if necessary. */
+	private static long[] set(long[] bits, int slot) {
+		int word = slot >> 6;
+		long[] result = word < bits.length ? bits : Arrays.copyOf(bits, word + 1);
+		result[word] |= 1L << slot;
+		return result;
+	}
+
+	private static int grow(int length, int index) { return Math.max(index + 1, length * 2); }
+}
@@ -1,25 +1,61 @@
 package com.jenjinstudios.world;
 
+import com.jenjinstudios.world.actor.MovementSystem;
 import com.jenjinstudios.world.collections.WorldObjectList;
+import com.jenjinstudios.world.math.SightCalculator;
+import com.jenjinstudios.world.math.Vector2D;
 
-import java.util.Map;
-import java.util.TreeMap;
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 /**
  * Contains all the Zones, Locations and GameObjects.
+ * <p>
+ * Each update refreshes the list of objects, then runs the pre-update, update and post-update phases of every object,
+ * then runs any actions scheduled with {@link #runLater(Runnable)}.  Each update is one tick of the world's {@link
+ * WorldClock}, and objects move by the clock's fixed timestep rather than by the time since the last update.  By
+ * default the phases run on the updating thread; with a {@code ParallelWorldUpdater} they run across a pool of threads,
+ * under the rules described there.
+ * <p>
+ * Only objects which are awake are updated; an object is put to sleep once it has gone {@link #SLEEP_DELAY} updates
+ * without being woken, as described in {@link WorldObject}.  When an object moves, is added or is removed, the sleeping
+ * objects within {@link #getWakeRadius()} of it are woken so that they can see the change.
  * @author Caleb Brinkman
  */
 public class World
 {
 
+	/** The number of milliseconds between evictions of zone chunks which no object is near. */
+	public static final long CHUNK_EVICTION_INTERVAL = 30000;
+	/**
+	 * The number of updates an object must go without being woken before it is put to sleep; every object is updated
+	 * at least once after the update in which it was last woken, so the changes it recorded then have been cleared.
+	 */
+	public static final int SLEEP_DELAY = 2;
 	/** The list of in-world Zones. */
 	private final TreeMap<Integer, Zone> zones = new TreeMap<>();
 	/** The GameObjects contained in the world. */
 	private transient final WorldObjectList worldObjects = new WorldObjectList(this);
+	/** The clock which times the ticks of this world. */
+	private transient final WorldClock clock = new WorldClock();
 	/** The time at which the most recent update completed. */
 	private transient long lastUpdateCompleted;
 	/** The start time of the most recent update. */
 	private transient long lastUpdateStarted;
+	/** The start time of the update during which zone chunks were last evicted. */
+	private transient long lastChunkEviction;
+	/** Moves the actors in this world in a single pass; if null, each actor moves itself. */
+	private transient MovementSystem movementSystem;
+	/** Runs the update phases in parallel; if null, they run on the updating thread. */
+	private transient ParallelWorldUpdater parallelUpdater;
+	/** Actions to be run once the post-update phase has finished. */
+	private transient final Queue<Runnable> deferredActions = new ConcurrentLinkedQueue<>();
+	/** The objects which are awake during the current update. */
+	private transient final List<WorldObject> activeObjects = new ArrayList<>();
+	private transient volatile int activeObjectCount;
+	private transient volatile int sleepingObjectCount;
+	/** The distance from a moving object within which sleeping objects are woken. */
+	private transient double wakeRadius = SightCalculator.DEFAULT_VISION_RADIUS;
 
 	/** Construct a new World. */
 	public World() { }
@@ -33,25 +69,228 @@ public class World
 		{
 			this.zones.put(z.getId(), z);
 		}
-		lastUpdateCompleted = lastUpdateStarted = System.currentTimeMillis();
+		lastUpdateCompleted = lastUpdateStarted = clock.getTimeMillis();
 	}
 
 	public WorldObjectList getWorldObjects() { return worldObjects; }
 
 	public void update() {
-		lastUpdateStarted = System.currentTimeMillis();
 		synchronized (worldObjects)
 		{
+			clock.advance();
+			lastUpdateStarted = clock.getTimeMillis();
 			worldObjects.refresh();
-			worldObjects.forEach(WorldObject::preUpdate);
-			worldObjects.forEach(WorldObject::update);
-			worldObjects.forEach(WorldObject::postUpdate);
+			activeObjects.clear();
+			worldObjects.forEach(worldObject -> {
+				if (!worldObject.isSleeping()) { activeObjects.add(worldObject); }
+			});
+			activeObjectCount = activeObjects.size();
+			ParallelWorldUpdater updater = parallelUpdater;
+			if (updater != null)
+			{
+				List<List<WorldObject>> partitions = updater.partition(activeObjects);
+				updater.runPhase(partitions, WorldObject::preUpdate);
+				worldObjects.deferMoves();
+				try
+				{
+					updater.runPhase(partitions, WorldObject::update);
+				} finally
+				{
+					worldObjects.applyDeferredMoves();
+				}
+				integrateMovement();
+				updater.runPhase(partitions, WorldObject::postUpdate);
+			} else
+			{
+				activeObjects.forEach(WorldObject::preUpdate);
+				activeObjects.forEach(WorldObject::update);
+				integrateMovement();
+				activeObjects.forEach(WorldObject::postUpdate);
+			}
+			runDeferredActions();
+			sleepIdleObjects();
 		}
-		lastUpdateCompleted = System.currentTimeMillis();
+		if (lastUpdateStarted - lastChunkEviction >= CHUNK_EVICTION_INTERVAL)
+		{
+			evictIdleChunks();
+			lastChunkEviction = lastUpdateStarted;
+		}
+		lastUpdateCompleted = clock.currentTimeMillis();
+	}
+
+	/**
+	 * Schedule an action to be run once every object has finished its post-update phase.  Actions which change objects
+	 * other than the one being updated, such as the effects of a collision, should be scheduled this way so that they
+	 * are safe when the world is updated in parallel.  Actions are run one at a time, in the order they were scheduled.
+	 * @param action The action to run.
+	 */
+	public void runLater(Runnable action) { deferredActions.add(action); }
+
+	private void runDeferredActions() {
+		Runnable action;
+		while ((action = deferredActions.poll()) != null)
+		{
+			action.run();
+		}
+	}
+
+	/**
+	 * Wake every sleeping object in the zone of the given object which is near enough to see it, or to have seen it
+	 * before it moved the given distance.
+	 * @param worldObject The object which has moved, or has been added or removed.
+	 * @param distance The distance the object has moved.
+	 */
+	public void wakeNeighbours(WorldObject worldObject, double distance) {
+		Vector2D vector2D = worldObject.getVector2D();
+		if (sleepingObjectCount == 0 || vector2D == null) { return; }
+		for (WorldObject neighbour : queryRadius(worldObject.getZoneID(), vector2D, wakeRadius + distance))
+		{
+			if (neighbour.isSleeping()) { neighbour.wake(); }
+		}
+	}
+
+	private void sleepIdleObjects() {
+		int asleep = worldObjects.size() - activeObjects.size();
+		for (WorldObject worldObject : activeObjects)
+		{
+			if (worldObject.trySleep(clock.getTick())) { asleep++; }
+		}
+		sleepingObjectCount = asleep;
+		activeObjects.clear();
+	}
+
+	private void integrateMovement() {
+		if (movementSystem != null)
+		{
+			movementSystem.integrate(this, clock.getDeltaSeconds());
+		}
+	}
+
+	/**
+	 * Evict the tile chunks of each zone which no object is in or next to.
+	 * @return The number of chunks evicted.
+	 */
+	public int evictIdleChunks() {
+		Map<Integer, List<Vector2D>> positions = new HashMap<>();
+		worldObjects.forEach(o -> {
+			if (o.getVector2D() != null)
+			{
+				positions.computeIfAbsent(o.getZoneID(), k -> new ArrayList<>()).add(o.getVector2D());
+			}
+		});
+		int evicted = 0;
+		for (Zone zone : zones.values())
+		{
+			evicted += zone.evictChunksAwayFrom(positions.getOrDefault(zone.getId(), Collections.emptyList()));
+		}
+		return evicted;
+	}
+
+	/**
+	 * Find all objects in the world, in any zone, within the given distance of the given point.
+	 * @param center The center of the search area.
+	 * @param radius The maximum distance from the center.
+	 * @return The objects within the given distance of the given point.
+	 */
+	public List<WorldObject> queryRadius(Vector2D center, double radius) {
+		return worldObjects.queryRadius(center, radius);
+	}
+
+	/**
+	 * Find all objects in the world, in any zone, inside the given rectangle.
+	 * @param minX The minimum x coordinate.
+	 * @param minY The minimum y coordinate.
+	 * @param maxX The maximum x coordinate.
+	 * @param maxY The maximum y coordinate.
+	 * @return The objects inside the given rectangle.
+	 */
+	public List<WorldObject> queryRect(double minX, double minY, double maxX, double maxY) {
+		return worldObjects.queryRect(minX, minY, maxX, maxY);
+	}
+
+	/**
+	 * Find all objects in the given zone within the given distance of the given point.
+	 * @param zoneId The ID of the zone to search.
+	 * @param center The center of the search area.
+	 * @param radius The maximum distance from the center.
+	 * @return The objects within the given distance of the given point.
+	 */
+	public List<WorldObject> queryRadius(int zoneId, Vector2D center, double radius) {
+		return worldObjects.queryRadius(zoneId, center, radius);
+	}
+
+	/**
+	 * Find all objects in the given zone inside the given rectangle.
+	 * @param zoneId The ID of the zone to search.
+	 * @param minX The minimum x coordinate.
+	 * @param minY The minimum y coordinate.
+	 * @param maxX The maximum x coordinate.
+	 * @param maxY The maximum y coordinate.
+	 * @return The objects inside the given rectangle.
+	 */
+	public List<WorldObject> queryRect(int zoneId, double minX, double minY, double maxX, double maxY) {
+		return worldObjects.queryRect(zoneId, minX, minY, maxX, maxY);
 	}
 
 	public Map<Integer, Zone> getZones() { return zones; }
 
+	public MovementSystem getMovementSystem() { return movementSystem; }
+
+	public ParallelWorldUpdater getParallelUpdater() { return parallelUpdater; }
+
+	/**
+	 * Set the updater used to run the update phases of this world in parallel.
+	 * @param parallelUpdater The parallel updater, or null to run the phases on the updating thread.
+	 */
+	public void setParallelUpdater(ParallelWorldUpdater parallelUpdater) { this.parallelUpdater = parallelUpdater; }
+
+	/**
+	 * Set the system which moves the actors in this world, moving every actor already in the world to it.
+	 * @param movementSystem The movement system, or null to have each actor move itself.
+	 */
+	public void setMovementSystem(MovementSystem movementSystem) {
+		synchronized (worldObjects)
+		{
+			if (this.movementSystem != null) { worldObjects.forEach(this.movementSystem::remove); }
+			this.movementSystem = movementSystem;
+			if (movementSystem != null)
+			{
+				worldObjects.forEach(worldObject -> {
+					if (worldObject instanceof Actor) { movementSystem.add((Actor) worldObject); }
+				});
+			}
+		}
+	}
+
+	/**
+	 * Get the number of the current update; incremented at the start of each update.
+	 * @return The number of the current update.
+	 */
+	public long getTick() { return clock.getTick(); }
+
+	public WorldClock getClock() { return clock; }
+
+	/**
+	 * Get the number of objects which were awake, and so were updated, during the most recent update.
+	 * @return The number of objects updated during the most recent update.
+	 */
+	public int getActiveObjectCount() { return activeObjectCount; }
+
+	/**
+	 * Get the number of objects which were asleep at the end of the most recent update.
+	 * @return The number of sleeping objects.
+	 */
+	public int getSleepingObjectCount() { return sleepingObjectCount; }
+
+	public double getWakeRadius() { return wakeRadius; }
+
+	/**
+	 * Set the distance from a moving object within which sleeping objects are woken; this should be at least the
+	 * largest vision radius of any object in the world.
+	 * @param wakeRadius The distance within which sleeping objects are woken.
+	 */
+	public void setWakeRadius(double wakeRadius) { this.wakeRadius = wakeRadius; }
+
 	public long getLastUpdateCompleted() { return lastUpdateCompleted; }
 
 	public long getLastUpdateStarted() { return lastUpdateStarted; }
@@ -0,0 +1,97 @@
+package com.jenjinstudios.world;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * The {@code WorldClock} class keeps the time of a world.  Each update of the world advances the clock by one tick, and
+ * every tick covers the same fixed amount of simulated time, so every actor moves the same distance in a tick no matter
+ * when during the tick it is updated or how long the update takes.
+ * <p>
+ * The clock also records the time at which each tick started, read once per tick from the wall clock in milliseconds
+ * since the epoch.  This is the time at which state changes made during the tick took place.  Times sent between the
+ * clients and the server are compared with each other, so every clock reads the same time base, the wall clock, rather
+ * than a monotonic source anchored when the clock was created, which would drift from the other side's clock without
+ * bound.  The fixed timestep should match the rate at which the world is updated; if updates fall behind, actors move
+ * more slowly than the clock's time advances.
+ *
+ * @author Caleb Brinkman
+ */
+public class WorldClock
+{
+	/** The number of ticks per second used unless another rate is set. */
+	public static final int DEFAULT_TICKS_PER_SECOND = 50;
+	private final LongSupplier timeSource;
+	private volatile long tickNanos;
+	private volatile long tick;
+	private volatile long tickStartMillis;
+
+	/**
+	 * Construct a new {@code WorldClock} which uses {@link System#currentTimeMillis()} and the default number of ticks
+	 * per second.
+	 */
+	public WorldClock() { this(System::currentTimeMillis, DEFAULT_TICKS_PER_SECOND); }
+
+	/**
+	 * Construct a new {@code WorldClock}.
+	 *
+	 * @param timeSource The source of the current time, in milliseconds since the epoch.
+	 * @param ticksPerSecond The number of ticks in one second of simulated time.
+	 */
+	public WorldClock(LongSupplier timeSource, int ticksPerSecond) {
+		this.timeSource = timeSource;
+		tickStartMillis = timeSource.getAsLong();
+		setTicksPerSecond(ticksPerSecond);
+	}
+
+	/**
+	 * Start the next tick, recording the time at which it started.
+	 */
+	public void advance() {
+		tickStartMillis = currentTimeMillis();
+		tick++;
+	}
+
+	/**
+	 * Get the number of the current tick; zero before the first tick, and increased by one at the start of each tick.
+	 *
+	 * @return The number of the current tick.
+	 */
+	public long getTick() { return tick; }
+
+	/**
+	 * Get the simulated time covered by each tick, in seconds.
+	 *
+	 * @return The simulated time covered by each tick, in seconds.
+	 */
+	public double getDeltaSeconds() { return tickNanos / (double) TimeUnit.SECONDS.toNanos(1); }
+
+	public long getTickNanos() { return tickNanos; }
+
+	/**
+	 * Set the number of ticks in one second of simulated time.
+	 *
+	 * @param ticksPerSecond The number of ticks in one second.
+	 *
+	 * @throws IllegalArgumentException If the number of ticks is not positive.
+	 */
+	public void setTicksPerSecond(int ticksPerSecond) {
+		if (ticksPerSecond <= 0)
+			throw new IllegalArgumentException("Ticks per second must be positive: " + ticksPerSecond);
+		tickNanos = TimeUnit.SECONDS.toNanos(1) / ticksPerSecond;
+	}
+
+	/**
+	 * Get the time at which the current tick started.
+	 *
+	 * @return The time at which the current tick started, in milliseconds since the epoch.
+	 */
+	public long getTimeMillis() { return tickStartMillis; }
+
+	/**
+	 * Get the current time from the clock's time source.
+	 *
+	 * @return The current time, in milliseconds since the epoch.
+	 */
+	public long currentTimeMillis() { return timeSource.getAsLong(); }
+}
@@ -4,15 +4,28 @@ import com.jenjinstudios.world.event.EventExecutor;
 import com.jenjinstudios.world.math.Angle;
 import com.jenjinstudios.world.math.Vector2D;
 
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 
 /**
  * Represents an object that exists in the game world.
+ * <p>
+ * An object which has gone {@link World#SLEEP_DELAY} updates without moving, turning, changing a property through
+ * {@link #setProperty(String, Object)} or seeing a neighbour move nearby is put to sleep, and is skipped by the update
+ * phases until it is woken again.  Anything else which should bring a sleeping object back, such as a change made
+ * directly to its properties, must call {@link #wake()}; an object which must be updated every time, such as one
+ * driven by a timer, should be made {@link #setSleepable(boolean) unsleepable}.
+ * <p>
+ * Properties read often should use a {@link PropertyKey}, which keeps the value in a slot of this object rather than
+ * in a map, and a number unboxed; {@link #getProperties()} still gives every property by name.
  * @author Caleb Brinkman
  */
 public class WorldObject extends EventExecutor
 {
-	private final HashMap<String, Object> properties;
+	private final PropertySlots propertySlots;
+	private final PropertyMap properties;
 	private String name;
 	private int zoneID;
 	private int resourceID;
@@ -20,6 +33,11 @@ public class WorldObject extends EventExecutor
 	private Angle angle;
 	private Vector2D vector2D;
 	private World world;
+	/** Whether this object may be put to sleep. */
+	private transient boolean sleepable = true;
+	private transient volatile boolean sleeping;
+	/** The update during which this object was last woken. */
+	private transient volatile long lastWokenTick;
 
 	public WorldObject() { this("World Object"); }
 
@@ -27,17 +45,46 @@ public class WorldObject extends EventExecutor
 		vector2D = Vector2D.ORIGIN;
 		this.name = name;
 		angle = new Angle();
-		properties = new HashMap<>();
+		propertySlots = new PropertySlots();
+		properties = new PropertyMap(propertySlots);
 	}
 
 	public Angle getAngle() { return angle; }
 
-	public void setAngle(Angle angle) { this.angle = angle; }
+	public void setAngle(Angle angle) {
+		this.angle = angle;
+		wake();
+	}
 
 	public Vector2D getVector2D() { return vector2D; }
 
-	public void setVector2D(Vector2D vector2D) {
+	public void setVector2D(Vector2D vector2D) { moveTo(vector2D, getVector2D()); }
+
+	/**
+	 * Store the new position of this object and update the spatial index of its zone; if the position has changed,
+	 * wake this object and its neighbours.
+	 * @param vector2D The new position.
+	 * @param previous The position before the move.
+	 */
+	void moveTo(Vector2D vector2D, Vector2D previous) {
 		this.vector2D = vector2D;
+		if (world != null)
+		{
+			world.getWorldObjects().objectMoved(this);
+		}
+		if (!Objects.equals(previous, vector2D))
+		{
+			moved(previous != null && vector2D != null ? previous.getDistanceToVector(vector2D) : 0);
+		}
+	}
+
+	/**
+	 * Wake this object, and every sleeping object near enough to have seen it during a move of the given distance.
+	 * @param distance The distance this object has moved.
+	 */
+	public void moved(double distance) {
+		wake();
+		if (world != null) { world.wakeNeighbours(this, distance); }
 	}
 
 	public int getResourceID() { return resourceID; }
@@ -48,7 +95,160 @@ public class WorldObject extends EventExecutor
 
 	public void setId(int id) { this.id = id; }
 
-	public HashMap<String, Object> getProperties() { return properties; }
+	/**
+	 * Get the properties of this object by name, including those set through a {@code PropertyKey}.
+	 * @return A view of the properties of this object; changes to it are made to this object.
+	 */
+	public Map<String, Object> getProperties() { return properties; }
+
+	/**
+	 * Set a property of this object and wake it.
+	 * @param key The name of the property.
+	 * @param value The new value of the property; if the name belongs to a {@code PropertyKey} whose type does not match
+	 * the value, the value is only found by name.
+	 */
+	public void setProperty(String key, Object value) {
+		properties.put(key, value);
+		wake();
+	}
+
+	/**
+	 * Get the value of a property of this object.
+	 * @param key The key of the property.
+	 * @param <T> The type of the value of the property.
+	 * @return The value of the property, or the default value of the key if it is not set.
+	 */
+	public <T> T getProperty(PropertyKey<T> key) {
+		T value = getPropertySlots().get(key);
+		return value != null ? value : key.getDefaultValue();
+	}
+
+	/**
+	 * Set a property of this object and wake it.
+	 * @param key The key of the property.
+	 * @param value The new value of the property, or null to remove it.
+	 * @param <T> The type of the value of the property.
+	 */
+	public <T> void setProperty(PropertyKey<T> key, T value) {
+		getPropertySlots().put(key, value);
+		properties.typedValueSet(key);
+		wake();
+	}
+
+	/**
+	 * Get the value of a numeric property of this object without boxing it.
+	 * @param key The key of the property.
+	 * @return The value of the property, or the default value of the key if it is not set; zero if it has none.
+	 */
+	public double getDouble(PropertyKey<? extends Number> key) { return getPropertySlots().getDouble(key); }
+
+	/**
+	 * Set a numeric property of this object without boxing it, converting the value to the type of the key, and wake
+	 * this object.
+	 * @param key The key of the property.
+	 * @param value The new value of the property.
+	 */
+	public void setDouble(PropertyKey<? extends Number> key, double value) {
+		getPropertySlots().putBits(key, key.fromDouble(value));
+		properties.typedValueSet(key);
+		wake();
+	}
+
+	/**
+	 * Get the value of a numeric property of this object without boxing it.
+	 * @param key The key of the property.
+	 * @return The value of the property, or the default value of the key if it is not set; zero if it has none.
+	 */
+	public long getLong(PropertyKey<? extends Number> key) { return getPropertySlots().getLong(key); }
+
+	/**
+	 * Set a numeric property of this object without boxing it, converting the value to the type of the key, and wake
+	 * this object.
+	 * @param key The key of the property.
+	 * @param value The new value of the property.
+	 */
+	public void setLong(PropertyKey<? extends Number> key, long value) {
+		getPropertySlots().putBits(key, key.fromLong(value));
+		properties.typedValueSet(key);
+		wake();
+	}
+
+	/**
+	 * Determine whether a property of this object is set.
+	 * @param key The key of the property.
+	 * @return Whether the property is set.
+	 */
+	public boolean hasProperty(PropertyKey<?> key) { return getPropertySlots().contains(key); }
+
+	/**
+	 * Determine whether a property of this object has been set or removed since {@link #clearPropertyChanges()} was
+	 * last called.
+	 * @param key The key of the property.
+	 * @return Whether the property has changed.
+	 */
+	public boolean isPropertyChanged(PropertyKey<?> key) { return getPropertySlots().isChanged(key); }
+
+	/**
+	 * Get the keys of the properties of this object which have been set or removed since {@link
+	 * #clearPropertyChanges()} was last called.
+	 * @return The keys of the changed properties, in order of slot.
+	 */
+	public List<PropertyKey<?>> getChangedProperties() {
+		List<PropertyKey<?>> changed = new ArrayList<>();
+		PropertySlots slots = getPropertySlots();
+		for (int slot = slots.nextChangedSlot(0); slot >= 0; slot = slots.nextChangedSlot(slot + 1))
+		{
+			changed.add(PropertyKey.forSlot(slot));
+		}
+		return changed;
+	}
+
+	/**
+	 * Forget which properties of this object have changed.
+	 */
+	public void clearPropertyChanges() { getPropertySlots().clearChanges(); }
+
+	/** Get the typed properties of this object, first moving in any set by name before their keys were registered. */
+	private PropertySlots getPropertySlots() {
+		properties.sync();
+		return propertySlots;
+	}
+
+	/**
+	 * Wake this object, so that it is updated for at least {@link World#SLEEP_DELAY} more updates.
+	 */
+	public void wake() {
+		World current = world;
+		lastWokenTick = current != null ? current.getTick() : 0;
+		sleeping = false;
+	}
+
+	/**
+	 * Put this object to sleep if it may sleep and has not been woken during the last {@link World#SLEEP_DELAY}
+	 * updates; if it is woken from another thread while this happens, it stays awake.
+	 * @param tick The current update of the world.
+	 * @return Whether this object is now asleep.
+	 */
+	boolean trySleep(long tick) {
+		long woken = lastWokenTick;
+		if (!sleepable || tick - woken < World.SLEEP_DELAY) { return false; }
+		sleeping = true;
+		if (lastWokenTick != woken) { sleeping = false; }
+		return sleeping;
+	}
+
+	public boolean isSleeping() { return sleeping; }
+
+	public boolean isSleepable() { return sleepable; }
+
+	/**
+	 * Set whether this object may be put to sleep; an object which may not is woken.
+	 * @param sleepable Whether this object may be put to sleep.
+	 */
+	public void setSleepable(boolean sleepable) {
+		this.sleepable = sleepable;
+		if (!sleepable) { wake(); }
+	}
 
 	public World getWorld() { return world; }
 
@@ -56,11 +256,21 @@ public class WorldObject extends EventExecutor
 		if (this.world != null)
 			throw new IllegalArgumentException("The world has already been set for this object.");
 		this.world = world;
+		wake();
 	}
 
 	public int getZoneID() { return zoneID; }
 
-	public void setZoneID(int zoneID) { this.zoneID = zoneID; }
+	public void setZoneID(int zoneID) {
+		boolean changed = this.zoneID != zoneID;
+		if (changed && world != null) { world.wakeNeighbours(this, 0); }
+		this.zoneID = zoneID;
+		if (world != null)
+		{
+			world.getWorldObjects().objectMoved(this);
+		}
+		if (changed) { moved(0); }
+	}
 
 	public String getName() { return name; }
 
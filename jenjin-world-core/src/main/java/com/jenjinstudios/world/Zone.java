@@ -1,11 +1,26 @@
 package com.jenjinstudios.world;
 
-import com.jenjinstudios.world.collections.LocationCollection;
+import com.jenjinstudios.world.collections.*;
 import com.jenjinstudios.world.math.Dimension2D;
+import com.jenjinstudios.world.math.FieldOfVisionCache;
+import com.jenjinstudios.world.math.Vector2D;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
+import java.util.Collection;
 
 /**
  * The {@code Zone} class represents a grid of {@code Location} objects within the {@code World}.  Zones cannot be
  * accessed from other Zones.  Support for this feature is planned in a future release.
+ * <p>
+ * Each tile is stored as a tile type in a {@code TileGrid}, which divides the zone into chunks that are built when
+ * first read and may be evicted when no object is near them; the type refers to a set of properties shared through the
+ * zone's {@code TilePalette}.  {@code Location} objects are created only when requested.  Only locations which differ
+ * from the default are kept in the location grid which is written to the world file.
+ * <p>
+ * If the zone names a tile file, its tiles are instead read from that file through a {@code MappedTileStorage}, which
+ * keeps them off the heap; the tile file, rather than the location grid, then decides the type of each tile.
  * @author Caleb Brinkman
  */
 public class Zone
@@ -13,7 +28,18 @@ public class Zone
 	private int id;
 	private int xSize;
 	private int ySize;
+	/** The special locations of this zone; any location not listed here has default properties. */
 	private LocationCollection locationGrid;
+	/** The kind of index used to organize the objects in this zone; a grid if not specified. */
+	private SpatialIndexType spatialIndex;
+	/** The path of the memory-mapped file holding the tiles of this zone; if null, the tiles are kept on the heap. */
+	private String tileFile;
+	/** The tiles of this zone; built or opened on first access. */
+	private transient volatile TileStorage tiles;
+	/** The number of times the tiles of this zone have been changed. */
+	private transient volatile int version;
+	/** The fields of vision calculated in this zone; created on first access. */
+	private transient volatile FieldOfVisionCache fieldOfVisionCache;
 
 	/**
 	 * Construct a new zone with the given ID and size.
@@ -26,21 +52,120 @@ public class Zone
 		this.ySize = size.getYSize();
 
 		locationGrid = new LocationCollection();
-		populateLocations();
 		locationGrid.addAll(specialLocations);
 	}
 
 	public Zone() { }
 
-	public LocationCollection getLocationGrid() {
-		if (locationGrid != null && locationGrid.size() < xSize * ySize)
+	/**
+	 * Get the location at the given grid coordinates.
+	 * @param x The x coordinate on the grid.
+	 * @param y The y coordinate on the grid.
+	 * @return The location at the given coordinates, or null if they are outside of this zone.
+	 */
+	public Location getLocation(int x, int y) {
+		if (!inBounds(x, y)) { return null; }
+		TileStorage storage = getTileStorage();
+		return new Location(x, y, storage.getPalette().getProperties(storage.getType(x, y)));
+	}
+
+	/**
+	 * Determine whether the location at the given grid coordinates can be walked on.
+	 * @param x The x coordinate on the grid.
+	 * @param y The y coordinate on the grid.
+	 * @return Whether the location can be walked on; false if the coordinates are outside of this zone.
+	 */
+	public boolean isWalkable(int x, int y) {
+		return getTileStorage().isWalkable(x, y);
+	}
+
+	/**
+	 * Get the tile type of the location at the given grid coordinates.
+	 * @param x The x coordinate on the grid.
+	 * @param y The y coordinate on the grid.
+	 * @return The tile type, or -1 if the coordinates are outside of this zone.
+	 */
+	public int getTileType(int x, int y) { return getTileStorage().getType(x, y); }
+
+	/**
+	 * Get the palette of tile types used by this zone.
+	 * @return The palette of tile types used by this zone.
+	 */
+	public TilePalette getTilePalette() { return getTileStorage().getPalette(); }
+
+	/**
+	 * Evict the chunks of this zone which none of the given positions are in or next to.
+	 * @param positions The positions of the objects in this zone.
+	 * @return The number of chunks evicted.
+	 */
+	public int evictChunksAwayFrom(Collection<Vector2D> positions) {
+		return tiles == null ? 0 : tiles.evictChunksAwayFrom(positions, 1);
+	}
+
+	/**
+	 * Replace the location with the same coordinates as the given location.
+	 * @param location The new location.
+	 * @throws IllegalArgumentException If the location is outside of this zone.
+	 */
+	public synchronized void setLocation(Location location) {
+		if (!inBounds(location.getX(), location.getY()))
+			throw new IllegalArgumentException("Location " + location + " is outside of zone " + id);
+		Location copy = new Location(location.getX(), location.getY(), location.getProperties());
+		getTileStorage().setLocation(copy);
+		getSpecialLocations().add(copy);
+		version++;
+	}
+
+	/**
+	 * Create a new collection containing a copy of every location in this zone.  This allocates a location for every
+	 * tile, so it should not be called while the world is running; to read single tiles use {@link #getLocation(int,
+	 * int)}.  Changes to the collection are not reflected in this zone; use {@link #setLocation(Location)} to replace a
+	 * location.
+	 * @return A new collection containing a copy of every location in this zone.
+	 */
+	public LocationCollection copyLocationGrid() {
+		LocationCollection grid = new LocationCollection();
+		for (int y = 0; y < ySize; y++)
 		{
-			populateLocations();
-		} else if (locationGrid == null)
+			for (int x = 0; x < xSize; x++)
+			{
+				grid.add(getLocation(x, y));
+			}
+		}
+		return grid;
+	}
+
+	public SpatialIndexType getSpatialIndexType() {
+		return spatialIndex == null ? SpatialIndexType.GRID : spatialIndex;
+	}
+
+	public void setSpatialIndexType(SpatialIndexType spatialIndexType) { this.spatialIndex = spatialIndexType; }
+
+	/**
+	 * Get the version of the tiles of this zone, which changes whenever a tile is replaced or the tile file is changed.
+	 * @return The version of the tiles of this zone.
+	 */
+	public int getVersion() { return version; }
+
+	/**
+	 * Get the cache of the fields of vision calculated in this zone.
+	 * @return The cache of the fields of vision calculated in this zone.
+	 */
+	public FieldOfVisionCache getFieldOfVisionCache() {
+		FieldOfVisionCache cache = fieldOfVisionCache;
+		if (cache == null)
 		{
-			locationGrid = new LocationCollection();
+			synchronized (this)
+			{
+				cache = fieldOfVisionCache;
+				if (cache == null)
+				{
+					cache = new FieldOfVisionCache(this);
+					fieldOfVisionCache = cache;
+				}
+			}
 		}
-		return locationGrid;
+		return cache;
 	}
 
 	public int getId() { return id; }
@@ -49,16 +174,88 @@ public class Zone
 
 	public int getYSize() { return ySize; }
 
-	private void populateLocations() { for (int x = 0; x < xSize; x++) { populateColumn(x); } }
+	/**
+	 * Get the path of the memory-mapped file holding the tiles of this zone.
+	 * @return The path of the tile file, or null if the tiles are kept on the heap.
+	 */
+	public String getTileFile() { return tileFile; }
 
-	private void populateColumn(int x) {
-		for (int y = 0; y < ySize; y++)
+	/**
+	 * Set the path of the memory-mapped file holding the tiles of this zone; the file is opened the next time a tile is
+	 * read.  Use {@link MappedTileStorage#create} to write a tile file.
+	 * @param tileFile The path of the tile file, or null to keep the tiles on the heap.
+	 * @throws UncheckedIOException If the previously opened tile file cannot be closed.
+	 */
+	public synchronized void setTileFile(String tileFile) {
+		TileStorage previous = tiles;
+		this.tileFile = tileFile;
+		tiles = null;
+		version++;
+		if (previous instanceof MappedTileStorage)
+		{
+			try
+			{
+				((MappedTileStorage) previous).close();
+			} catch (IOException e)
+			{
+				throw new UncheckedIOException("Unable to close tile file of zone " + id, e);
+			}
+		}
+	}
+
+	private LocationCollection getSpecialLocations() {
+		if (locationGrid == null)
 		{
-			if (!locationGrid.containsLocationWithXY(x, y))
+			locationGrid = new LocationCollection();
+		}
+		return locationGrid;
+	}
+
+	private boolean inBounds(int x, int y) { return x >= 0 && x < xSize && y >= 0 && y < ySize; }
+
+	/**
+	 * Get the storage holding the tiles of this zone, opening the tile file or building the tile grid if necessary.
+	 * @return The storage holding the tiles of this zone.
+	 * @throws UncheckedIOException If the tile file cannot be opened.
+	 * @throws IllegalStateException If the tile file is not the same size as this zone.
+	 */
+	public TileStorage getTileStorage() {
+		TileStorage storage = tiles;
+		if (storage == null)
+		{
+			synchronized (this)
 			{
-				locationGrid.add(new Location(x, y));
+				storage = tiles;
+				if (storage == null)
+				{
+					storage = tileFile != null ? openTileFile() :
+						  new TileGrid(xSize, ySize, getSpecialLocations());
+					tiles = storage;
+				}
 			}
 		}
+		return storage;
 	}
 
+	private MappedTileStorage openTileFile() {
+		MappedTileStorage storage;
+		try
+		{
+			storage = MappedTileStorage.open(Paths.get(tileFile));
+		} catch (IOException e)
+		{
+			throw new UncheckedIOException("Unable to open tile file for zone " + id + ": " + tileFile, e);
+		}
+		if (storage.getXSize() != xSize || storage.getYSize() != ySize)
+		{
+			try
+			{
+				storage.close();
+			} catch (IOException ignored)
+			{
+			}
+			throw new IllegalStateException("Tile file " + tileFile + " does not match the size of zone " + id);
+		}
+		return storage;
+	}
 }
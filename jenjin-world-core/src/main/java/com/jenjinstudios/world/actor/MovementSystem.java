@@ -0,0 +1,197 @@
+package com.jenjinstudios.world.actor;
+
+import com.jenjinstudios.world.Actor;
+import com.jenjinstudios.world.World;
+import com.jenjinstudios.world.WorldObject;
+import com.jenjinstudios.world.math.Angle;
+import com.jenjinstudios.world.math.MathUtil;
+import com.jenjinstudios.world.math.Vector2D;
+import com.jenjinstudios.world.util.ActorUtils;
+import com.jenjinstudios.world.util.ZoneUtils;
+
+import java.util.Arrays;
+
+/**
+ * The {@code MovementSystem} class moves every actor in a world in a single pass over primitive arrays, instead of each
+ * actor stepping itself forward during its own update.  The position, speed and the cosine and sine of the step angle
+ * of each actor are stored side by side in arrays; the cosine and sine are copied from the actor's angle when it
+ * changes, rather than computed every step, and idle actors are skipped.  Every actor which is not idle is moved,
+ * whether or not it is asleep, and moving wakes it.
+ * <p>
+ * While an actor is managed by a movement system, the arrays hold its position; {@link Actor#getVector2D()} returns a
+ * view of them, which is only created again after the actor has moved.  Actors are added to and removed from the
+ * system of their world as they are added to and removed from the world.
+ * <p>
+ * Like the rest of the world's state, the system is meant to be changed by the thread updating the world; the
+ * accessors for a single actor do not lock, so that the spatial indexes can read positions while the system is moving
+ * actors.
+ *
+ * @author Caleb Brinkman
+ */
+public class MovementSystem
+{
+	/** Positions are rounded to four decimal places after each step, as by {@code Vector2D.getVectorInDirection}. */
+	private static final int DECIMAL_PLACES = 4;
+	private Actor[] actors = new Actor[64];
+	private double[] xCoordinates = new double[64];
+	private double[] yCoordinates = new double[64];
+	private double[] speeds = new double[64];
+	private double[] stepCos = new double[64];
+	private double[] stepSin = new double[64];
+	private boolean[] moving = new boolean[64];
+	/** The position of each actor as a {@code Vector2D}; null if the actor has moved since it was last requested. */
+	private Vector2D[] views = new Vector2D[64];
+	private int size;
+
+	/**
+	 * Start managing the movement of the given actor.  Does nothing if the actor is already managed by this system.
+	 *
+	 * @param actor The actor.
+	 *
+	 * @throws IllegalArgumentException If the actor is managed by another movement system.
+	 */
+	public synchronized void add(Actor actor) {
+		if (actor.getMovementSystem() == this) { return; }
+		if (actor.getMovementSystem() != null)
+			throw new IllegalArgumentException("Actor " + actor + " is already managed by another movement system.");
+		if (size == actors.length) { grow(); }
+		int index = size++;
+		actors[index] = actor;
+		setVector2D(index, actor.getVector2D());
+		setAngle(index, actor.getAngle());
+		speeds[index] = actor.getMoveSpeed();
+		actor.setMovementSlot(this, index);
+	}
+
+	/**
+	 * Stop managing the movement of the given object, copying its position back to it.  Does nothing if the object is
+	 * not an actor managed by this system.
+	 *
+	 * @param worldObject The object.
+	 */
+	public synchronized void remove(WorldObject worldObject) {
+		if (!(worldObject instanceof Actor) || ((Actor) worldObject).getMovementSystem() != this) { return; }
+		Actor actor = (Actor) worldObject;
+		int index = actor.getMovementIndex();
+		Vector2D vector2D = getVector2D(index);
+		int last = --size;
+		if (index != last)
+		{
+			actors[index] = actors[last];
+			xCoordinates[index] = xCoordinates[last];
+			yCoordinates[index] = yCoordinates[last];
+			speeds[index] = speeds[last];
+			stepCos[index] = stepCos[last];
+			stepSin[index] = stepSin[last];
+			moving[index] = moving[last];
+			views[index] = views[last];
+			actors[index].setMovementSlot(this, index);
+		}
+		actors[last] = null;
+		views[last] = null;
+		actor.setMovementSlot(null, -1);
+		actor.setVector2D(vector2D);
+	}
+
+	/**
+	 * Move every managed actor which is not idle forward by the distance it covers in the given time.  An actor whose
+	 * step would take it onto a tile which cannot be walked on is forced to idle instead, as in {@link
+	 * ActorUtils#stepForward(Actor)}.
+	 *
+	 * @param world The world containing the actors.
+	 * @param seconds The time since the last step, in seconds.
+	 */
+	public synchronized void integrate(World world, double seconds) {
+		for (int i = 0; i < size; i++)
+		{
+			if (!moving[i]) { continue; }
+			double distance = speeds[i] * seconds;
+			double newX = MathUtil.round(xCoordinates[i] + distance * stepCos[i], DECIMAL_PLACES);
+			double newY = MathUtil.round(yCoordinates[i] + distance * stepSin[i], DECIMAL_PLACES);
+			Actor actor = actors[i];
+			if (ZoneUtils.isWalkable(world.getZones().get(actor.getZoneID()), newX, newY))
+			{
+				xCoordinates[i] = newX;
+				yCoordinates[i] = newY;
+				views[i] = null;
+				world.getWorldObjects().objectMoved(actor);
+				actor.moved(distance);
+			} else
+			{
+				ActorUtils.forceIdle(actor);
+			}
+		}
+	}
+
+	/**
+	 * Get the number of actors managed by this system.
+	 *
+	 * @return The number of actors managed by this system.
+	 */
+	public synchronized int size() { return size; }
+
+	/**
+	 * Get the position of the actor at the given index.
+	 *
+	 * @param index The index of the actor.
+	 *
+	 * @return The position of the actor.
+	 */
+	public Vector2D getVector2D(int index) {
+		Vector2D view = views[index];
+		if (view == null)
+		{
+			view = new Vector2D(xCoordinates[index], yCoordinates[index]);
+			views[index] = view;
+		}
+		return view;
+	}
+
+	/**
+	 * Set the position of the actor at the given index.
+	 *
+	 * @param index The index of the actor.
+	 * @param vector2D The new position; null is treated as the origin.
+	 */
+	public void setVector2D(int index, Vector2D vector2D) {
+		Vector2D position = vector2D != null ? vector2D : Vector2D.ORIGIN;
+		xCoordinates[index] = position.getXCoordinate();
+		yCoordinates[index] = position.getYCoordinate();
+		views[index] = position;
+	}
+
+	/**
+	 * Set the angle of the actor at the given index.
+	 *
+	 * @param index The index of the actor.
+	 * @param angle The new angle.
+	 */
+	public void setAngle(int index, Angle angle) {
+		moving[index] = angle != null && angle.isNotIdle();
+		if (moving[index])
+		{
+			stepCos[index] = angle.getStepCos();
+			stepSin[index] = angle.getStepSin();
+		}
+	}
+
+	/**
+	 * Set the move speed of the actor at the given index.
+	 *
+	 * @param index The index of the actor.
+	 * @param speed The new move speed.
+	 */
+	public void setSpeed(int index, double speed) { speeds[index] = speed; }
+
+	private void grow() {
+		int capacity = actors.length * 2;
+		actors = Arrays.copyOf(actors, capacity);
+		xCoordinates = Arrays.copyOf(xCoordinates, capacity);
+		yCoordinates = Arrays.copyOf(yCoordinates, capacity);
+		speeds = Arrays.copyOf(speeds, capacity);
+		stepCos = Arrays.copyOf(stepCos, capacity);
+		stepSin = Arrays.copyOf(stepSin, capacity);
+		moving = Arrays.copyOf(moving, capacity);
+		views = Arrays.copyOf(views, capacity);
+	}
+}
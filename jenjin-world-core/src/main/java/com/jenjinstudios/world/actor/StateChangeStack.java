@@ -1,38 +1,62 @@
 package com.jenjinstudios.world.actor;
 
 import com.jenjinstudios.world.Actor;
+import com.jenjinstudios.world.World;
 import com.jenjinstudios.world.WorldObject;
 import com.jenjinstudios.world.event.EventStack;
 import com.jenjinstudios.world.math.Angle;
 import com.jenjinstudios.world.math.Vector2D;
 import com.jenjinstudios.world.state.MoveState;
 
-import java.util.LinkedList;
+import java.util.AbstractList;
+import java.util.ConcurrentModificationException;
 import java.util.List;
+import java.util.RandomAccess;
 
 /**
+ * Records the changes to the angle of an object made during each update.
+ * <p>
+ * Changes are stored in a ring buffer of {@link #CAPACITY} entries, and the changes made during the current update are
+ * published as a read-only {@link StateChangeView}, which is only replaced when a change is recorded or a new update
+ * begins.  Any number of threads may read and iterate the same view at once without copying it or taking a lock; a
+ * view is only invalid once enough later changes have been recorded to overwrite its entries, in which case reading it
+ * throws a {@code ConcurrentModificationException}.
  * @author Caleb Brinkman
  */
 public class StateChangeStack implements EventStack
 {
 	public static final String STACK_NAME = "stateChangeStack";
-	private final List<MoveState> stateChanges;
+	/** The number of changes kept; older changes are overwritten. */
+	public static final int CAPACITY = 16;
+	private final MoveState[] stateChanges = new MoveState[CAPACITY];
 	private final WorldObject worldObject;
+	/** The number of changes ever recorded; the next change is stored at this number modulo the capacity. */
+	private volatile long recorded;
+	/** The changes recorded during the current update. */
+	private volatile StateChangeView currentView;
 	private Angle preUpdateAngle;
 
 	public StateChangeStack(WorldObject worldObject) {
 		this.worldObject = worldObject;
-		stateChanges = new LinkedList<>();
+		currentView = new StateChangeView(0, 0, 0);
 	}
 
-	public List<MoveState> getStateChanges() { synchronized (stateChanges) { return new LinkedList<>(stateChanges); } }
+	/**
+	 * Get the changes recorded during the current update, as a read-only list.
+	 * @return The changes recorded during the current update.
+	 */
+	public List<MoveState> getStateChanges() { return currentView; }
+
+	/**
+	 * Get the changes recorded during the current update, along with the tick of the world at which the update began.
+	 * @return The changes recorded during the current update.
+	 */
+	public StateChangeView getStateChangeView() { return currentView; }
 
 	@Override
 	public void onPreUpdate() {
-		synchronized (stateChanges)
-		{
-			stateChanges.clear();
-		}
+		long count = recorded;
+		currentView = new StateChangeView(count, count, getTick());
 	}
 
 	@Override
@@ -59,11 +83,8 @@ public class StateChangeStack implements EventStack
 		if (stateChanged)
 		{
 			Vector2D vector2D = worldObject.getVector2D();
-			long timeOfChange = worldObject.getWorld().getLastUpdateCompleted();
-			synchronized (stateChanges)
-			{
-				stateChanges.add(new MoveState(postAngle, vector2D, timeOfChange));
-			}
+			long timeOfChange = worldObject.getWorld().getClock().getTimeMillis();
+			record(new MoveState(postAngle, vector2D, timeOfChange));
 		}
 
 		preUpdateAngle = worldObject.getAngle();
@@ -74,4 +95,55 @@ public class StateChangeStack implements EventStack
 
 	@Override
 	public void onInitialize() { }
+
+	private void record(MoveState moveState) {
+		long count = recorded;
+		stateChanges[(int) (count % CAPACITY)] = moveState;
+		recorded = count + 1;
+		StateChangeView view = currentView;
+		long start = Math.max(view.start, count + 1 - CAPACITY);
+		currentView = new StateChangeView(start, count + 1, view.tick);
+	}
+
+	private long getTick() {
+		World world = worldObject.getWorld();
+		return world != null ? world.getTick() : 0;
+	}
+
+	/**
+	 * A read-only view of the changes recorded during one update.
+	 */
+	public class StateChangeView extends AbstractList<MoveState> implements RandomAccess
+	{
+		private final long start;
+		private final long end;
+		private final long tick;
+
+		private StateChangeView(long start, long end, long tick) {
+			this.start = start;
+			this.end = end;
+			this.tick = tick;
+		}
+
+		@Override
+		public MoveState get(int index) {
+			if (index < 0 || index >= size())
+				throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+			long position = start + index;
+			MoveState moveState = stateChanges[(int) (position % CAPACITY)];
+			// Once the change which replaces this entry has begun to be recorded, the entry read may be the new one.
+			if (recorded - position >= CAPACITY)
+				throw new ConcurrentModificationException("State change " + position + " has been overwritten.");
+			return moveState;
+		}
+
+		@Override
+		public int size() { return (int) (end - start); }
+
+		/**
+		 * Get the tick of the world at which the update during which these changes were recorded began.
+		 * @return The tick of the world at which these changes began to be recorded.
+		 */
+		public long getTick() { return tick; }
+	}
 }
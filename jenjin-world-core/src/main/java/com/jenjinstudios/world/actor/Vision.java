@@ -4,71 +4,258 @@ import com.jenjinstudios.world.WorldObject;
 import com.jenjinstudios.world.event.PreUpdateEvent;
 import com.jenjinstudios.world.math.SightCalculator;
 
-import java.util.Collection;
-import java.util.HashSet;
-import java.util.Set;
+import java.util.*;
+import java.util.function.Consumer;
 
 /**
+ * Tracks the objects a world object can see, and which of them became visible or invisible during the last update.
+ * <p>
+ * The visible objects are kept in an array sorted by ID, so the objects which became visible or invisible are found
+ * by a single merge of the old and new arrays.  The results are published together as an immutable snapshot, which is
+ * only replaced when the visible objects change; any thread may read or iterate them without copying or locking, and
+ * the {@code forEach} methods do so without allocating.
+ *
  * @author Caleb Brinkman
  */
 public class Vision implements PreUpdateEvent
 {
 	public static final String EVENT_NAME = "visionEvent";
-	private transient final Set<WorldObject> visibleObjects = new HashSet<>();
-	private transient final Set<WorldObject> newlyVisibleObjects = new HashSet<>();
-	private transient final Set<WorldObject> newlyInvisibleObjects = new HashSet<>();
+	private static final WorldObject[] NO_OBJECTS = new WorldObject[0];
+	private static final VisionState EMPTY = new VisionState(new int[0], NO_OBJECTS, NO_OBJECTS, NO_OBJECTS);
 	private transient final WorldObject worldObject;
+	private transient volatile VisionState state = EMPTY;
+	/** The objects currently visible, in the order they were found; reused between updates. */
+	private transient WorldObject[] candidates = new WorldObject[16];
+	/** The ID of each candidate in the high bits and its index in the low bits, sorted; reused between updates. */
+	private transient long[] sortKeys = new long[16];
 
 	public Vision(WorldObject worldObject) {
 		this.worldObject = worldObject;
 	}
 
-	public Set<WorldObject> getVisibleObjects() {
-		synchronized (visibleObjects)
+	public Set<WorldObject> getVisibleObjects() { return new ObjectSet(state.visible); }
+
+	public Set<WorldObject> getNewlyVisibleObjects() { return new ObjectSet(state.newlyVisible); }
+
+	public Set<WorldObject> getNewlyInvisibleObjects() { return new ObjectSet(state.newlyInvisible); }
+
+	/**
+	 * Get the number of objects currently visible.
+	 *
+	 * @return The number of objects currently visible.
+	 */
+	public int getVisibleCount() { return state.visible.length; }
+
+	/**
+	 * Determine whether the object with the given ID is currently visible.
+	 *
+	 * @param id The ID of the object.
+	 *
+	 * @return Whether the object with the given ID is currently visible.
+	 */
+	public boolean canSee(int id) { return Arrays.binarySearch(state.visibleIds, id) >= 0; }
+
+	/**
+	 * Perform the given action on each currently visible object, in order of ID.
+	 *
+	 * @param action The action.
+	 */
+	public void forEachVisible(Consumer<WorldObject> action) { forEach(state.visible, action); }
+
+	/**
+	 * Perform the given action on each object which became visible during the last update, in order of ID.
+	 *
+	 * @param action The action.
+	 */
+	public void forEachNewlyVisible(Consumer<WorldObject> action) { forEach(state.newlyVisible, action); }
+
+	/**
+	 * Perform the given action on each object which became invisible during the last update, in order of ID.
+	 *
+	 * @param action The action.
+	 */
+	public void forEachNewlyInvisible(Consumer<WorldObject> action) { forEach(state.newlyInvisible, action); }
+
+	/**
+	 * Replace the visible objects, working out which have become visible and which have become invisible.  Should only
+	 * be called by one thread at a time, normally the one updating the world.
+	 *
+	 * @param currentlyVisible The objects which are now visible.
+	 */
+	public void setVisibleObjects(Collection<WorldObject> currentlyVisible) {
+		int count = sortCandidates(currentlyVisible);
+		VisionState previous = state;
+		int[] oldIds = previous.visibleIds;
+		WorldObject[] oldObjects = previous.visible;
+		int newlyVisibleCount = 0;
+		int newlyInvisibleCount = 0;
+		int i = 0;
+		int j = 0;
+		while (i < oldIds.length || j < count)
+		{
+			int comparison = compare(oldIds, oldObjects, i, j, count);
+			if (comparison < 0) { newlyInvisibleCount++; i++; }
+			else if (comparison > 0) { newlyVisibleCount++; j++; }
+			else { i++; j++; }
+		}
+		if (newlyVisibleCount == 0 && newlyInvisibleCount == 0)
 		{
-			return new HashSet<>(visibleObjects);
+			Arrays.fill(candidates, 0, count, null);
+			if (previous.newlyVisible.length > 0 || previous.newlyInvisible.length > 0)
+			{
+				state = new VisionState(oldIds, oldObjects, NO_OBJECTS, NO_OBJECTS);
+			}
+			return;
 		}
+		int[] ids = new int[count];
+		WorldObject[] visible = new WorldObject[count];
+		WorldObject[] newlyVisible = new WorldObject[newlyVisibleCount];
+		WorldObject[] newlyInvisible = new WorldObject[newlyInvisibleCount];
+		for (int k = 0; k < count; k++)
+		{
+			visible[k] = candidates[(int) sortKeys[k]];
+			ids[k] = (int) (sortKeys[k] >> 32);
+		}
+		newlyVisibleCount = 0;
+		newlyInvisibleCount = 0;
+		i = 0;
+		j = 0;
+		while (i < oldIds.length || j < count)
+		{
+			int comparison = compare(oldIds, oldObjects, i, j, count);
+			if (comparison < 0) { newlyInvisible[newlyInvisibleCount++] = oldObjects[i++]; }
+			else if (comparison > 0) { newlyVisible[newlyVisibleCount++] = visible[j++]; }
+			else { i++; j++; }
+		}
+		Arrays.fill(candidates, 0, count, null);
+		state = new VisionState(ids, visible, newlyVisible, newlyInvisible);
 	}
 
-	public Set<WorldObject> getNewlyVisibleObjects() {
-		synchronized (newlyVisibleObjects)
+	@Override
+	public void onPreUpdate() {
+		Collection<WorldObject> objects = SightCalculator.getVisibleObjects(worldObject);
+		setVisibleObjects(objects);
+	}
+
+	/**
+	 * Copy the given objects into the candidate array, and sort their keys by ID, dropping repeated objects.
+	 *
+	 * @return The number of distinct candidates.
+	 */
+	private int sortCandidates(Collection<WorldObject> currentlyVisible) {
+		int size = currentlyVisible.size();
+		if (candidates.length < size)
 		{
-			return new HashSet<>(newlyVisibleObjects);
+			int capacity = Math.max(size, candidates.length * 2);
+			candidates = new WorldObject[capacity];
+			sortKeys = new long[capacity];
 		}
+		int index = 0;
+		for (WorldObject visible : currentlyVisible)
+		{
+			candidates[index] = visible;
+			sortKeys[index] = ((long) visible.getId() << 32) | index;
+			index++;
+		}
+		Arrays.sort(sortKeys, 0, size);
+		int count = 0;
+		for (int k = 0; k < size; k++)
+		{
+			if (count > 0 && (sortKeys[count - 1] >> 32) == (sortKeys[k] >> 32) &&
+				  candidates[(int) sortKeys[count - 1]] == candidates[(int) sortKeys[k]])
+			{
+				continue;
+			}
+			sortKeys[count++] = sortKeys[k];
+		}
+		return count;
 	}
 
-	public Set<WorldObject> getNewlyInvisibleObjects() {
-		synchronized (newlyInvisibleObjects)
+	/**
+	 * Compare the old visible object at index {@code i} with the new candidate at index {@code j}, treating a missing
+	 * entry as greater than any other.  Two objects with the same ID are only the same if they are the same object.
+	 */
+	private int compare(int[] oldIds, WorldObject[] oldObjects, int i, int j, int count) {
+		if (i == oldIds.length) { return 1; }
+		if (j == count) { return -1; }
+		int newId = (int) (sortKeys[j] >> 32);
+		if (oldIds[i] != newId) { return oldIds[i] < newId ? -1 : 1; }
+		return oldObjects[i] == candidates[(int) sortKeys[j]] ? 0 : -1;
+	}
+
+	private static void forEach(WorldObject[] objects, Consumer<WorldObject> action) {
+		for (WorldObject object : objects)
 		{
-			return new HashSet<>(newlyInvisibleObjects);
+			action.accept(object);
 		}
 	}
 
-	public void setVisibleObjects(Collection<WorldObject> currentlyVisible) {
-		synchronized (newlyVisibleObjects)
+	/**
+	 * The visible objects and the changes to them made by one update.
+	 */
+	private static final class VisionState
+	{
+		private final int[] visibleIds;
+		private final WorldObject[] visible;
+		private final WorldObject[] newlyVisible;
+		private final WorldObject[] newlyInvisible;
+
+		private VisionState(int[] visibleIds, WorldObject[] visible, WorldObject[] newlyVisible,
+							WorldObject[] newlyInvisible)
 		{
-			newlyVisibleObjects.clear();
-			currentlyVisible.stream().
-				  filter(o -> !getVisibleObjects().contains(o)).
-				  forEach(newlyVisibleObjects::add);
+			this.visibleIds = visibleIds;
+			this.visible = visible;
+			this.newlyVisible = newlyVisible;
+			this.newlyInvisible = newlyInvisible;
 		}
-		synchronized (newlyInvisibleObjects)
-		{
-			newlyInvisibleObjects.clear();
-			getVisibleObjects().stream().
-				  filter(o -> !currentlyVisible.contains(o)).
-				  forEach(newlyInvisibleObjects::add);
+	}
+
+	/**
+	 * A read-only set backed by an array of objects which will not change.
+	 */
+	private static final class ObjectSet extends AbstractSet<WorldObject>
+	{
+		private final WorldObject[] objects;
+
+		private ObjectSet(WorldObject[] objects) { this.objects = objects; }
+
+		@Override
+		public Iterator<WorldObject> iterator() {
+			return Collections.unmodifiableList(Arrays.asList(objects)).iterator();
 		}
-		synchronized (visibleObjects)
-		{
-			visibleObjects.clear();
-			visibleObjects.addAll(currentlyVisible);
+
+		@Override
+		public int size() { return objects.length; }
+
+		@Override
+		public boolean contains(Object o) {
+			if (!(o instanceof WorldObject)) { return false; }
+			int id = ((WorldObject) o).getId();
+			int low = 0;
+			int high = objects.length - 1;
+			while (low <= high)
+			{
+				int middle = (low + high) >>> 1;
+				int middleId = objects[middle].getId();
+				if (middleId < id) { low = middle + 1; }
+				else if (middleId > id) { high = middle - 1; }
+				else { return containsNear(middle, o); }
+			}
+			return false;
 		}
-	}
 
-	@Override
-	public void onPreUpdate() {
-		Collection<WorldObject> objects = SightCalculator.getVisibleObjects(worldObject);
-		setVisibleObjects(objects);
+		/** Search the run of objects sharing the ID of the object at the given index for one equal to the given one. */
+		private boolean containsNear(int index, Object o) {
+			int id = objects[index].getId();
+			for (int k = index; k >= 0 && objects[k].getId() == id; k--)
+			{
+				if (objects[k].equals(o)) { return true; }
+			}
+			for (int k = index + 1; k < objects.length && objects[k].getId() == id; k++)
+			{
+				if (objects[k].equals(o)) { return true; }
+			}
+			return false;
+		}
 	}
 }
@@ -0,0 +1,132 @@
+package com.jenjinstudios.world.collections;
+
+import java.util.Arrays;
+
+/**
+ * The {@code IdAllocator} class hands out object IDs in constant time.  Each ID is made up of a slot, in the low {@link
+ * #SLOT_BITS} bits, and the generation of that slot, in the bits above it.  Freed slots are kept on a stack and reused,
+ * but every time a slot is freed its generation is advanced, so an ID which has been freed is never handed out again
+ * until the generation wraps around; a stale ID held by another part of the program therefore cannot refer to the new
+ * owner of its slot.
+ * <p>
+ * The first ID handed out for each slot is the slot itself, so a fresh allocator hands out 0, 1, 2 and so on.
+ *
+ * @author Caleb Brinkman
+ */
+public class IdAllocator
+{
+	/** The number of bits of an ID which hold its slot. */
+	public static final int SLOT_BITS = 20;
+	/** The maximum number of IDs which may be allocated at once. */
+	public static final int MAX_SLOTS = 1 << SLOT_BITS;
+	private static final int SLOT_MASK = MAX_SLOTS - 1;
+	/** The number of bits above the slot which hold its generation; the sign bit is never used. */
+	private static final int GENERATION_BITS = 31 - SLOT_BITS;
+	private static final int GENERATION_MASK = (1 << GENERATION_BITS) - 1;
+	/** The current generation of each slot which has ever been used. */
+	private int[] generations = new int[64];
+	/** Whether each slot is currently allocated. */
+	private boolean[] allocated = new boolean[64];
+	/** The slots which have been freed and may be reused. */
+	private int[] freeSlots = new int[64];
+	private int freeCount;
+	/** The number of slots which have ever been used. */
+	private int slotCount;
+	private int allocatedCount;
+
+	/**
+	 * Allocate a new ID.
+	 *
+	 * @return The new ID.
+	 *
+	 * @throws IllegalStateException If {@link #MAX_SLOTS} IDs are already allocated.
+	 */
+	public synchronized int allocate() {
+		int slot;
+		if (freeCount > 0)
+		{
+			slot = freeSlots[--freeCount];
+		} else
+		{
+			if (slotCount >= MAX_SLOTS)
+				throw new IllegalStateException("Cannot allocate more than " + MAX_SLOTS + " IDs.");
+			slot = slotCount++;
+			if (slot >= generations.length)
+			{
+				int capacity = Math.min(generations.length * 2, MAX_SLOTS);
+				generations = Arrays.copyOf(generations, capacity);
+				allocated = Arrays.copyOf(allocated, capacity);
+			}
+		}
+		allocated[slot] = true;
+		allocatedCount++;
+		return (generations[slot] << SLOT_BITS) | slot;
+	}
+
+	/**
+	 * Free the given ID so that its slot may be reused under a new generation.
+	 *
+	 * @param id The ID to free.
+	 *
+	 * @return Whether the ID was allocated; false if it had already been freed or was never handed out.
+	 */
+	public synchronized boolean free(int id) {
+		if (!isAllocated(id)) { return false; }
+		int slot = getSlot(id);
+		allocated[slot] = false;
+		allocatedCount--;
+		generations[slot] = (generations[slot] + 1) & GENERATION_MASK;
+		if (freeCount == freeSlots.length) { freeSlots = Arrays.copyOf(freeSlots, freeSlots.length * 2); }
+		freeSlots[freeCount++] = slot;
+		return true;
+	}
+
+	/**
+	 * Determine whether the given ID is currently allocated; an ID from an earlier generation of its slot is not.
+	 *
+	 * @param id The ID.
+	 *
+	 * @return Whether the ID is currently allocated.
+	 */
+	public synchronized boolean isAllocated(int id) {
+		if (id < 0) { return false; }
+		int slot = getSlot(id);
+		return slot < slotCount && allocated[slot] && generations[slot] == getGeneration(id);
+	}
+
+	/**
+	 * Free every ID and forget all generations.
+	 */
+	public synchronized void clear() {
+		Arrays.fill(generations, 0);
+		Arrays.fill(allocated, false);
+		freeCount = 0;
+		slotCount = 0;
+		allocatedCount = 0;
+	}
+
+	/**
+	 * Get the number of IDs currently allocated.
+	 *
+	 * @return The number of IDs currently allocated.
+	 */
+	public synchronized int size() { return allocatedCount; }
+
+	/**
+	 * Get the slot of the given ID.
+	 *
+	 * @param id The ID.
+	 *
+	 * @return The slot of the ID.
+	 */
+	public static int getSlot(int id) { return id & SLOT_MASK; }
+
+	/**
+	 * Get the generation of the given ID.
+	 *
+	 * @param id The ID.
+	 *
+	 * @return The generation of the ID.
+	 */
+	public static int getGeneration(int id) { return (id >>> SLOT_BITS) & GENERATION_MASK; }
+}
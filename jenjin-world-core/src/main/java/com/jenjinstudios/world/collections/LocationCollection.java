@@ -1,12 +1,10 @@
 package com.jenjinstudios.world.collections;
 
 import com.jenjinstudios.world.Location;
-import com.jenjinstudios.world.util.LocationUtils;
 
-import java.util.ArrayList;
-import java.util.Collection;
-import java.util.Optional;
+import java.util.*;
 import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
 
 /**
  * An ArrayList designed to hold locations with unique coordinates.  Adding a Location to this collection with
@@ -15,23 +13,20 @@ import java.util.function.Predicate;
  */
 public class LocationCollection extends ArrayList<Location>
 {
+	/** The index in this list of the location with each pair of coordinates. */
+	private transient final Map<Long, Integer> coordinateIndices = new HashMap<>();
+
 	@Override
 	public boolean add(Location location) {
-		int existingCoordinateIndex = -1;
+		Integer existingCoordinateIndex = coordinateIndices.get(getKey(location.getX(), location.getY()));
 		boolean r;
-		for (int i = 0; i < size(); i++)
-		{
-			if (LocationUtils.coordinatesEqual(location, get(i)))
-			{
-				existingCoordinateIndex = i;
-			}
-		}
-		if (existingCoordinateIndex > -1)
+		if (existingCoordinateIndex != null)
 		{
 			super.set(existingCoordinateIndex, location);
 			r = true;
 		} else
 		{
+			coordinateIndices.put(getKey(location.getX(), location.getY()), size());
 			r = super.add(location);
 		}
 		return r;
@@ -58,18 +53,11 @@ public class LocationCollection extends ArrayList<Location>
 	}
 
 	public Location getLocationWithXY(int x, int y) {
-		Location loc = null;
-		Optional<Location> f = stream().filter(l -> l.getX() == x && l.getY() == y).findFirst();
-		if (f.isPresent())
-		{
-			loc = f.get();
-		}
-		return loc;
+		Integer index = coordinateIndices.get(getKey(x, y));
+		return index != null ? get(index) : null;
 	}
 
-	public boolean containsLocationWithXY(int x, int y) {
-		return stream().filter(l -> l.getX() == x && l.getY() == y).findFirst().isPresent();
-	}
+	public boolean containsLocationWithXY(int x, int y) { return coordinateIndices.containsKey(getKey(x, y)); }
 
 	@Override
 	public void add(int index, Location location) {
@@ -82,7 +70,10 @@ public class LocationCollection extends ArrayList<Location>
 	}
 
 	@Override
-	public void clear() { super.clear(); }
+	public void clear() {
+		super.clear();
+		coordinateIndices.clear();
+	}
 
 	@Override
 	public boolean addAll(int index, Collection<? extends Location> c) {
@@ -119,4 +110,25 @@ public class LocationCollection extends ArrayList<Location>
 	public boolean removeAll(Collection<?> c) {
 		throw new UnsupportedOperationException("Locations cannot be removed from a LocationCollection");
 	}
+
+	@Override
+	public void sort(Comparator<? super Location> c) {
+		super.sort(c);
+		rebuildCoordinateIndices();
+	}
+
+	@Override
+	public void replaceAll(UnaryOperator<Location> operator) {
+		throw new UnsupportedOperationException("To replace a Location, use \"LocationCollection.add(Location l)\"");
+	}
+
+	private void rebuildCoordinateIndices() {
+		coordinateIndices.clear();
+		for (int i = 0; i < size(); i++)
+		{
+			coordinateIndices.put(getKey(get(i).getX(), get(i).getY()), i);
+		}
+	}
+
+	private static long getKey(int x, int y) { return ((long) x << 32) | (y & 0xFFFFFFFFL); }
 }
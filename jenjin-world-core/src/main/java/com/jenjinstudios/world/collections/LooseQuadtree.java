@@ -0,0 +1,283 @@
+package com.jenjinstudios.world.collections;
+
+import com.jenjinstudios.world.WorldObject;
+import com.jenjinstudios.world.math.Vector2D;
+
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * The {@code LooseQuadtree} class is a {@code SpatialIndex} which recursively divides its area into quarters wherever
+ * more than a handful of objects are crowded together, so that sparse areas cost almost nothing and dense areas are
+ * still searched in small pieces.
+ * <p>
+ * Each node is "loose": an object may wander up to half of the node's width outside of the node's bounds before it has
+ * to be moved to another node, so objects moving back and forth across a boundary do not cause the tree to be
+ * restructured every update.  If an object moves outside the area covered by the root, the tree is rebuilt with a
+ * larger root.
+ *
+ * @author Caleb Brinkman
+ */
+public class LooseQuadtree implements SpatialIndex
+{
+	/** The default width and height of the area covered by the root node. */
+	public static final double DEFAULT_SIZE = 1024;
+	/** The number of objects a node may hold before it is split. */
+	private static final int MAX_OBJECTS = 8;
+	/** The maximum depth of the tree; nodes at this depth are never split. */
+	private static final int MAX_DEPTH = 10;
+	/** How far past its bounds a node's loose bounds extend, as a multiple of the node's half-width. */
+	private static final double LOOSENESS = 2;
+	/** The node containing each object. */
+	private final Map<WorldObject, Node> objectNodes = new IdentityHashMap<>();
+	private Node root;
+
+	/**
+	 * Construct a new {@code LooseQuadtree} covering the area from the origin to the default size.
+	 */
+	public LooseQuadtree() { this(0, 0, DEFAULT_SIZE); }
+
+	/**
+	 * Construct a new {@code LooseQuadtree} whose root covers the given square.  Objects outside of the square may still
+	 * be added, but cause the tree to be rebuilt.
+	 *
+	 * @param minX The minimum x coordinate of the root.
+	 * @param minY The minimum y coordinate of the root.
+	 * @param size The width and height of the root.
+	 */
+	public LooseQuadtree(double minX, double minY, double size) {
+		double halfSize = Math.max(size, 1) / 2;
+		root = new Node(null, minX + halfSize, minY + halfSize, halfSize, 0);
+	}
+
+	@Override
+	public synchronized void add(WorldObject worldObject) { update(worldObject); }
+
+	@Override
+	public synchronized void update(WorldObject worldObject) {
+		Vector2D vector2D = getPosition(worldObject);
+		double x = vector2D.getXCoordinate();
+		double y = vector2D.getYCoordinate();
+		Node node = objectNodes.get(worldObject);
+		if (node == null || !node.looselyContains(x, y))
+		{
+			if (node != null)
+			{
+				objectNodes.remove(worldObject);
+				removeFromNode(node, worldObject);
+			}
+			insert(worldObject, x, y);
+		}
+	}
+
+	@Override
+	public synchronized void remove(WorldObject worldObject) {
+		Node node = objectNodes.remove(worldObject);
+		if (node != null) { removeFromNode(node, worldObject); }
+	}
+
+	@Override
+	public synchronized void clear() {
+		objectNodes.clear();
+		root = new Node(null, root.centerX, root.centerY, root.halfSize, 0);
+	}
+
+	@Override
+	public synchronized List<WorldObject> queryRadius(Vector2D center, double radius) {
+		List<WorldObject> found = new ArrayList<>();
+		double centerX = center.getXCoordinate();
+		double centerY = center.getYCoordinate();
+		double r2 = radius * radius;
+		query(root, centerX - radius, centerY - radius, centerX + radius, centerY + radius, worldObject -> {
+			Vector2D vector2D = getPosition(worldObject);
+			double deltaX = vector2D.getXCoordinate() - centerX;
+			double deltaY = vector2D.getYCoordinate() - centerY;
+			if (deltaX * deltaX + deltaY * deltaY <= r2) { found.add(worldObject); }
+		});
+		return found;
+	}
+
+	@Override
+	public synchronized List<WorldObject> queryRect(double minX, double minY, double maxX, double maxY) {
+		List<WorldObject> found = new ArrayList<>();
+		query(root, minX, minY, maxX, maxY, worldObject -> {
+			Vector2D vector2D = getPosition(worldObject);
+			double x = vector2D.getXCoordinate();
+			double y = vector2D.getYCoordinate();
+			if (x >= minX && x <= maxX && y >= minY && y <= maxY) { found.add(worldObject); }
+		});
+		return found;
+	}
+
+	@Override
+	public synchronized int size() { return objectNodes.size(); }
+
+	/**
+	 * Get the number of nodes in the tree.
+	 *
+	 * @return The number of nodes in the tree.
+	 */
+	public synchronized int getNodeCount() { return root.countNodes(); }
+
+	private void query(Node node, double minX, double minY, double maxX, double maxY, Consumer<WorldObject> visitor) {
+		if (!node.looselyIntersects(minX, minY, maxX, maxY)) { return; }
+		node.objects.forEach(visitor);
+		if (node.children != null)
+		{
+			for (Node child : node.children)
+			{
+				query(child, minX, minY, maxX, maxY, visitor);
+			}
+		}
+	}
+
+	private void insert(WorldObject worldObject, double x, double y) {
+		if (!root.contains(x, y)) { grow(x, y); }
+		Node node = root;
+		while (node.children != null)
+		{
+			node = node.getChild(x, y);
+		}
+		node.objects.add(worldObject);
+		objectNodes.put(worldObject, node);
+		if (node.objects.size() > MAX_OBJECTS && node.depth < MAX_DEPTH) { split(node); }
+	}
+
+	private void split(Node node) {
+		node.children = new Node[4];
+		double quarterSize = node.halfSize / 2;
+		node.children[0] = new Node(node, node.centerX - quarterSize, node.centerY - quarterSize, quarterSize,
+			  node.depth + 1);
+		node.children[1] = new Node(node, node.centerX + quarterSize, node.centerY - quarterSize, quarterSize,
+			  node.depth + 1);
+		node.children[2] = new Node(node, node.centerX - quarterSize, node.centerY + quarterSize, quarterSize,
+			  node.depth + 1);
+		node.children[3] = new Node(node, node.centerX + quarterSize, node.centerY + quarterSize, quarterSize,
+			  node.depth + 1);
+		// Objects which have wandered too far from the quarter they fall in stay in this node.
+		Iterator<WorldObject> iterator = node.objects.iterator();
+		while (iterator.hasNext())
+		{
+			WorldObject worldObject = iterator.next();
+			Vector2D vector2D = getPosition(worldObject);
+			double x = vector2D.getXCoordinate();
+			double y = vector2D.getYCoordinate();
+			Node child = node.getChild(x, y);
+			if (child.looselyContains(x, y))
+			{
+				iterator.remove();
+				child.objects.add(worldObject);
+				objectNodes.put(worldObject, child);
+			}
+		}
+	}
+
+	private void removeFromNode(Node node, WorldObject worldObject) {
+		node.objects.removeIf(o -> o == worldObject);
+		Node current = node.children == null ? node.parent : node;
+		while (current != null && current.canMerge())
+		{
+			current.merge(objectNodes);
+			current = current.parent;
+		}
+	}
+
+	private void grow(double x, double y) {
+		double halfSize = root.halfSize;
+		while (!contains(root.centerX, root.centerY, halfSize, x, y))
+		{
+			halfSize *= 2;
+		}
+		List<WorldObject> existing = new ArrayList<>(objectNodes.keySet());
+		objectNodes.clear();
+		root = new Node(null, root.centerX, root.centerY, halfSize, 0);
+		for (WorldObject worldObject : existing)
+		{
+			Vector2D vector2D = getPosition(worldObject);
+			insert(worldObject, vector2D.getXCoordinate(), vector2D.getYCoordinate());
+		}
+	}
+
+	private static boolean contains(double centerX, double centerY, double halfSize, double x, double y) {
+		return x >= centerX - halfSize && x < centerX + halfSize && y >= centerY - halfSize && y < centerY + halfSize;
+	}
+
+	private static Vector2D getPosition(WorldObject worldObject) {
+		Vector2D vector2D = worldObject.getVector2D();
+		return vector2D != null ? vector2D : Vector2D.ORIGIN;
+	}
+
+	/**
+	 * A square area of the tree, holding the objects which fall inside it but not inside any of its children.
+	 */
+	private static class Node
+	{
+		private final Node parent;
+		private final double centerX;
+		private final double centerY;
+		private final double halfSize;
+		private final int depth;
+		private final List<WorldObject> objects = new ArrayList<>();
+		private Node[] children;
+
+		Node(Node parent, double centerX, double centerY, double halfSize, int depth) {
+			this.parent = parent;
+			this.centerX = centerX;
+			this.centerY = centerY;
+			this.halfSize = halfSize;
+			this.depth = depth;
+		}
+
+		boolean contains(double x, double y) { return LooseQuadtree.contains(centerX, centerY, halfSize, x, y); }
+
+		boolean looselyContains(double x, double y) {
+			return LooseQuadtree.contains(centerX, centerY, halfSize * LOOSENESS, x, y);
+		}
+
+		boolean looselyIntersects(double minX, double minY, double maxX, double maxY) {
+			double looseSize = halfSize * LOOSENESS;
+			return maxX >= centerX - looseSize && minX < centerX + looseSize &&
+				  maxY >= centerY - looseSize && minY < centerY + looseSize;
+		}
+
+		Node getChild(double x, double y) {
+			int index = (x < centerX ? 0 : 1) + (y < centerY ? 0 : 2);
+			return children[index];
+		}
+
+		boolean canMerge() {
+			if (children == null) { return false; }
+			int count = objects.size();
+			for (Node child : children)
+			{
+				if (child.children != null) { return false; }
+				count += child.objects.size();
+			}
+			return count <= MAX_OBJECTS / 2;
+		}
+
+		void merge(Map<WorldObject, Node> objectNodes) {
+			for (Node child : children)
+			{
+				for (WorldObject worldObject : child.objects)
+				{
+					objects.add(worldObject);
+					objectNodes.put(worldObject, this);
+				}
+			}
+			children = null;
+		}
+
+		int countNodes() {
+			int count = 1;
+			if (children != null)
+			{
+				for (Node child : children)
+				{
+					count += child.countNodes();
+				}
+			}
+			return count;
+		}
+	}
+}
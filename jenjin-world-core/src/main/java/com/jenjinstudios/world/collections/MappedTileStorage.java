@@ -0,0 +1,290 @@
+package com.jenjinstudios.world.collections;
+
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+import com.jenjinstudios.world.Location;
+import com.jenjinstudios.world.math.Vector2D;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+/**
+ * The {@code MappedTileStorage} class keeps the tile types and walkability flags of a zone in a memory-mapped file, so
+ * that the tiles take up no heap space, a zone of any size is opened in constant time, and processes on the same host
+ * which open the same file share its pages.  Tile types and walkability are read straight from the mapping without
+ * allocating anything.
+ * <p>
+ * The file starts with a header holding {@link #MAGIC}, {@link #VERSION}, the width and height of the zone and the
+ * length of the palette; the palette follows as JSON in a region of {@link #PALETTE_CAPACITY} bytes.  After it come the
+ * tile types, one unsigned short per tile in row order, then one bit per tile which is set if the tile cannot be walked
+ * on.
+ *
+ * @author Caleb Brinkman
+ */
+public class MappedTileStorage implements TileStorage, Closeable
+{
+	/** The first four bytes of every tile file. */
+	public static final int MAGIC = 0x4A54494C;
+	/** The version of the tile file format. */
+	public static final int VERSION = 1;
+	/** The number of bytes reserved for the palette. */
+	public static final int PALETTE_CAPACITY = 64 * 1024;
+	private static final int HEADER_SIZE = 20;
+	private static final int PALETTE_LENGTH_OFFSET = 16;
+	private static final int TYPES_OFFSET = HEADER_SIZE + PALETTE_CAPACITY;
+	private static final Type PALETTE_TYPE = new TypeToken<List<Map<String, String>>>() { }.getType();
+	private final FileChannel channel;
+	private final MappedByteBuffer buffer;
+	private final boolean writable;
+	private final int xSize;
+	private final int ySize;
+	private final int walkableOffset;
+	private final TilePalette palette = new TilePalette();
+
+	private MappedTileStorage(FileChannel channel, boolean writable) throws IOException {
+		this.channel = channel;
+		this.writable = writable;
+		if (channel.size() < HEADER_SIZE)
+			throw new IOException("Not a tile file.");
+		ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE);
+		if (header.getInt() != MAGIC)
+			throw new IOException("Not a tile file.");
+		int version = header.getInt();
+		if (version != VERSION)
+			throw new IOException("Unsupported tile file version: " + version);
+		xSize = header.getInt();
+		ySize = header.getInt();
+		long fileSize = getFileSize(xSize, ySize);
+		if (xSize < 0 || ySize < 0 || fileSize > Integer.MAX_VALUE)
+			throw new IOException("Tile file has an invalid size: " + xSize + " by " + ySize);
+		if (channel.size() < fileSize)
+			throw new IOException("Tile file is truncated.");
+		walkableOffset = (int) (TYPES_OFFSET + (long) xSize * ySize * 2);
+		buffer = channel.map(writable ? FileChannel.MapMode.READ_WRITE : FileChannel.MapMode.READ_ONLY, 0, fileSize);
+		readPalette();
+	}
+
+	/**
+	 * Open the tile file at the given path.  The file is mapped for reading and writing if it is writable, and for
+	 * reading only otherwise.
+	 *
+	 * @param path The path of the tile file.
+	 *
+	 * @return The opened storage.
+	 *
+	 * @throws IOException If the file cannot be opened or is not a valid tile file.
+	 */
+	public static MappedTileStorage open(Path path) throws IOException {
+		boolean writable = Files.isWritable(path);
+		FileChannel channel = writable ?
+			  FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE) :
+			  FileChannel.open(path, StandardOpenOption.READ);
+		try
+		{
+			return new MappedTileStorage(channel, writable);
+		} catch (IOException | RuntimeException e)
+		{
+			channel.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * Write a new tile file at the given path containing the tiles of the given storage, replacing any existing file,
+	 * and open it.
+	 *
+	 * @param path The path of the tile file.
+	 * @param xSize The width of the zone, in tiles.
+	 * @param ySize The height of the zone, in tiles.
+	 * @param source The storage from which the tiles are copied.
+	 *
+	 * @return The opened storage.
+	 *
+	 * @throws IOException If the file cannot be written.
+	 * @throws IllegalArgumentException If the zone is too large to be mapped.
+	 */
+	public static MappedTileStorage create(Path path, int xSize, int ySize, TileStorage source) throws IOException {
+		long fileSize = getFileSize(xSize, ySize);
+		if (xSize < 0 || ySize < 0 || fileSize > Integer.MAX_VALUE)
+			throw new IllegalArgumentException("Cannot map a zone of " + xSize + " by " + ySize + " tiles.");
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+			  StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING))
+		{
+			MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, fileSize);
+			buffer.putInt(0, MAGIC);
+			buffer.putInt(4, VERSION);
+			buffer.putInt(8, xSize);
+			buffer.putInt(12, ySize);
+			int walkableOffset = (int) (TYPES_OFFSET + (long) xSize * ySize * 2);
+			for (int y = 0; y < ySize; y++)
+			{
+				for (int x = 0; x < xSize; x++)
+				{
+					int index = y * xSize + x;
+					buffer.putShort(TYPES_OFFSET + index * 2, (short) source.getType(x, y));
+					if (!source.isWalkable(x, y)) { setBit(buffer, walkableOffset, index, true); }
+				}
+			}
+			// The source may only learn of some of its tile types as its tiles are read, so the palette is copied last.
+			TilePalette sourcePalette = source.getPalette();
+			List<Map<String, String>> types = new ArrayList<>();
+			for (int i = 0; i < sourcePalette.size(); i++)
+			{
+				types.add(sourcePalette.getProperties(i));
+			}
+			writePalette(buffer, types);
+			buffer.force();
+		}
+		return open(path);
+	}
+
+	@Override
+	public int getType(int x, int y) {
+		if (!inBounds(x, y)) { return -1; }
+		return buffer.getShort(TYPES_OFFSET + getIndex(x, y) * 2) & 0xFFFF;
+	}
+
+	@Override
+	public boolean isWalkable(int x, int y) {
+		if (!inBounds(x, y)) { return false; }
+		int index = getIndex(x, y);
+		return (buffer.get(walkableOffset + (index >> 3)) & (1 << (index & 7))) == 0;
+	}
+
+	/**
+	 * Replace the tile with the same coordinates as the given location, writing it through to the file.
+	 *
+	 * @param location The new location.
+	 *
+	 * @throws IllegalStateException If the file was opened for reading only, or if the palette no longer fits in the
+	 * file.
+	 */
+	@Override
+	public synchronized void setLocation(Location location) {
+		if (!writable)
+			throw new IllegalStateException("Tile file is read only.");
+		int paletteSize = palette.size();
+		int type = palette.getTypeId(location.getProperties());
+		if (palette.size() > paletteSize)
+		{
+			List<Map<String, String>> types = new ArrayList<>();
+			for (int i = 0; i < palette.size(); i++)
+			{
+				types.add(palette.getProperties(i));
+			}
+			writePalette(buffer, types);
+		}
+		int index = getIndex(location.getX(), location.getY());
+		buffer.putShort(TYPES_OFFSET + index * 2, (short) type);
+		setBit(buffer, walkableOffset, index, !palette.isWalkable(type));
+	}
+
+	/**
+	 * Does nothing; the operating system pages the tiles in and out of memory as they are used.
+	 *
+	 * @param positions The positions of the objects in the zone.
+	 * @param chunkRadius The number of chunks around each position which are kept.
+	 *
+	 * @return Zero.
+	 */
+	@Override
+	public int evictChunksAwayFrom(Collection<Vector2D> positions, int chunkRadius) { return 0; }
+
+	@Override
+	public TilePalette getPalette() { return palette; }
+
+	/**
+	 * Get the width of the mapped zone.
+	 *
+	 * @return The width of the mapped zone, in tiles.
+	 */
+	public int getXSize() { return xSize; }
+
+	/**
+	 * Get the height of the mapped zone.
+	 *
+	 * @return The height of the mapped zone, in tiles.
+	 */
+	public int getYSize() { return ySize; }
+
+	/**
+	 * Determine whether changes to this storage are written to its file.
+	 *
+	 * @return Whether this storage was opened for writing.
+	 */
+	public boolean isWritable() { return writable; }
+
+	/**
+	 * Whether the file backing this storage is still open.
+	 *
+	 * @return Whether the file backing this storage is still open.
+	 */
+	public boolean isOpen() { return channel.isOpen(); }
+
+	/**
+	 * Close the file backing this storage.  The mapping remains readable until it is garbage collected.
+	 *
+	 * @throws IOException If the file cannot be closed.
+	 */
+	@Override
+	public void close() throws IOException {
+		if (writable) { buffer.force(); }
+		channel.close();
+	}
+
+	private void readPalette() throws IOException {
+		int length = buffer.getInt(PALETTE_LENGTH_OFFSET);
+		if (length < 0 || length > PALETTE_CAPACITY)
+			throw new IOException("Tile file palette is corrupt.");
+		byte[] bytes = new byte[length];
+		for (int i = 0; i < length; i++)
+		{
+			bytes[i] = buffer.get(HEADER_SIZE + i);
+		}
+		List<Map<String, String>> types = new Gson().fromJson(new String(bytes, StandardCharsets.UTF_8), PALETTE_TYPE);
+		if (types == null || types.isEmpty() || !types.get(0).isEmpty())
+			throw new IOException("Tile file palette is corrupt.");
+		for (Map<String, String> properties : types)
+		{
+			palette.getTypeId(properties);
+		}
+		if (palette.size() != types.size())
+			throw new IOException("Tile file palette contains duplicate types.");
+	}
+
+	private boolean inBounds(int x, int y) { return x >= 0 && x < xSize && y >= 0 && y < ySize; }
+
+	private int getIndex(int x, int y) { return y * xSize + x; }
+
+	private static void writePalette(MappedByteBuffer buffer, List<Map<String, String>> types) {
+		byte[] bytes = new Gson().toJson(types, PALETTE_TYPE).getBytes(StandardCharsets.UTF_8);
+		if (bytes.length > PALETTE_CAPACITY)
+			throw new IllegalStateException("Tile palette does not fit in " + PALETTE_CAPACITY + " bytes.");
+		for (int i = 0; i < bytes.length; i++)
+		{
+			buffer.put(HEADER_SIZE + i, bytes[i]);
+		}
+		buffer.putInt(PALETTE_LENGTH_OFFSET, bytes.length);
+	}
+
+	private static void setBit(MappedByteBuffer buffer, int offset, int index, boolean value) {
+		int position = offset + (index >> 3);
+		int mask = 1 << (index & 7);
+		byte current = buffer.get(position);
+		buffer.put(position, (byte) (value ? current | mask : current & ~mask));
+	}
+
+	private static long getFileSize(int xSize, int ySize) {
+		long tileCount = (long) xSize * ySize;
+		return TYPES_OFFSET + tileCount * 2 + (tileCount + 7) / 8;
+	}
+}
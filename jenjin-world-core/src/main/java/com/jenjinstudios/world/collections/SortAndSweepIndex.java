@@ -0,0 +1,139 @@
+package com.jenjinstudios.world.collections;
+
+import com.jenjinstudios.world.WorldObject;
+import com.jenjinstudios.world.math.Vector2D;
+
+import java.util.*;
+
+/**
+ * The {@code SortAndSweepIndex} class is a {@code SpatialIndex} which keeps its objects in a list sorted by x
+ * coordinate; a query finds the first object at or past the left edge of the search area with a binary search, then
+ * sweeps right until it passes the right edge.
+ * <p>
+ * Adding, moving and removing objects only mark the list as out of date.  The list is re-sorted at the next query with
+ * an insertion sort, which is close to linear because objects move only a short distance between updates.
+ *
+ * @author Caleb Brinkman
+ */
+public class SortAndSweepIndex implements SpatialIndex
+{
+	/** The objects in this index. */
+	private final Set<WorldObject> members = Collections.newSetFromMap(new IdentityHashMap<>());
+	/** The objects in this index, sorted by x coordinate as of the last sort; may contain removed objects. */
+	private final List<WorldObject> sorted = new ArrayList<>();
+	/** Objects which have been removed since the last sort but are still in the sorted list. */
+	private final Set<WorldObject> removed = Collections.newSetFromMap(new IdentityHashMap<>());
+	/** The x coordinate of each sorted object as of the last sort. */
+	private double[] sortedX = new double[0];
+	private boolean dirty;
+
+	@Override
+	public synchronized void add(WorldObject worldObject) {
+		if (members.add(worldObject) && !removed.remove(worldObject)) { sorted.add(worldObject); }
+		dirty = true;
+	}
+
+	@Override
+	public synchronized void update(WorldObject worldObject) { add(worldObject); }
+
+	@Override
+	public synchronized void remove(WorldObject worldObject) {
+		if (members.remove(worldObject))
+		{
+			removed.add(worldObject);
+			dirty = true;
+		}
+	}
+
+	@Override
+	public synchronized void clear() {
+		members.clear();
+		removed.clear();
+		sorted.clear();
+		sortedX = new double[0];
+		dirty = false;
+	}
+
+	@Override
+	public synchronized List<WorldObject> queryRadius(Vector2D center, double radius) {
+		double centerX = center.getXCoordinate();
+		double centerY = center.getYCoordinate();
+		double r2 = radius * radius;
+		List<WorldObject> found = queryRect(centerX - radius, centerY - radius, centerX + radius, centerY + radius);
+		found.removeIf(worldObject -> {
+			Vector2D vector2D = getPosition(worldObject);
+			double deltaX = vector2D.getXCoordinate() - centerX;
+			double deltaY = vector2D.getYCoordinate() - centerY;
+			return deltaX * deltaX + deltaY * deltaY > r2;
+		});
+		return found;
+	}
+
+	@Override
+	public synchronized List<WorldObject> queryRect(double minX, double minY, double maxX, double maxY) {
+		sort();
+		List<WorldObject> found = new ArrayList<>();
+		for (int i = findFirst(minX); i < sortedX.length && sortedX[i] <= maxX; i++)
+		{
+			double y = getPosition(sorted.get(i)).getYCoordinate();
+			if (y >= minY && y <= maxY) { found.add(sorted.get(i)); }
+		}
+		return found;
+	}
+
+	@Override
+	public synchronized int size() { return members.size(); }
+
+	private int findFirst(double minX) {
+		int low = 0;
+		int high = sortedX.length;
+		while (low < high)
+		{
+			int mid = (low + high) >>> 1;
+			if (sortedX[mid] < minX)
+			{
+				low = mid + 1;
+			} else
+			{
+				high = mid;
+			}
+		}
+		return low;
+	}
+
+	private void sort() {
+		if (!dirty) { return; }
+		if (!removed.isEmpty())
+		{
+			sorted.removeIf(removed::contains);
+			removed.clear();
+		}
+		int size = sorted.size();
+		WorldObject[] objects = sorted.toArray(new WorldObject[size]);
+		double[] xs = new double[size];
+		for (int i = 0; i < size; i++)
+		{
+			xs[i] = getPosition(objects[i]).getXCoordinate();
+			WorldObject current = objects[i];
+			double currentX = xs[i];
+			int j = i - 1;
+			while (j >= 0 && xs[j] > currentX)
+			{
+				xs[j + 1] = xs[j];
+				objects[j + 1] = objects[j];
+				j--;
+			}
+			xs[j + 1] = currentX;
+			objects[j + 1] = current;
+		}
+		sorted.clear();
+		Collections.addAll(sorted, objects);
+		sortedX = xs;
+		dirty = false;
+	}
+
+	private static Vector2D getPosition(WorldObject worldObject) {
+		Vector2D vector2D = worldObject.getVector2D();
+		return vector2D != null ? vector2D : Vector2D.ORIGIN;
+	}
+}
@@ -0,0 +1,199 @@
+package com.jenjinstudios.world.collections;
+
+import com.jenjinstudios.world.WorldObject;
+import com.jenjinstudios.world.math.SightCalculator;
+import com.jenjinstudios.world.math.Vector2D;
+
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * The {@code SpatialHash} class buckets WorldObjects into a uniform grid of square cells, so that the objects near a
+ * point can be found by examining only the cells which overlap the area of interest rather than every object in the
+ * world.
+ * <p>
+ * Objects are placed in the cell containing their {@code Vector2D}; they must be moved with {@link #update(WorldObject)}
+ * whenever their position changes.  Because a cell is only touched when an object crosses a cell boundary, moving an
+ * object within a cell is a single lookup.
+ *
+ * @author Caleb Brinkman
+ */
+public class SpatialHash implements SpatialIndex
+{
+	/** The default width and height of a cell; equal to the default vision radius, so a sight query spans 3x3 cells. */
+	public static final double DEFAULT_CELL_SIZE = SightCalculator.DEFAULT_VISION_RADIUS;
+	private final double cellSize;
+	/** The objects in each non-empty cell, keyed by packed cell coordinates. */
+	private final Map<Long, Set<WorldObject>> cells = new HashMap<>();
+	/** The key of the cell containing each object. */
+	private final Map<WorldObject, Long> objectCells = new IdentityHashMap<>();
+
+	/**
+	 * Construct a new {@code SpatialHash} with the default cell size.
+	 */
+	public SpatialHash() { this(DEFAULT_CELL_SIZE); }
+
+	/**
+	 * Construct a new {@code SpatialHash}.
+	 *
+	 * @param cellSize The width and height of each cell.
+	 */
+	public SpatialHash(double cellSize) {
+		if (cellSize <= 0) throw new IllegalArgumentException("Cell size must be positive: " + cellSize);
+		this.cellSize = cellSize;
+	}
+
+	/**
+	 * Add the given object to the cell containing its current position.  If the object is already present, it is moved
+	 * to the correct cell.
+	 *
+	 * @param worldObject The object to add.
+	 */
+	@Override
+	public synchronized void add(WorldObject worldObject) { update(worldObject); }
+
+	/**
+	 * Move the given object to the cell containing its current position.  If the object has not been added, it is added.
+	 *
+	 * @param worldObject The object which has moved.
+	 */
+	@Override
+	public synchronized void update(WorldObject worldObject) {
+		Vector2D vector2D = getPosition(worldObject);
+		long key = getKey(getCell(vector2D.getXCoordinate()), getCell(vector2D.getYCoordinate()));
+		Long oldKey = objectCells.put(worldObject, key);
+		if (oldKey == null || oldKey != key)
+		{
+			if (oldKey != null) { removeFromCell(oldKey, worldObject); }
+			cells.computeIfAbsent(key, k -> Collections.newSetFromMap(new IdentityHashMap<>())).add(worldObject);
+		}
+	}
+
+	/**
+	 * Remove the given object.
+	 *
+	 * @param worldObject The object to remove.
+	 */
+	@Override
+	public synchronized void remove(WorldObject worldObject) {
+		Long key = objectCells.remove(worldObject);
+		if (key != null) { removeFromCell(key, worldObject); }
+	}
+
+	/**
+	 * Remove all objects.
+	 */
+	@Override
+	public synchronized void clear() {
+		cells.clear();
+		objectCells.clear();
+	}
+
+	/**
+	 * Find all objects within the given distance of the given point.
+	 *
+	 * @param center The center of the search area.
+	 * @param radius The maximum distance, inclusive, from the center.
+	 *
+	 * @return The objects within the given distance of the given point.
+	 */
+	@Override
+	public synchronized List<WorldObject> queryRadius(Vector2D center, double radius) {
+		List<WorldObject> found = new ArrayList<>();
+		double centerX = center.getXCoordinate();
+		double centerY = center.getYCoordinate();
+		double r2 = radius * radius;
+		forEachCell(centerX - radius, centerY - radius, centerX + radius, centerY + radius, cell -> {
+			for (WorldObject worldObject : cell)
+			{
+				Vector2D vector2D = getPosition(worldObject);
+				double deltaX = vector2D.getXCoordinate() - centerX;
+				double deltaY = vector2D.getYCoordinate() - centerY;
+				if (deltaX * deltaX + deltaY * deltaY <= r2) { found.add(worldObject); }
+			}
+		});
+		return found;
+	}
+
+	/**
+	 * Find all objects inside the given rectangle, including its edges.
+	 *
+	 * @param minX The minimum x coordinate.
+	 * @param minY The minimum y coordinate.
+	 * @param maxX The maximum x coordinate.
+	 * @param maxY The maximum y coordinate.
+	 *
+	 * @return The objects inside the given rectangle.
+	 */
+	@Override
+	public synchronized List<WorldObject> queryRect(double minX, double minY, double maxX, double maxY) {
+		List<WorldObject> found = new ArrayList<>();
+		forEachCell(minX, minY, maxX, maxY, cell -> {
+			for (WorldObject worldObject : cell)
+			{
+				Vector2D vector2D = getPosition(worldObject);
+				double x = vector2D.getXCoordinate();
+				double y = vector2D.getYCoordinate();
+				if (x >= minX && x <= maxX && y >= minY && y <= maxY) { found.add(worldObject); }
+			}
+		});
+		return found;
+	}
+
+	/**
+	 * Get the number of objects in this hash.
+	 *
+	 * @return The number of objects in this hash.
+	 */
+	@Override
+	public synchronized int size() { return objectCells.size(); }
+
+	/**
+	 * Get the number of cells which contain at least one object.
+	 *
+	 * @return The number of occupied cells.
+	 */
+	public synchronized int getOccupiedCellCount() { return cells.size(); }
+
+	public double getCellSize() { return cellSize; }
+
+	private void forEachCell(double minX, double minY, double maxX, double maxY, Consumer<Set<WorldObject>> visitor) {
+		int minCellX = getCell(minX);
+		int minCellY = getCell(minY);
+		int maxCellX = getCell(maxX);
+		int maxCellY = getCell(maxY);
+		// A very large area covers more cells than there are occupied ones; visit those instead.
+		if (((long) maxCellX - minCellX + 1) * ((long) maxCellY - minCellY + 1) > cells.size())
+		{
+			cells.values().forEach(visitor);
+		} else
+		{
+			for (int x = minCellX; x <= maxCellX; x++)
+			{
+				for (int y = minCellY; y <= maxCellY; y++)
+				{
+					Set<WorldObject> cell = cells.get(getKey(x, y));
+					if (cell != null) { visitor.accept(cell); }
+				}
+			}
+		}
+	}
+
+	private void removeFromCell(long key, WorldObject worldObject) {
+		Set<WorldObject> cell = cells.get(key);
+		if (cell != null)
+		{
+			cell.remove(worldObject);
+			if (cell.isEmpty()) { cells.remove(key); }
+		}
+	}
+
+	private int getCell(double coordinate) { return (int) Math.floor(coordinate / cellSize); }
+
+	private static long getKey(int cellX, int cellY) { return ((long) cellX << 32) | (cellY & 0xFFFFFFFFL); }
+
+	private static Vector2D getPosition(WorldObject worldObject) {
+		Vector2D vector2D = worldObject.getVector2D();
+		return vector2D != null ? vector2D : Vector2D.ORIGIN;
+	}
+}
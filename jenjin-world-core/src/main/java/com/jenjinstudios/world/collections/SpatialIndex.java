@@ -0,0 +1,74 @@
+package com.jenjinstudios.world.collections;
+
+import com.jenjinstudios.world.WorldObject;
+import com.jenjinstudios.world.math.Vector2D;
+
+import java.util.List;
+
+/**
+ * A {@code SpatialIndex} organizes WorldObjects by position, so that the objects near a point can be found without
+ * examining every object in the world.  Objects are indexed by their {@code Vector2D}; an index must be told with
+ * {@link #update(WorldObject)} whenever an object's position changes.
+ * <p>
+ * Implementations differ in the cost of moving objects and of querying them, and in how well they cope with uneven
+ * densities; see {@link SpatialIndexType} for the available implementations.
+ *
+ * @author Caleb Brinkman
+ */
+public interface SpatialIndex
+{
+	/**
+	 * Add the given object at its current position.  If the object is already present, it is moved.
+	 *
+	 * @param worldObject The object to add.
+	 */
+	void add(WorldObject worldObject);
+
+	/**
+	 * Move the given object to its current position.  If the object has not been added, it is added.
+	 *
+	 * @param worldObject The object which has moved.
+	 */
+	void update(WorldObject worldObject);
+
+	/**
+	 * Remove the given object.
+	 *
+	 * @param worldObject The object to remove.
+	 */
+	void remove(WorldObject worldObject);
+
+	/**
+	 * Remove all objects.
+	 */
+	void clear();
+
+	/**
+	 * Find all objects within the given distance of the given point.
+	 *
+	 * @param center The center of the search area.
+	 * @param radius The maximum distance, inclusive, from the center.
+	 *
+	 * @return The objects within the given distance of the given point.
+	 */
+	List<WorldObject> queryRadius(Vector2D center, double radius);
+
+	/**
+	 * Find all objects inside the given rectangle, including its edges.
+	 *
+	 * @param minX The minimum x coordinate.
+	 * @param minY The minimum y coordinate.
+	 * @param maxX The maximum x coordinate.
+	 * @param maxY The maximum y coordinate.
+	 *
+	 * @return The objects inside the given rectangle.
+	 */
+	List<WorldObject> queryRect(double minX, double minY, double maxX, double maxY);
+
+	/**
+	 * Get the number of objects in this index.
+	 *
+	 * @return The number of objects in this index.
+	 */
+	int size();
+}
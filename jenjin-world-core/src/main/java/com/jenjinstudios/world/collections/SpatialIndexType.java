@@ -0,0 +1,52 @@
+package com.jenjinstudios.world.collections;
+
+import com.jenjinstudios.world.Location;
+import com.jenjinstudios.world.Zone;
+
+/**
+ * The kinds of {@code SpatialIndex} a {@code Zone} may use to organize the objects inside it.
+ *
+ * @author Caleb Brinkman
+ */
+public enum SpatialIndexType
+{
+	/**
+	 * A uniform grid of cells; moves and small queries are cheap, but densely packed cells are scanned in full.  Best
+	 * suited to zones where objects are spread fairly evenly.
+	 */
+	GRID
+	{
+		@Override
+		public SpatialIndex create(Zone zone) { return new SpatialHash(); }
+	},
+	/**
+	 * A loose quadtree, which subdivides only where objects are crowded together.  Best suited to zones with very
+	 * uneven density, such as towns surrounded by wilderness.
+	 */
+	QUADTREE
+	{
+		@Override
+		public SpatialIndex create(Zone zone) {
+			return zone == null ? new LooseQuadtree() :
+				  new LooseQuadtree(0, 0, Math.max(zone.getXSize(), zone.getYSize()) * Location.SIZE);
+		}
+	},
+	/**
+	 * A list of objects sorted along the x axis, re-sorted lazily when queried.  Moves are nearly free, which suits
+	 * zones with many moving objects and few queries.
+	 */
+	SORT_AND_SWEEP
+	{
+		@Override
+		public SpatialIndex create(Zone zone) { return new SortAndSweepIndex(); }
+	};
+
+	/**
+	 * Create a new, empty index of this type.
+	 *
+	 * @param zone The zone the index will organize, or null if the zone is not known.
+	 *
+	 * @return The new index.
+	 */
+	public abstract SpatialIndex create(Zone zone);
+}
@@ -0,0 +1,232 @@
+package com.jenjinstudios.world.collections;
+
+import com.jenjinstudios.world.Location;
+import com.jenjinstudios.world.math.Vector2D;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * The {@code TileGrid} class stores the tile type of every location in a zone, divided into square chunks of {@link
+ * #CHUNK_SIZE} by {@code CHUNK_SIZE} tiles.  A chunk is only built the first time one of its tiles is read, and only if
+ * it contains at least one special location; every tile of a chunk with no special locations has the default type, so
+ * such chunks never take up memory.
+ * <p>
+ * Chunks are built from the special locations of the zone, so they can be evicted at any time and rebuilt later; {@link
+ * #evictChunksAwayFrom(Collection, int)} evicts the chunks which no object is near.
+ *
+ * @author Caleb Brinkman
+ */
+public class TileGrid implements TileStorage
+{
+	/** The width and height of a chunk, in tiles. */
+	public static final int CHUNK_SIZE = 64;
+	private static final int CHUNK_SHIFT = 6;
+	private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+	private static final int CHUNK_AREA = CHUNK_SIZE * CHUNK_SIZE;
+	/** The approximate number of bytes used by a resident chunk: the type array, the bit set and object headers. */
+	private static final long CHUNK_BYTES = CHUNK_AREA * 2 + CHUNK_AREA / 8 + 64;
+	private final int xSize;
+	private final int ySize;
+	private final int xChunks;
+	private final int yChunks;
+	private final TilePalette palette = new TilePalette();
+	/** The resident chunks, indexed by {@code chunkY * xChunks + chunkX}; null if not resident. */
+	private final AtomicReferenceArray<Chunk> chunks;
+	/** The special locations in each chunk which has any, keyed by chunk index. */
+	private final Map<Integer, LocationCollection> specialLocations = new ConcurrentHashMap<>();
+	private final AtomicLong loadCount = new AtomicLong();
+	private final AtomicLong evictionCount = new AtomicLong();
+
+	/**
+	 * Construct a new {@code TileGrid}.
+	 *
+	 * @param xSize The width of the grid, in tiles.
+	 * @param ySize The height of the grid, in tiles.
+	 * @param specialLocations The locations which differ from the default; those outside of the grid are ignored.
+	 */
+	public TileGrid(int xSize, int ySize, Collection<Location> specialLocations) {
+		this.xSize = xSize;
+		this.ySize = ySize;
+		xChunks = (xSize + CHUNK_MASK) >> CHUNK_SHIFT;
+		yChunks = (ySize + CHUNK_MASK) >> CHUNK_SHIFT;
+		chunks = new AtomicReferenceArray<>(xChunks * yChunks);
+		for (Location location : specialLocations)
+		{
+			if (inBounds(location.getX(), location.getY()))
+			{
+				this.specialLocations.computeIfAbsent(getChunkIndex(location.getX(), location.getY()),
+					  k -> new LocationCollection()).add(location);
+			}
+		}
+	}
+
+	/**
+	 * Get the tile type at the given coordinates.
+	 *
+	 * @param x The x coordinate.
+	 * @param y The y coordinate.
+	 *
+	 * @return The tile type, or -1 if the coordinates are outside of the grid.
+	 */
+	@Override
+	public int getType(int x, int y) {
+		if (!inBounds(x, y)) { return -1; }
+		Chunk chunk = getChunk(getChunkIndex(x, y));
+		return chunk == null ? TilePalette.DEFAULT_TYPE : chunk.getType(getTileIndex(x, y));
+	}
+
+	/**
+	 * Determine whether the tile at the given coordinates can be walked on.
+	 *
+	 * @param x The x coordinate.
+	 * @param y The y coordinate.
+	 *
+	 * @return Whether the tile can be walked on; false if the coordinates are outside of the grid.
+	 */
+	@Override
+	public boolean isWalkable(int x, int y) {
+		if (!inBounds(x, y)) { return false; }
+		Chunk chunk = getChunk(getChunkIndex(x, y));
+		return chunk == null || !chunk.unwalkable.get(getTileIndex(x, y));
+	}
+
+	/**
+	 * Replace the tile with the same coordinates as the given location.
+	 *
+	 * @param location The new location.
+	 */
+	@Override
+	public synchronized void setLocation(Location location) {
+		int chunkIndex = getChunkIndex(location.getX(), location.getY());
+		specialLocations.computeIfAbsent(chunkIndex, k -> new LocationCollection()).add(location);
+		Chunk chunk = getChunk(chunkIndex);
+		if (chunk != null) { chunk.set(getTileIndex(location.getX(), location.getY()), location); }
+	}
+
+	/**
+	 * Evict every resident chunk which is more than the given number of chunks away from all of the given positions.
+	 *
+	 * @param positions The positions of the objects in the zone.
+	 * @param chunkRadius The number of chunks around each position which are kept.
+	 *
+	 * @return The number of chunks evicted.
+	 */
+	@Override
+	public int evictChunksAwayFrom(Collection<Vector2D> positions, int chunkRadius) {
+		BitSet keep = new BitSet(chunks.length());
+		for (Vector2D position : positions)
+		{
+			int chunkX = (int) Math.floor(position.getXCoordinate() / Location.SIZE) >> CHUNK_SHIFT;
+			int chunkY = (int) Math.floor(position.getYCoordinate() / Location.SIZE) >> CHUNK_SHIFT;
+			for (int y = Math.max(0, chunkY - chunkRadius); y <= Math.min(yChunks - 1, chunkY + chunkRadius); y++)
+			{
+				for (int x = Math.max(0, chunkX - chunkRadius); x <= Math.min(xChunks - 1, chunkX + chunkRadius); x++)
+				{
+					keep.set(y * xChunks + x);
+				}
+			}
+		}
+		int evicted = 0;
+		for (int i = 0; i < chunks.length(); i++)
+		{
+			if (!keep.get(i) && chunks.getAndSet(i, null) != null) { evicted++; }
+		}
+		evictionCount.addAndGet(evicted);
+		return evicted;
+	}
+
+	@Override
+	public TilePalette getPalette() { return palette; }
+
+	/**
+	 * Get the total number of chunks in the grid, resident or not.
+	 *
+	 * @return The total number of chunks in the grid.
+	 */
+	public int getChunkCount() { return chunks.length(); }
+
+	/**
+	 * Get the number of chunks currently held in memory.
+	 *
+	 * @return The number of resident chunks.
+	 */
+	public int getResidentChunkCount() {
+		int count = 0;
+		for (int i = 0; i < chunks.length(); i++)
+		{
+			if (chunks.get(i) != null) { count++; }
+		}
+		return count;
+	}
+
+	/**
+	 * Get the approximate number of bytes used by the resident chunks.
+	 *
+	 * @return The approximate number of bytes used by the resident chunks.
+	 */
+	public long getResidentBytes() { return getResidentChunkCount() * CHUNK_BYTES; }
+
+	/**
+	 * Get the number of times a chunk has been built.
+	 *
+	 * @return The number of times a chunk has been built.
+	 */
+	public long getChunkLoadCount() { return loadCount.get(); }
+
+	/**
+	 * Get the number of times a chunk has been evicted.
+	 *
+	 * @return The number of times a chunk has been evicted.
+	 */
+	public long getChunkEvictionCount() { return evictionCount.get(); }
+
+	private Chunk getChunk(int chunkIndex) {
+		Chunk chunk = chunks.get(chunkIndex);
+		if (chunk == null && specialLocations.containsKey(chunkIndex)) { chunk = loadChunk(chunkIndex); }
+		return chunk;
+	}
+
+	private synchronized Chunk loadChunk(int chunkIndex) {
+		Chunk chunk = chunks.get(chunkIndex);
+		LocationCollection special = specialLocations.get(chunkIndex);
+		if (chunk == null && special != null)
+		{
+			chunk = new Chunk();
+			for (Location location : special)
+			{
+				chunk.set(getTileIndex(location.getX(), location.getY()), location);
+			}
+			chunks.set(chunkIndex, chunk);
+			loadCount.incrementAndGet();
+		}
+		return chunk;
+	}
+
+	private boolean inBounds(int x, int y) { return x >= 0 && x < xSize && y >= 0 && y < ySize; }
+
+	private int getChunkIndex(int x, int y) { return (y >> CHUNK_SHIFT) * xChunks + (x >> CHUNK_SHIFT); }
+
+	private static int getTileIndex(int x, int y) { return ((y & CHUNK_MASK) << CHUNK_SHIFT) + (x & CHUNK_MASK); }
+
+	/**
+	 * The tile types of a single chunk.
+	 */
+	private class Chunk
+	{
+		/** The tile type of each tile, stored as an unsigned short. */
+		private final short[] types = new short[CHUNK_AREA];
+		/** Set for each tile which cannot be walked on. */
+		private final BitSet unwalkable = new BitSet(CHUNK_AREA);
+
+		int getType(int tileIndex) { return types[tileIndex] & 0xFFFF; }
+
+		void set(int tileIndex, Location location) {
+			int type = palette.getTypeId(location.getProperties());
+			types[tileIndex] = (short) type;
+			unwalkable.set(tileIndex, !palette.isWalkable(type));
+		}
+	}
+}
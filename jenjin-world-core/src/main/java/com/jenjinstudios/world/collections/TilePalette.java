@@ -0,0 +1,79 @@
+package com.jenjinstudios.world.collections;
+
+import com.jenjinstudios.world.Location;
+
+import java.util.*;
+
+/**
+ * The {@code TilePalette} class stores each distinct set of location properties used in a zone exactly once, so that
+ * every tile can refer to its properties with a small integer tile type instead of carrying its own map.  Hot flags,
+ * such as whether a tile type is walkable, are computed once when the type is added.
+ * <p>
+ * Tile type {@link #DEFAULT_TYPE} always refers to a location with no properties.
+ *
+ * @author Caleb Brinkman
+ */
+public class TilePalette
+{
+	/** The tile type of locations with no properties. */
+	public static final int DEFAULT_TYPE = 0;
+	/** The maximum number of tile types in a palette. */
+	public static final int MAX_TYPES = 1 << 16;
+	private final List<Map<String, String>> types = new ArrayList<>();
+	private final Map<Map<String, String>, Integer> typeIds = new HashMap<>();
+	private final BitSet unwalkableTypes = new BitSet();
+
+	/**
+	 * Construct a new {@code TilePalette} containing only the default tile type.
+	 */
+	public TilePalette() { getTypeId(Collections.emptyMap()); }
+
+	/**
+	 * Get the tile type with the given properties, adding it to the palette if it is not already present.
+	 *
+	 * @param properties The properties of the tile type.
+	 *
+	 * @return The tile type.
+	 *
+	 * @throws IllegalStateException If the palette is full.
+	 */
+	public synchronized int getTypeId(Map<String, String> properties) {
+		Integer typeId = typeIds.get(properties);
+		if (typeId == null)
+		{
+			if (types.size() >= MAX_TYPES)
+				throw new IllegalStateException("Tile palette cannot hold more than " + MAX_TYPES + " types.");
+			Map<String, String> copy = Collections.unmodifiableMap(new HashMap<>(properties));
+			typeId = types.size();
+			types.add(copy);
+			typeIds.put(copy, typeId);
+			if ("false".equals(copy.get(Location.WALKABLE_PROPERTY))) { unwalkableTypes.set(typeId); }
+		}
+		return typeId;
+	}
+
+	/**
+	 * Get the properties of the given tile type.
+	 *
+	 * @param typeId The tile type.
+	 *
+	 * @return An unmodifiable map of the properties of the tile type.
+	 */
+	public synchronized Map<String, String> getProperties(int typeId) { return types.get(typeId); }
+
+	/**
+	 * Determine whether tiles of the given type can be walked on.
+	 *
+	 * @param typeId The tile type.
+	 *
+	 * @return Whether tiles of the given type can be walked on.
+	 */
+	public synchronized boolean isWalkable(int typeId) { return !unwalkableTypes.get(typeId); }
+
+	/**
+	 * Get the number of tile types in this palette.
+	 *
+	 * @return The number of tile types in this palette.
+	 */
+	public synchronized int size() { return types.size(); }
+}
@@ -0,0 +1,62 @@
+package com.jenjinstudios.world.collections;
+
+import com.jenjinstudios.world.Location;
+import com.jenjinstudios.world.math.Vector2D;
+
+import java.util.Collection;
+
+/**
+ * A {@code TileStorage} holds the tile type of every location in a zone, along with whether each tile can be walked on.
+ * The properties of each tile type are kept in the storage's {@code TilePalette}.
+ * <p>
+ * {@link TileGrid} keeps the tiles on the heap in chunks built from the zone's special locations; {@link
+ * MappedTileStorage} keeps them off the heap in a memory-mapped file.
+ *
+ * @author Caleb Brinkman
+ */
+public interface TileStorage
+{
+	/**
+	 * Get the tile type at the given coordinates.
+	 *
+	 * @param x The x coordinate.
+	 * @param y The y coordinate.
+	 *
+	 * @return The tile type, or -1 if the coordinates are outside of the storage.
+	 */
+	int getType(int x, int y);
+
+	/**
+	 * Determine whether the tile at the given coordinates can be walked on.
+	 *
+	 * @param x The x coordinate.
+	 * @param y The y coordinate.
+	 *
+	 * @return Whether the tile can be walked on; false if the coordinates are outside of the storage.
+	 */
+	boolean isWalkable(int x, int y);
+
+	/**
+	 * Replace the tile with the same coordinates as the given location.
+	 *
+	 * @param location The new location.
+	 */
+	void setLocation(Location location);
+
+	/**
+	 * Release the memory held for tiles which are far from all of the given positions, if the storage holds any.
+	 *
+	 * @param positions The positions of the objects in the zone.
+	 * @param chunkRadius The number of chunks around each position which are kept.
+	 *
+	 * @return The number of chunks released.
+	 */
+	int evictChunksAwayFrom(Collection<Vector2D> positions, int chunkRadius);
+
+	/**
+	 * Get the palette of tile types used by this storage.
+	 *
+	 * @return The palette of tile types used by this storage.
+	 */
+	TilePalette getPalette();
+}
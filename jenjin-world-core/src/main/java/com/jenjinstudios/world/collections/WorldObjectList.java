@@ -1,52 +1,372 @@
 package com.jenjinstudios.world.collections;
 
+import com.jenjinstudios.world.Actor;
 import com.jenjinstudios.world.World;
 import com.jenjinstudios.world.WorldObject;
+import com.jenjinstudios.world.Zone;
+import com.jenjinstudios.world.math.Vector2D;
 
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.function.Consumer;
 
 /**
+ * The {@code WorldObjectList} class holds the objects in a world, keyed by ID.  IDs are handed out by an {@code
+ * IdAllocator}; the ID of a removed object is not reused until its slot's generation wraps around, so a stale ID never
+ * finds the object which took its place.
+ * <p>
+ * The objects are kept packed at the front of an array, and an array indexed by the slot of each ID holds the position
+ * of its object, so looking up an object by ID and walking every object touch only arrays.  Objects added or removed
+ * are held as pending until {@link #refresh()}, which appends added objects and fills the hole left by each removed
+ * object with the last object in the array; the order in which objects are visited therefore only changes during a
+ * refresh.  Only one object may occupy a slot; an object placed with {@link #set(int, WorldObject)} replaces any object
+ * in the same slot, and the replaced object's ID is freed as if it had been removed.
  * @author Caleb Brinkman
  */
 public class WorldObjectList implements List<WorldObject>
 {
-	private final Map<Integer, WorldObject> objects = new ConcurrentHashMap<>();
-	private final Map<Integer, WorldObject> toAdd = new ConcurrentHashMap<>();
-	private final Map<Integer, WorldObject> toRemove = new ConcurrentHashMap<>();
+	private final IdAllocator idAllocator = new IdAllocator();
+	/** Guards the dense arrays; held for writing only while pending changes are applied. */
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+	/** The objects in this list, packed at the front of the array. */
+	private WorldObject[] dense = new WorldObject[64];
+	/** The position in the dense array of the object in each slot, or -1 if the slot is empty. */
+	private int[] positions = newPositions(64);
+	private volatile int size;
+	/** Guards the pending changes. */
+	private final Object pendingLock = new Object();
+	private final List<WorldObject> pendingAdds = new ArrayList<>();
+	private int[] pendingRemoves = new int[16];
+	private int pendingRemoveCount;
+	/** The slots of objects placed with set which have not yet been applied. */
+	private final BitSet pendingSetSlots = new BitSet();
+	/** The spatial index of each zone containing objects, keyed by zone ID. */
+	private final Map<Integer, SpatialIndex> zoneIndexes = new HashMap<>();
+	/** The spatial index in which each object is currently stored. */
+	private final Map<WorldObject, SpatialIndex> objectIndexes = new IdentityHashMap<>();
+	/** The objects which have moved while index updates were deferred. */
+	private final Queue<WorldObject> deferredMoves = new ConcurrentLinkedQueue<>();
+	private volatile boolean deferringMoves;
 	private final World world;
 
 	public WorldObjectList(World world) {
 		this.world = world;
 	}
 
+	/**
+	 * Apply the additions and removals made since the last refresh.  Removals are applied first, so an object which
+	 * is replaced with {@link #set(int, WorldObject)} ends up holding its ID.
+	 */
 	public void refresh() {
-		toRemove.keySet().forEach(objects::remove);
-		toRemove.clear();
-		toAdd.entrySet().stream().
-			  filter(entry -> !objects.containsKey(entry.getKey())).
-			  forEach(entry -> {
-				  objects.put(entry.getKey(), entry.getValue());
-				  entry.getValue().setWorld(world);
-			  });
-		toAdd.clear();
+		WorldObject[] adds;
+		int[] removes;
+		synchronized (pendingLock)
+		{
+			if (pendingAdds.isEmpty() && pendingRemoveCount == 0) { return; }
+			adds = pendingAdds.toArray(new WorldObject[pendingAdds.size()]);
+			removes = Arrays.copyOf(pendingRemoves, pendingRemoveCount);
+			pendingAdds.clear();
+			pendingRemoveCount = 0;
+			pendingSetSlots.clear();
+		}
+		lock.writeLock().lock();
+		try
+		{
+			for (int id : removes)
+			{
+				WorldObject removed = removeFromDense(id);
+				if (removed != null)
+				{
+					world.wakeNeighbours(removed, 0);
+					detach(removed);
+				}
+			}
+			for (WorldObject added : adds)
+			{
+				addToDense(added);
+			}
+			for (int id : removes)
+			{
+				if (find(id) == null) { idAllocator.free(id); }
+			}
+		} finally
+		{
+			lock.writeLock().unlock();
+		}
+		for (WorldObject added : adds)
+		{
+			if (get(added.getId()) == added)
+			{
+				added.setWorld(world);
+				if (added instanceof Actor && world.getMovementSystem() != null)
+				{
+					world.getMovementSystem().add((Actor) added);
+				}
+				updateIndex(added);
+				world.wakeNeighbours(added, 0);
+			}
+		}
+	}
+
+	/**
+	 * Update the position of the given object in the spatial index of its zone; called by {@code WorldObject} when it
+	 * moves or changes zones.
+	 * @param worldObject The object which has moved.
+	 */
+	public void objectMoved(WorldObject worldObject) {
+		if (deferringMoves)
+		{
+			deferredMoves.add(worldObject);
+		} else if (get(worldObject.getId()) == worldObject)
+		{
+			updateIndex(worldObject);
+		}
+	}
+
+	/**
+	 * Hold back spatial index updates until {@link #applyDeferredMoves()} is called.  Used while objects are updated in
+	 * parallel, so that moving objects do not all wait on the lock of their zone's index; until the moves are applied,
+	 * queries find objects at the positions they had before deferring began.
+	 */
+	public void deferMoves() { deferringMoves = true; }
+
+	/**
+	 * Stop deferring spatial index updates, and update the index for every object which moved while they were deferred.
+	 */
+	public void applyDeferredMoves() {
+		deferringMoves = false;
+		WorldObject moved;
+		while ((moved = deferredMoves.poll()) != null)
+		{
+			objectMoved(moved);
+		}
+	}
+
+	/**
+	 * Find all objects in this list, in any zone, within the given distance of the given point.
+	 * @param center The center of the search area.
+	 * @param radius The maximum distance from the center.
+	 * @return The objects within the given distance of the given point.
+	 */
+	public List<WorldObject> queryRadius(Vector2D center, double radius) {
+		List<WorldObject> found = new ArrayList<>();
+		getZoneIndexes().forEach(index -> found.addAll(index.queryRadius(center, radius)));
+		return found;
+	}
+
+	/**
+	 * Find all objects in the given zone within the given distance of the given point.
+	 * @param zoneId The ID of the zone to search.
+	 * @param center The center of the search area.
+	 * @param radius The maximum distance from the center.
+	 * @return The objects within the given distance of the given point.
+	 */
+	public List<WorldObject> queryRadius(int zoneId, Vector2D center, double radius) {
+		SpatialIndex index = getZoneIndex(zoneId);
+		return index != null ? index.queryRadius(center, radius) : new ArrayList<>();
+	}
+
+	/**
+	 * Find all objects in this list, in any zone, inside the given rectangle.
+	 * @param minX The minimum x coordinate.
+	 * @param minY The minimum y coordinate.
+	 * @param maxX The maximum x coordinate.
+	 * @param maxY The maximum y coordinate.
+	 * @return The objects inside the given rectangle.
+	 */
+	public List<WorldObject> queryRect(double minX, double minY, double maxX, double maxY) {
+		List<WorldObject> found = new ArrayList<>();
+		getZoneIndexes().forEach(index -> found.addAll(index.queryRect(minX, minY, maxX, maxY)));
+		return found;
+	}
+
+	/**
+	 * Find all objects in the given zone inside the given rectangle.
+	 * @param zoneId The ID of the zone to search.
+	 * @param minX The minimum x coordinate.
+	 * @param minY The minimum y coordinate.
+	 * @param maxX The maximum x coordinate.
+	 * @param maxY The maximum y coordinate.
+	 * @return The objects inside the given rectangle.
+	 */
+	public List<WorldObject> queryRect(int zoneId, double minX, double minY, double maxX, double maxY) {
+		SpatialIndex index = getZoneIndex(zoneId);
+		return index != null ? index.queryRect(minX, minY, maxX, maxY) : new ArrayList<>();
+	}
+
+	private void updateIndex(WorldObject worldObject) {
+		SpatialIndex target;
+		SpatialIndex current;
+		synchronized (zoneIndexes)
+		{
+			target = zoneIndexes.computeIfAbsent(worldObject.getZoneID(), this::createZoneIndex);
+			current = objectIndexes.put(worldObject, target);
+		}
+		if (current != null && current != target) { current.remove(worldObject); }
+		target.update(worldObject);
+	}
+
+	private void removeFromIndex(WorldObject worldObject) {
+		SpatialIndex current;
+		synchronized (zoneIndexes)
+		{
+			current = objectIndexes.remove(worldObject);
+		}
+		if (current != null) { current.remove(worldObject); }
+	}
+
+	/** Remove the given object from its spatial index and from the movement system of the world. */
+	private void detach(WorldObject worldObject) {
+		removeFromIndex(worldObject);
+		if (world.getMovementSystem() != null) { world.getMovementSystem().remove(worldObject); }
+	}
+
+	private SpatialIndex createZoneIndex(int zoneId) {
+		Zone zone = world.getZones().get(zoneId);
+		return zone != null ? zone.getSpatialIndexType().create(zone) : SpatialIndexType.GRID.create(null);
+	}
+
+	private SpatialIndex getZoneIndex(int zoneId) {
+		synchronized (zoneIndexes) { return zoneIndexes.get(zoneId); }
+	}
+
+	private List<SpatialIndex> getZoneIndexes() {
+		synchronized (zoneIndexes) { return new ArrayList<>(zoneIndexes.values()); }
 	}
 
+	/**
+	 * Perform the given action on each object in this list, in the order in which they are stored.  Objects added or
+	 * removed by the action are not applied until the next refresh.
+	 * @param action The action to perform.
+	 */
 	@Override
 	public void forEach(Consumer<? super WorldObject> action) {
-		synchronized (objects) { objects.values().forEach(action); }
+		lock.readLock().lock();
+		try
+		{
+			for (int i = 0; i < size; i++)
+			{
+				action.accept(dense[i]);
+			}
+		} finally
+		{
+			lock.readLock().unlock();
+		}
 	}
 
 	private int getUniqueId() {
-		int i = -1;
-		boolean unique = false;
-		while (!unique)
+		int id = idAllocator.allocate();
+		// IDs placed directly with set are not handed out by the allocator; skip any whose slot they occupy, leaving
+		// those IDs allocated.
+		while (isSlotTaken(IdAllocator.getSlot(id)))
+		{
+			id = idAllocator.allocate();
+		}
+		return id;
+	}
+
+	private boolean isSlotTaken(int slot) {
+		synchronized (pendingLock)
+		{
+			if (pendingSetSlots.get(slot)) { return true; }
+		}
+		lock.readLock().lock();
+		try
+		{
+			return slot < positions.length && positions[slot] >= 0;
+		} finally
+		{
+			lock.readLock().unlock();
+		}
+	}
+
+	private WorldObject getLocked(int id) {
+		lock.readLock().lock();
+		try
+		{
+			return find(id);
+		} finally
+		{
+			lock.readLock().unlock();
+		}
+	}
+
+	/** Find the object with the given ID; the caller must hold the lock. */
+	private WorldObject find(int id) {
+		if (id < 0) { return null; }
+		int slot = IdAllocator.getSlot(id);
+		if (slot >= positions.length || positions[slot] < 0) { return null; }
+		WorldObject worldObject = dense[positions[slot]];
+		return worldObject.getId() == id ? worldObject : null;
+	}
+
+	private void addToDense(WorldObject worldObject) {
+		int slot = IdAllocator.getSlot(worldObject.getId());
+		if (slot >= positions.length)
+		{
+			int oldLength = positions.length;
+			positions = Arrays.copyOf(positions, Math.max(slot + 1, oldLength * 2));
+			Arrays.fill(positions, oldLength, positions.length, -1);
+		}
+		int position = positions[slot];
+		if (position >= 0)
+		{
+			// The slot is held by an object with an older ID, or by the object being replaced; it takes this one's place.
+			// An older ID is freed as it would be by a removal, so the slot's generation advances.
+			WorldObject displaced = dense[position];
+			dense[position] = worldObject;
+			if (displaced != worldObject) { detach(displaced); }
+			if (displaced.getId() != worldObject.getId()) { idAllocator.free(displaced.getId()); }
+			return;
+		}
+		if (size == dense.length) { dense = Arrays.copyOf(dense, size * 2); }
+		dense[size] = worldObject;
+		positions[slot] = size++;
+	}
+
+	private WorldObject removeFromDense(int id) {
+		WorldObject removed = find(id);
+		if (removed != null)
+		{
+			int slot = IdAllocator.getSlot(id);
+			int position = positions[slot];
+			WorldObject last = dense[--size];
+			dense[position] = last;
+			positions[IdAllocator.getSlot(last.getId())] = position;
+			dense[size] = null;
+			positions[slot] = -1;
+		}
+		return removed;
+	}
+
+	private void addPendingRemove(int id) {
+		synchronized (pendingLock)
+		{
+			if (pendingRemoveCount == pendingRemoves.length)
+			{
+				pendingRemoves = Arrays.copyOf(pendingRemoves, pendingRemoveCount * 2);
+			}
+			pendingRemoves[pendingRemoveCount++] = id;
+		}
+	}
+
+	private WorldObject[] snapshot() {
+		lock.readLock().lock();
+		try
+		{
+			return Arrays.copyOf(dense, size);
+		} finally
 		{
-			i++;
-			unique = !objects.containsKey(i) && !toAdd.containsKey(i);
+			lock.readLock().unlock();
 		}
-		return i;
+	}
+
+	private static int[] newPositions(int length) {
+		int[] positions = new int[length];
+		Arrays.fill(positions, -1);
+		return positions;
 	}
 
 	/**
@@ -54,14 +374,14 @@ public class WorldObjectList implements List<WorldObject>
 	 * @return the number of elements in this list
 	 */
 	@Override
-	public int size() { return objects.size(); }
+	public int size() { return size; }
 
 	/**
 	 * Returns <tt>true</tt> if this list contains no elements.
 	 * @return <tt>true</tt> if this list contains no elements
 	 */
 	@Override
-	public boolean isEmpty() { return objects.isEmpty(); }
+	public boolean isEmpty() { return size == 0; }
 
 	/**
 	 * Returns <tt>true</tt> if this list contains the specified element. More formally, returns <tt>true</tt> if and
@@ -85,14 +405,14 @@ public class WorldObjectList implements List<WorldObject>
 		return contains;
 	}
 
-	public boolean contains(int id) { return objects.containsKey(id); }
+	public boolean contains(int id) { return getLocked(id) != null; }
 
 	/**
-	 * Returns an iterator over the elements in this list in proper sequence.
-	 * @return an iterator over the elements in this list in proper sequence
+	 * Returns an iterator over a snapshot of the elements in this list, in the order in which they are stored.
+	 * @return an iterator over the elements in this list
 	 */
 	@Override
-	public Iterator<WorldObject> iterator() { return objects.values().iterator(); }
+	public Iterator<WorldObject> iterator() { return Arrays.asList(snapshot()).iterator(); }
 
 	/**
 	 * Returns an array containing all of the elements in this list in proper sequence (from first to last element).
@@ -107,7 +427,7 @@ public class WorldObjectList implements List<WorldObject>
 	 * @see Arrays#asList(Object[])
 	 */
 	@Override
-	public Object[] toArray() { return objects.values().toArray(); }
+	public Object[] toArray() { return snapshot(); }
 
 	/**
 	 * Returns an array containing all of the elements in this list in proper sequence (from first to last element);
@@ -141,7 +461,7 @@ public class WorldObjectList implements List<WorldObject>
 	 * @throws NullPointerException if the specified array is null
 	 */
 	@Override
-	public <T> T[] toArray(T[] a) { return objects.values().toArray(a); }
+	public <T> T[] toArray(T[] a) { return Arrays.asList(snapshot()).toArray(a); }
 
 	/**
 	 * Appends the specified element to the end of this list (optional operation).
@@ -162,9 +482,9 @@ public class WorldObjectList implements List<WorldObject>
 		if (worldObject == null) throw new NullPointerException("Cannot add null WorldObject");
 		int uniqueId = getUniqueId();
 		worldObject.setId(uniqueId);
-		synchronized (toAdd)
+		synchronized (pendingLock)
 		{
-			toAdd.put(uniqueId, worldObject);
+			pendingAdds.add(worldObject);
 		}
 		return true;
 	}
@@ -189,10 +509,10 @@ public class WorldObjectList implements List<WorldObject>
 		if (!(o instanceof WorldObject)) throw new IllegalArgumentException("o must be WorldObject");
 		WorldObject worldObject = (WorldObject) o;
 		int id = worldObject.getId();
-		boolean changed = objects.containsKey(id);
+		boolean changed = contains(id);
 		if (changed)
 		{
-			toRemove.put(id, worldObject);
+			addPendingRemove(id);
 		}
 		return changed;
 	}
@@ -210,7 +530,7 @@ public class WorldObjectList implements List<WorldObject>
 	 * @see #contains(Object)
 	 */
 	@Override
-	public boolean containsAll(Collection<?> c) { return objects.values().containsAll(c); }
+	public boolean containsAll(Collection<?> c) { return c.stream().allMatch(this::contains); }
 
 	/**
 	 * Appends all of the elements in the specified collection to the end of this list, in the order that they are
@@ -304,19 +624,38 @@ public class WorldObjectList implements List<WorldObject>
 	 */
 	@Override
 	public void clear() {
-		objects.clear();
-		toAdd.clear();
-		toRemove.clear();
+		synchronized (pendingLock)
+		{
+			pendingAdds.clear();
+			pendingRemoveCount = 0;
+			pendingSetSlots.clear();
+		}
+		lock.writeLock().lock();
+		try
+		{
+			Arrays.fill(dense, 0, size, null);
+			Arrays.fill(positions, -1);
+			size = 0;
+		} finally
+		{
+			lock.writeLock().unlock();
+		}
+		idAllocator.clear();
+		synchronized (zoneIndexes)
+		{
+			zoneIndexes.clear();
+			objectIndexes.clear();
+		}
 	}
 
 	/**
-	 * Returns the element at the specified position in this list.
-	 * @param index index of the element to return
-	 * @return the element at the specified position in this list
-	 * @throws IndexOutOfBoundsException if the index is out of range (<tt>index &lt; 0 || index &gt;= size()</tt>)
+	 * Returns the object with the specified ID.  An ID whose object has been removed is stale; it returns null even if
+	 * its slot has since been reused.
+	 * @param index the ID of the object to return
+	 * @return the object with the specified ID, or null if there is none
 	 */
 	@Override
-	public WorldObject get(int index) { return objects.get(index); }
+	public WorldObject get(int index) { return getLocked(index); }
 
 	/**
 	 * Replaces the element at the specified position in this list with the specified element (optional operation).
@@ -332,13 +671,11 @@ public class WorldObjectList implements List<WorldObject>
 	 */
 	@Override
 	public WorldObject set(int index, WorldObject element) {
-		if (objects.containsKey(index))
+		element.setId(index);
+		synchronized (pendingLock)
 		{
-			toRemove.put(index, element);
-			toAdd.put(index, element);
-		} else
-		{
-			toAdd.put(index, element);
+			pendingAdds.add(element);
+			pendingSetSlots.set(IdAllocator.getSlot(index));
 		}
 		return null;
 	}
@@ -370,10 +707,10 @@ public class WorldObjectList implements List<WorldObject>
 	 */
 	@Override
 	public WorldObject remove(int index) {
-		WorldObject worldObject = objects.get(index);
+		WorldObject worldObject = get(index);
 		if (worldObject != null)
 		{
-			toRemove.put(index, worldObject);
+			addPendingRemove(index);
 		}
 		return worldObject;
 	}
@@ -392,12 +729,7 @@ public class WorldObjectList implements List<WorldObject>
 	 */
 	@Override
 	public int indexOf(Object o) {
-		final int[] index = {-1};
-		synchronized (objects)
-		{
-			objects.keySet().stream().filter(k -> k == o).findFirst().ifPresent(i -> index[0] = i);
-		}
-		return index[0];
+		return contains(o) ? ((WorldObject) o).getId() : -1;
 	}
 
 	/**
@@ -414,12 +746,7 @@ public class WorldObjectList implements List<WorldObject>
 	 */
 	@Override
 	public int lastIndexOf(Object o) {
-		final int[] index = {-1};
-		synchronized (objects)
-		{
-			objects.keySet().stream().filter(k -> k == o).forEach(i -> index[0] = i);
-		}
-		return index[0];
+		return indexOf(o);
 	}
 
 	/**
@@ -471,12 +798,9 @@ public class WorldObjectList implements List<WorldObject>
 	@Override
 	public List<WorldObject> subList(int fromIndex, int toIndex) {
 		List<WorldObject> subList = new LinkedList<>();
-		synchronized (objects)
-		{
-			objects.keySet().stream().
-				  filter(k -> k >= fromIndex && k < toIndex).
-				  forEach(k -> subList.add(objects.get(k)));
-		}
+		forEach(worldObject -> {
+			if (worldObject.getId() >= fromIndex && worldObject.getId() < toIndex) { subList.add(worldObject); }
+		});
 		return subList;
 	}
 }
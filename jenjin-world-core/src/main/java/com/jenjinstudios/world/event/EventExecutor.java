@@ -1,46 +1,40 @@
 package com.jenjinstudios.world.event;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.*;
 
 /**
+ * The {@code EventExecutor} class runs the events registered with an object during each phase of a world update.
+ * Events are registered by name, and can be looked up by name; registering an event with a name already in use
+ * replaces the previous event.
+ * <p>
+ * The events run in each phase are compiled into an array whenever an event is registered, so that running a phase
+ * takes no locks and only walks an array.  In each phase, the events registered for that phase run in the order they
+ * were registered, followed by the event stacks.
  * @author Caleb Brinkman
  */
 public class EventExecutor
 {
-	private final Map<String, InitializeEvent> initializeEvents = new HashMap<>();
-	private final Map<String, PreUpdateEvent> preUpdateEvents = new HashMap<>();
-	private final Map<String, UpdateEvent> updateEvents = new HashMap<>();
-	private final Map<String, PostUpdateEvent> postUpdateEvents = new HashMap<>();
-	private final Map<String, EventStack> eventStacks = new HashMap<>();
+	private final Map<String, InitializeEvent> initializeEvents = new LinkedHashMap<>();
+	private final Map<String, PreUpdateEvent> preUpdateEvents = new LinkedHashMap<>();
+	private final Map<String, UpdateEvent> updateEvents = new LinkedHashMap<>();
+	private final Map<String, PostUpdateEvent> postUpdateEvents = new LinkedHashMap<>();
+	private final Map<String, EventStack> eventStacks = new LinkedHashMap<>();
+	/** Guards the registries; held only while events are registered or looked up. */
+	private final Object registryLock = new Object();
+	private volatile InitializeEvent[] initializePipeline = new InitializeEvent[0];
+	private volatile PreUpdateEvent[] preUpdatePipeline = new PreUpdateEvent[0];
+	private volatile UpdateEvent[] updatePipeline = new UpdateEvent[0];
+	private volatile PostUpdateEvent[] postUpdatePipeline = new PostUpdateEvent[0];
 
 	private boolean initialized;
 
 
 	protected void initialize() {
-		runInitializeEvents();
-		runInitializeEventStacks();
-		initialized = true;
-	}
-
-	private void runInitializeEventStacks() {
-		synchronized (eventStacks)
-		{
-			for (String key : eventStacks.keySet())
-			{
-				eventStacks.get(key).onInitialize();
-			}
-		}
-	}
-
-	private void runInitializeEvents() {
-		synchronized (initializeEvents)
+		for (InitializeEvent event : initializePipeline)
 		{
-			for (String key : initializeEvents.keySet())
-			{
-				initializeEvents.get(key).onInitialize();
-			}
+			event.onInitialize();
 		}
+		initialized = true;
 	}
 
 	public void preUpdate() {
@@ -48,135 +42,114 @@ public class EventExecutor
 		{
 			initialize();
 		}
-		runPreEvents();
-		synchronized (eventStacks)
-		{
-			for (String key : eventStacks.keySet())
-			{
-				eventStacks.get(key).onPreUpdate();
-			}
-		}
-	}
-
-	private void runPreEvents() {
-		synchronized (preUpdateEvents)
+		for (PreUpdateEvent event : preUpdatePipeline)
 		{
-			for (String key : preUpdateEvents.keySet())
-			{
-				preUpdateEvents.get(key).onPreUpdate();
-			}
+			event.onPreUpdate();
 		}
 	}
 
 	public void update() {
-		runUpdateEvents();
-		synchronized (eventStacks)
+		for (UpdateEvent event : updatePipeline)
 		{
-			for (String key : eventStacks.keySet())
-			{
-				eventStacks.get(key).onUpdate();
-			}
-		}
-	}
-
-	private void runUpdateEvents() {
-		synchronized (updateEvents)
-		{
-			for (String key : updateEvents.keySet())
-			{
-				updateEvents.get(key).onUpdate();
-			}
+			event.onUpdate();
 		}
 	}
 
 	public void postUpdate() {
-		runPostUpdateEvents();
-		synchronized (eventStacks)
-		{
-			for (String key : eventStacks.keySet())
-			{
-				eventStacks.get(key).onPostUpdate();
-			}
-		}
-	}
-
-	private void runPostUpdateEvents() {
-		synchronized (postUpdateEvents)
+		for (PostUpdateEvent event : postUpdatePipeline)
 		{
-			for (String key : postUpdateEvents.keySet())
-			{
-				postUpdateEvents.get(key).onPostUpdate();
-			}
+			event.onPostUpdate();
 		}
 	}
 
 	public void addInitializeEvent(String name, InitializeEvent event) {
-		synchronized (initializeEvents)
+		synchronized (registryLock)
 		{
 			initializeEvents.put(name, event);
+			compile();
 		}
 	}
 
 	public void addPreUpdateEvent(String name, PreUpdateEvent event) {
-		synchronized (preUpdateEvents)
+		synchronized (registryLock)
 		{
 			preUpdateEvents.put(name, event);
+			compile();
 		}
 	}
 
 	public void addUpdateEvent(String name, UpdateEvent event) {
-		synchronized (updateEvents)
+		synchronized (registryLock)
 		{
 			updateEvents.put(name, event);
+			compile();
 		}
 	}
 
 	public void addPostUpdateEvent(String name, PostUpdateEvent event) {
-		synchronized (postUpdateEvents)
+		synchronized (registryLock)
 		{
 			postUpdateEvents.put(name, event);
+			compile();
 		}
 	}
 
 	public void addEventStack(String name, EventStack eventStack) {
-		synchronized (eventStacks)
+		synchronized (registryLock)
 		{
 			eventStacks.put(name, eventStack);
+			compile();
 		}
 	}
 
 	public InitializeEvent getInitializeEvent(String name) {
-		synchronized (initializeEvents)
+		synchronized (registryLock)
 		{
 			return initializeEvents.get(name);
 		}
 	}
 
 	public PreUpdateEvent getPreUpdateEvent(String name) {
-		synchronized (preUpdateEvents)
+		synchronized (registryLock)
 		{
 			return preUpdateEvents.get(name);
 		}
 	}
 
 	public UpdateEvent getUpdateEvent(String name) {
-		synchronized (updateEvents)
+		synchronized (registryLock)
 		{
 			return updateEvents.get(name);
 		}
 	}
 
 	public PostUpdateEvent getPostUpdateEvent(String name) {
-		synchronized (postUpdateEvents)
+		synchronized (registryLock)
 		{
 			return postUpdateEvents.get(name);
 		}
 	}
 
 	public EventStack getEventStack(String name) {
-		synchronized (eventStacks)
+		synchronized (registryLock)
 		{
 			return eventStacks.get(name);
 		}
 	}
+
+	/** Rebuild the array of events run in each phase; the caller must hold the registry lock. */
+	private void compile() {
+		Collection<EventStack> stacks = eventStacks.values();
+		initializePipeline = compile(initializeEvents.values(), stacks, new InitializeEvent[0]);
+		preUpdatePipeline = compile(preUpdateEvents.values(), stacks, new PreUpdateEvent[0]);
+		updatePipeline = compile(updateEvents.values(), stacks, new UpdateEvent[0]);
+		postUpdatePipeline = compile(postUpdateEvents.values(), stacks, new PostUpdateEvent[0]);
+	}
+
+	private static <T> T[] compile(Collection<? extends T> events, Collection<? extends T> stacks, T[] empty) {
+		List<T> pipeline = new ArrayList<>(events.size() + stacks.size());
+		pipeline.addAll(events);
+		pipeline.addAll(stacks);
+		return pipeline.toArray(empty);
+	}
 }
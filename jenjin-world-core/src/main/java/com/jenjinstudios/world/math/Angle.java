@@ -1,6 +1,11 @@
 package com.jenjinstudios.world.math;
 
 /**
+ * The direction an object is facing, given by its absolute angle, and the direction it is moving relative to that,
+ * given by one of the relative angle constants or {@link #IDLE}.
+ * <p>
+ * Angles cannot be changed, so the step angle and its cosine and sine are computed once, when the angle is created,
+ * rather than every time an object steps in its direction.
  * @author Caleb Brinkman
  */
 public class Angle
@@ -25,6 +30,11 @@ public class Angle
 	public static final double FRONT_LEFT = Math.PI * 0.25;
 	private final double absoluteAngle;
 	private final double relativeAngle;
+	private final double stepAngle;
+	/** The cosine of the step angle; zero if idle. */
+	private final double stepCos;
+	/** The sine of the step angle; zero if idle. */
+	private final double stepSin;
 
 	public Angle() {
 		this(0.0, IDLE);
@@ -37,6 +47,10 @@ public class Angle
 	public Angle(double absoluteAngle, double relativeAngle) {
 		this.absoluteAngle = absoluteAngle;
 		this.relativeAngle = relativeAngle;
+		double sAngle = relativeAngle != IDLE ? absoluteAngle + relativeAngle : IDLE;
+		stepAngle = (sAngle < 0) ? (sAngle + (Math.PI * 2)) : (sAngle % (Math.PI * 2));
+		stepCos = relativeAngle != IDLE ? Math.cos(stepAngle) : 0;
+		stepSin = relativeAngle != IDLE ? Math.sin(stepAngle) : 0;
 	}
 
 	public double getRelativeAngle() {
@@ -59,10 +73,19 @@ public class Angle
 
 	}
 
-	public double getStepAngle() {
-		double sAngle = relativeAngle != IDLE ? absoluteAngle + relativeAngle : IDLE;
-		return (sAngle < 0) ? (sAngle + (Math.PI * 2)) : (sAngle % (Math.PI * 2));
-	}
+	public double getStepAngle() { return stepAngle; }
+
+	/**
+	 * Get the cosine of the step angle, the x component of a step of unit length in this direction.
+	 * @return The cosine of the step angle, or zero if this angle is idle.
+	 */
+	public double getStepCos() { return stepCos; }
+
+	/**
+	 * Get the sine of the step angle, the y component of a step of unit length in this direction.
+	 * @return The sine of the step angle, or zero if this angle is idle.
+	 */
+	public double getStepSin() { return stepSin; }
 
 	@Override
 	public int hashCode() {
@@ -0,0 +1,137 @@
+package com.jenjinstudios.world.math;
+
+import com.jenjinstudios.world.Location;
+import com.jenjinstudios.world.Zone;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps the most recently used fields of vision of one zone, by center location, radius and whether shadows are cast,
+ * so that an object which stays on the same location does not scan the zone again.  Every entry is discarded once the
+ * tiles of the zone change.
+ * @author Caleb Brinkman
+ */
+public class FieldOfVisionCache
+{
+	/** The default number of fields of vision kept. */
+	public static final int DEFAULT_CAPACITY = 256;
+	private final Zone zone;
+	private final LruMap entries;
+	/** The version of the zone's tiles from which the entries were calculated. */
+	private int version;
+
+	/**
+	 * Construct a new {@code FieldOfVisionCache} which keeps the default number of fields of vision.
+	 * @param zone The zone.
+	 */
+	public FieldOfVisionCache(Zone zone) { this(zone, DEFAULT_CAPACITY); }
+
+	/**
+	 * Construct a new {@code FieldOfVisionCache}.
+	 * @param zone The zone.
+	 * @param capacity The number of fields of vision kept; the least recently used is discarded to make room.
+	 */
+	public FieldOfVisionCache(Zone zone, int capacity) {
+		if (capacity <= 0)
+			throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+		this.zone = zone;
+		this.version = zone.getVersion();
+		this.entries = new LruMap(capacity);
+	}
+
+	/**
+	 * Get the locations visible from the given location, scanning the zone only if they are not already cached.
+	 * @param center The location from which the zone is seen.
+	 * @param radius The radius, in locations, which can be seen.
+	 * @param shadowcasting Whether locations which cannot be walked on block the view.
+	 * @return A read-only list of the visible locations, as given by {@link FieldOfVisionCalculator#scan()}.
+	 */
+	public List<Location> get(Location center, int radius, boolean shadowcasting) {
+		Key key = new Key(center.getX(), center.getY(), radius, shadowcasting);
+		int zoneVersion = zone.getVersion();
+		synchronized (entries)
+		{
+			if (version != zoneVersion)
+			{
+				entries.clear();
+				version = zoneVersion;
+			}
+			List<Location> cached = entries.get(key);
+			if (cached != null) { return cached; }
+		}
+		List<Location> visible = new FieldOfVisionCalculator(zone, center, radius, shadowcasting).scan();
+		synchronized (entries)
+		{
+			// Do not keep a field of vision calculated while the zone was changing.
+			if (version == zoneVersion && zone.getVersion() == zoneVersion) { entries.put(key, visible); }
+		}
+		return visible;
+	}
+
+	/**
+	 * Get the number of fields of vision currently kept.
+	 * @return The number of fields of vision currently kept.
+	 */
+	public int size() {
+		synchronized (entries) { return entries.size(); }
+	}
+
+	public void clear() {
+		synchronized (entries) { entries.clear(); }
+	}
+
+	/**
+	 * A map in least-recently-accessed order which discards its eldest entry once it holds more than a given number of
+	 * entries.
+	 */
+	private static final class LruMap extends LinkedHashMap<Key, List<Location>>
+	{
+		private static final long serialVersionUID = 1L;
+		private final int capacity;
+
+		private LruMap(int capacity) {
+			super(16, 0.75f, true);
+			this.capacity = capacity;
+		}
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Key, List<Location>> eldest) { return size() > capacity; }
+	}
+
+	/**
+	 * The center, radius and mode of a field of vision.
+	 */
+	private static final class Key
+	{
+		private final int x;
+		private final int y;
+		private final int radius;
+		private final boolean shadowcasting;
+
+		private Key(int x, int y, int radius, boolean shadowcasting) {
+			this.x = x;
+			this.y = y;
+			this.radius = radius;
+			this.shadowcasting = shadowcasting;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) return true;
+			if (!(o instanceof Key)) return false;
+			Key that = (Key) o;
+			return x == that.x && y == that.y && radius == that.radius && shadowcasting == that.shadowcasting;
+		}
+
+		@Override
+		public int hashCode() {
+			int result = x;
+			result = 31 * result + y;
+			result = 31 * result + radius;
+			result = 31 * result + (shadowcasting ? 1 : 0);
+			return result;
+		}
+	}
+}
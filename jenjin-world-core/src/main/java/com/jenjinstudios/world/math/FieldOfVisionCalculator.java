@@ -2,56 +2,236 @@ package com.jenjinstudios.world.math;
 
 import com.jenjinstudios.world.Location;
 import com.jenjinstudios.world.Zone;
-import com.jenjinstudios.world.util.ZoneUtils;
 
-import java.util.LinkedList;
+import java.util.AbstractList;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 /**
+ * Finds the locations within a radius of a center location.  The offsets of the locations in range of each radius are
+ * worked out once and shared, up to {@link #MAX_CACHED_RADIUS}, so a scan only visits the tiles inside the circle.  A
+ * scan records only the coordinates of the visible tiles; each location is read from the zone the first time it is
+ * asked for.
+ * <p>
+ * With shadowcasting, locations which cannot be walked on block the view of the locations behind them; the blocking
+ * locations themselves can still be seen.  Use {@link Zone#getFieldOfVisionCache()} to reuse the result of a scan until
+ * the zone changes.
  * @author Caleb Brinkman
  */
 public class FieldOfVisionCalculator
 {
+	/** The multipliers which turn the coordinates of the first octant into those of each of the eight octants. */
+	private static final int[][] OCTANTS = {
+		  {1, 0, 0, -1, -1, 0, 0, 1},
+		  {0, 1, -1, 0, 0, -1, 1, 0},
+		  {0, 1, 1, 0, 0, -1, -1, 0},
+		  {1, 0, 0, 1, -1, 0, 0, -1}
+	};
+	/** The largest radius whose offsets are kept; the offsets of a larger radius are worked out for each scan. */
+	public static final int MAX_CACHED_RADIUS = 64;
+	private static final AtomicReferenceArray<OffsetMask> MASKS = new AtomicReferenceArray<>(MAX_CACHED_RADIUS + 1);
 	private final Zone zone;
 	private final int radius;
 	private final int centerX;
 	private final int centerY;
 	private final Location center;
+	private final boolean shadowcasting;
 
 	@SuppressWarnings("SameParameterValue")
-	public FieldOfVisionCalculator(Zone zone, Location center, int radius) {
+	public FieldOfVisionCalculator(Zone zone, Location center, int radius) { this(zone, center, radius, false); }
+
+	/**
+	 * Construct a new {@code FieldOfVisionCalculator}.
+	 * @param zone The zone containing the locations.
+	 * @param center The location from which the zone is seen.
+	 * @param radius The radius, in locations, which can be seen.
+	 * @param shadowcasting Whether locations which cannot be walked on block the view.
+	 */
+	public FieldOfVisionCalculator(Zone zone, Location center, int radius, boolean shadowcasting) {
 		this.center = center;
 		this.radius = radius;
 		this.zone = zone;
 		this.centerX = center.getX();
 		this.centerY = center.getY();
+		this.shadowcasting = shadowcasting;
 	}
 
+	/**
+	 * Find the visible locations; the center, followed by each visible location in range, column by column.
+	 * @return A read-only list of the visible locations.
+	 */
 	public List<Location> scan() {
-		List<Location> visibles = new LinkedList<>();
-		visibles.add(center);
-		for (int x = centerX - radius; x < centerX + radius; x++)
+		OffsetMask mask = getMask(radius);
+		boolean[] lit = shadowcasting ? castShadows() : null;
+		int[] xCoordinates = new int[mask.size()];
+		int[] yCoordinates = new int[mask.size()];
+		int count = 0;
+		for (int i = 0; i < mask.size(); i++)
+		{
+			if (lit != null && !lit[getLitIndex(mask.deltaX[i], mask.deltaY[i])]) { continue; }
+			int x = centerX + mask.deltaX[i];
+			int y = centerY + mask.deltaY[i];
+			if (x >= 0 && x < zone.getXSize() && y >= 0 && y < zone.getYSize())
+			{
+				xCoordinates[count] = x;
+				yCoordinates[count] = y;
+				count++;
+			}
+		}
+		return new VisibleLocations(zone, center, xCoordinates, yCoordinates, count);
+	}
+
+	public boolean isShadowcasting() { return shadowcasting; }
+
+	protected boolean inRange(Location location) {
+		return inRange(location.getX() - centerX, location.getY() - centerY, radius);
+	}
+
+	/**
+	 * Mark each location which can be seen from the center by recursive shadowcasting through each octant.
+	 * @return Whether each offset, indexed by {@link #getLitIndex(int, int)}, can be seen.
+	 */
+	private boolean[] castShadows() {
+		int width = 2 * radius + 1;
+		boolean[] lit = new boolean[width * width];
+		lit[getLitIndex(0, 0)] = true;
+		for (int octant = 0; octant < 8; octant++)
 		{
-			addColumn(visibles, x);
+			castLight(lit, 1, 1.0, 0.0, OCTANTS[0][octant], OCTANTS[1][octant], OCTANTS[2][octant],
+				  OCTANTS[3][octant]);
 		}
-		return visibles;
+		return lit;
 	}
 
-	private void addColumn(List<Location> visibles, int x) {
-		for (int y = centerY - radius; y < centerY + radius; y++)
+	/**
+	 * Light the rows of one octant from the given row outward, between the given start and end slopes, casting light
+	 * past each run of blocking locations separately.
+	 */
+	private void castLight(boolean[] lit, int row, double startSlope, double endSlope, int xx, int xy, int yx, int yy) {
+		if (startSlope < endSlope) { return; }
+		double start = startSlope;
+		double nextStart = 0;
+		boolean blocked = false;
+		for (int distance = row; distance <= radius && !blocked; distance++)
 		{
-			Location current = ZoneUtils.getLocationOnGrid(zone, x, y);
-			if (current != null && inRange(current))
+			int deltaY = -distance;
+			for (int deltaX = -distance; deltaX <= 0; deltaX++)
 			{
-				visibles.add(current);
+				double leftSlope = (deltaX - 0.5) / (deltaY + 0.5);
+				double rightSlope = (deltaX + 0.5) / (deltaY - 0.5);
+				if (start < rightSlope) { continue; }
+				if (endSlope > leftSlope) { break; }
+				int offsetX = deltaX * xx + deltaY * xy;
+				int offsetY = deltaX * yx + deltaY * yy;
+				if (inRange(offsetX, offsetY, radius)) { lit[getLitIndex(offsetX, offsetY)] = true; }
+				boolean opaque = !zone.isWalkable(centerX + offsetX, centerY + offsetY);
+				if (blocked)
+				{
+					if (opaque)
+					{
+						nextStart = rightSlope;
+					} else
+					{
+						blocked = false;
+						start = nextStart;
+					}
+				} else if (opaque && distance < radius)
+				{
+					blocked = true;
+					castLight(lit, distance + 1, start, leftSlope, xx, xy, yx, yy);
+					nextStart = rightSlope;
+				}
 			}
 		}
 	}
 
-	protected boolean inRange(Location location) {
-		double deltaX = location.getX() - centerX;
-		double deltaY = location.getY() - centerY;
-		double distance = Math.sqrt((deltaX * deltaX) + (deltaY * deltaY));
-		return distance < radius;
+	private int getLitIndex(int offsetX, int offsetY) { return (offsetY + radius) * (2 * radius + 1) + offsetX + radius; }
+
+	private static boolean inRange(int deltaX, int deltaY, int radius) {
+		return deltaX * deltaX + deltaY * deltaY < radius * radius;
+	}
+
+	private static OffsetMask getMask(int radius) {
+		if (radius < 0 || radius > MAX_CACHED_RADIUS) { return new OffsetMask(radius); }
+		OffsetMask mask = MASKS.get(radius);
+		if (mask == null)
+		{
+			MASKS.compareAndSet(radius, null, new OffsetMask(radius));
+			mask = MASKS.get(radius);
+		}
+		return mask;
+	}
+
+	/**
+	 * The offsets from the center of every location in range of a radius, column by column.
+	 */
+	private static final class OffsetMask
+	{
+		private final int[] deltaX;
+		private final int[] deltaY;
+
+		private OffsetMask(int radius) {
+			List<int[]> offsets = new ArrayList<>();
+			for (int x = -radius; x < radius; x++)
+			{
+				for (int y = -radius; y < radius; y++)
+				{
+					if (inRange(x, y, radius)) { offsets.add(new int[]{x, y}); }
+				}
+			}
+			deltaX = new int[offsets.size()];
+			deltaY = new int[offsets.size()];
+			for (int i = 0; i < offsets.size(); i++)
+			{
+				deltaX[i] = offsets.get(i)[0];
+				deltaY[i] = offsets.get(i)[1];
+			}
+		}
+
+		private int size() { return deltaX.length; }
+	}
+
+	/**
+	 * The result of a scan: the center, followed by the location at each recorded pair of coordinates.  Each location
+	 * is read from the zone when it is first asked for and kept from then on, so a scan whose result is never read in
+	 * full does not build a location for every tile in range.
+	 */
+	private static final class VisibleLocations extends AbstractList<Location> implements RandomAccess
+	{
+		private final Zone zone;
+		private final Location center;
+		private final int[] xCoordinates;
+		private final int[] yCoordinates;
+		private final int size;
+		private final AtomicReferenceArray<Location> locations;
+
+		private VisibleLocations(Zone zone, Location center, int[] xCoordinates, int[] yCoordinates, int count) {
+			this.zone = zone;
+			this.center = center;
+			this.xCoordinates = xCoordinates;
+			this.yCoordinates = yCoordinates;
+			this.size = count + 1;
+			this.locations = new AtomicReferenceArray<>(count);
+		}
+
+		@Override
+		public Location get(int index) {
+			if (index < 0 || index >= size)
+				throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+			if (index == 0) { return center; }
+			Location location = locations.get(index - 1);
+			if (location == null)
+			{
+				locations.compareAndSet(index - 1, null, zone.getLocation(xCoordinates[index - 1],
+					  yCoordinates[index - 1]));
+				location = locations.get(index - 1);
+			}
+			return location;
+		}
+
+		@Override
+		public int size() { return size; }
 	}
 }
@@ -8,15 +8,43 @@ import java.math.BigDecimal;
  */
 public class MathUtil
 {
+	/** The powers of ten which can be represented exactly as a double. */
+	private static final double[] POWERS_OF_TEN = {
+		  1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+		  1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+	};
+	/** Scaled values at or above this size may have no exact integer part, and are rounded with BigDecimal. */
+	private static final double MAX_FAST_SCALED = 0x1p52;
+
 	private MathUtil() { }
 
 	/**
 	 * MathUtil the given number to the given decimal place.
+	 * <p>
+	 * The result is the same as rounding the exact value of the given double half up with {@code BigDecimal}, but is
+	 * computed with doubles; only values which cannot be told from a tie after scaling, or which are too large to scale
+	 * exactly, fall back to {@code BigDecimal}.
 	 * @param value The number to round.
 	 * @param decimalPlaces The number of decimals to be rounded to.
 	 * @return The rounded value.
 	 */
 	public static double round(double value, int decimalPlaces) {
+		if (decimalPlaces < 0 || decimalPlaces >= POWERS_OF_TEN.length) { return roundExactly(value, decimalPlaces); }
+		double scale = POWERS_OF_TEN[decimalPlaces];
+		double scaled = Math.abs(value) * scale;
+		if (!(scaled < MAX_FAST_SCALED)) { return roundExactly(value, decimalPlaces); }
+		double floor = Math.floor(scaled);
+		double fraction = scaled - floor;
+		// The scaled value is off by at most half an ulp, so only a fraction this close to one half is ambiguous.
+		if (Math.abs(fraction - 0.5) <= Math.ulp(scaled)) { return roundExactly(value, decimalPlaces); }
+		double rounded = fraction > 0.5 ? floor + 1 : floor;
+		if (rounded == 0) { return 0; }
+		// Both operands are exact, so the quotient is the double nearest the decimal result, as from BigDecimal.
+		double result = rounded / scale;
+		return value < 0 ? -result : result;
+	}
+
+	private static double roundExactly(double value, int decimalPlaces) {
 		BigDecimal bd = new BigDecimal(value);
 		BigDecimal rounded = bd.setScale(decimalPlaces, BigDecimal.ROUND_HALF_UP);
 		return rounded.doubleValue();
@@ -1,13 +1,14 @@
 package com.jenjinstudios.world.math;
 
 import com.jenjinstudios.world.Location;
+import com.jenjinstudios.world.PropertyKey;
 import com.jenjinstudios.world.World;
 import com.jenjinstudios.world.WorldObject;
 import com.jenjinstudios.world.Zone;
 import com.jenjinstudios.world.util.ZoneUtils;
 
 import java.util.Collection;
-import java.util.LinkedList;
+import java.util.Collections;
 
 /**
  * @author Caleb Brinkman
@@ -16,23 +17,16 @@ public class SightCalculator
 {
 	public static final String VISION_RADIUS_PROPERTY = "visionRadius";
 	public static final double DEFAULT_VISION_RADIUS = 100d;
+	/** The distance an object can see, if it differs from the default. */
+	public static final PropertyKey<Double> VISION_RADIUS = PropertyKey.of(VISION_RADIUS_PROPERTY, Double.class,
+		  DEFAULT_VISION_RADIUS);
 
 	public static Collection<WorldObject> getVisibleObjects(WorldObject object) {
 		World world = object.getWorld();
 		if (world == null) throw new IllegalStateException("WorldObject " + object + " does not have a set World.");
-		Collection<WorldObject> worldObjects = new LinkedList<>();
-		Vector2D vector2D = object.getVector2D();
-		double rad = calculateViewRadius(object);
-		double r2 = rad * rad;
-		for (WorldObject visible : world.getWorldObjects())
-		{
-			Vector2D otherVector = visible.getVector2D();
-			if (visible != object && isRoughlyVisible(object, visible, rad) &&
-				  otherVector.getSquaredDistanceToVector(vector2D) <= r2)
-			{
-				worldObjects.add(visible);
-			}
-		}
+		Collection<WorldObject> worldObjects = world.queryRadius(object.getZoneID(),
+			  object.getVector2D(), calculateViewRadius(object));
+		worldObjects.removeIf(visible -> visible == object);
 		return worldObjects;
 	}
 
@@ -49,26 +43,32 @@ public class SightCalculator
 	}
 
 	public static Collection<Location> getVisibleLocations(WorldObject worldObject) {
-		LinkedList<Location> locations = new LinkedList<>();
-		World world = worldObject.getWorld();
-		if (world != null)
-		{
-			int zoneId = worldObject.getZoneID();
-			Zone zone = world.getZones().get(zoneId);
-			if (zone != null)
-			{
-				Location location = ZoneUtils.getLocationForCoordinates(zone, worldObject.getVector2D());
-				int radius = (int) (calculateViewRadius(worldObject) / Location.SIZE);
-				FieldOfVisionCalculator fov = new FieldOfVisionCalculator(zone, location, radius);
-				locations.addAll(fov.scan());
-			}
-		}
-		return locations;
+		return getVisibleLocations(worldObject, false);
 	}
 
-	private static double calculateViewRadius(WorldObject worldObject) {
-		Object customRadius = worldObject.getProperties().get(VISION_RADIUS_PROPERTY);
-		return customRadius == null ? DEFAULT_VISION_RADIUS : (double) customRadius;
+	/**
+	 * Get the locations the given object can see, reusing the field of vision cached by its zone if there is one.
+	 * @param worldObject The object.
+	 * @param shadowcasting Whether locations which cannot be walked on block the view of those behind them.
+	 * @return A read-only collection of the visible locations; empty if the object is not in a zone.
+	 */
+	public static Collection<Location> getVisibleLocations(WorldObject worldObject, boolean shadowcasting) {
+		World world = worldObject.getWorld();
+		if (world == null) { return Collections.emptyList(); }
+		Zone zone = world.getZones().get(worldObject.getZoneID());
+		if (zone == null) { return Collections.emptyList(); }
+		Location location = ZoneUtils.getLocationForCoordinates(zone, worldObject.getVector2D());
+		if (location == null) { return Collections.emptyList(); }
+		int radius = (int) (calculateViewRadius(worldObject) / Location.SIZE);
+		return zone.getFieldOfVisionCache().get(location, radius, shadowcasting);
 	}
 
+	/**
+	 * Get the distance the given object can see; the value of its {@value #VISION_RADIUS_PROPERTY} property, or the
+	 * default vision radius if it has none.
+	 * @param worldObject The object.
+	 * @return The distance the given object can see.
+	 */
+	public static double calculateViewRadius(WorldObject worldObject) { return worldObject.getDouble(VISION_RADIUS); }
+
 }
@@ -76,7 +76,8 @@ public class Vector2D
 	}
 
 	/**
-	 * Get a Vector2D the specified distance away from the current vector at the specified angle in radians.
+	 * Get a Vector2D the specified distance away from the current vector at the specified angle in radians.  Since
+	 * vectors cannot be changed, this vector is returned as it is if the angle is idle.
 	 * @param distance The distance.
 	 * @param angle The angle in radians.
 	 * @return The new Vector2D;
@@ -85,18 +86,32 @@ public class Vector2D
 		Vector2D vector2D;
 		if (angle != Angle.IDLE)
 		{
-			double cos = Math.cos(angle);
-			double sin = Math.sin(angle);
-			double newX = MathUtil.round(xCoordinate + (distance * cos), 4);
-			double newY = MathUtil.round(yCoordinate + (distance * sin), 4);
-			vector2D = new Vector2D(newX, newY);
+			vector2D = step(distance, Math.cos(angle), Math.sin(angle));
 		} else
 		{
-			vector2D = new Vector2D(this);
+			vector2D = this;
 		}
 		return vector2D;
 	}
 
+	/**
+	 * Get a Vector2D the specified distance away from the current vector in the step direction of the given angle.
+	 * The result is the same as {@code getVectorInDirection(distance, angle.getStepAngle())}, but uses the cosine and
+	 * sine stored in the angle.
+	 * @param distance The distance.
+	 * @param angle The angle.
+	 * @return The new Vector2D, or this vector if the angle is idle.
+	 */
+	public Vector2D getVectorInDirection(double distance, Angle angle) {
+		return angle.isNotIdle() ? step(distance, angle.getStepCos(), angle.getStepSin()) : this;
+	}
+
+	private Vector2D step(double distance, double cos, double sin) {
+		double newX = MathUtil.round(xCoordinate + (distance * cos), 4);
+		double newY = MathUtil.round(yCoordinate + (distance * sin), 4);
+		return new Vector2D(newX, newY);
+	}
+
 	/**
 	 * Get the angle to the given vector.
 	 * @param vector2D The vector toward which the return will point.
@@ -124,8 +139,8 @@ public class Vector2D
 	}
 
 	public double getSquaredDistanceToVector(Vector2D vector2D) {
-		double xSquare = java.lang.Math.pow(vector2D.getXCoordinate() - xCoordinate, 2);
-		double ySquare = java.lang.Math.pow(vector2D.getYCoordinate() - yCoordinate, 2);
-		return xSquare + ySquare;
+		double xDist = vector2D.getXCoordinate() - xCoordinate;
+		double yDist = vector2D.getYCoordinate() - yCoordinate;
+		return xDist * xDist + yDist * yDist;
 	}
 }
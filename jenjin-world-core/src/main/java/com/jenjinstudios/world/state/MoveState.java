@@ -18,7 +18,8 @@ public class MoveState
 	/**
 	 * Construct a new MoveState.
 	 * @param position The position at which the state change took place.
-	 * @param timeOfChange The time in nanoseconds at which the state change took place.
+	 * @param timeOfChange The time in milliseconds since the epoch at which the state change took place, as given by
+	 * the {@code WorldClock} of the world.
 	 */
 	public MoveState(Angle angle, Vector2D position, long timeOfChange) {
 		this.angle = angle;
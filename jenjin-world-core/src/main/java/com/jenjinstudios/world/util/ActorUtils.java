@@ -1,7 +1,6 @@
 package com.jenjinstudios.world.util;
 
 import com.jenjinstudios.world.Actor;
-import com.jenjinstudios.world.Location;
 import com.jenjinstudios.world.WorldObject;
 import com.jenjinstudios.world.math.Angle;
 import com.jenjinstudios.world.math.Vector2D;
@@ -13,32 +12,20 @@ import com.jenjinstudios.world.state.MoveState;
 public class ActorUtils
 {
 
-	private static boolean canStepForward(WorldObject o, double stepLength) {
-		boolean canStep;
-		if (o.getAngle().isNotIdle())
-		{
-			Vector2D newVector = o.getVector2D().getVectorInDirection(stepLength, o.getAngle().getStepAngle());
-			Location newLocation = ZoneUtils.getLocationForCoordinates(o.getWorld(), o.getZoneID(), newVector);
-			canStep = newLocation != null && !"false".equals(newLocation.getProperties().get("walkable"));
-		} else
-		{
-			canStep = true;
-		}
-		return canStep;
+	private static boolean canStepTo(WorldObject o, Vector2D newVector) {
+		return !o.getAngle().isNotIdle() ||
+			  ZoneUtils.isWalkable(o.getWorld().getZones().get(o.getZoneID()), newVector);
 	}
 
 	private static double calcStepLength(Actor actor) {
-		double lastUpdateCompleted = (double) actor.getWorld().getLastUpdateCompleted();
-		double moveSpeed = actor.getMoveSpeed();
-		double timePastInSeconds = (System.currentTimeMillis() - lastUpdateCompleted) / 1000;
-		return timePastInSeconds * moveSpeed;
+		return actor.getWorld().getClock().getDeltaSeconds() * actor.getMoveSpeed();
 	}
 
 	public static void stepForward(Actor actor) {
 		double stepLength = calcStepLength(actor);
-		if (canStepForward(actor, stepLength))
+		Vector2D newVector = actor.getVector2D().getVectorInDirection(stepLength, actor.getAngle());
+		if (canStepTo(actor, newVector))
 		{
-			Vector2D newVector = actor.getVector2D().getVectorInDirection(stepLength, actor.getAngle().getStepAngle());
 			actor.setVector2D(newVector);
 		} else
 		{
@@ -49,8 +36,8 @@ public class ActorUtils
 	public static void forceIdle(Actor actor) {
 		Angle idle = actor.getAngle().asIdle();
 		Vector2D vector2D = actor.getVector2D();
-		long lastUpdateCompleted = actor.getWorld().getLastUpdateCompleted();
-		MoveState forcedMoveState = new MoveState(idle, vector2D, lastUpdateCompleted);
+		long timeOfForce = actor.getWorld().getClock().getTimeMillis();
+		MoveState forcedMoveState = new MoveState(idle, vector2D, timeOfForce);
 		actor.setForcedState(forcedMoveState);
 		actor.setVector2D(vector2D);
 		actor.setAngle(idle);
@@ -26,7 +26,7 @@ public class LocationUtils
 	}
 
 	public static boolean isWalkable(Location location) {
-		return !"false".equals(location.getProperties().get("walkable"));
+		return !"false".equals(location.getProperties().get(Location.WALKABLE_PROPERTY));
 	}
 
 	public static Vector2D getNorthEastCorner(Location location) {
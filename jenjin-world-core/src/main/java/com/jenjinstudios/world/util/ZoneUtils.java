@@ -3,7 +3,6 @@ package com.jenjinstudios.world.util;
 import com.jenjinstudios.world.Location;
 import com.jenjinstudios.world.World;
 import com.jenjinstudios.world.Zone;
-import com.jenjinstudios.world.collections.LocationCollection;
 import com.jenjinstudios.world.math.Dimension2D;
 import com.jenjinstudios.world.math.Vector2D;
 
@@ -19,23 +18,38 @@ public class ZoneUtils
 	private static final int DEFAULT_SIZE = 50;
 
 	public static Location getLocationForCoordinates(Zone zone, Vector2D coordinates) {
-		double gridX = coordinates.getXCoordinate() / Location.SIZE;
-		double gridY = coordinates.getYCoordinate() / Location.SIZE;
-		gridX = gridX < 0 ? -1 : gridX;
-		gridY = gridY < 0 ? -1 : gridY;
-		return getLocationOnGrid(zone, (int) gridX, (int) gridY);
+		return getLocationOnGrid(zone, getGridCoordinate(coordinates.getXCoordinate()),
+			  getGridCoordinate(coordinates.getYCoordinate()));
+	}
+
+	/**
+	 * Determine whether the location containing the given coordinates can be walked on, without creating the location.
+	 * @param zone The zone, which may be null.
+	 * @param coordinates The coordinates.
+	 * @return Whether the location can be walked on; false if the zone is null or does not contain the coordinates.
+	 */
+	public static boolean isWalkable(Zone zone, Vector2D coordinates) {
+		return isWalkable(zone, coordinates.getXCoordinate(), coordinates.getYCoordinate());
+	}
+
+	/**
+	 * Determine whether the location containing the given coordinates can be walked on, without creating the location.
+	 * @param zone The zone, which may be null.
+	 * @param x The x coordinate.
+	 * @param y The y coordinate.
+	 * @return Whether the location can be walked on; false if the zone is null or does not contain the coordinates.
+	 */
+	public static boolean isWalkable(Zone zone, double x, double y) {
+		return zone != null && zone.isWalkable(getGridCoordinate(x), getGridCoordinate(y));
+	}
+
+	private static int getGridCoordinate(double coordinate) {
+		double grid = coordinate / Location.SIZE;
+		return grid < 0 ? -1 : (int) grid;
 	}
 
 	public static Location getLocationOnGrid(Zone zone, int x, int y) {
-		Location loc;
-		if (x < 0 || x >= zone.getXSize() || y < 0 || y >= zone.getYSize())
-			loc = null;
-		else
-		{
-			LocationCollection locationGrid = zone.getLocationGrid();
-			loc = locationGrid.getLocationWithXY(x, y);
-		}
-		return loc;
+		return zone.getLocation(x, y);
 	}
 
 	public static List<Location> getAdjacentLocations(Zone zone, Location loc) {
@@ -99,7 +113,7 @@ public class ZoneUtils
 			List<Location> diagonals = getAdjacentDiagonalLocations(zone, location);
 			List<Location> unwalkable = new LinkedList<>();
 			adjacentWalkable.addAll(adjacent);
-			adjacentWalkable.stream().filter(loc -> !LocationUtils.isWalkable(loc)).forEach(loc -> {
+			adjacentWalkable.stream().filter(loc -> !zone.isWalkable(loc.getX(), loc.getY())).forEach(loc -> {
 				unwalkable.add(loc);
 				getAdjacentLocations(zone, loc).stream().filter(diagonals::contains).
 					  forEach(unwalkable::add);
@@ -43,19 +43,19 @@ public class ActorTest
 	}
 
 	@Test
-	public void testStep() throws InterruptedException {
+	public void testStep() {
 		Actor actor = new Actor("Actor");
 		world.getWorldObjects().add(actor);
 		world.update();
 		Angle angle = new Angle(0.0, Angle.FRONT);
 		actor.setAngle(angle);
-		world.update();
-		long l = System.currentTimeMillis();
-		waitOneSecond();
-		world.update();
-		l = System.currentTimeMillis() - l;
+		int ticksPerSecond = (int) Math.round(1 / world.getClock().getDeltaSeconds());
+		for (int i = 0; i < ticksPerSecond; i++)
+		{
+			world.update();
+		}
 		double distance = Vector2D.ORIGIN.getDistanceToVector(actor.getVector2D());
-		Assert.assertEquals(distance, actor.getMoveSpeed() * ((double) l / 1000), distance * 0.1);
+		Assert.assertEquals(distance, actor.getMoveSpeed(), 0.001);
 	}
 
 	@Test
@@ -82,9 +82,4 @@ public class ActorTest
 		world.update();
 		Assert.assertNotNull(actor.getForcedState());
 	}
-
-	private void waitOneSecond() throws InterruptedException {
-		long startTime = System.currentTimeMillis();
-		while (System.currentTimeMillis() - startTime < 1000) Thread.sleep(1);
-	}
 }
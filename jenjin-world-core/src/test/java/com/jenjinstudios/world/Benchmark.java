@@ -0,0 +1,55 @@
+package com.jenjinstudios.world;
+
+/**
+ * Times the rounds of the benchmarks in this module.  The benchmarks are not run as part of the test suite; run the
+ * {@code main} method of each directly.
+ * @author Caleb Brinkman
+ */
+public final class Benchmark
+{
+	private Benchmark() { }
+
+	/**
+	 * Run the given round a number of times to warm up, then time it over a number of further runs.
+	 * @param warmupRounds The number of untimed runs.
+	 * @param rounds The number of timed runs.
+	 * @param round The work to run.
+	 * @return The average time of each timed run, in nanoseconds.
+	 */
+	public static double measure(int warmupRounds, int rounds, Runnable round) {
+		for (int i = 0; i < warmupRounds; i++)
+		{
+			round.run();
+		}
+		return time(() -> {
+			for (int i = 0; i < rounds; i++)
+			{
+				round.run();
+			}
+		}) / (double) rounds;
+	}
+
+	/**
+	 * Measure the given round as {@link #measure(int, int, Runnable)} does, and print the average time of each of the
+	 * operations it performs.
+	 * @param name The name under which to print the result.
+	 * @param warmupRounds The number of untimed runs.
+	 * @param rounds The number of timed runs.
+	 * @param operations The number of operations performed by each run.
+	 * @param round The work to run.
+	 */
+	public static void report(String name, int warmupRounds, int rounds, int operations, Runnable round) {
+		System.out.printf("%-28s %.1f ns/op%n", name, measure(warmupRounds, rounds, round) / operations);
+	}
+
+	/**
+	 * Time a single run of the given work.
+	 * @param work The work to run.
+	 * @return The time taken, in nanoseconds.
+	 */
+	public static long time(Runnable work) {
+		long start = System.nanoTime();
+		work.run();
+		return System.nanoTime() - start;
+	}
+}
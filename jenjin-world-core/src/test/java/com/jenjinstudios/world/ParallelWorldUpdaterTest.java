@@ -0,0 +1,116 @@
+package com.jenjinstudios.world;
+
+import com.jenjinstudios.world.math.Vector2D;
+import com.jenjinstudios.world.util.WorldUtils;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.Test;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @author Caleb Brinkman
+ */
+public class ParallelWorldUpdaterTest
+{
+	private final ForkJoinPool pool = new ForkJoinPool(4);
+
+	@AfterClass
+	public void tearDown() { pool.shutdown(); }
+
+	@Test
+	public void testPartitionByZoneAndRegion() {
+		World world = WorldUtils.createDefaultWorld();
+		ParallelWorldUpdater updater = new ParallelWorldUpdater(pool, 100);
+		world.getWorldObjects().add(createObject(0, 10, 10));
+		world.getWorldObjects().add(createObject(0, 90, 90));
+		world.getWorldObjects().add(createObject(0, 150, 10));
+		world.getWorldObjects().add(createObject(1, 10, 10));
+		world.getWorldObjects().refresh();
+
+		List<List<WorldObject>> partitions = updater.partition(world.getWorldObjects());
+		Assert.assertEquals(partitions.size(), 3);
+		Assert.assertEquals(partitions.stream().mapToInt(List::size).sum(), 4);
+	}
+
+	@Test
+	public void testPhasesAreSeparatedByBarriers() {
+		World world = WorldUtils.createDefaultWorld();
+		world.setParallelUpdater(new ParallelWorldUpdater(pool, 10));
+		AtomicInteger preUpdates = new AtomicInteger();
+		AtomicInteger updates = new AtomicInteger();
+		AtomicInteger postUpdates = new AtomicInteger();
+		AtomicInteger violations = new AtomicInteger();
+		int count = 200;
+		for (int i = 0; i < count; i++)
+		{
+			WorldObject worldObject = createObject(0, i * 10, i * 10);
+			worldObject.addPreUpdateEvent("Count", preUpdates::incrementAndGet);
+			worldObject.addUpdateEvent("Count", () -> {
+				if (preUpdates.get() != count) { violations.incrementAndGet(); }
+				updates.incrementAndGet();
+			});
+			worldObject.addPostUpdateEvent("Count", () -> {
+				if (updates.get() != count) { violations.incrementAndGet(); }
+				postUpdates.incrementAndGet();
+			});
+			world.getWorldObjects().add(worldObject);
+		}
+
+		world.update();
+
+		Assert.assertEquals(postUpdates.get(), count);
+		Assert.assertEquals(violations.get(), 0);
+	}
+
+	@Test
+	public void testDeferredActionsRunAfterPostUpdate() {
+		World world = WorldUtils.createDefaultWorld();
+		world.setParallelUpdater(new ParallelWorldUpdater(pool));
+		WorldObject source = createObject(0, 0, 0);
+		WorldObject target = createObject(0, 1000, 1000);
+		AtomicInteger targetPostUpdates = new AtomicInteger();
+		int[] postUpdatesWhenRun = {-1};
+		target.addPostUpdateEvent("Count", targetPostUpdates::incrementAndGet);
+		source.addPostUpdateEvent("Hit", () -> world.runLater(() -> {
+			postUpdatesWhenRun[0] = targetPostUpdates.get();
+			target.setVector2D(Vector2D.ORIGIN);
+		}));
+		world.getWorldObjects().add(source);
+		world.getWorldObjects().add(target);
+
+		world.update();
+
+		Assert.assertEquals(postUpdatesWhenRun[0], 1);
+		Assert.assertEquals(target.getVector2D(), Vector2D.ORIGIN);
+	}
+
+	@Test
+	public void testIndexUpdatedAfterUpdatePhase() {
+		World world = WorldUtils.createDefaultWorld();
+		world.setParallelUpdater(new ParallelWorldUpdater(pool, 10));
+		WorldObject mover = createObject(0, 0, 0);
+		Vector2D destination = new Vector2D(500, 500);
+		int[] foundDuringPhase = {-1};
+		mover.addUpdateEvent("Move", () -> {
+			mover.setVector2D(destination);
+			foundDuringPhase[0] = world.getWorldObjects().queryRadius(0, destination, 1).size();
+		});
+		world.getWorldObjects().add(mover);
+
+		world.update();
+
+		Assert.assertEquals(foundDuringPhase[0], 0);
+		Assert.assertEquals(world.getWorldObjects().queryRadius(0, destination, 1).size(), 1);
+		Assert.assertTrue(world.getWorldObjects().queryRadius(0, Vector2D.ORIGIN, 1).isEmpty());
+	}
+
+	private static WorldObject createObject(int zoneId, double x, double y) {
+		WorldObject worldObject = new WorldObject("Object");
+		worldObject.setZoneID(zoneId);
+		worldObject.setVector2D(new Vector2D(x, y));
+		return worldObject;
+	}
+}
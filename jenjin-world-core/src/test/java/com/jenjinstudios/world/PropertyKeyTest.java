@@ -0,0 +1,110 @@
+package com.jenjinstudios.world;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * @author Caleb Brinkman
+ */
+public class PropertyKeyTest
+{
+	@Test
+	public void testRegistration() {
+		PropertyKey<Double> key = PropertyKey.of("test.registration", Double.class, 2.0);
+		Assert.assertSame(PropertyKey.of("test.registration", Double.class, 2.0), key);
+		Assert.assertSame(PropertyKey.forName("test.registration"), key);
+		Assert.assertTrue(key.isNumeric());
+		Assert.assertFalse(PropertyKey.of("test.registration.name", String.class).isNumeric());
+	}
+
+	@Test(expectedExceptions = IllegalArgumentException.class)
+	public void testRegisterWithDifferentType() {
+		PropertyKey.of("test.conflict", Double.class);
+		PropertyKey.of("test.conflict", String.class);
+	}
+
+	@Test
+	public void testTypedProperties() {
+		PropertyKey<Double> speed = PropertyKey.of("test.speed", Double.class, 1.5);
+		PropertyKey<Integer> count = PropertyKey.of("test.count", Integer.class);
+		PropertyKey<String> label = PropertyKey.of("test.label", String.class);
+		WorldObject worldObject = new WorldObject();
+
+		Assert.assertEquals(worldObject.getDouble(speed), 1.5);
+		Assert.assertEquals(worldObject.getProperty(speed), 1.5);
+		Assert.assertFalse(worldObject.hasProperty(speed));
+
+		worldObject.setDouble(speed, 4.25);
+		worldObject.setLong(count, 7);
+		worldObject.setProperty(label, "Seven");
+		Assert.assertEquals(worldObject.getDouble(speed), 4.25);
+		Assert.assertEquals(worldObject.getProperty(count), Integer.valueOf(7));
+		Assert.assertEquals(worldObject.getProperty(label), "Seven");
+
+		worldObject.setProperty(label, null);
+		Assert.assertFalse(worldObject.hasProperty(label));
+		Assert.assertNull(worldObject.getProperty(label));
+	}
+
+	@Test
+	public void testPropertiesView() {
+		PropertyKey<Double> weight = PropertyKey.of("test.weight", Double.class);
+		WorldObject worldObject = new WorldObject();
+		worldObject.getProperties().put("test.weight", 3);
+		worldObject.getProperties().put("colour", "red");
+		Assert.assertEquals(worldObject.getDouble(weight), 3.0);
+		Assert.assertEquals(worldObject.getProperties().get("test.weight"), 3.0);
+
+		worldObject.setDouble(weight, 5);
+		Map<String, Object> expected = new HashMap<>();
+		expected.put("test.weight", 5.0);
+		expected.put("colour", "red");
+		Assert.assertEquals(worldObject.getProperties(), expected);
+
+		worldObject.getProperties().remove("test.weight");
+		Assert.assertFalse(worldObject.hasProperty(weight));
+		Assert.assertEquals(worldObject.getProperties(), Collections.singletonMap("colour", "red"));
+	}
+
+	@Test
+	public void testPutWrongType() {
+		PropertyKey<Double> height = PropertyKey.of("test.height", Double.class, 2.0);
+		WorldObject worldObject = new WorldObject();
+		worldObject.setDouble(height, 3);
+		worldObject.getProperties().put("test.height", "tall");
+		Assert.assertFalse(worldObject.hasProperty(height));
+		Assert.assertEquals(worldObject.getDouble(height), 2.0);
+		Assert.assertEquals(worldObject.getProperties().get("test.height"), "tall");
+		Assert.assertEquals(worldObject.getProperties().size(), 1);
+	}
+
+	@Test
+	public void testPropertySetBeforeRegistration() {
+		WorldObject worldObject = new WorldObject();
+		worldObject.setProperty("test.late", 12.0);
+		PropertyKey<Double> late = PropertyKey.of("test.late", Double.class);
+		Assert.assertEquals(worldObject.getDouble(late), 12.0);
+		Assert.assertEquals(worldObject.getProperties().size(), 1);
+	}
+
+	@Test
+	public void testChangeTracking() {
+		PropertyKey<Double> first = PropertyKey.of("test.changed.first", Double.class);
+		PropertyKey<String> second = PropertyKey.of("test.changed.second", String.class);
+		WorldObject worldObject = new WorldObject();
+		worldObject.setDouble(first, 1);
+		worldObject.setProperty(second, "Two");
+		Assert.assertEquals(worldObject.getChangedProperties(), Arrays.asList(first, second));
+
+		worldObject.clearPropertyChanges();
+		Assert.assertTrue(worldObject.getChangedProperties().isEmpty());
+		worldObject.setProperty(second, null);
+		Assert.assertTrue(worldObject.isPropertyChanged(second));
+		Assert.assertFalse(worldObject.isPropertyChanged(first));
+	}
+}
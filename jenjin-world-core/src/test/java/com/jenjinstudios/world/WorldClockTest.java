@@ -0,0 +1,51 @@
+package com.jenjinstudios.world;
+
+import com.jenjinstudios.world.actor.StateChangeStack;
+import com.jenjinstudios.world.math.Angle;
+import com.jenjinstudios.world.state.MoveState;
+import com.jenjinstudios.world.util.WorldUtils;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.List;
+
+/**
+ * @author Caleb Brinkman
+ */
+public class WorldClockTest
+{
+	@Test
+	public void testAdvance() {
+		long[] millis = {1000};
+		WorldClock clock = new WorldClock(() -> millis[0], 20);
+		long start = clock.getTimeMillis();
+		Assert.assertEquals(clock.getTick(), 0);
+		Assert.assertEquals(clock.getDeltaSeconds(), 0.05);
+
+		millis[0] += 70;
+		clock.advance();
+		Assert.assertEquals(clock.getTick(), 1);
+		Assert.assertEquals(clock.getTimeMillis(), start + 70);
+
+		millis[0] += 5;
+		Assert.assertEquals(clock.currentTimeMillis(), start + 75);
+		Assert.assertEquals(clock.getTimeMillis(), start + 70);
+	}
+
+	@Test(expectedExceptions = IllegalArgumentException.class)
+	public void testInvalidTicksPerSecond() { new WorldClock().setTicksPerSecond(0); }
+
+	@Test
+	public void testStateChangeUsesTickTime() {
+		World world = WorldUtils.createDefaultWorld();
+		Actor actor = new Actor("Actor");
+		world.getWorldObjects().add(actor);
+		world.update();
+		actor.setAngle(new Angle(0.0, Angle.FRONT));
+		world.update();
+		StateChangeStack stack = (StateChangeStack) actor.getEventStack(StateChangeStack.STACK_NAME);
+		List<MoveState> stateChanges = stack.getStateChanges();
+		Assert.assertEquals(world.getTick(), 2);
+		Assert.assertEquals(stateChanges.get(stateChanges.size() - 1).timeOfChange, world.getClock().getTimeMillis());
+	}
+}
@@ -80,7 +80,7 @@ public class WorldObjectTest
 	public void testGetLocation() throws Exception {
 		worldObject.setVector2D(vector2D);
 		Location loc = LocationUtils.getObjectLocation(worldObject);
-		Assert.assertTrue(loc == ZoneUtils.getLocationForCoordinates(world, 0, vector2D));
+		Assert.assertEquals(loc, ZoneUtils.getLocationForCoordinates(world, 0, vector2D));
 	}
 
 	/**
@@ -1,5 +1,6 @@
 package com.jenjinstudios.world;
 
+import com.jenjinstudios.world.math.Angle;
 import com.jenjinstudios.world.math.Vector2D;
 import com.jenjinstudios.world.util.WorldUtils;
 import org.testng.Assert;
@@ -67,4 +68,105 @@ public class WorldTest
 		WorldObject retrieved = world.getWorldObjects().get(0);
 		Assert.assertEquals(retrieved, obj0);
 	}
+
+	@Test
+	public void testRemovedIdIsNotReused() {
+		WorldObject first = new WorldObject("Alice");
+		World world = WorldUtils.createDefaultWorld();
+		world.getWorldObjects().add(first);
+		world.update();
+		int staleId = first.getId();
+		world.getWorldObjects().remove(staleId);
+		world.update();
+
+		WorldObject second = new WorldObject("Bob");
+		world.getWorldObjects().add(second);
+		world.update();
+		Assert.assertNotEquals(second.getId(), staleId);
+		Assert.assertNull(world.getWorldObjects().get(staleId));
+		Assert.assertEquals(world.getWorldObjects().get(second.getId()), second);
+	}
+
+	@Test
+	public void testQueryRadiusTracksMovement() {
+		WorldObject worldObject = new WorldObject("Mover");
+		World world = WorldUtils.createDefaultWorld();
+		world.getWorldObjects().add(worldObject);
+		world.update();
+		Assert.assertTrue(world.queryRadius(Vector2D.ORIGIN, 10).contains(worldObject));
+
+		worldObject.setVector2D(new Vector2D(250, 250));
+		Assert.assertFalse(world.queryRadius(Vector2D.ORIGIN, 10).contains(worldObject));
+		Assert.assertTrue(world.queryRect(200, 200, 300, 300).contains(worldObject));
+
+		world.getWorldObjects().remove(worldObject.getId());
+		world.update();
+		Assert.assertTrue(world.queryRect(200, 200, 300, 300).isEmpty());
+	}
+
+	@Test
+	public void testIdleObjectSleeps() {
+		WorldObject worldObject = new WorldObject("Sleeper");
+		int[] updates = new int[1];
+		worldObject.addUpdateEvent("Counter", () -> updates[0]++);
+		World world = WorldUtils.createDefaultWorld();
+		world.getWorldObjects().add(worldObject);
+		for (int i = 0; i < 5; i++) { world.update(); }
+
+		Assert.assertTrue(worldObject.isSleeping());
+		Assert.assertEquals(updates[0], World.SLEEP_DELAY + 1);
+		Assert.assertEquals(world.getActiveObjectCount(), 0);
+		Assert.assertEquals(world.getSleepingObjectCount(), 1);
+
+		worldObject.setProperty("colour", "red");
+		world.update();
+		Assert.assertFalse(worldObject.isSleeping());
+		Assert.assertEquals(world.getActiveObjectCount(), 1);
+		Assert.assertEquals(updates[0], World.SLEEP_DELAY + 2);
+	}
+
+	@Test
+	public void testMovingNeighbourWakesSleepingObject() {
+		WorldObject near = new WorldObject("Near");
+		WorldObject far = new WorldObject("Far");
+		far.setVector2D(new Vector2D(500, 500));
+		WorldObject mover = new WorldObject("Mover");
+		mover.setVector2D(new Vector2D(50, 50));
+		World world = WorldUtils.createDefaultWorld();
+		world.getWorldObjects().add(near);
+		world.getWorldObjects().add(far);
+		world.getWorldObjects().add(mover);
+		for (int i = 0; i < 5; i++) { world.update(); }
+		Assert.assertTrue(near.isSleeping());
+		Assert.assertTrue(far.isSleeping());
+
+		mover.setVector2D(new Vector2D(60, 60));
+		Assert.assertFalse(mover.isSleeping());
+		Assert.assertFalse(near.isSleeping());
+		Assert.assertTrue(far.isSleeping());
+	}
+
+	@Test
+	public void testStateChangeWakesActor() {
+		Actor actor = new Actor("Actor");
+		World world = WorldUtils.createDefaultWorld();
+		world.getWorldObjects().add(actor);
+		for (int i = 0; i < 5; i++) { world.update(); }
+		Assert.assertTrue(actor.isSleeping());
+
+		actor.setAngle(new Angle(0, Angle.FRONT));
+		world.update();
+		Assert.assertFalse(actor.isSleeping());
+	}
+
+	@Test
+	public void testUnsleepableObjectStaysAwake() {
+		WorldObject worldObject = new WorldObject("Insomniac");
+		worldObject.setSleepable(false);
+		World world = WorldUtils.createDefaultWorld();
+		world.getWorldObjects().add(worldObject);
+		for (int i = 0; i < 5; i++) { world.update(); }
+		Assert.assertFalse(worldObject.isSleeping());
+		Assert.assertEquals(world.getActiveObjectCount(), 1);
+	}
 }
@@ -1,5 +1,6 @@
 package com.jenjinstudios.world;
 
+import com.google.gson.Gson;
 import com.jenjinstudios.world.math.Dimension2D;
 import com.jenjinstudios.world.math.Vector2D;
 import com.jenjinstudios.world.util.ZoneUtils;
@@ -41,4 +42,43 @@ public class ZoneTest
 		Location actual = ZoneUtils.getLocationForCoordinates(zone, new Vector2D(100, 100));
 		Assert.assertEquals(actual, expected);
 	}
+
+	@Test
+	public void testGetLocationOutOfBounds() {
+		Zone zone = new Zone(0, new Dimension2D(20, 10));
+		Assert.assertNull(zone.getLocation(20, 0));
+		Assert.assertNull(zone.getLocation(0, 10));
+		Assert.assertNull(zone.getLocation(-1, 5));
+		Assert.assertEquals(zone.getLocation(19, 9), new Location(19, 9));
+	}
+
+	@Test
+	public void testSetLocation() {
+		Map<String, String> properties = new HashMap<>();
+		properties.put("walkable", "false");
+		Location wall = new Location(3, 4, properties);
+		Zone zone = new Zone(0, new Dimension2D(20, 20));
+		zone.getLocation(0, 0);
+
+		zone.setLocation(wall);
+
+		Assert.assertEquals(zone.getLocation(3, 4), wall);
+		Assert.assertFalse(zone.isWalkable(3, 4));
+		Assert.assertEquals(zone.copyLocationGrid().getLocationWithXY(3, 4), wall);
+	}
+
+	@Test
+	public void testSerializeWritesOnlySpecialLocations() {
+		Map<String, String> properties = new HashMap<>();
+		properties.put("blocksVision", "true");
+		Zone zone = new Zone(0, new Dimension2D(100, 100), new Location(10, 10, properties));
+		zone.getLocation(0, 0);
+		Gson gson = new Gson();
+
+		Zone copy = gson.fromJson(gson.toJson(zone), Zone.class);
+
+		Assert.assertEquals(copy.getLocation(10, 10), zone.getLocation(10, 10));
+		Assert.assertEquals(copy.getLocation(50, 50), new Location(50, 50));
+		Assert.assertEquals(copy.copyLocationGrid().size(), 100 * 100);
+	}
 }
@@ -0,0 +1,109 @@
+package com.jenjinstudios.world.actor;
+
+import com.jenjinstudios.world.Actor;
+import com.jenjinstudios.world.Location;
+import com.jenjinstudios.world.World;
+import com.jenjinstudios.world.Zone;
+import com.jenjinstudios.world.math.Angle;
+import com.jenjinstudios.world.math.Dimension2D;
+import com.jenjinstudios.world.math.Vector2D;
+import com.jenjinstudios.world.util.WorldUtils;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * @author Caleb Brinkman
+ */
+public class MovementSystemTest
+{
+	@Test
+	public void testIntegrateMatchesStepForward() {
+		World world = createWorld();
+		Actor actor = addActor(world, new Vector2D(50, 50));
+		Angle angle = new Angle(0.3, Angle.FRONT_LEFT);
+		actor.setAngle(angle);
+
+		world.getMovementSystem().integrate(world, 0.5);
+
+		Vector2D expected = new Vector2D(50, 50).getVectorInDirection(actor.getMoveSpeed() * 0.5,
+			  angle.getStepAngle());
+		Assert.assertEquals(actor.getVector2D(), expected);
+	}
+
+	@Test
+	public void testIdleActorIsNotMoved() {
+		World world = createWorld();
+		Actor actor = addActor(world, new Vector2D(50, 50));
+		Vector2D before = actor.getVector2D();
+
+		world.getMovementSystem().integrate(world, 1);
+
+		Assert.assertSame(actor.getVector2D(), before);
+	}
+
+	@Test
+	public void testBlockedActorIsForcedIdle() {
+		World world = createWorld();
+		Map<String, String> properties = new HashMap<>();
+		properties.put(Location.WALKABLE_PROPERTY, "false");
+		world.getZones().get(0).setLocation(new Location(6, 5, properties));
+		Actor actor = addActor(world, new Vector2D(5 * Location.SIZE + 9, 5 * Location.SIZE + 5));
+		actor.setAngle(new Angle(0, Angle.FRONT));
+
+		world.getMovementSystem().integrate(world, 0.1);
+
+		Assert.assertNotNull(actor.getForcedState());
+		Assert.assertFalse(actor.getAngle().isNotIdle());
+		Assert.assertEquals(actor.getVector2D(), new Vector2D(5 * Location.SIZE + 9, 5 * Location.SIZE + 5));
+	}
+
+	@Test
+	public void testRemovedActorKeepsPosition() {
+		World world = createWorld();
+		Actor first = addActor(world, new Vector2D(10, 10));
+		Actor second = addActor(world, new Vector2D(20, 20));
+		first.setAngle(new Angle(0, Angle.FRONT));
+		world.getMovementSystem().integrate(world, 1);
+		Vector2D moved = first.getVector2D();
+
+		world.getWorldObjects().remove(first);
+		world.getWorldObjects().refresh();
+
+		Assert.assertNull(first.getMovementSystem());
+		Assert.assertEquals(first.getVector2D(), moved);
+		Assert.assertEquals(world.getMovementSystem().size(), 1);
+		Assert.assertEquals(second.getMovementIndex(), 0);
+		Assert.assertEquals(second.getVector2D(), new Vector2D(20, 20));
+	}
+
+	@Test
+	public void testSetMovementSystemAdoptsExistingActors() {
+		World world = WorldUtils.createDefaultWorld();
+		Actor actor = new Actor("Actor");
+		world.getWorldObjects().add(actor);
+		world.getWorldObjects().refresh();
+
+		world.setMovementSystem(new MovementSystem());
+		Assert.assertSame(actor.getMovementSystem(), world.getMovementSystem());
+
+		world.setMovementSystem(null);
+		Assert.assertNull(actor.getMovementSystem());
+	}
+
+	private static World createWorld() {
+		World world = new World(new Zone(0, new Dimension2D(50, 50)));
+		world.setMovementSystem(new MovementSystem());
+		return world;
+	}
+
+	private static Actor addActor(World world, Vector2D vector2D) {
+		Actor actor = new Actor("Actor");
+		actor.setVector2D(vector2D);
+		world.getWorldObjects().add(actor);
+		world.getWorldObjects().refresh();
+		return actor;
+	}
+}
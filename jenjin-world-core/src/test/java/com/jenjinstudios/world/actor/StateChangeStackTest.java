@@ -0,0 +1,69 @@
+package com.jenjinstudios.world.actor;
+
+import com.jenjinstudios.world.Actor;
+import com.jenjinstudios.world.World;
+import com.jenjinstudios.world.math.Angle;
+import com.jenjinstudios.world.state.MoveState;
+import com.jenjinstudios.world.util.WorldUtils;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.ConcurrentModificationException;
+import java.util.List;
+
+/**
+ * @author Caleb Brinkman
+ */
+public class StateChangeStackTest
+{
+	@Test
+	public void testViewIsSharedAndStamped() {
+		World world = WorldUtils.createDefaultWorld();
+		Actor actor = new Actor("Actor");
+		world.getWorldObjects().add(actor);
+		world.update();
+		actor.setAngle(new Angle(0.0, Angle.FRONT));
+		world.update();
+
+		StateChangeStack stack = getStack(actor);
+		StateChangeStack.StateChangeView view = stack.getStateChangeView();
+		Assert.assertSame(stack.getStateChanges(), view);
+		Assert.assertEquals(view.size(), 1);
+		Assert.assertEquals(view.get(0).angle, new Angle(0.0, Angle.FRONT));
+		Assert.assertEquals(view.getTick(), world.getTick());
+
+		world.update();
+		Assert.assertTrue(stack.getStateChanges().isEmpty());
+		Assert.assertEquals(view.size(), 1, "An earlier view should not change.");
+	}
+
+	@Test(expectedExceptions = UnsupportedOperationException.class)
+	public void testViewIsReadOnly() {
+		World world = WorldUtils.createDefaultWorld();
+		Actor actor = new Actor("Actor");
+		world.getWorldObjects().add(actor);
+		world.update();
+		getStack(actor).getStateChanges().remove(0);
+	}
+
+	@Test(expectedExceptions = ConcurrentModificationException.class)
+	public void testOverwrittenViewThrows() {
+		World world = WorldUtils.createDefaultWorld();
+		Actor actor = new Actor("Actor");
+		world.getWorldObjects().add(actor);
+		world.update();
+		StateChangeStack stack = getStack(actor);
+		List<MoveState> view = stack.getStateChanges();
+		Assert.assertEquals(view.size(), 1);
+		for (int i = 0; i < StateChangeStack.CAPACITY; i++)
+		{
+			actor.setAngle(new Angle(i, Angle.FRONT));
+			actor.postUpdate();
+		}
+		view.get(0);
+	}
+
+	private static StateChangeStack getStack(Actor actor) {
+		return (StateChangeStack) actor.getEventStack(StateChangeStack.STACK_NAME);
+	}
+}
@@ -0,0 +1,56 @@
+package com.jenjinstudios.world.actor;
+
+import com.jenjinstudios.world.Actor;
+import com.jenjinstudios.world.Benchmark;
+import com.jenjinstudios.world.World;
+import com.jenjinstudios.world.math.Angle;
+import com.jenjinstudios.world.math.Vector2D;
+import com.jenjinstudios.world.util.WorldUtils;
+
+import java.util.Random;
+
+/**
+ * Measures the cost of updating the vision of 500 actors crowded close enough together that each sees most of the
+ * others, while a fifth of them wander in and out of each other's sight.
+ * @author Caleb Brinkman
+ */
+public class VisionBenchmark
+{
+	private static final int OBSERVER_COUNT = 500;
+	private static final double CROWD_SIZE = 160;
+	private static final int WARMUP_TICKS = 50;
+	private static final int TICKS = 200;
+	private static long counter;
+
+	public static void main(String[] args) {
+		Random random = new Random(0);
+		World world = WorldUtils.createDefaultWorld();
+		Actor[] actors = new Actor[OBSERVER_COUNT];
+		Vision[] visions = new Vision[OBSERVER_COUNT];
+		for (int i = 0; i < OBSERVER_COUNT; i++)
+		{
+			actors[i] = new Actor("Observer " + i);
+			actors[i].setVector2D(new Vector2D(10 + random.nextDouble() * CROWD_SIZE,
+				  10 + random.nextDouble() * CROWD_SIZE));
+			actors[i].setSleepable(false);
+			visions[i] = new Vision(actors[i]);
+			actors[i].addPreUpdateEvent(Vision.EVENT_NAME, visions[i]);
+			if (i % 5 == 0) { actors[i].setAngle(new Angle(random.nextDouble() * Math.PI * 2, Angle.FRONT)); }
+			world.getWorldObjects().add(actors[i]);
+		}
+		double elapsed = Benchmark.measure(WARMUP_TICKS, TICKS, () -> tick(world, visions));
+		System.out.printf("%d observers: %.3f ms/tick (%d visible, newly visible or invisible seen)%n", OBSERVER_COUNT,
+			  elapsed / 1e6, counter);
+	}
+
+	private static void tick(World world, Vision[] visions) {
+		world.update();
+		// Read the results as the client handlers do: every visible object, and each change.
+		for (Vision vision : visions)
+		{
+			counter += vision.getNewlyVisibleObjects().size();
+			counter += vision.getNewlyInvisibleObjects().size();
+			counter += vision.getVisibleObjects().size();
+		}
+	}
+}
@@ -0,0 +1,87 @@
+package com.jenjinstudios.world.actor;
+
+import com.jenjinstudios.world.WorldObject;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * @author Caleb Brinkman
+ */
+public class VisionTest
+{
+	@Test
+	public void testDiff() {
+		WorldObject[] objects = createObjects(6);
+		Vision vision = new Vision(new WorldObject("Observer"));
+		vision.setVisibleObjects(Arrays.asList(objects[3], objects[0], objects[1]));
+		Assert.assertEquals(vision.getNewlyVisibleObjects().size(), 3);
+		Assert.assertTrue(vision.getNewlyInvisibleObjects().isEmpty());
+
+		vision.setVisibleObjects(Arrays.asList(objects[5], objects[1], objects[4], objects[3]));
+		Assert.assertEquals(vision.getVisibleCount(), 4);
+		Assert.assertEquals(vision.getNewlyVisibleObjects(), setOf(objects[4], objects[5]));
+		Assert.assertEquals(vision.getNewlyInvisibleObjects(), setOf(objects[0]));
+		Assert.assertTrue(vision.canSee(objects[5].getId()));
+		Assert.assertFalse(vision.canSee(objects[0].getId()));
+		Assert.assertFalse(vision.getVisibleObjects().contains(objects[0]));
+
+		vision.setVisibleObjects(Arrays.asList(objects[1], objects[3], objects[4], objects[5]));
+		Assert.assertTrue(vision.getNewlyVisibleObjects().isEmpty());
+		Assert.assertTrue(vision.getNewlyInvisibleObjects().isEmpty());
+		Assert.assertEquals(vision.getVisibleCount(), 4);
+	}
+
+	@Test
+	public void testForEachVisitsInIdOrder() {
+		WorldObject[] objects = createObjects(5);
+		Vision vision = new Vision(new WorldObject("Observer"));
+		vision.setVisibleObjects(Arrays.asList(objects[4], objects[2], objects[0], objects[2]));
+		List<WorldObject> visited = new ArrayList<>();
+		vision.forEachVisible(visited::add);
+		Assert.assertEquals(visited, Arrays.asList(objects[0], objects[2], objects[4]));
+
+		visited.clear();
+		vision.setVisibleObjects(Collections.singletonList(objects[2]));
+		vision.forEachNewlyInvisible(visited::add);
+		Assert.assertEquals(visited, Arrays.asList(objects[0], objects[4]));
+	}
+
+	@Test
+	public void testReplacedObjectWithSameId() {
+		WorldObject original = new WorldObject("Original");
+		original.setId(7);
+		WorldObject replacement = new WorldObject("Replacement");
+		replacement.setId(7);
+		Vision vision = new Vision(new WorldObject("Observer"));
+		vision.setVisibleObjects(Collections.singletonList(original));
+		vision.setVisibleObjects(Collections.singletonList(replacement));
+		Assert.assertEquals(vision.getNewlyVisibleObjects(), setOf(replacement));
+		Assert.assertEquals(vision.getNewlyInvisibleObjects(), setOf(original));
+	}
+
+	@Test(expectedExceptions = UnsupportedOperationException.class)
+	public void testVisibleObjectsAreReadOnly() {
+		Vision vision = new Vision(new WorldObject("Observer"));
+		vision.setVisibleObjects(Arrays.asList(createObjects(2)));
+		vision.getVisibleObjects().clear();
+	}
+
+	private static WorldObject[] createObjects(int count) {
+		WorldObject[] objects = new WorldObject[count];
+		for (int i = 0; i < count; i++)
+		{
+			objects[i] = new WorldObject("Object " + i);
+			objects[i].setId(i * 3);
+		}
+		return objects;
+	}
+
+	private static Set<WorldObject> setOf(WorldObject... objects) { return new HashSet<>(Arrays.asList(objects)); }
+}
@@ -0,0 +1,69 @@
+package com.jenjinstudios.world.collections;
+
+import com.jenjinstudios.world.Benchmark;
+import com.jenjinstudios.world.World;
+import com.jenjinstudios.world.WorldObject;
+import com.jenjinstudios.world.util.WorldUtils;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Measures the cost of adding and removing objects from a world with heavy churn, as when many short-lived bullets are
+ * fired each update while a large number of long-lived objects stay in the world.
+ * @author Caleb Brinkman
+ */
+public class IdAllocationBenchmark
+{
+	private static final int[] RESIDENT_COUNTS = {1000, 10000, 50000};
+	private static final int CHURN_PER_UPDATE = 500;
+	private static final int LIFETIME = 10;
+	private static final int UPDATES = 200;
+
+	public static void main(String[] args) {
+		for (int residents : RESIDENT_COUNTS)
+		{
+			run(residents);
+		}
+	}
+
+	private static void run(int residents) {
+		World world = WorldUtils.createDefaultWorld();
+		WorldObjectList worldObjects = world.getWorldObjects();
+		for (int i = 0; i < residents; i++)
+		{
+			worldObjects.add(new WorldObject("Resident " + i));
+		}
+		worldObjects.refresh();
+
+		Deque<WorldObject> live = new ArrayDeque<>();
+		long addTime = 0;
+		long removeTime = 0;
+		for (int update = 0; update < UPDATES; update++)
+		{
+			addTime += Benchmark.time(() -> {
+				for (int i = 0; i < CHURN_PER_UPDATE; i++)
+				{
+					WorldObject bullet = new WorldObject("Bullet");
+					worldObjects.add(bullet);
+					live.addLast(bullet);
+				}
+			});
+			boolean expire = update >= LIFETIME;
+			removeTime += Benchmark.time(() -> {
+				if (expire)
+				{
+					for (int i = 0; i < CHURN_PER_UPDATE; i++)
+					{
+						worldObjects.remove(live.removeFirst());
+					}
+				}
+				worldObjects.refresh();
+			});
+		}
+
+		System.out.printf("%6d residents  add %8.3f us/object  remove+refresh %8.3f ms/update  (%d live)%n",
+			  residents, addTime / 1e3 / (UPDATES * CHURN_PER_UPDATE), removeTime / 1e6 / UPDATES,
+			  worldObjects.size());
+	}
+}
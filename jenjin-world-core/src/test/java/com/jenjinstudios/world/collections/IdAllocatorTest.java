@@ -0,0 +1,56 @@
+package com.jenjinstudios.world.collections;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * @author Caleb Brinkman
+ */
+public class IdAllocatorTest
+{
+	@Test
+	public void testFirstIdsAreSequential() {
+		IdAllocator allocator = new IdAllocator();
+		for (int i = 0; i < 100; i++)
+		{
+			Assert.assertEquals(allocator.allocate(), i);
+		}
+		Assert.assertEquals(allocator.size(), 100);
+	}
+
+	@Test
+	public void testFreedSlotIsReusedWithNewGeneration() {
+		IdAllocator allocator = new IdAllocator();
+		allocator.allocate();
+		int id = allocator.allocate();
+		Assert.assertTrue(allocator.free(id));
+
+		int reused = allocator.allocate();
+		Assert.assertNotEquals(reused, id);
+		Assert.assertEquals(IdAllocator.getSlot(reused), IdAllocator.getSlot(id));
+		Assert.assertEquals(IdAllocator.getGeneration(reused), IdAllocator.getGeneration(id) + 1);
+		Assert.assertTrue(reused > 0);
+	}
+
+	@Test
+	public void testStaleIdIsRejected() {
+		IdAllocator allocator = new IdAllocator();
+		int id = allocator.allocate();
+		allocator.free(id);
+		allocator.allocate();
+
+		Assert.assertFalse(allocator.isAllocated(id));
+		Assert.assertFalse(allocator.free(id));
+		Assert.assertFalse(allocator.isAllocated(-1));
+		Assert.assertFalse(allocator.isAllocated(12345));
+	}
+
+	@Test
+	public void testClear() {
+		IdAllocator allocator = new IdAllocator();
+		allocator.free(allocator.allocate());
+		allocator.clear();
+		Assert.assertEquals(allocator.size(), 0);
+		Assert.assertEquals(allocator.allocate(), 0);
+	}
+}
@@ -0,0 +1,110 @@
+package com.jenjinstudios.world.collections;
+
+import com.jenjinstudios.world.Location;
+import com.jenjinstudios.world.Zone;
+import com.jenjinstudios.world.math.Dimension2D;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * @author Caleb Brinkman
+ */
+public class MappedTileStorageTest
+{
+	private Path file;
+
+	@BeforeMethod
+	public void setUp() throws Exception { file = Files.createTempFile("zone", ".tiles"); }
+
+	@AfterMethod
+	public void tearDown() throws Exception { Files.deleteIfExists(file); }
+
+	@Test
+	public void testCreateCopiesTiles() throws Exception {
+		TileGrid grid = new TileGrid(100, 80, Arrays.asList(createWall(3, 4), createGrass(99, 79)));
+		try (MappedTileStorage storage = MappedTileStorage.create(file, 100, 80, grid))
+		{
+			Assert.assertFalse(storage.isWalkable(3, 4));
+			Assert.assertTrue(storage.isWalkable(4, 4));
+			Assert.assertTrue(storage.isWalkable(99, 79));
+			Assert.assertEquals(storage.getPalette().getProperties(storage.getType(99, 79)).get("terrain"), "grass");
+			Assert.assertEquals(storage.getType(50, 50), TilePalette.DEFAULT_TYPE);
+			Assert.assertEquals(storage.getType(100, 0), -1);
+			Assert.assertFalse(storage.isWalkable(-1, 0));
+		}
+	}
+
+	@Test
+	public void testSetLocationIsWrittenToFile() throws Exception {
+		MappedTileStorage.create(file, 10, 10, new TileGrid(10, 10, Collections.emptyList())).close();
+		try (MappedTileStorage storage = MappedTileStorage.open(file))
+		{
+			storage.setLocation(createWall(5, 5));
+			storage.setLocation(createGrass(6, 5));
+		}
+		try (MappedTileStorage storage = MappedTileStorage.open(file))
+		{
+			Assert.assertFalse(storage.isWalkable(5, 5));
+			Assert.assertEquals(storage.getPalette().size(), 3);
+			Assert.assertEquals(storage.getPalette().getProperties(storage.getType(6, 5)).get("terrain"), "grass");
+
+			storage.setLocation(new Location(5, 5));
+			Assert.assertTrue(storage.isWalkable(5, 5));
+		}
+	}
+
+	@Test(expectedExceptions = IOException.class)
+	public void testOpenRejectsOtherFiles() throws Exception {
+		Files.write(file, new byte[64]);
+		MappedTileStorage.open(file);
+	}
+
+	@Test
+	public void testZoneUsesTileFile() throws Exception {
+		Zone source = new Zone(0, new Dimension2D(20, 20), createWall(1, 2));
+		MappedTileStorage.create(file, 20, 20, source.getTileStorage()).close();
+
+		Zone zone = new Zone(0, new Dimension2D(20, 20));
+		zone.setTileFile(file.toString());
+		Assert.assertTrue(zone.getTileStorage() instanceof MappedTileStorage);
+		Assert.assertFalse(zone.isWalkable(1, 2));
+		Assert.assertEquals(zone.getLocation(1, 2), createWall(1, 2));
+
+		zone.setLocation(new Location(1, 2));
+		Assert.assertTrue(zone.isWalkable(1, 2));
+		MappedTileStorage storage = (MappedTileStorage) zone.getTileStorage();
+		zone.setTileFile(null);
+		Assert.assertFalse(storage.isOpen());
+		Assert.assertTrue(zone.getTileStorage() instanceof TileGrid);
+	}
+
+	@Test(expectedExceptions = IllegalStateException.class)
+	public void testZoneRejectsMismatchedTileFile() throws Exception {
+		MappedTileStorage.create(file, 5, 5, new TileGrid(5, 5, Collections.emptyList())).close();
+		Zone zone = new Zone(0, new Dimension2D(20, 20));
+		zone.setTileFile(file.toString());
+		zone.getTileStorage();
+	}
+
+	private static Location createWall(int x, int y) {
+		Map<String, String> properties = new HashMap<>();
+		properties.put(Location.WALKABLE_PROPERTY, "false");
+		return new Location(x, y, properties);
+	}
+
+	private static Location createGrass(int x, int y) {
+		Map<String, String> properties = new HashMap<>();
+		properties.put("terrain", "grass");
+		return new Location(x, y, properties);
+	}
+}
@@ -0,0 +1,76 @@
+package com.jenjinstudios.world.collections;
+
+import com.jenjinstudios.world.WorldObject;
+import com.jenjinstudios.world.math.Vector2D;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.List;
+
+/**
+ * @author Caleb Brinkman
+ */
+public class SpatialHashTest
+{
+	@Test
+	public void testQueryRadius() {
+		SpatialHash spatialHash = new SpatialHash(10);
+		WorldObject near = createObject("Near", 5, 5);
+		WorldObject edge = createObject("Edge", 30, 0);
+		WorldObject far = createObject("Far", 31, 0);
+		spatialHash.add(near);
+		spatialHash.add(edge);
+		spatialHash.add(far);
+
+		List<WorldObject> found = spatialHash.queryRadius(Vector2D.ORIGIN, 30);
+
+		Assert.assertTrue(found.contains(near));
+		Assert.assertTrue(found.contains(edge));
+		Assert.assertFalse(found.contains(far));
+	}
+
+	@Test
+	public void testQueryRect() {
+		SpatialHash spatialHash = new SpatialHash(10);
+		WorldObject inside = createObject("Inside", -15, 25);
+		WorldObject outside = createObject("Outside", 25, 25);
+		spatialHash.add(inside);
+		spatialHash.add(outside);
+
+		List<WorldObject> found = spatialHash.queryRect(-20, 0, 20, 30);
+
+		Assert.assertEquals(found.size(), 1);
+		Assert.assertTrue(found.contains(inside));
+	}
+
+	@Test
+	public void testUpdate() {
+		SpatialHash spatialHash = new SpatialHash(10);
+		WorldObject worldObject = createObject("Mover", 5, 5);
+		spatialHash.add(worldObject);
+		worldObject.setVector2D(new Vector2D(105, 5));
+		spatialHash.update(worldObject);
+
+		Assert.assertTrue(spatialHash.queryRadius(Vector2D.ORIGIN, 20).isEmpty());
+		Assert.assertTrue(spatialHash.queryRadius(new Vector2D(100, 0), 20).contains(worldObject));
+		Assert.assertEquals(spatialHash.getOccupiedCellCount(), 1);
+	}
+
+	@Test
+	public void testRemove() {
+		SpatialHash spatialHash = new SpatialHash(10);
+		WorldObject worldObject = createObject("Removed", 5, 5);
+		spatialHash.add(worldObject);
+		spatialHash.remove(worldObject);
+
+		Assert.assertEquals(spatialHash.size(), 0);
+		Assert.assertEquals(spatialHash.getOccupiedCellCount(), 0);
+		Assert.assertTrue(spatialHash.queryRadius(Vector2D.ORIGIN, 20).isEmpty());
+	}
+
+	private static WorldObject createObject(String name, double x, double y) {
+		WorldObject worldObject = new WorldObject(name);
+		worldObject.setVector2D(new Vector2D(x, y));
+		return worldObject;
+	}
+}
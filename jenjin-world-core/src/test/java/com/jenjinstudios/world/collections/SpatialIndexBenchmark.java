@@ -0,0 +1,92 @@
+package com.jenjinstudios.world.collections;
+
+import com.jenjinstudios.world.Benchmark;
+import com.jenjinstudios.world.WorldObject;
+import com.jenjinstudios.world.math.SightCalculator;
+import com.jenjinstudios.world.math.Vector2D;
+
+import java.util.Random;
+
+/**
+ * Compares the cost of inserting, moving and querying objects in each {@code SpatialIndex} implementation, for a zone
+ * with evenly spread objects and for a zone where most objects are crowded into a few towns.
+ * @author Caleb Brinkman
+ */
+public class SpatialIndexBenchmark
+{
+	private static final double ZONE_SIZE = 5000;
+	private static final int[] OBJECT_COUNTS = {1000, 10000};
+	private static final int ROUNDS = 20;
+	private static final double STEP = 5;
+
+	public static void main(String[] args) {
+		for (int count : OBJECT_COUNTS)
+		{
+			for (boolean clustered : new boolean[]{false, true})
+			{
+				for (SpatialIndexType type : SpatialIndexType.values())
+				{
+					run(type, count, clustered);
+				}
+			}
+		}
+	}
+
+	private static void run(SpatialIndexType type, int count, boolean clustered) {
+		Random random = new Random(count);
+		SpatialIndex index = type == SpatialIndexType.QUADTREE ? new LooseQuadtree(0, 0, ZONE_SIZE) :
+			  type.create(null);
+		WorldObject[] worldObjects = new WorldObject[count];
+		for (int i = 0; i < count; i++)
+		{
+			worldObjects[i] = new WorldObject("Object " + i);
+			worldObjects[i].setVector2D(clustered ? clusteredVector(random) : uniformVector(random));
+		}
+
+		long insertTime = Benchmark.time(() -> {
+			for (WorldObject worldObject : worldObjects)
+			{
+				index.add(worldObject);
+			}
+		});
+
+		long moveTime = 0;
+		long queryTime = 0;
+		long[] found = {0};
+		for (int round = 0; round < ROUNDS; round++)
+		{
+			moveTime += Benchmark.time(() -> {
+				for (WorldObject worldObject : worldObjects)
+				{
+					Vector2D vector2D = worldObject.getVector2D();
+					worldObject.setVector2D(vector2D.getVectorInDirection(STEP, random.nextDouble() * 6));
+					index.update(worldObject);
+				}
+			});
+			queryTime += Benchmark.time(() -> {
+				for (WorldObject worldObject : worldObjects)
+				{
+					Vector2D center = worldObject.getVector2D();
+					found[0] += index.queryRadius(center, SightCalculator.DEFAULT_VISION_RADIUS).size();
+				}
+			});
+		}
+
+		System.out.printf("%-15s %6d objects %-9s insert %8.3f ms  move %8.3f ms/round  query %9.3f ms/round  " +
+					"(%d found)%n", type, count, clustered ? "clustered" : "uniform", insertTime / 1e6,
+			  moveTime / 1e6 / ROUNDS, queryTime / 1e6 / ROUNDS, found[0] / ROUNDS);
+	}
+
+	private static Vector2D uniformVector(Random random) {
+		return new Vector2D(random.nextDouble() * ZONE_SIZE, random.nextDouble() * ZONE_SIZE);
+	}
+
+	private static Vector2D clusteredVector(Random random) {
+		if (random.nextInt(10) == 0) { return uniformVector(random); }
+		// Four towns, each a few hundred units across.
+		int town = random.nextInt(4);
+		double townX = ZONE_SIZE * (town % 2 == 0 ? 0.25 : 0.75);
+		double townY = ZONE_SIZE * (town < 2 ? 0.25 : 0.75);
+		return new Vector2D(townX + random.nextGaussian() * 100, townY + random.nextGaussian() * 100);
+	}
+}
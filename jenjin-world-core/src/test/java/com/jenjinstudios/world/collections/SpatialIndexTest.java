@@ -0,0 +1,123 @@
+package com.jenjinstudios.world.collections;
+
+import com.jenjinstudios.world.WorldObject;
+import com.jenjinstudios.world.math.Vector2D;
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Checks each {@code SpatialIndex} implementation against a brute force search.
+ * @author Caleb Brinkman
+ */
+public class SpatialIndexTest
+{
+	@DataProvider(name = "indexes")
+	public static Object[][] indexes() {
+		return new Object[][]{
+			  {new SpatialHash(25)},
+			  {new LooseQuadtree(0, 0, 100)},
+			  {new SortAndSweepIndex()}
+		};
+	}
+
+	@Test(dataProvider = "indexes")
+	public void testQueriesMatchBruteForce(SpatialIndex index) {
+		Random random = new Random(42);
+		WorldObject[] worldObjects = new WorldObject[200];
+		for (int i = 0; i < worldObjects.length; i++)
+		{
+			worldObjects[i] = new WorldObject("Object " + i);
+			worldObjects[i].setId(i);
+			worldObjects[i].setVector2D(randomVector(random));
+			index.add(worldObjects[i]);
+		}
+		for (int round = 0; round < 5; round++)
+		{
+			for (WorldObject worldObject : worldObjects)
+			{
+				worldObject.setVector2D(randomVector(random));
+				index.update(worldObject);
+			}
+			Vector2D center = randomVector(random);
+			assertQueriesMatch(index, worldObjects, center, 40);
+		}
+		Assert.assertEquals(index.size(), worldObjects.length);
+	}
+
+	@Test(dataProvider = "indexes")
+	public void testRemove(SpatialIndex index) {
+		WorldObject kept = new WorldObject("Kept");
+		WorldObject removed = new WorldObject("Removed");
+		index.add(kept);
+		index.add(removed);
+		index.remove(removed);
+
+		List<WorldObject> found = index.queryRadius(Vector2D.ORIGIN, 10);
+		Assert.assertEquals(found.size(), 1);
+		Assert.assertTrue(found.contains(kept));
+		Assert.assertEquals(index.size(), 1);
+
+		index.clear();
+		Assert.assertTrue(index.queryRadius(Vector2D.ORIGIN, 10).isEmpty());
+	}
+
+	@Test
+	public void testQuadtreeSplitsAndMerges() {
+		LooseQuadtree quadtree = new LooseQuadtree(0, 0, 100);
+		WorldObject[] crowd = new WorldObject[20];
+		for (int i = 0; i < crowd.length; i++)
+		{
+			crowd[i] = new WorldObject("Crowd " + i);
+			crowd[i].setVector2D(new Vector2D(i, i));
+			quadtree.add(crowd[i]);
+		}
+		Assert.assertTrue(quadtree.getNodeCount() > 1);
+		for (WorldObject worldObject : crowd)
+		{
+			quadtree.remove(worldObject);
+		}
+		Assert.assertEquals(quadtree.getNodeCount(), 1);
+	}
+
+	@Test
+	public void testQuadtreeGrows() {
+		LooseQuadtree quadtree = new LooseQuadtree(0, 0, 100);
+		WorldObject outside = new WorldObject("Outside");
+		outside.setVector2D(new Vector2D(-500, 1000));
+		quadtree.add(outside);
+		Assert.assertTrue(quadtree.queryRadius(new Vector2D(-500, 1000), 1).contains(outside));
+	}
+
+	private static void assertQueriesMatch(SpatialIndex index, WorldObject[] worldObjects, Vector2D center,
+										   double radius) {
+		Set<WorldObject> expectedRadius = new HashSet<>();
+		Set<WorldObject> expectedRect = new HashSet<>();
+		double x = center.getXCoordinate();
+		double y = center.getYCoordinate();
+		for (WorldObject worldObject : worldObjects)
+		{
+			Vector2D vector2D = worldObject.getVector2D();
+			if (vector2D.getSquaredDistanceToVector(center) <= radius * radius) { expectedRadius.add(worldObject); }
+			if (Math.abs(vector2D.getXCoordinate() - x) <= radius && Math.abs(vector2D.getYCoordinate() - y) <= radius)
+			{
+				expectedRect.add(worldObject);
+			}
+		}
+		List<WorldObject> actualRadius = index.queryRadius(center, radius);
+		List<WorldObject> actualRect = index.queryRect(x - radius, y - radius, x + radius, y + radius);
+		Assert.assertEquals(actualRadius.size(), expectedRadius.size());
+		Assert.assertEquals(new HashSet<>(actualRadius), expectedRadius);
+		Assert.assertEquals(actualRect.size(), expectedRect.size());
+		Assert.assertEquals(new HashSet<>(actualRect), expectedRect);
+	}
+
+	private static Vector2D randomVector(Random random) {
+		return new Vector2D(random.nextDouble() * 300 - 50, random.nextDouble() * 300 - 50);
+	}
+}
@@ -0,0 +1,82 @@
+package com.jenjinstudios.world.collections;
+
+import com.jenjinstudios.world.Location;
+import com.jenjinstudios.world.math.Vector2D;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * @author Caleb Brinkman
+ */
+public class TileGridTest
+{
+	@Test
+	public void testDefaultChunksAreNotResident() {
+		TileGrid grid = new TileGrid(4096, 4096, Collections.emptyList());
+
+		Assert.assertEquals(grid.getChunkCount(), 64 * 64);
+		Assert.assertEquals(grid.getType(4000, 4000), TilePalette.DEFAULT_TYPE);
+		Assert.assertTrue(grid.isWalkable(100, 100));
+		Assert.assertEquals(grid.getResidentChunkCount(), 0);
+		Assert.assertEquals(grid.getResidentBytes(), 0);
+	}
+
+	@Test
+	public void testChunkLoadedOnFirstAccess() {
+		TileGrid grid = new TileGrid(4096, 4096, Collections.singletonList(createWall(130, 70)));
+		Assert.assertEquals(grid.getResidentChunkCount(), 0);
+
+		Assert.assertFalse(grid.isWalkable(130, 70));
+		Assert.assertTrue(grid.isWalkable(131, 70));
+		Assert.assertEquals(grid.getResidentChunkCount(), 1);
+		Assert.assertEquals(grid.getChunkLoadCount(), 1);
+		Assert.assertTrue(grid.getResidentBytes() > 0);
+	}
+
+	@Test
+	public void testEvictAndReload() {
+		TileGrid grid = new TileGrid(1024, 1024, Arrays.asList(createWall(10, 10), createWall(1000, 1000)));
+		grid.isWalkable(10, 10);
+		grid.isWalkable(1000, 1000);
+		Assert.assertEquals(grid.getResidentChunkCount(), 2);
+
+		int evicted = grid.evictChunksAwayFrom(Collections.singletonList(new Vector2D(50, 50)), 1);
+
+		Assert.assertEquals(evicted, 1);
+		Assert.assertEquals(grid.getResidentChunkCount(), 1);
+		Assert.assertFalse(grid.isWalkable(1000, 1000));
+		Assert.assertEquals(grid.getChunkLoadCount(), 3);
+		Assert.assertEquals(grid.getChunkEvictionCount(), 1);
+	}
+
+	@Test
+	public void testSetLocationSurvivesEviction() {
+		TileGrid grid = new TileGrid(256, 256, Collections.emptyList());
+		grid.setLocation(createWall(200, 200));
+		Assert.assertFalse(grid.isWalkable(200, 200));
+
+		grid.evictChunksAwayFrom(Collections.emptyList(), 1);
+
+		Assert.assertEquals(grid.getResidentChunkCount(), 0);
+		Assert.assertFalse(grid.isWalkable(200, 200));
+	}
+
+	@Test
+	public void testOutOfBounds() {
+		TileGrid grid = new TileGrid(100, 50, Collections.emptyList());
+		Assert.assertFalse(grid.isWalkable(100, 0));
+		Assert.assertFalse(grid.isWalkable(0, -1));
+		Assert.assertEquals(grid.getType(0, 50), -1);
+	}
+
+	private static Location createWall(int x, int y) {
+		Map<String, String> properties = new HashMap<>();
+		properties.put(Location.WALKABLE_PROPERTY, "false");
+		return new Location(x, y, properties);
+	}
+}
@@ -0,0 +1,51 @@
+package com.jenjinstudios.world.collections;
+
+import com.jenjinstudios.world.Location;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * @author Caleb Brinkman
+ */
+public class TilePaletteTest
+{
+	@Test
+	public void testDefaultType() {
+		TilePalette palette = new TilePalette();
+		Assert.assertEquals(palette.getTypeId(Collections.emptyMap()), TilePalette.DEFAULT_TYPE);
+		Assert.assertTrue(palette.isWalkable(TilePalette.DEFAULT_TYPE));
+		Assert.assertEquals(palette.size(), 1);
+	}
+
+	@Test
+	public void testEqualPropertiesShareType() {
+		TilePalette palette = new TilePalette();
+		Map<String, String> wall = new HashMap<>();
+		wall.put(Location.WALKABLE_PROPERTY, "false");
+		Map<String, String> otherWall = new HashMap<>(wall);
+
+		int type = palette.getTypeId(wall);
+
+		Assert.assertEquals(palette.getTypeId(otherWall), type);
+		Assert.assertFalse(palette.isWalkable(type));
+		Assert.assertEquals(palette.getProperties(type), wall);
+		Assert.assertEquals(palette.size(), 2);
+	}
+
+	@Test
+	public void testPaletteIsNotChangedByCaller() {
+		TilePalette palette = new TilePalette();
+		Map<String, String> properties = new HashMap<>();
+		properties.put("indoors", "true");
+		int type = palette.getTypeId(properties);
+
+		properties.put(Location.WALKABLE_PROPERTY, "false");
+
+		Assert.assertTrue(palette.isWalkable(type));
+		Assert.assertEquals(palette.getProperties(type).size(), 1);
+	}
+}
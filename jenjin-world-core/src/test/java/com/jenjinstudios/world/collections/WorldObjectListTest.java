@@ -0,0 +1,134 @@
+package com.jenjinstudios.world.collections;
+
+import com.jenjinstudios.world.World;
+import com.jenjinstudios.world.WorldObject;
+import com.jenjinstudios.world.util.WorldUtils;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * @author Caleb Brinkman
+ */
+public class WorldObjectListTest
+{
+	@Test
+	public void testChangesArePendingUntilRefresh() {
+		WorldObjectList list = createList();
+		WorldObject worldObject = new WorldObject("Alice");
+		list.add(worldObject);
+		Assert.assertEquals(list.size(), 0);
+		Assert.assertNull(list.get(worldObject.getId()));
+
+		list.refresh();
+		Assert.assertEquals(list.size(), 1);
+		Assert.assertSame(list.get(worldObject.getId()), worldObject);
+		Assert.assertSame(worldObject.getWorld(), list.get(worldObject.getId()).getWorld());
+
+		list.remove(worldObject);
+		Assert.assertTrue(list.contains(worldObject));
+		list.refresh();
+		Assert.assertFalse(list.contains(worldObject));
+		Assert.assertTrue(list.isEmpty());
+	}
+
+	@Test
+	public void testRemoveMovesLastObjectIntoHole() {
+		WorldObjectList list = createList();
+		WorldObject[] worldObjects = addObjects(list, 4);
+		list.remove(worldObjects[1]);
+		list.refresh();
+
+		Assert.assertEquals(getOrder(list), Arrays.asList(worldObjects[0], worldObjects[3], worldObjects[2]));
+		for (WorldObject worldObject : Arrays.asList(worldObjects[0], worldObjects[2], worldObjects[3]))
+		{
+			Assert.assertSame(list.get(worldObject.getId()), worldObject);
+		}
+	}
+
+	@Test
+	public void testOrderIsStableBetweenRefreshes() {
+		WorldObjectList list = createList();
+		addObjects(list, 10);
+		List<WorldObject> before = getOrder(list);
+		list.add(new WorldObject("Pending"));
+		list.remove(before.get(0));
+
+		Assert.assertEquals(getOrder(list), before);
+	}
+
+	@Test
+	public void testSetReplacesObjectInSlot() {
+		WorldObjectList list = createList();
+		WorldObject first = new WorldObject("First");
+		WorldObject second = new WorldObject("Second");
+		list.set(5, first);
+		list.refresh();
+		list.set(5, second);
+		list.refresh();
+
+		Assert.assertEquals(list.size(), 1);
+		Assert.assertSame(list.get(5), second);
+		Assert.assertEquals(second.getId(), 5);
+	}
+
+	@Test
+	public void testSetFreesReplacedId() {
+		WorldObjectList list = createList();
+		WorldObject replaced = new WorldObject("Replaced");
+		list.add(replaced);
+		list.refresh();
+		int replacedId = replaced.getId();
+		WorldObject placed = new WorldObject("Placed");
+		list.set((1 << IdAllocator.SLOT_BITS) | IdAllocator.getSlot(replacedId), placed);
+		list.refresh();
+		Assert.assertNull(list.get(replacedId));
+
+		list.remove(placed);
+		list.refresh();
+		WorldObject added = new WorldObject("Added");
+		list.add(added);
+		list.refresh();
+		Assert.assertEquals(IdAllocator.getSlot(added.getId()), IdAllocator.getSlot(replacedId));
+		Assert.assertNull(list.get(replacedId));
+	}
+
+	@Test
+	public void testAddSkipsSlotTakenBySet() {
+		WorldObjectList list = createList();
+		WorldObject placed = new WorldObject("Placed");
+		list.set(0, placed);
+		WorldObject added = new WorldObject("Added");
+		list.add(added);
+		list.refresh();
+
+		Assert.assertNotEquals(added.getId(), 0);
+		Assert.assertSame(list.get(0), placed);
+		Assert.assertSame(list.get(added.getId()), added);
+	}
+
+	private static WorldObjectList createList() {
+		World world = WorldUtils.createDefaultWorld();
+		return world.getWorldObjects();
+	}
+
+	private static WorldObject[] addObjects(WorldObjectList list, int count) {
+		WorldObject[] worldObjects = new WorldObject[count];
+		for (int i = 0; i < count; i++)
+		{
+			worldObjects[i] = new WorldObject("Object " + i);
+			list.add(worldObjects[i]);
+		}
+		list.refresh();
+		return worldObjects;
+	}
+
+	private static List<WorldObject> getOrder(WorldObjectList list) {
+		List<WorldObject> order = new ArrayList<>();
+		list.forEach(order::add);
+		return order;
+	}
+}
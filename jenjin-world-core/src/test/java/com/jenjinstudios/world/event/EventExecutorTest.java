@@ -0,0 +1,73 @@
+package com.jenjinstudios.world.event;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * @author Caleb Brinkman
+ */
+public class EventExecutorTest
+{
+	@Test
+	public void testEventsRunBeforeStacksInRegistrationOrder() {
+		EventExecutor executor = new EventExecutor();
+		List<String> log = new ArrayList<>();
+		executor.addEventStack("Stack", new RecordingStack(log));
+		executor.addPreUpdateEvent("First", () -> log.add("first"));
+		executor.addPreUpdateEvent("Second", () -> log.add("second"));
+		executor.addInitializeEvent("Init", () -> log.add("init"));
+
+		executor.preUpdate();
+
+		Assert.assertEquals(log, Arrays.asList("init", "stack init", "first", "second", "stack pre"));
+	}
+
+	@Test
+	public void testReplacingEventByName() {
+		EventExecutor executor = new EventExecutor();
+		List<String> log = new ArrayList<>();
+		UpdateEvent replacement = () -> log.add("replacement");
+		executor.addUpdateEvent("Event", () -> log.add("original"));
+		executor.addUpdateEvent("Event", replacement);
+
+		executor.update();
+
+		Assert.assertEquals(log, Arrays.asList("replacement"));
+		Assert.assertSame(executor.getUpdateEvent("Event"), replacement);
+	}
+
+	@Test
+	public void testEventAddedDuringPhaseRunsNextTime() {
+		EventExecutor executor = new EventExecutor();
+		List<String> log = new ArrayList<>();
+		executor.addPostUpdateEvent("Adder", () -> executor.addPostUpdateEvent("Added", () -> log.add("added")));
+
+		executor.postUpdate();
+		Assert.assertTrue(log.isEmpty());
+		executor.postUpdate();
+		Assert.assertEquals(log, Arrays.asList("added"));
+	}
+
+	private static class RecordingStack implements EventStack
+	{
+		private final List<String> log;
+
+		RecordingStack(List<String> log) { this.log = log; }
+
+		@Override
+		public void onInitialize() { log.add("stack init"); }
+
+		@Override
+		public void onPreUpdate() { log.add("stack pre"); }
+
+		@Override
+		public void onUpdate() { log.add("stack update"); }
+
+		@Override
+		public void onPostUpdate() { log.add("stack post"); }
+	}
+}
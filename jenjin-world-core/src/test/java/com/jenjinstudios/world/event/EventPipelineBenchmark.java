@@ -0,0 +1,62 @@
+package com.jenjinstudios.world.event;
+
+import com.jenjinstudios.world.Actor;
+import com.jenjinstudios.world.Benchmark;
+
+/**
+ * Measures the cost of running the pre-update, update and post-update phases of the events of 100,000 actors, each
+ * with a state change stack and a few events of its own.
+ * @author Caleb Brinkman
+ */
+public class EventPipelineBenchmark
+{
+	private static final int OBJECT_COUNT = 100000;
+	private static final int WARMUP_TICKS = 20;
+	private static final int TICKS = 50;
+	private static long counter;
+
+	public static void main(String[] args) {
+		EventExecutor[] executors = new EventExecutor[OBJECT_COUNT];
+		for (int i = 0; i < OBJECT_COUNT; i++)
+		{
+			EventExecutor executor = new EventExecutor();
+			executor.addPreUpdateEvent("Pre", () -> counter++);
+			executor.addUpdateEvent("Update", () -> counter++);
+			executor.addPostUpdateEvent("Post", () -> counter++);
+			executor.addPostUpdateEvent("Post2", () -> counter++);
+			executors[i] = executor;
+		}
+		double elapsed = Benchmark.measure(WARMUP_TICKS, TICKS, () -> tick(executors));
+		System.out.printf("%d executors: %.3f ms/tick, %.1f ns/object (%d events run)%n", OBJECT_COUNT, elapsed / 1e6,
+			  elapsed / OBJECT_COUNT, counter);
+
+		Actor[] actors = new Actor[OBJECT_COUNT / 10];
+		for (int i = 0; i < actors.length; i++)
+		{
+			actors[i] = new Actor("Actor " + i);
+			actors[i].addPreUpdateEvent("Pre", () -> counter++);
+		}
+		elapsed = Benchmark.measure(0, TICKS, () -> {
+			for (Actor actor : actors)
+			{
+				actor.preUpdate();
+			}
+		});
+		System.out.printf("%d actors, pre-update only: %.3f ms/tick%n", actors.length, elapsed / 1e6);
+	}
+
+	private static void tick(EventExecutor[] executors) {
+		for (EventExecutor executor : executors)
+		{
+			executor.preUpdate();
+		}
+		for (EventExecutor executor : executors)
+		{
+			executor.update();
+		}
+		for (EventExecutor executor : executors)
+		{
+			executor.postUpdate();
+		}
+	}
+}
@@ -0,0 +1,42 @@
+package com.jenjinstudios.world.math;
+
+import com.jenjinstudios.world.Benchmark;
+import com.jenjinstudios.world.World;
+import com.jenjinstudios.world.WorldObject;
+import com.jenjinstudios.world.Zone;
+
+/**
+ * Measures the cost of finding the locations visible to an object, as the client does every frame.
+ * @author Caleb Brinkman
+ */
+public class FieldOfVisionBenchmark
+{
+	private static final int CALLS = 20000;
+	private static final int WARMUP_ROUNDS = 5;
+	private static final int ROUNDS = 10;
+	private static long sink;
+
+	public static void main(String[] args) {
+		Zone zone = new Zone(0, new Dimension2D(200, 200));
+		World world = new World(zone);
+		WorldObject object = new WorldObject("Observer");
+		world.getWorldObjects().add(object);
+		world.update();
+		// Move between a handful of tiles, as a player walking back and forth does.
+		Vector2D[] positions = new Vector2D[8];
+		for (int i = 0; i < positions.length; i++)
+		{
+			positions[i] = new Vector2D(1000 + i * 10, 1000);
+		}
+		double elapsed = Benchmark.measure(WARMUP_ROUNDS, ROUNDS, () -> run(object, positions));
+		System.out.printf("getVisibleLocations: %.1f us/call (%d)%n", elapsed / 1000d / CALLS, sink);
+	}
+
+	private static void run(WorldObject object, Vector2D[] positions) {
+		for (int i = 0; i < CALLS; i++)
+		{
+			object.setVector2D(positions[i / 100 % positions.length]);
+			sink += SightCalculator.getVisibleLocations(object).size();
+		}
+	}
+}
@@ -0,0 +1,96 @@
+package com.jenjinstudios.world.math;
+
+import com.jenjinstudios.world.Location;
+import com.jenjinstudios.world.Zone;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @author Caleb Brinkman
+ */
+public class FieldOfVisionCalculatorTest
+{
+	@Test
+	public void testScan() {
+		Zone zone = new Zone(0, new Dimension2D(50, 50));
+		Location center = zone.getLocation(20, 20);
+		List<Location> visible = new FieldOfVisionCalculator(zone, center, 5).scan();
+
+		int expected = 1;
+		for (int x = 15; x <= 25; x++)
+		{
+			for (int y = 15; y <= 25; y++)
+			{
+				if ((x - 20) * (x - 20) + (y - 20) * (y - 20) < 25) { expected++; }
+			}
+		}
+		Assert.assertEquals(visible.size(), expected);
+		Assert.assertEquals(visible.get(0), center);
+	}
+
+	@Test
+	public void testScanAtEdge() {
+		Zone zone = new Zone(0, new Dimension2D(50, 50));
+		List<Location> visible = new FieldOfVisionCalculator(zone, zone.getLocation(0, 0), 3).scan();
+		// The center, then the nine locations of the quarter of the circle inside the zone.
+		Assert.assertEquals(visible.size(), 10);
+	}
+
+	@Test
+	public void testScanBeyondCachedRadius() {
+		int radius = FieldOfVisionCalculator.MAX_CACHED_RADIUS + 1;
+		Zone zone = new Zone(0, new Dimension2D(radius * 2, radius * 2));
+		Location center = zone.getLocation(radius, radius);
+		List<Location> visible = new FieldOfVisionCalculator(zone, center, radius).scan();
+		Assert.assertEquals(visible.size(), new FieldOfVisionCalculator(zone, center, radius).scan().size());
+		Assert.assertTrue(visible.contains(zone.getLocation(radius + radius - 1, radius)));
+	}
+
+	@Test
+	public void testShadowcasting() {
+		Zone zone = new Zone(0, new Dimension2D(50, 50), wall(22, 19), wall(22, 20), wall(22, 21));
+		Location center = zone.getLocation(20, 20);
+		List<Location> visible = new FieldOfVisionCalculator(zone, center, 6, true).scan();
+		List<Location> unblocked = new FieldOfVisionCalculator(zone, center, 6).scan();
+
+		Assert.assertTrue(visible.contains(zone.getLocation(22, 20)));
+		Assert.assertTrue(visible.contains(zone.getLocation(18, 20)));
+		Assert.assertFalse(visible.contains(zone.getLocation(24, 20)));
+		Assert.assertTrue(unblocked.contains(zone.getLocation(24, 20)));
+		Assert.assertTrue(unblocked.containsAll(visible));
+	}
+
+	@Test
+	public void testShadowcastingWithoutWalls() {
+		Zone zone = new Zone(0, new Dimension2D(50, 50));
+		Location center = zone.getLocation(20, 20);
+		Assert.assertEquals(new FieldOfVisionCalculator(zone, center, 7, true).scan(),
+			  new FieldOfVisionCalculator(zone, center, 7).scan());
+	}
+
+	@Test
+	public void testCache() {
+		Zone zone = new Zone(0, new Dimension2D(50, 50));
+		FieldOfVisionCache cache = zone.getFieldOfVisionCache();
+		Location center = zone.getLocation(20, 20);
+		List<Location> first = cache.get(center, 5, false);
+		Assert.assertSame(cache.get(zone.getLocation(20, 20), 5, false), first);
+		Assert.assertNotSame(cache.get(center, 5, true), first);
+		Assert.assertEquals(cache.size(), 2);
+
+		zone.setLocation(wall(22, 20));
+		List<Location> shadowed = cache.get(center, 5, true);
+		Assert.assertEquals(cache.size(), 1);
+		Assert.assertFalse(shadowed.contains(zone.getLocation(24, 20)));
+	}
+
+	private static Location wall(int x, int y) {
+		Map<String, String> properties = new HashMap<>();
+		properties.put(Location.WALKABLE_PROPERTY, "false");
+		return new Location(x, y, properties);
+	}
+}
@@ -3,6 +3,9 @@ package com.jenjinstudios.world.math;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
+import java.math.BigDecimal;
+import java.util.Random;
+
 /**
  * @author Caleb Brinkman
  */
@@ -14,4 +17,40 @@ public class MathUtilTest
 		double round = MathUtil.round(exact, 2);
 		Assert.assertEquals(round, 123.46, "Rounding " + exact + " to 2 decimals.");
 	}
+
+	@Test
+	public void testRoundMatchesBigDecimal() {
+		Random random = new Random(42);
+		for (int i = 0; i < 200000; i++)
+		{
+			int decimalPlaces = random.nextInt(7);
+			double value = (random.nextDouble() - 0.5) * Math.pow(10, random.nextInt(10));
+			assertRoundsLikeBigDecimal(value, decimalPlaces);
+			// Values which are written with one more decimal than is kept lie on or next to a tie.
+			double tie = (Math.floor(value * Math.pow(10, decimalPlaces + 1)) + 5) / Math.pow(10, decimalPlaces + 1);
+			assertRoundsLikeBigDecimal(tie, decimalPlaces);
+			assertRoundsLikeBigDecimal(Math.nextUp(tie), decimalPlaces);
+			assertRoundsLikeBigDecimal(Math.nextDown(tie), decimalPlaces);
+		}
+	}
+
+	@Test
+	public void testRoundEdgeCases() {
+		double[] values = {0, -0.0, 0.5, -0.5, 2.5, -2.5, 1.00005, -1.00005, 0.00004, -0.00004, 1e15 + 0.3, -1e300,
+			  Double.MIN_VALUE, Double.MAX_VALUE};
+		for (double value : values)
+		{
+			for (int decimalPlaces = 0; decimalPlaces < 6; decimalPlaces++)
+			{
+				assertRoundsLikeBigDecimal(value, decimalPlaces);
+			}
+		}
+	}
+
+	private static void assertRoundsLikeBigDecimal(double value, int decimalPlaces) {
+		double expected = new BigDecimal(value).setScale(decimalPlaces, BigDecimal.ROUND_HALF_UP).doubleValue();
+		double actual = MathUtil.round(value, decimalPlaces);
+		Assert.assertEquals(Double.doubleToLongBits(actual), Double.doubleToLongBits(expected),
+			  "Rounding " + value + " to " + decimalPlaces + " decimals: " + actual + " != " + expected);
+	}
 }
@@ -24,6 +24,23 @@ public class Vector2DTest
 		Assert.assertEquals(7, vector2D02.getYCoordinate(), 0);
 	}
 
+	@Test
+	public void testGetVectorInDirectionOfAngle() {
+		Vector2D original = new Vector2D(5.25, -3.5);
+		double[] relativeAngles = {Angle.FRONT, Angle.FRONT_RIGHT, Angle.RIGHT, Angle.BACK_RIGHT, Angle.BACK,
+			  Angle.BACK_LEFT, Angle.LEFT, Angle.FRONT_LEFT};
+		for (double absoluteAngle = -4; absoluteAngle < 4; absoluteAngle += 0.37)
+		{
+			for (double relativeAngle : relativeAngles)
+			{
+				Angle angle = new Angle(absoluteAngle, relativeAngle);
+				Assert.assertEquals(original.getVectorInDirection(1.7, angle),
+					  original.getVectorInDirection(1.7, angle.getStepAngle()));
+			}
+		}
+		Assert.assertSame(original.getVectorInDirection(1.7, new Angle(1.0)), original);
+	}
+
 	/** Test the relativeAngle math methods. */
 	@Test
 	public void getGetVectorInDirection() {
@@ -0,0 +1,53 @@
+package com.jenjinstudios.world.math;
+
+import com.jenjinstudios.world.Benchmark;
+
+import java.math.BigDecimal;
+import java.util.Random;
+
+/**
+ * Compares rounding with {@code BigDecimal} against {@link MathUtil#round(double, int)}, and measures the vector
+ * operations run for each moving actor and each pair of nearby objects every update.
+ * @author Caleb Brinkman
+ */
+public class VectorMathBenchmark
+{
+	private static final int VALUE_COUNT = 1000000;
+	private static final int WARMUP_ROUNDS = 10;
+	private static final int ROUNDS = 20;
+	private static double sink;
+
+	public static void main(String[] args) {
+		Random random = new Random(0);
+		double[] values = new double[VALUE_COUNT];
+		Vector2D[] vectors = new Vector2D[VALUE_COUNT];
+		for (int i = 0; i < VALUE_COUNT; i++)
+		{
+			values[i] = random.nextDouble() * 1000;
+			vectors[i] = new Vector2D(random.nextDouble() * 1000, random.nextDouble() * 1000);
+		}
+		report("BigDecimal rounding", () -> {
+			for (double value : values)
+			{
+				sink += new BigDecimal(value).setScale(4, BigDecimal.ROUND_HALF_UP).doubleValue();
+			}
+		});
+		report("MathUtil.round", () -> {
+			for (double value : values) { sink += MathUtil.round(value, 4); }
+		});
+		report("getVectorInDirection", () -> {
+			for (Vector2D vector : vectors) { sink += vector.getVectorInDirection(1.5, 0.7).getXCoordinate(); }
+		});
+		report("getDistanceToVector", () -> {
+			for (int i = 1; i < vectors.length; i++) { sink += vectors[i].getDistanceToVector(vectors[i - 1]); }
+		});
+		report("getSquaredDistanceToVector", () -> {
+			for (int i = 1; i < vectors.length; i++) { sink += vectors[i].getSquaredDistanceToVector(vectors[i - 1]); }
+		});
+		System.out.println("(" + sink + ")");
+	}
+
+	private static void report(String name, Runnable round) {
+		Benchmark.report(name, WARMUP_ROUNDS, ROUNDS, VALUE_COUNT, round);
+	}
+}
@@ -5,12 +5,14 @@ import com.jenjinstudios.core.io.Message;
 import com.jenjinstudios.server.net.ClientHandler;
 import com.jenjinstudios.world.Actor;
 import com.jenjinstudios.world.WorldObject;
-import com.jenjinstudios.world.actor.Vision;
+import com.jenjinstudios.world.server.interest.Interest;
+import com.jenjinstudios.world.server.interest.InterestManager;
 import com.jenjinstudios.world.server.message.WorldServerMessageFactory;
+import com.jenjinstudios.world.server.sql.PlayerPersistenceService;
 import com.jenjinstudios.world.state.MoveState;
 
 import java.util.List;
-import java.util.Set;
+import java.util.function.Consumer;
 
 /**
  * Handles clients for a world server.
@@ -21,13 +23,17 @@ public class WorldClientHandler extends ClientHandler
 {
     private final WorldServerMessageFactory messageFactory;
     private Actor player;
+    private Interest interest;
     private boolean hasSentActorStepMessage;
+    /** The actions run on the objects seen by the player, created once so that each update allocates none. */
+    private final Consumer<WorldObject> enteredAction = this::queueNewlyVisibleMessage;
+    private final Consumer<WorldObject> leftAction = this::queueNewlyInvisibleMessage;
+    private final Consumer<WorldObject> stateChangeAction = this::queueStateChangeMessages;
 
     public WorldClientHandler(WorldServer s, MessageIO messageIO) {
         super(s, messageIO);
         this.messageFactory = new WorldServerMessageFactory();
         setPlayer(new Actor("PLAYER"));
-        getPlayer().addPreUpdateEvent(Vision.EVENT_NAME, new Vision(getPlayer()));
     }
 
     @Override
@@ -45,48 +51,70 @@ public class WorldClientHandler extends ClientHandler
         queueStateChangeMessages();
     }
 
+    /**
+     * Shut down the client handler; if a user is logged in, their player is saved and they are logged out in the
+     * background.
+     */
+    @Override
+    public void shutdown() {
+        PlayerPersistenceService playerPersistenceService = getServer().getPlayerPersistenceService();
+        if (getUser() != null && playerPersistenceService != null)
+        {
+            playerPersistenceService.logOut(this);
+            setUser(null);
+        }
+        super.shutdown();
+    }
+
+    @Override
+    public WorldServer getServer() { return (WorldServer) super.getServer(); }
+
     public WorldServerMessageFactory getMessageFactory() { return messageFactory; }
 
     public Actor getPlayer() { return player; }
 
-    protected void setPlayer(Actor player) { this.player = player; }
+    /**
+     * Set the player controlled by the client, subscribing it to the interest manager of the server in place of the
+     * previous player.
+     *
+     * @param player The player.
+     */
+    protected void setPlayer(Actor player) {
+        InterestManager interestManager = getServer().getInterestManager();
+        if (this.player != null) { interestManager.unsubscribe(this.player); }
+        this.player = player;
+        interest = player == null ? null : interestManager.subscribe(player);
+    }
+
+    /**
+     * Get the objects the player is interested in, which are sent to the client.
+     *
+     * @return The interest of the player, or null if there is no player.
+     */
+    public Interest getInterest() { return interest; }
 
     private void queueNewlyVisibleMessages() {
-        Object o = player.getPreUpdateEvent(Vision.EVENT_NAME);
-        if (o != null && o instanceof Vision)
-        {
-            Vision vision = (Vision) o;
-            for (WorldObject object : vision.getNewlyVisibleObjects())
-            {
-                Message newlyVisibleMessage;
-                newlyVisibleMessage = getMessageFactory().generateNewlyVisibleMessage(object);
-                getMessageIO().queueOutgoingMessage(newlyVisibleMessage);
-            }
-        }
+        if (interest != null) { interest.forEachEntered(enteredAction); }
     }
 
     private void queueNewlyInvisibleMessages() {
-        Object o = player.getPreUpdateEvent(Vision.EVENT_NAME);
-        if (o != null && o instanceof Vision)
-        {
-            Vision vision = (Vision) o;
-            for (WorldObject object : vision.getNewlyInvisibleObjects())
-            {
-                Message newlyInvisibleMessage = getMessageFactory().generateNewlyInvisibleMessage(object);
-                getMessageIO().queueOutgoingMessage(newlyInvisibleMessage);
-            }
-        }
+        if (interest != null) { interest.forEachLeft(leftAction); }
     }
 
     private void queueStateChangeMessages() {
-        Object o = player.getPreUpdateEvent(Vision.EVENT_NAME);
-        if (o != null && o instanceof Vision)
-        {
-            Vision vision = (Vision) o;
-            Set<WorldObject> visibles = vision.getVisibleObjects();
-            visibles.stream().filter(object -> object instanceof Actor).forEach(object ->
-                  queueActorStateChangeMessages((Actor) object));
-        }
+        if (interest != null) { interest.forEachVisible(stateChangeAction); }
+    }
+
+    private void queueNewlyVisibleMessage(WorldObject object) {
+        getMessageIO().queueOutgoingMessage(getMessageFactory().generateNewlyVisibleMessage(object));
+    }
+
+    private void queueNewlyInvisibleMessage(WorldObject object) {
+        getMessageIO().queueOutgoingMessage(getMessageFactory().generateNewlyInvisibleMessage(object));
+    }
+
+    private void queueStateChangeMessages(WorldObject object) {
+        if (object instanceof Actor) { queueActorStateChangeMessages((Actor) object); }
     }
 
     private void queueActorStateChangeMessages(Actor object) {
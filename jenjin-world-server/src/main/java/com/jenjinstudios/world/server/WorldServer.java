@@ -6,12 +6,16 @@ import com.jenjinstudios.server.net.ServerInit;
 import com.jenjinstudios.world.World;
 import com.jenjinstudios.world.io.WorldDocumentReader;
 import com.jenjinstudios.world.io.WorldDocumentWriter;
+import com.jenjinstudios.world.server.interest.InterestManager;
+import com.jenjinstudios.world.server.sql.PlayerPersistenceService;
 import com.jenjinstudios.world.server.sql.WorldAuthenticator;
 import com.jenjinstudios.world.util.WorldUtils;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.util.Collection;
+import java.util.LinkedList;
 
 /**
  * The WorldServer class is responsible for updating a game world.
@@ -22,6 +26,8 @@ public class WorldServer extends AuthServer
 	private final World world;
 	private final byte[] worldFileChecksum;
 	private final byte[] worldFileBytes;
+	private final PlayerPersistenceService playerPersistenceService;
+	private final InterestManager interestManager;
 
 	/**
 	 * Construct a new Server without a SQLHandler.
@@ -33,6 +39,22 @@ public class WorldServer extends AuthServer
 	 */
 	public WorldServer(ServerInit init, WorldAuthenticator authenticator, WorldDocumentReader reader)
 	throws IOException, NoSuchMethodException
+	{
+		this(init, authenticator, reader, PlayerPersistenceService.DEFAULT_FLUSH_INTERVAL);
+	}
+
+	/**
+	 * Construct a new Server without a SQLHandler.
+	 * @param authenticator The WorldSqlHandler used to communicate with the MySql Database.
+	 * @param reader The WorldFileReader used to read the world from a file.
+	 * @param autosaveInterval The maximum number of milliseconds between a player's state changing and it being saved
+	 * to the database.
+	 * @throws java.io.IOException If there is an IO Error when initializing the server.
+	 * @throws NoSuchMethodException If there is no appropriate constructor for the specified ClientHandler
+	 * constructor.
+	 */
+	public WorldServer(ServerInit init, WorldAuthenticator authenticator, WorldDocumentReader reader,
+					   long autosaveInterval) throws IOException, NoSuchMethodException
 	{
 		super(init, authenticator);
 		if (reader != null)
@@ -47,13 +69,34 @@ public class WorldServer extends AuthServer
 			reader = new WorldDocumentReader(new ByteArrayInputStream(bos.toByteArray()));
 			reader.read();
 		}
+		world.getClock().setTicksPerSecond(getUps());
 		worldFileBytes = reader.getWorldFileBytes();
 		worldFileChecksum = reader.getWorldFileChecksum();
+		interestManager = new InterestManager(world);
 		addRepeatedTask(world::update);
+		addRepeatedTask(interestManager::update);
+		playerPersistenceService = authenticator == null ? null : new PlayerPersistenceService(authenticator,
+			  autosaveInterval, PlayerPersistenceService.DEFAULT_MAX_BATCH_SIZE);
+		if (playerPersistenceService != null)
+			addRepeatedTask(() -> playerPersistenceService.collectDirtyPlayers(getWorldClientHandlers()));
+	}
+
+	@Override
+	public void run() {
+		super.run();
+		if (playerPersistenceService != null)
+			playerPersistenceService.start();
 	}
 
 	public World getWorld() { return world; }
 
+	/**
+	 * Get the manager which works out the objects each player is interested in; it is updated after every update of
+	 * the world.
+	 * @return The interest manager.
+	 */
+	public InterestManager getInterestManager() { return interestManager; }
+
 	@Override
 	public WorldAuthenticator getAuthenticator() { return (WorldAuthenticator) super.getAuthenticator(); }
 
@@ -61,10 +104,40 @@ public class WorldServer extends AuthServer
 
 	public byte[] getWorldFileBytes() { return worldFileBytes; }
 
+	/**
+	 * Shut down the server, logging out every connected player and writing all unsaved player state to the database.
+	 * The update loop is stopped first, so that players are not moved while their state is collected.
+	 * @throws IOException If there is an error shutting down a client.
+	 */
+	@Override
+	public void shutdown() throws IOException {
+		stopUpdateLoop();
+		if (playerPersistenceService != null)
+			playerPersistenceService.collectDirtyPlayers(getWorldClientHandlers());
+		super.shutdown();
+		if (playerPersistenceService != null)
+			playerPersistenceService.shutdown();
+	}
+
+	/**
+	 * Get the service used to save player state to the database in the background.
+	 * @return The service used to save player state, or null if this server has no authenticator.
+	 */
+	public PlayerPersistenceService getPlayerPersistenceService() { return playerPersistenceService; }
+
+	private Collection<WorldClientHandler> getWorldClientHandlers() {
+		Collection<WorldClientHandler> handlers = new LinkedList<>();
+		getClientHandlers().forEach(handler -> handlers.add((WorldClientHandler) handler));
+		return handlers;
+	}
+
 	@Override
 	public void removeClient(ClientHandler handler) {
 		super.removeClient(handler);
 		if (((WorldClientHandler) handler).getPlayer() != null)
+		{
+			interestManager.unsubscribe(((WorldClientHandler) handler).getPlayer());
 			world.getWorldObjects().remove(((WorldClientHandler) handler).getPlayer().getId());
+		}
 	}
 }
@@ -1,6 +1,7 @@
 package com.jenjinstudios.world.server.ai;
 
 import com.jenjinstudios.world.Location;
+import com.jenjinstudios.world.util.LocationUtils;
 
 /** Used to represent a path finding node. */
 class PathNode
@@ -47,12 +48,13 @@ class PathNode
 	@Override
 	public int hashCode() {
 		int hash = 5;
-		hash = 89 * hash + location.hashCode();
+		hash = 89 * hash + location.getX();
+		hash = 89 * hash + location.getY();
 		return hash;
 	}
 
 	@Override
 	public boolean equals(Object o) {
-		return o != null && o instanceof PathNode && ((PathNode) o).location == location;
+		return o != null && o instanceof PathNode && LocationUtils.coordinatesEqual(((PathNode) o).location, location);
 	}
 }
@@ -2,6 +2,7 @@ package com.jenjinstudios.world.server.ai;
 
 import com.jenjinstudios.world.Location;
 import com.jenjinstudios.world.Zone;
+import com.jenjinstudios.world.util.LocationUtils;
 import com.jenjinstudios.world.util.ZoneUtils;
 
 import java.util.LinkedList;
@@ -36,7 +37,7 @@ public class Pathfinder
 		PathNode selectedPathNode = new PathNode(start, end);
 		openList.add(selectedPathNode);
 
-		while (selectedPathNode.location != end && !openList.isEmpty() && openList.size() < NODE_LIMIT)
+		while (!LocationUtils.coordinatesEqual(selectedPathNode.location, end) && !openList.isEmpty() && openList.size() < NODE_LIMIT)
 		{
 			selectedPathNode = getLowestFNode(openList);
 			moveNodeFromOpenToClosed(openList, closedList, selectedPathNode);
@@ -44,7 +45,7 @@ public class Pathfinder
 		}
 
 		LinkedList<Location> path = new LinkedList<>();
-		if (selectedPathNode.location == end)
+		if (LocationUtils.coordinatesEqual(selectedPathNode.location, end))
 		{
 			path = getReverseNodeTrace(selectedPathNode);
 		}
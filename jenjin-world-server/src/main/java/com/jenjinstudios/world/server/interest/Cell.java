@@ -0,0 +1,38 @@
+package com.jenjinstudios.world.server.interest;
+
+import com.jenjinstudios.world.WorldObject;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A square cell of the grid used by an {@code InterestManager}, holding the objects inside it and the observers whose
+ * area of interest covers it.
+ * @author Caleb Brinkman
+ */
+class Cell
+{
+	private final int zoneId;
+	private final long x;
+	private final long y;
+	private final List<WorldObject> objects = new ArrayList<>();
+	private final List<Interest> observers = new ArrayList<>();
+
+	Cell(int zoneId, long x, long y) {
+		this.zoneId = zoneId;
+		this.x = x;
+		this.y = y;
+	}
+
+	int getZoneId() { return zoneId; }
+
+	long getX() { return x; }
+
+	long getY() { return y; }
+
+	List<WorldObject> getObjects() { return objects; }
+
+	List<Interest> getObservers() { return observers; }
+
+	boolean isEmpty() { return objects.isEmpty() && observers.isEmpty(); }
+}
@@ -0,0 +1,53 @@
+package com.jenjinstudios.world.server.interest;
+
+/**
+ * A square block of grid cells in one zone, centered on the cell holding an observer.
+ * @author Caleb Brinkman
+ */
+class CellWindow
+{
+	private final int zoneId;
+	private final long centerX;
+	private final long centerY;
+	private final long reach;
+
+	CellWindow(int zoneId, long centerX, long centerY, long reach) {
+		this.zoneId = zoneId;
+		this.centerX = centerX;
+		this.centerY = centerY;
+		this.reach = reach;
+	}
+
+	boolean contains(Cell cell) { return contains(cell.getZoneId(), cell.getX(), cell.getY()); }
+
+	boolean contains(int zone, long x, long y) {
+		return zone == zoneId && Math.abs(x - centerX) <= reach && Math.abs(y - centerY) <= reach;
+	}
+
+	int getZoneId() { return zoneId; }
+
+	long getMinX() { return centerX - reach; }
+
+	long getMaxX() { return centerX + reach; }
+
+	long getMinY() { return centerY - reach; }
+
+	long getMaxY() { return centerY + reach; }
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) return true;
+		if (!(o instanceof CellWindow)) return false;
+		CellWindow that = (CellWindow) o;
+		return zoneId == that.zoneId && centerX == that.centerX && centerY == that.centerY && reach == that.reach;
+	}
+
+	@Override
+	public int hashCode() {
+		int result = zoneId;
+		result = 31 * result + Long.hashCode(centerX);
+		result = 31 * result + Long.hashCode(centerY);
+		result = 31 * result + Long.hashCode(reach);
+		return result;
+	}
+}
@@ -0,0 +1,93 @@
+package com.jenjinstudios.world.server.interest;
+
+import com.jenjinstudios.world.WorldObject;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * The objects which an observer subscribed to an {@code InterestManager} is interested in, and the objects which
+ * entered or left its area of interest during the most recent update of the manager.
+ * <p>
+ * The area of interest is the square of grid cells around the cell holding the observer which reaches at least as far
+ * as the observer can see; it is only moved when the observer crosses into another cell, or its vision radius changes.
+ * @author Caleb Brinkman
+ */
+public class Interest
+{
+	private final WorldObject observer;
+	private final Set<WorldObject> visible = newIdentitySet();
+	private final Set<WorldObject> entered = newIdentitySet();
+	private final Set<WorldObject> left = newIdentitySet();
+	/** The cells in the area of interest, or null if the observer is not in the world. */
+	private CellWindow window;
+
+	Interest(WorldObject observer) { this.observer = observer; }
+
+	public WorldObject getObserver() { return observer; }
+
+	/**
+	 * Get the objects in the area of interest.
+	 * @return A read-only view of the objects in the area of interest.
+	 */
+	public Set<WorldObject> getVisibleObjects() { return Collections.unmodifiableSet(visible); }
+
+	/**
+	 * Get the objects which entered the area of interest during the most recent update.
+	 * @return A read-only view of the objects which entered the area of interest.
+	 */
+	public Set<WorldObject> getEnteredObjects() { return Collections.unmodifiableSet(entered); }
+
+	/**
+	 * Get the objects which left the area of interest during the most recent update.
+	 * @return A read-only view of the objects which left the area of interest.
+	 */
+	public Set<WorldObject> getLeftObjects() { return Collections.unmodifiableSet(left); }
+
+	/**
+	 * Perform the given action on each object in the area of interest.
+	 * @param action The action.
+	 */
+	public void forEachVisible(Consumer<WorldObject> action) { visible.forEach(action); }
+
+	/**
+	 * Perform the given action on each object which entered the area of interest during the most recent update.
+	 * @param action The action.
+	 */
+	public void forEachEntered(Consumer<WorldObject> action) { entered.forEach(action); }
+
+	/**
+	 * Perform the given action on each object which left the area of interest during the most recent update.
+	 * @param action The action.
+	 */
+	public void forEachLeft(Consumer<WorldObject> action) { left.forEach(action); }
+
+	CellWindow getWindow() { return window; }
+
+	void setWindow(CellWindow window) { this.window = window; }
+
+	/**
+	 * Record that the given object has entered the area of interest; an object which left earlier in the same update
+	 * has not changed.
+	 */
+	void enter(WorldObject object) {
+		if (object != observer && visible.add(object) && !left.remove(object)) { entered.add(object); }
+	}
+
+	/**
+	 * Record that the given object has left the area of interest; an object which entered earlier in the same update
+	 * has not changed.
+	 */
+	void leave(WorldObject object) {
+		if (visible.remove(object) && !entered.remove(object)) { left.add(object); }
+	}
+
+	void clearEvents() {
+		entered.clear();
+		left.clear();
+	}
+
+	private static Set<WorldObject> newIdentitySet() { return Collections.newSetFromMap(new IdentityHashMap<>()); }
+}
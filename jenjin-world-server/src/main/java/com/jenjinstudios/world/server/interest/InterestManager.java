@@ -0,0 +1,240 @@
+package com.jenjinstudios.world.server.interest;
+
+import com.jenjinstudios.world.World;
+import com.jenjinstudios.world.WorldObject;
+import com.jenjinstudios.world.collections.WorldObjectList;
+import com.jenjinstudios.world.math.SightCalculator;
+import com.jenjinstudios.world.math.Vector2D;
+
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * The {@code InterestManager} class works out which objects each subscribed observer is interested in, so that the
+ * server only sends a client the objects near its player.
+ * <p>
+ * Each zone is divided into square cells of {@link #getCellSize()}, and every object in the world is placed in the cell
+ * holding its position.  An observer subscribes to the cells around its own which are within its vision radius, and is
+ * interested in every object in those cells.  Each update only compares the cell of every object with the cell it was
+ * in before; an object entering or leaving the area of interest of an observer is found only when the object crosses
+ * a cell boundary, or the observer does, so the work done grows with movement between cells rather than with the
+ * number of observers times the number of objects.
+ * <p>
+ * The area of interest covers whole cells, so it also holds some objects slightly farther away than the observer can
+ * see.  The manager should be updated once per tick, after the world; the enter and leave events it records are kept
+ * until the next update.
+ * @author Caleb Brinkman
+ */
+public class InterestManager
+{
+	/** The default width and height of a cell. */
+	public static final double DEFAULT_CELL_SIZE = SightCalculator.DEFAULT_VISION_RADIUS;
+	private final World world;
+	private final double cellSize;
+	private final Map<Long, Cell> cells = new HashMap<>();
+	/** The cell of each object in the world, and the update in which it was last found there. */
+	private final Map<WorldObject, Placement> placements = new IdentityHashMap<>();
+	private final Map<WorldObject, Interest> interests = new IdentityHashMap<>();
+	private long updateCount;
+
+	/**
+	 * Construct a new {@code InterestManager} which uses cells of the default size.
+	 * @param world The world containing the objects.
+	 */
+	public InterestManager(World world) { this(world, DEFAULT_CELL_SIZE); }
+
+	/**
+	 * Construct a new {@code InterestManager}.
+	 * @param world The world containing the objects.
+	 * @param cellSize The width and height of a cell.
+	 */
+	public InterestManager(World world, double cellSize) {
+		if (cellSize <= 0)
+			throw new IllegalArgumentException("Cell size must be positive: " + cellSize);
+		this.world = world;
+		this.cellSize = cellSize;
+	}
+
+	/**
+	 * Subscribe the given observer, which is interested in nothing until it has been added to the world and the
+	 * manager has been updated.
+	 * @param observer The observer.
+	 * @return The interest of the observer; the same interest if it is already subscribed.
+	 */
+	public synchronized Interest subscribe(WorldObject observer) {
+		return interests.computeIfAbsent(observer, Interest::new);
+	}
+
+	/**
+	 * Unsubscribe the given observer.
+	 * @param observer The observer.
+	 */
+	public synchronized void unsubscribe(WorldObject observer) {
+		Interest interest = interests.remove(observer);
+		if (interest != null) { moveWindow(interest, null); }
+	}
+
+	/**
+	 * Get the interest of the given observer.
+	 * @param observer The observer.
+	 * @return The interest of the observer, or null if it is not subscribed.
+	 */
+	public synchronized Interest getInterest(WorldObject observer) { return interests.get(observer); }
+
+	/**
+	 * Move every object in the world to its current cell, then move the area of interest of every observer, recording
+	 * the objects which enter and leave each area.
+	 */
+	public synchronized void update() {
+		updateCount++;
+		interests.values().forEach(Interest::clearEvents);
+		WorldObjectList worldObjects = world.getWorldObjects();
+		synchronized (worldObjects)
+		{
+			worldObjects.forEach(this::place);
+		}
+		removeMissingObjects();
+		interests.values().forEach(interest -> moveWindow(interest, getWindow(interest.getObserver())));
+	}
+
+	public double getCellSize() { return cellSize; }
+
+	/**
+	 * Get the number of cells which hold an object or are in an area of interest.
+	 * @return The number of cells in use.
+	 */
+	public synchronized int getCellCount() { return cells.size(); }
+
+	/**
+	 * Move the given object to the cell holding its position, if it has crossed into another.  The observers of the
+	 * old cell are told it has left only if they do not also observe the new one, and the reverse.
+	 */
+	private void place(WorldObject object) {
+		Vector2D vector2D = object.getVector2D();
+		if (vector2D == null) { return; }
+		int zoneId = object.getZoneID();
+		long x = getCellCoordinate(vector2D.getXCoordinate());
+		long y = getCellCoordinate(vector2D.getYCoordinate());
+		Placement placement = placements.get(object);
+		if (placement == null)
+		{
+			Cell cell = getCell(zoneId, x, y);
+			cell.getObjects().add(object);
+			placements.put(object, new Placement(cell, updateCount));
+			cell.getObservers().forEach(interest -> interest.enter(object));
+			return;
+		}
+		placement.lastFound = updateCount;
+		Cell previous = placement.cell;
+		if (previous.getZoneId() == zoneId && previous.getX() == x && previous.getY() == y) { return; }
+		Cell cell = getCell(zoneId, x, y);
+		previous.getObjects().remove(object);
+		cell.getObjects().add(object);
+		placement.cell = cell;
+		for (Interest interest : previous.getObservers())
+		{
+			if (!interest.getWindow().contains(cell)) { interest.leave(object); }
+		}
+		for (Interest interest : cell.getObservers())
+		{
+			if (!interest.getWindow().contains(previous)) { interest.enter(object); }
+		}
+		releaseIfEmpty(previous);
+	}
+
+	/** Remove every object which was not found in the world during this update from its cell. */
+	private void removeMissingObjects() {
+		Iterator<Map.Entry<WorldObject, Placement>> iterator = placements.entrySet().iterator();
+		while (iterator.hasNext())
+		{
+			Map.Entry<WorldObject, Placement> entry = iterator.next();
+			Placement placement = entry.getValue();
+			if (placement.lastFound == updateCount) { continue; }
+			WorldObject object = entry.getKey();
+			iterator.remove();
+			placement.cell.getObjects().remove(object);
+			placement.cell.getObservers().forEach(interest -> interest.leave(object));
+			releaseIfEmpty(placement.cell);
+		}
+	}
+
+	/** Get the cells the given observer should be interested in, or null if it is not in the world. */
+	private CellWindow getWindow(WorldObject observer) {
+		Placement placement = placements.get(observer);
+		if (placement == null) { return null; }
+		Cell cell = placement.cell;
+		long reach = (long) Math.ceil(SightCalculator.calculateViewRadius(observer) / cellSize);
+		return new CellWindow(cell.getZoneId(), cell.getX(), cell.getY(), reach);
+	}
+
+	/**
+	 * Move the area of interest of the given observer, unsubscribing it from the cells it no longer covers and
+	 * subscribing it to those it now covers.
+	 */
+	private void moveWindow(Interest interest, CellWindow window) {
+		CellWindow previous = interest.getWindow();
+		if (Objects.equals(previous, window)) { return; }
+		interest.setWindow(window);
+		if (previous != null)
+		{
+			int zoneId = previous.getZoneId();
+			for (long x = previous.getMinX(); x <= previous.getMaxX(); x++)
+			{
+				for (long y = previous.getMinY(); y <= previous.getMaxY(); y++)
+				{
+					if (window != null && window.contains(zoneId, x, y)) { continue; }
+					Cell cell = cells.get(getCellKey(zoneId, x, y));
+					if (cell == null) { continue; }
+					cell.getObservers().remove(interest);
+					cell.getObjects().forEach(interest::leave);
+					releaseIfEmpty(cell);
+				}
+			}
+		}
+		if (window != null)
+		{
+			int zoneId = window.getZoneId();
+			for (long x = window.getMinX(); x <= window.getMaxX(); x++)
+			{
+				for (long y = window.getMinY(); y <= window.getMaxY(); y++)
+				{
+					if (previous != null && previous.contains(zoneId, x, y)) { continue; }
+					Cell cell = getCell(zoneId, x, y);
+					cell.getObservers().add(interest);
+					cell.getObjects().forEach(interest::enter);
+				}
+			}
+		}
+	}
+
+	private Cell getCell(int zoneId, long x, long y) {
+		return cells.computeIfAbsent(getCellKey(zoneId, x, y), k -> new Cell(zoneId, x, y));
+	}
+
+	private void releaseIfEmpty(Cell cell) {
+		if (cell.isEmpty()) { cells.remove(getCellKey(cell.getZoneId(), cell.getX(), cell.getY())); }
+	}
+
+	private long getCellCoordinate(double coordinate) { return (long) Math.floor(coordinate / cellSize); }
+
+	private static long getCellKey(int zoneId, long x, long y) {
+		return ((long) zoneId << 40) | ((x & 0xFFFFF) << 20) | (y & 0xFFFFF);
+	}
+
+	/**
+	 * The cell holding an object, and the update in which the object was last found in the world.
+	 */
+	private static class Placement
+	{
+		private Cell cell;
+		private long lastFound;
+
+		Placement(Cell cell, long lastFound) {
+			this.cell = cell;
+			this.lastFound = lastFound;
+		}
+	}
+}
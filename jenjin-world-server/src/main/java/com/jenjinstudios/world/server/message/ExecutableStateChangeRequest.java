@@ -2,7 +2,6 @@ package com.jenjinstudios.world.server.message;
 
 import com.jenjinstudios.core.io.Message;
 import com.jenjinstudios.world.Actor;
-import com.jenjinstudios.world.Location;
 import com.jenjinstudios.world.World;
 import com.jenjinstudios.world.math.Angle;
 import com.jenjinstudios.world.math.MathUtil;
@@ -44,8 +43,14 @@ public class ExecutableStateChangeRequest extends WorldExecutableMessage
 	@Override
 	public void runDelayed() {
 		Actor player = getClientHandler().getPlayer();
+		if (player == null || player.getWorld() == null)
+		{
+			LOGGER.log(Level.FINE, "Dropping state change request for player not in a world.");
+			return;
+		}
+		timePast = player.getWorld().getClock().currentTimeMillis() - timeOfChange;
 		double distance = MathUtil.round(player.getMoveSpeed() * ((double) timePast / 1000d), 2);
-		position = uncorrectedPosition.getVectorInDirection(distance, angle.getStepAngle());
+		position = uncorrectedPosition.getVectorInDirection(distance, angle);
 		if (!locationWalkable(player))
 		{
 			Angle pAngle = player.getAngle().asIdle();
@@ -63,7 +68,7 @@ public class ExecutableStateChangeRequest extends WorldExecutableMessage
 
 	private void forcePlayerToAngle(Actor player, Angle pAngle) {
 		Vector2D vector2D = player.getVector2D();
-		MoveState forcedState = new MoveState(pAngle, vector2D, player.getWorld().getLastUpdateCompleted());
+		MoveState forcedState = new MoveState(pAngle, vector2D, player.getWorld().getClock().getTimeMillis());
 		player.setForcedState(forcedState);
 	}
 
@@ -76,21 +81,11 @@ public class ExecutableStateChangeRequest extends WorldExecutableMessage
 		timeOfChange = (long) getMessage().getArgument("timeOfChange");
 		uncorrectedPosition = new Vector2D(x, y);
 		angle = new Angle(absoluteAngle, relativeAngle);
-		timePast = (System.currentTimeMillis() - timeOfChange);
-
 	}
 
 	private boolean locationWalkable(Actor player) {
 		World world = player.getWorld();
-		int zoneID = player.getZoneID();
-		Location location = ZoneUtils.getLocationForCoordinates(world, zoneID, position);
-		boolean walkable = false;
-		if (location != null)
-		{
-			String prop = location.getProperties().get("walkable");
-			walkable = !"false".equals(prop);
-		}
-		return walkable;
+		return ZoneUtils.isWalkable(world.getZones().get(player.getZoneID()), position);
 	}
 
 	private boolean isCorrectionSafe(Actor player) {
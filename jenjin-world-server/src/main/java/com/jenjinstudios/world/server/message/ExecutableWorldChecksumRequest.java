@@ -2,7 +2,6 @@ package com.jenjinstudios.world.server.message;
 
 import com.jenjinstudios.core.io.Message;
 import com.jenjinstudios.world.server.WorldClientHandler;
-import com.jenjinstudios.world.server.WorldServer;
 
 /**
  * Process a WorldChecksumRequest.
@@ -27,7 +26,7 @@ public class ExecutableWorldChecksumRequest extends WorldExecutableMessage
 
 	@Override
 	public void runImmediate() {
-		byte[] checkSum = ((WorldServer) getClientHandler().getServer()).getWorldFileChecksum();
+		byte[] checkSum = getClientHandler().getServer().getWorldFileChecksum();
 		Message response = getClientHandler().getMessageFactory().generateWorldChecksumResponse(checkSum);
 		getClientHandler().getMessageIO().queueOutgoingMessage(response);
 	}
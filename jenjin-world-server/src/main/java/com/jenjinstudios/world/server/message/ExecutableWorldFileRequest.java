@@ -2,7 +2,6 @@ package com.jenjinstudios.world.server.message;
 
 import com.jenjinstudios.core.io.Message;
 import com.jenjinstudios.world.server.WorldClientHandler;
-import com.jenjinstudios.world.server.WorldServer;
 
 /**
  * Process a WorldChecksumRequest.
@@ -27,7 +26,7 @@ public class ExecutableWorldFileRequest extends WorldExecutableMessage
 
 	@Override
 	public void runImmediate() {
-		byte[] worldFileBytes = ((WorldServer) getClientHandler().getServer()).getWorldFileBytes();
+		byte[] worldFileBytes = getClientHandler().getServer().getWorldFileBytes();
 		Message response = getClientHandler().getMessageFactory().generateWorldFileResponse(worldFileBytes);
 		getClientHandler().getMessageIO().queueOutgoingMessage(response);
 	}
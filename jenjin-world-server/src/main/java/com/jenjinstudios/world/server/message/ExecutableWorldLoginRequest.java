@@ -6,10 +6,11 @@ import com.jenjinstudios.server.sql.LoginException;
 import com.jenjinstudios.world.Actor;
 import com.jenjinstudios.world.math.Vector2D;
 import com.jenjinstudios.world.server.WorldClientHandler;
-import com.jenjinstudios.world.server.WorldServer;
 import com.jenjinstudios.world.server.sql.WorldAuthenticator;
 
 import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 /**
  * Handles requests to login to the world.
@@ -18,6 +19,7 @@ import java.util.Map;
  */
 public class ExecutableWorldLoginRequest extends WorldExecutableMessage
 {
+	private static final Logger LOGGER = Logger.getLogger(ExecutableWorldLoginRequest.class.getName());
 	private static final String X_COORD = "xCoord";
 	private static final String Y_COORD = "yCoord";
 	private static final String ZONE_ID = "zoneID";
@@ -34,42 +36,75 @@ public class ExecutableWorldLoginRequest extends WorldExecutableMessage
 	 */
 	public ExecutableWorldLoginRequest(WorldClientHandler handler, Message message) {
 		super(handler, message);
-		authenticator = ((WorldServer) handler.getServer()).getAuthenticator();
+		authenticator = handler.getServer().getAuthenticator();
 	}
 
 	@Override
 	public void runDelayed() {
-		if (user != null)
-		{
-			handleLoginSuccess();
-			((WorldServer) getClientHandler().getServer()).getWorld().getWorldObjects().add(
-				  getClientHandler().getPlayer());
-			loginResponse.setArgument("id", getClientHandler().getPlayer().getId());
-		}
-		getClientHandler().getMessageIO().queueOutgoingMessage(loginResponse);
 	}
 
 	@Override
 	public void runImmediate() {
-		try
+		WorldClientHandler handler = getClientHandler();
+		if (authenticator != null && handler.getUser() == null)
 		{
-			tryLogInUser();
-		} catch (LoginException e)
+			String username = (String) getMessage().getArgument("username");
+			String password = (String) getMessage().getArgument("password");
+			authenticator.submit(() -> tryLogInUser(username, password)).whenComplete((loggedIn, throwable) ->
+				  handler.getServer().addSyncedTask(() -> completeLogin(loggedIn)));
+		} else
 		{
-			handleLoginFailure();
+			handler.getServer().addSyncedTask(() -> completeLogin(null));
 		}
-		getClientHandler().setLoggedInTime(getClientHandler().getServer().getCycleStartTime());
 	}
 
-	private void tryLogInUser() throws LoginException {
+	/**
+	 * Called on an authentication worker thread to log in the user and retrieve their player data.
+	 */
+	private User tryLogInUser(String username, String password) throws LoginException {
+		User loggedIn = authenticator.logInUser(username, password);
+		playerData = authenticator.lookUpUserProperties(username);
+		return loggedIn;
+	}
+
+	/**
+	 * Called on the server update thread once the login attempt has finished.
+	 *
+	 * @param loggedIn The user that was logged in, or null if the attempt failed.
+	 */
+	private void completeLogin(User loggedIn) {
 		WorldClientHandler handler = getClientHandler();
-		if (authenticator != null && handler.getUser() == null)
+		if (handler.isShutDown())
 		{
-			String username = (String) getMessage().getArgument("username");
-			String password = (String) getMessage().getArgument("password");
-			user = authenticator.logInUser(username, password);
-			playerData = authenticator.lookUpUserProperties(username);
+			if (loggedIn != null) { logOutAbandonedUser(loggedIn); }
+			return;
 		}
+		user = loggedIn;
+		handler.setLoggedInTime(handler.getServer().getCycleStartTime());
+		if (user != null)
+		{
+			handleLoginSuccess();
+			handler.getServer().getWorld().getWorldObjects().add(handler.getPlayer());
+			loginResponse.setArgument("id", handler.getPlayer().getId());
+		} else
+		{
+			handleLoginFailure();
+		}
+		handler.getMessageIO().queueOutgoingMessage(loginResponse);
+	}
+
+	/**
+	 * Log out a user whose client disconnected while the login attempt was running; no handler is left to do so.
+	 *
+	 * @param loggedIn The user that was logged in.
+	 */
+	private void logOutAbandonedUser(User loggedIn) {
+		authenticator.logOutUserAsync(loggedIn.getUsername()).whenComplete((loggedOut, throwable) -> {
+			if (throwable != null)
+			{
+				LOGGER.log(Level.WARNING, "Unable to log out user of closed connection.", throwable);
+			}
+		});
 	}
 
 	private void handleLoginFailure() {
@@ -1,11 +1,10 @@
 package com.jenjinstudios.world.server.message;
 
 import com.jenjinstudios.core.io.Message;
-import com.jenjinstudios.server.sql.LoginException;
+import com.jenjinstudios.server.net.User;
 import com.jenjinstudios.world.Actor;
 import com.jenjinstudios.world.server.WorldClientHandler;
-import com.jenjinstudios.world.server.WorldServer;
-import com.jenjinstudios.world.server.sql.WorldAuthenticator;
+import com.jenjinstudios.world.server.sql.PlayerPersistenceService;
 
 /**
  * Handles requests to log out of the world.
@@ -13,8 +12,8 @@ import com.jenjinstudios.world.server.sql.WorldAuthenticator;
  */
 public class ExecutableWorldLogoutRequest extends WorldExecutableMessage
 {
-	/** The SQLHandler used to log out the client. */
-	private final WorldAuthenticator authenticator;
+	/** The service used to save the player and log out the client. */
+	private final PlayerPersistenceService playerPersistenceService;
 
 	/**
 	 * Construct a new ExecutableMessage.  Must be implemented by subclasses.
@@ -23,13 +22,24 @@ public class ExecutableWorldLogoutRequest extends WorldExecutableMessage
 	 */
 	public ExecutableWorldLogoutRequest(WorldClientHandler handler, Message message) {
 		super(handler, message);
-		authenticator = ((WorldServer) handler.getServer()).getAuthenticator();
-
+		playerPersistenceService = handler.getServer().getPlayerPersistenceService();
 	}
 
 	@Override
 	public void runDelayed() {
-		Actor clientActor = getClientHandler().getPlayer();
+		WorldClientHandler handler = getClientHandler();
+		User user = handler.getUser();
+		if (playerPersistenceService != null && user != null)
+		{
+			// The player is saved and the user logged out in the background; the status is sent once that finishes.
+			playerPersistenceService.logOut(handler).whenComplete((loggedOut, throwable) ->
+				  handler.getServer().addSyncedTask(() -> completeLogout(user, throwable == null)));
+			handler.setUser(null);
+		} else
+		{
+			handler.sendLogoutStatus(false);
+		}
+		Actor clientActor = handler.getPlayer();
 		// Multiple logout requests can cause Player to be null; have to check first.
 		if (clientActor != null)
 		{
@@ -39,23 +49,13 @@ public class ExecutableWorldLogoutRequest extends WorldExecutableMessage
 
 	@Override
 	public void runImmediate() {
-		try
-		{
-			tryLogOutUser();
-			getClientHandler().sendLogoutStatus(true);
-		} catch (LoginException e)
-		{
-			getClientHandler().sendLogoutStatus(false);
-		}
-
 	}
 
-	private void tryLogOutUser() throws LoginException {
-		WorldClientHandler handler = getClientHandler();
-		if (authenticator != null && handler.getUser() != null)
+	private void completeLogout(User user, boolean success) {
+		if (!success)
 		{
-			authenticator.updatePlayer(handler);
-			authenticator.logOutUser(handler.getUser().getUsername());
-		} else throw new LoginException("Missing ClientHandler username or Authenticator.");
+			getClientHandler().setUser(user);
+		}
+		getClientHandler().sendLogoutStatus(success);
 	}
 }
@@ -100,7 +100,7 @@ public class WorldServerMessageFactory extends ServerMessageFactory
 		newlyVisibleMessage.setArgument("yCoordinate", newlyVisible.getVector2D().getYCoordinate());
 		newlyVisibleMessage.setArgument("relativeAngle", newlyVisible.getAngle().getRelativeAngle());
 		newlyVisibleMessage.setArgument("absoluteAngle", newlyVisible.getAngle().getAbsoluteAngle());
-		newlyVisibleMessage.setArgument("timeOfVisibility", newlyVisible.getWorld().getLastUpdateStarted());
+		newlyVisibleMessage.setArgument("timeOfVisibility", newlyVisible.getWorld().getClock().getTimeMillis());
 		newlyVisibleMessage.setArgument("moveSpeed", newlyVisible.getMoveSpeed());
 		return newlyVisibleMessage;
 	}
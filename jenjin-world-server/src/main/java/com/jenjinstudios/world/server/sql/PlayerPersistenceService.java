@@ -0,0 +1,302 @@
+package com.jenjinstudios.world.server.sql;
+
+import com.jenjinstudios.server.net.User;
+import com.jenjinstudios.server.sql.LoginException;
+import com.jenjinstudios.world.Actor;
+import com.jenjinstudios.world.server.WorldClientHandler;
+
+import java.sql.SQLException;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * The {@code PlayerPersistenceService} saves player state to the database in the background.  Each server update, the
+ * players whose state has changed since they were last queued are snapshotted; snapshots of the same player are
+ * coalesced, and all pending snapshots are written in a single batch on a background thread at a fixed interval.
+ * <p>
+ * The interval bounds how stale the saved state of a player can become; a flush is also started early when the number
+ * of pending players reaches the maximum batch size, or when a player logs out.
+ *
+ * @author Caleb Brinkman
+ */
+public class PlayerPersistenceService
+{
+	/** The default number of milliseconds between flushes. */
+	public static final long DEFAULT_FLUSH_INTERVAL = 5000;
+	/** The default number of pending players which causes an early flush. */
+	public static final int DEFAULT_MAX_BATCH_SIZE = 500;
+	private static final Logger LOGGER = Logger.getLogger(PlayerPersistenceService.class.getName());
+	private final WorldAuthenticator authenticator;
+	private final long flushInterval;
+	private final int maxBatchSize;
+	/** The most recent unsaved snapshot of each dirty player, keyed by username. */
+	private final Map<String, User> pendingSaves = new ConcurrentHashMap<>();
+	/** Players which have logged out, in the order in which they did so. */
+	private final Queue<PendingLogout> pendingLogouts = new ConcurrentLinkedQueue<>();
+	/** The last state queued for each player, used to determine whether the player is dirty. */
+	private final Map<String, PlayerState> lastQueued = new ConcurrentHashMap<>();
+	/** Users who have logged out but whose logout has not yet been written. */
+	private final Set<String> loggingOut = ConcurrentHashMap.newKeySet();
+	private final AtomicLong savedCount = new AtomicLong();
+	private final AtomicLong flushCount = new AtomicLong();
+	private final AtomicLong failedFlushCount = new AtomicLong();
+	private ScheduledExecutorService flushExecutor;
+
+	/**
+	 * Construct a new {@code PlayerPersistenceService} with the default flush interval and batch size.
+	 *
+	 * @param authenticator The authenticator used to save players.
+	 */
+	public PlayerPersistenceService(WorldAuthenticator authenticator) {
+		this(authenticator, DEFAULT_FLUSH_INTERVAL, DEFAULT_MAX_BATCH_SIZE);
+	}
+
+	/**
+	 * Construct a new {@code PlayerPersistenceService}.
+	 *
+	 * @param authenticator The authenticator used to save players.
+	 * @param flushInterval The number of milliseconds between flushes.
+	 * @param maxBatchSize The number of pending players which causes an early flush.
+	 */
+	public PlayerPersistenceService(WorldAuthenticator authenticator, long flushInterval, int maxBatchSize) {
+		this.authenticator = authenticator;
+		this.flushInterval = flushInterval;
+		this.maxBatchSize = maxBatchSize;
+	}
+
+	/**
+	 * Start flushing pending players on a background thread.  If already started this method does nothing.
+	 */
+	public synchronized void start() {
+		if (flushExecutor == null)
+		{
+			flushExecutor = Executors.newSingleThreadScheduledExecutor(r -> {
+				Thread thread = new Thread(r, "Player Persistence Thread");
+				thread.setDaemon(true);
+				return thread;
+			});
+			flushExecutor.scheduleWithFixedDelay(this::flush, flushInterval, flushInterval, TimeUnit.MILLISECONDS);
+		}
+	}
+
+	/**
+	 * Snapshot each of the given players whose state has changed since they were last queued.  This should be called
+	 * from the server update thread, or after the update loop has stopped, so that the snapshot is consistent with the
+	 * world.
+	 *
+	 * @param handlers The client handlers whose players should be checked.
+	 */
+	public void collectDirtyPlayers(Iterable<WorldClientHandler> handlers) {
+		for (WorldClientHandler handler : handlers)
+		{
+			User user = handler.getUser();
+			Actor player = handler.getPlayer();
+			if (user == null || player == null || loggingOut.contains(user.getUsername())) { continue; }
+			queueSnapshot(user.getUsername(), player);
+		}
+		if (pendingSaves.size() >= maxBatchSize) { requestFlush(); }
+	}
+
+	/**
+	 * Queue a final snapshot of the given client handler's player, and log out its user once the snapshot has been
+	 * written.  A flush is started immediately, so that logouts which happen close together are written in one batch.
+	 *
+	 * @param handler The client handler whose user is logging out.
+	 *
+	 * @return A future which is completed with the logged out user once the logout has been written, or exceptionally
+	 * if the logout fails.
+	 */
+	public CompletableFuture<User> logOut(WorldClientHandler handler) {
+		CompletableFuture<User> future = new CompletableFuture<>();
+		User user = handler.getUser();
+		if (user == null)
+		{
+			future.completeExceptionally(new LoginException("Missing ClientHandler username."));
+			return future;
+		}
+		String username = user.getUsername();
+		loggingOut.add(username);
+		if (handler.getPlayer() != null)
+		{
+			queueSnapshot(username, handler.getPlayer());
+		}
+		pendingLogouts.add(new PendingLogout(username, future));
+		requestFlush();
+		return future;
+	}
+
+	/**
+	 * Write all pending snapshots in a single batch, then log out any users who are waiting on them.  If writing the
+	 * snapshots fails, they are kept to be retried during the next flush, unless a newer snapshot has been queued; the
+	 * logouts of users whose final snapshot was not written are kept pending until it has been.
+	 */
+	public synchronized void flush() {
+		List<PendingLogout> logouts = new LinkedList<>();
+		PendingLogout logout;
+		while ((logout = pendingLogouts.poll()) != null) { logouts.add(logout); }
+
+		Map<String, User> batch = new HashMap<>();
+		for (String username : new ArrayList<>(pendingSaves.keySet()))
+		{
+			User snapshot = pendingSaves.remove(username);
+			if (snapshot != null) { batch.put(username, snapshot); }
+		}
+		Set<String> failed = writeBatch(batch);
+		for (PendingLogout pending : logouts)
+		{
+			if (failed.contains(pending.username))
+			{
+				pendingLogouts.add(pending);
+			} else
+			{
+				writeLogout(pending);
+			}
+		}
+	}
+
+	private Set<String> writeBatch(Map<String, User> batch) {
+		if (batch.isEmpty()) { return Collections.emptySet(); }
+		try
+		{
+			authenticator.updateUserProperties(batch.values());
+			savedCount.addAndGet(batch.size());
+			flushCount.incrementAndGet();
+			return Collections.emptySet();
+		} catch (SQLException e)
+		{
+			failedFlushCount.incrementAndGet();
+			LOGGER.log(Level.SEVERE, "Unable to save " + batch.size() + " players; will retry.", e);
+			batch.forEach(pendingSaves::putIfAbsent);
+			return batch.keySet();
+		}
+	}
+
+	private void writeLogout(PendingLogout logout) {
+		try
+		{
+			logout.future.complete(authenticator.logOutUser(logout.username));
+		} catch (LoginException e)
+		{
+			logout.future.completeExceptionally(e);
+		} finally
+		{
+			lastQueued.remove(logout.username);
+			loggingOut.remove(logout.username);
+		}
+	}
+
+	/**
+	 * Stop the background thread and write everything that is still pending.  Users whose final snapshot still cannot be
+	 * written are not logged out; their logout futures are completed exceptionally.
+	 */
+	public synchronized void shutdown() {
+		if (flushExecutor != null)
+		{
+			flushExecutor.shutdown();
+		}
+		flush();
+		PendingLogout logout;
+		while ((logout = pendingLogouts.poll()) != null)
+		{
+			logout.future.completeExceptionally(new LoginException("Unable to save player " + logout.username));
+		}
+	}
+
+	private void requestFlush() {
+		synchronized (this)
+		{
+			if (flushExecutor != null && !flushExecutor.isShutdown())
+			{
+				flushExecutor.execute(this::flush);
+			}
+		}
+	}
+
+	private void queueSnapshot(String username, Actor player) {
+		PlayerState state = new PlayerState(player);
+		if (!state.equals(lastQueued.get(username)))
+		{
+			lastQueued.put(username, state);
+			pendingSaves.put(username, state.toUser(username));
+		}
+	}
+
+	/**
+	 * Get the number of players waiting to be saved.
+	 *
+	 * @return The number of players waiting to be saved.
+	 */
+	public int getPendingCount() { return pendingSaves.size(); }
+
+	/**
+	 * Get the total number of player snapshots which have been saved.
+	 *
+	 * @return The total number of player snapshots which have been saved.
+	 */
+	public long getSavedCount() { return savedCount.get(); }
+
+	/**
+	 * Get the number of batches which have been written.
+	 *
+	 * @return The number of batches which have been written.
+	 */
+	public long getFlushCount() { return flushCount.get(); }
+
+	/**
+	 * Get the number of batches which could not be written.
+	 *
+	 * @return The number of batches which could not be written.
+	 */
+	public long getFailedFlushCount() { return failedFlushCount.get(); }
+
+	/**
+	 * The persisted state of a player at a single point in time.
+	 */
+	private static class PlayerState
+	{
+		private final double x;
+		private final double y;
+		private final int zoneId;
+
+		PlayerState(Actor player) {
+			x = player.getVector2D().getXCoordinate();
+			y = player.getVector2D().getYCoordinate();
+			zoneId = player.getZoneID();
+		}
+
+		User toUser(String username) {
+			User user = new User();
+			user.setUsername(username);
+			WorldAuthenticator.putPlayerProperties(user, x, y, zoneId);
+			return user;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) return true;
+			if (o == null || getClass() != o.getClass()) return false;
+			PlayerState that = (PlayerState) o;
+			return Double.compare(that.x, x) == 0 && Double.compare(that.y, y) == 0 && zoneId == that.zoneId;
+		}
+
+		@Override
+		public int hashCode() { return Objects.hash(x, y, zoneId); }
+	}
+
+	/**
+	 * A user waiting to be logged out once their final snapshot has been written.
+	 */
+	private static class PendingLogout
+	{
+		private final String username;
+		private final CompletableFuture<User> future;
+
+		PendingLogout(String username, CompletableFuture<User> future) {
+			this.username = username;
+			this.future = future;
+		}
+	}
+}
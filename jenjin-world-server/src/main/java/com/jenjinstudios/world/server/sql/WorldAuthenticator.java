@@ -1,12 +1,18 @@
 package com.jenjinstudios.world.server.sql;
 
 import com.jenjinstudios.server.net.User;
+import com.jenjinstudios.server.sql.AuthenticationExecutor;
 import com.jenjinstudios.server.sql.Authenticator;
+import com.jenjinstudios.server.sql.ConnectionPool;
+import com.jenjinstudios.server.sql.UserCache;
 import com.jenjinstudios.world.Actor;
 import com.jenjinstudios.world.server.WorldClientHandler;
 
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedList;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -31,20 +37,71 @@ public class WorldAuthenticator extends Authenticator
 	 */
 	public WorldAuthenticator(Connection connection) { super(connection); }
 
+	/**
+	 * Create a new SQLHandler which communicates with the database using connections from the given pool.
+	 */
+	public WorldAuthenticator(ConnectionPool connectionPool) { super(connectionPool); }
+
+	/**
+	 * Create a new SQLHandler which communicates with the database using connections from the given pool, and uses
+	 * the given executor to perform asynchronous logins.
+	 */
+	public WorldAuthenticator(ConnectionPool connectionPool, AuthenticationExecutor authenticationExecutor) {
+		super(connectionPool, authenticationExecutor);
+	}
+
+	/**
+	 * Create a new SQLHandler which communicates with the database using connections from the given pool, uses the
+	 * given executor to perform asynchronous logins, and stores users and their properties in the given cache.
+	 */
+	public WorldAuthenticator(ConnectionPool connectionPool, AuthenticationExecutor authenticationExecutor,
+							  UserCache userCache)
+	{
+		super(connectionPool, authenticationExecutor, userCache);
+	}
+
 	public void updatePlayer(WorldClientHandler worldClientHandler) {
-		Actor player = worldClientHandler.getPlayer();
-		User user = worldClientHandler.getUser();
+		updatePlayers(Collections.singletonList(worldClientHandler));
+	}
 
-		user.getProperties().put(X_COORD, player.getVector2D().getXCoordinate());
-		user.getProperties().put(Y_COORD, player.getVector2D().getYCoordinate());
-		user.getProperties().put(ZONE_ID, player.getZoneID());
+	/**
+	 * Save the location of each of the given players in a single database transaction.
+	 *
+	 * @param worldClientHandlers The client handlers of the players to save; handlers without a logged in user are
+	 * ignored.
+	 */
+	public void updatePlayers(Collection<WorldClientHandler> worldClientHandlers) {
+		Collection<User> users = new LinkedList<>();
+		for (WorldClientHandler worldClientHandler : worldClientHandlers)
+		{
+			Actor player = worldClientHandler.getPlayer();
+			User user = worldClientHandler.getUser();
+			if (player == null || user == null) { continue; }
+			putPlayerProperties(user, player.getVector2D().getXCoordinate(), player.getVector2D().getYCoordinate(),
+				  player.getZoneID());
+			users.add(user);
+		}
 
 		try
 		{
-			super.updateUserProperties(user);
+			super.updateUserProperties(users);
 		} catch (SQLException e)
 		{
 			LOGGER.log(Level.SEVERE, "Unable to update player information in database!", e);
 		}
 	}
+
+	/**
+	 * Set the properties of the given user which store the location of their player.
+	 *
+	 * @param user The user.
+	 * @param x The x coordinate of the player.
+	 * @param y The y coordinate of the player.
+	 * @param zoneId The ID of the zone containing the player.
+	 */
+	public static void putPlayerProperties(User user, double x, double y, int zoneId) {
+		user.getProperties().put(X_COORD, x);
+		user.getProperties().put(Y_COORD, y);
+		user.getProperties().put(ZONE_ID, zoneId);
+	}
 }
@@ -0,0 +1,104 @@
+package com.jenjinstudios.world.server.interest;
+
+import com.jenjinstudios.world.World;
+import com.jenjinstudios.world.WorldObject;
+import com.jenjinstudios.world.math.Vector2D;
+import com.jenjinstudios.world.util.WorldUtils;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.Collections;
+
+/**
+ * @author Caleb Brinkman
+ */
+public class InterestManagerTest
+{
+	@Test
+	public void testEnterAndLeave() {
+		World world = WorldUtils.createDefaultWorld();
+		InterestManager manager = new InterestManager(world, 100);
+		WorldObject observer = addObject(world, "Observer", 50, 50);
+		WorldObject object = addObject(world, "Object", 150, 50);
+		Interest interest = manager.subscribe(observer);
+		update(world, manager);
+
+		Assert.assertEquals(interest.getEnteredObjects(), Collections.singleton(object));
+		Assert.assertEquals(interest.getVisibleObjects(), Collections.singleton(object));
+
+		object.setVector2D(new Vector2D(180, 80));
+		update(world, manager);
+		Assert.assertTrue(interest.getEnteredObjects().isEmpty());
+		Assert.assertTrue(interest.getLeftObjects().isEmpty());
+
+		object.setVector2D(new Vector2D(250, 50));
+		update(world, manager);
+		Assert.assertEquals(interest.getLeftObjects(), Collections.singleton(object));
+		Assert.assertTrue(interest.getVisibleObjects().isEmpty());
+	}
+
+	@Test
+	public void testObserverMoves() {
+		World world = WorldUtils.createDefaultWorld();
+		InterestManager manager = new InterestManager(world, 100);
+		WorldObject observer = addObject(world, "Observer", 50, 50);
+		WorldObject object = addObject(world, "Object", 350, 50);
+		Interest interest = manager.subscribe(observer);
+		update(world, manager);
+		Assert.assertTrue(interest.getVisibleObjects().isEmpty());
+
+		observer.setVector2D(new Vector2D(250, 50));
+		update(world, manager);
+		Assert.assertEquals(interest.getEnteredObjects(), Collections.singleton(object));
+	}
+
+	@Test
+	public void testCrossingEachOther() {
+		World world = WorldUtils.createDefaultWorld();
+		InterestManager manager = new InterestManager(world, 100);
+		WorldObject observer = addObject(world, "Observer", 50, 50);
+		WorldObject object = addObject(world, "Object", 150, 50);
+		Interest interest = manager.subscribe(observer);
+		update(world, manager);
+
+		// The object leaves the old area of interest, but is inside the new one.
+		observer.setVector2D(new Vector2D(350, 50));
+		object.setVector2D(new Vector2D(250, 50));
+		update(world, manager);
+		Assert.assertTrue(interest.getEnteredObjects().isEmpty());
+		Assert.assertTrue(interest.getLeftObjects().isEmpty());
+		Assert.assertEquals(interest.getVisibleObjects(), Collections.singleton(object));
+	}
+
+	@Test
+	public void testRemoveAndUnsubscribe() {
+		World world = WorldUtils.createDefaultWorld();
+		InterestManager manager = new InterestManager(world, 100);
+		WorldObject observer = addObject(world, "Observer", 50, 50);
+		WorldObject object = addObject(world, "Object", 50, 50);
+		Interest interest = manager.subscribe(observer);
+		update(world, manager);
+
+		world.getWorldObjects().remove(object.getId());
+		update(world, manager);
+		Assert.assertEquals(interest.getLeftObjects(), Collections.singleton(object));
+
+		manager.unsubscribe(observer);
+		world.getWorldObjects().remove(observer.getId());
+		update(world, manager);
+		Assert.assertNull(manager.getInterest(observer));
+		Assert.assertEquals(manager.getCellCount(), 0);
+	}
+
+	private static WorldObject addObject(World world, String name, double x, double y) {
+		WorldObject object = new WorldObject(name);
+		object.setVector2D(new Vector2D(x, y));
+		world.getWorldObjects().add(object);
+		return object;
+	}
+
+	private static void update(World world, InterestManager manager) {
+		world.update();
+		manager.update();
+	}
+}
@@ -134,4 +134,23 @@ public class ExecutableStateChangeRequestTest
 
 		Assert.assertEquals(player.getAngle(), new Angle(0.0, Angle.IDLE));
 	}
+
+	@Test
+	public void testPlayerNotInWorld() {
+		Actor player = new Actor("FooBar");
+		Angle originalAngle = player.getAngle();
+		WorldClientHandler mock = mock(WorldClientHandler.class);
+		when(mock.getPlayer()).thenReturn(player);
+		Message request = messageRegistry.createMessage("StateChangeRequest");
+		request.setArgument("relativeAngle", Angle.FRONT);
+		request.setArgument("absoluteAngle", 0.0);
+		request.setArgument("xCoordinate", 0.0);
+		request.setArgument("yCoordinate", 0.0);
+		request.setArgument("timeOfChange", System.currentTimeMillis());
+		ExecutableStateChangeRequest executableStateChangeRequest = new ExecutableStateChangeRequest(mock, request);
+		executableStateChangeRequest.runImmediate();
+		executableStateChangeRequest.runDelayed();
+
+		Assert.assertEquals(player.getAngle(), originalAngle);
+	}
 }
@@ -3,6 +3,7 @@ package com.jenjinstudios.world.server.message;
 import com.jenjinstudios.core.MessageIO;
 import com.jenjinstudios.core.io.Message;
 import com.jenjinstudios.server.net.User;
+import com.jenjinstudios.server.sql.AuthenticationTask;
 import com.jenjinstudios.world.Actor;
 import com.jenjinstudios.world.World;
 import com.jenjinstudios.world.collections.WorldObjectList;
@@ -15,6 +16,7 @@ import org.testng.annotations.Test;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
@@ -46,6 +48,12 @@ public class ExecutableWorldLoginRequestTest
 		Mockito.when(user.isLoggedIn()).thenReturn(true);
 		Mockito.when(authenticator.logInUser(Mockito.anyString(), Mockito.anyString())).thenReturn(user);
 		Mockito.when(authenticator.lookUpUserProperties(Mockito.anyString())).thenReturn(playerData);
+		Mockito.when(authenticator.submit(Mockito.any())).thenAnswer(invocation ->
+			  CompletableFuture.completedFuture(((AuthenticationTask) invocation.getArguments()[0]).call()));
+		Mockito.doAnswer(invocation -> {
+			((Runnable) invocation.getArguments()[0]).run();
+			return null;
+		}).when(server).addSyncedTask(Mockito.any(Runnable.class));
 		Mockito.when(server.getAuthenticator()).thenReturn(authenticator);
 		Mockito.when(server.getWorld()).thenReturn(world);
 		Mockito.when(wch.getServer()).thenReturn(server);
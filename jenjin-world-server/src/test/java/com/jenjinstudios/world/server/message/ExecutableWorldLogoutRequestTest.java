@@ -10,9 +10,11 @@ import com.jenjinstudios.world.collections.WorldObjectList;
 import com.jenjinstudios.world.math.Vector2D;
 import com.jenjinstudios.world.server.WorldClientHandler;
 import com.jenjinstudios.world.server.WorldServer;
-import com.jenjinstudios.world.server.sql.WorldAuthenticator;
+import com.jenjinstudios.world.server.sql.PlayerPersistenceService;
 import org.testng.annotations.Test;
 
+import java.util.concurrent.CompletableFuture;
+
 import static org.mockito.Mockito.*;
 
 /**
@@ -31,10 +33,12 @@ public class ExecutableWorldLogoutRequestTest
 		Actor player = mock(Actor.class);
 		WorldClientHandler handler = mock(WorldClientHandler.class);
 		WorldServer worldServer = mock(WorldServer.class);
-		WorldAuthenticator authenticator = mock(WorldAuthenticator.class);
+		PlayerPersistenceService persistenceService = mock(PlayerPersistenceService.class);
 		WorldObjectList worldObjectMap = mock(WorldObjectList.class);
 		when(world.getWorldObjects()).thenReturn(worldObjectMap);
-		when(worldServer.getAuthenticator()).thenReturn(authenticator);
+		when(persistenceService.logOut(handler)).thenReturn(CompletableFuture.completedFuture(new User()));
+		when(worldServer.getPlayerPersistenceService()).thenReturn(persistenceService);
+		runSyncedTasksImmediately(worldServer);
 		when(worldServer.getWorld()).thenReturn(world);
 		when(handler.getServer()).thenReturn(worldServer);
 		when(handler.getUser()).thenReturn(new User());
@@ -59,8 +63,8 @@ public class ExecutableWorldLogoutRequestTest
 		Actor player = mock(Actor.class);
 		WorldClientHandler handler = mock(WorldClientHandler.class);
 		WorldServer worldServer = mock(WorldServer.class);
-		WorldAuthenticator authenticator = mock(WorldAuthenticator.class);
-		when(worldServer.getAuthenticator()).thenReturn(authenticator);
+		PlayerPersistenceService persistenceService = mock(PlayerPersistenceService.class);
+		when(worldServer.getPlayerPersistenceService()).thenReturn(persistenceService);
 		when(worldServer.getWorld()).thenReturn(world);
 		when(handler.getServer()).thenReturn(worldServer);
 		when(handler.getUser()).thenReturn(null);
@@ -82,10 +86,13 @@ public class ExecutableWorldLogoutRequestTest
 		Actor player = mock(Actor.class);
 		WorldClientHandler handler = mock(WorldClientHandler.class);
 		WorldServer worldServer = mock(WorldServer.class);
-		WorldAuthenticator authenticator = mock(WorldAuthenticator.class);
-		when(worldServer.getAuthenticator()).thenReturn(authenticator);
+		PlayerPersistenceService persistenceService = mock(PlayerPersistenceService.class);
+		CompletableFuture<User> failedLogout = new CompletableFuture<>();
+		failedLogout.completeExceptionally(new LoginException("Foo"));
+		when(persistenceService.logOut(handler)).thenReturn(failedLogout);
+		when(worldServer.getPlayerPersistenceService()).thenReturn(persistenceService);
 		when(worldServer.getWorld()).thenReturn(world);
-		when(authenticator.logOutUser(any())).thenThrow(new LoginException("Foo"));
+		runSyncedTasksImmediately(worldServer);
 		when(handler.getServer()).thenReturn(worldServer);
 		when(handler.getUser()).thenReturn(new User());
 		when(player.getId()).thenReturn(0);
@@ -97,4 +104,11 @@ public class ExecutableWorldLogoutRequestTest
 
 		verify(handler).sendLogoutStatus(false);
 	}
+
+	private static void runSyncedTasksImmediately(WorldServer server) {
+		doAnswer(invocation -> {
+			((Runnable) invocation.getArguments()[0]).run();
+			return null;
+		}).when(server).addSyncedTask(any(Runnable.class));
+	}
 }
@@ -0,0 +1,154 @@
+package com.jenjinstudios.world.server.sql;
+
+import com.jenjinstudios.server.net.User;
+import com.jenjinstudios.world.Actor;
+import com.jenjinstudios.world.math.Vector2D;
+import com.jenjinstudios.world.server.WorldClientHandler;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+
+import static org.mockito.Mockito.*;
+import static org.testng.Assert.*;
+
+/**
+ * @author Caleb Brinkman
+ */
+public class PlayerPersistenceServiceTest
+{
+	private static Connection connection;
+
+	@BeforeClass
+	public void setUpConnection() throws Exception {
+		Class.forName("org.h2.Driver");
+		connection = DriverManager.getConnection("jdbc:h2:mem:jenjin_persistence_test", "sa", "");
+		Statement statement = connection.createStatement();
+		statement.executeUpdate("CREATE TABLE jenjin_users (" +
+			  "  `username` VARCHAR(16) NOT NULL," +
+			  "  `password` CHAR(64) NOT NULL," +
+			  "  `salt` CHAR(48) NOT NULL," +
+			  "  `loggedin` TINYINT NOT NULL DEFAULT '0'," +
+			  "  PRIMARY KEY (username)" +
+			  ")");
+		statement.executeUpdate("CREATE TABLE jenjin_user_properties (" +
+			  " `username` VARCHAR(64) NOT NULL," +
+			  " `propertyName` VARCHAR(64) NOT NULL," +
+			  " `propertyValue` VARCHAR(64)," +
+			  " PRIMARY KEY (`username`, `propertyName`))");
+		for (int i = 1; i < 10; i++)
+		{
+			statement.executeUpdate(
+				  "INSERT INTO jenjin_users " +
+						"(`username`, `password`, `salt`, `loggedin`)" +
+						" VALUES " +
+						"('TestAccount" + i + "', " +
+						"'650f00f552d4df0147d236e240ccfc490444f4b358c4ff1d79f5fd90f57243bd', " +
+						"'e3c42b85a183d3f654a3d2bb3bc5ea607d0fb529d9b890d3', " +
+						"'0')");
+		}
+	}
+
+	@AfterClass
+	public void closeConnection() throws Exception {
+		connection.close();
+	}
+
+	@Test
+	public void testCoalescedFlush() throws Exception {
+		WorldAuthenticator authenticator = new WorldAuthenticator(connection);
+		PlayerPersistenceService service = new PlayerPersistenceService(authenticator);
+		Actor actor = mock(Actor.class);
+		WorldClientHandler handler = createHandler("TestAccount1", actor);
+
+		when(actor.getVector2D()).thenReturn(new Vector2D(1, 1));
+		service.collectDirtyPlayers(Collections.singletonList(handler));
+		when(actor.getVector2D()).thenReturn(new Vector2D(2, 2));
+		service.collectDirtyPlayers(Collections.singletonList(handler));
+		assertEquals(service.getPendingCount(), 1);
+
+		service.flush();
+		assertEquals(service.getPendingCount(), 0);
+		assertEquals(service.getSavedCount(), 1);
+		assertEquals(lookUpProperty("TestAccount1", "xCoord"), 2d);
+
+		// Nothing has changed, so nothing should be queued.
+		service.collectDirtyPlayers(Collections.singletonList(handler));
+		assertEquals(service.getPendingCount(), 0);
+	}
+
+	@Test
+	public void testLogOut() throws Exception {
+		WorldAuthenticator authenticator = new WorldAuthenticator(connection);
+		PlayerPersistenceService service = new PlayerPersistenceService(authenticator);
+		authenticator.logInUser("TestAccount2", "testPassword");
+		Actor actor = mock(Actor.class);
+		WorldClientHandler handler = createHandler("TestAccount2", actor);
+		when(actor.getVector2D()).thenReturn(new Vector2D(5, 5));
+
+		service.start();
+		User loggedOut = service.logOut(handler).get();
+		service.shutdown();
+
+		assertFalse(loggedOut.isLoggedIn());
+		assertFalse(authenticator.lookUpUser("TestAccount2").isLoggedIn());
+		assertEquals(lookUpProperty("TestAccount2", "yCoord"), 5d);
+	}
+
+	@Test
+	public void testShutdownFlushes() throws Exception {
+		WorldAuthenticator authenticator = new WorldAuthenticator(connection);
+		PlayerPersistenceService service = new PlayerPersistenceService(authenticator, 60000, 100);
+		Actor actor = mock(Actor.class);
+		WorldClientHandler handler = createHandler("TestAccount3", actor);
+		when(actor.getVector2D()).thenReturn(new Vector2D(7, 7));
+
+		service.start();
+		service.collectDirtyPlayers(Collections.singletonList(handler));
+		service.shutdown();
+
+		assertEquals(lookUpProperty("TestAccount3", "xCoord"), 7d);
+	}
+
+	@Test
+	public void testFailedFlushKeepsLogOutPending() throws Exception {
+		WorldAuthenticator authenticator = mock(WorldAuthenticator.class);
+		doThrow(new SQLException()).when(authenticator).updateUserProperties(any());
+		PlayerPersistenceService service = new PlayerPersistenceService(authenticator);
+		Actor actor = mock(Actor.class);
+		WorldClientHandler handler = createHandler("TestAccount4", actor);
+		when(actor.getVector2D()).thenReturn(new Vector2D(3, 3));
+
+		CompletableFuture<User> future = service.logOut(handler);
+		service.flush();
+
+		verify(authenticator, never()).logOutUser(anyString());
+		assertFalse(future.isDone());
+		assertEquals(service.getPendingCount(), 1);
+		assertEquals(service.getFailedFlushCount(), 1);
+	}
+
+	private static WorldClientHandler createHandler(String username, Actor actor) {
+		WorldClientHandler handler = mock(WorldClientHandler.class);
+		User user = new User();
+		user.setUsername(username);
+		when(handler.getUser()).thenReturn(user);
+		when(handler.getPlayer()).thenReturn(actor);
+		return handler;
+	}
+
+	private static double lookUpProperty(String username, String propertyName) throws Exception {
+		String query = "SELECT * FROM jenjin_user_properties WHERE username='" + username + "' AND " +
+			  "propertyName='" + propertyName + "'";
+		ResultSet results = connection.prepareStatement(query).executeQuery();
+		assertTrue(results.next());
+		return results.getDouble("propertyValue");
+	}
+}
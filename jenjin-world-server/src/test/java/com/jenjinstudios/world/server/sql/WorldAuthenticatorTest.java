@@ -10,6 +10,8 @@ import org.testng.annotations.BeforeClass;
 import org.testng.annotations.Test;
 
 import java.sql.*;
+import java.util.LinkedList;
+import java.util.List;
 
 import static java.sql.ResultSet.CONCUR_UPDATABLE;
 import static java.sql.ResultSet.TYPE_SCROLL_SENSITIVE;
@@ -93,4 +95,33 @@ public class WorldAuthenticatorTest
 		results.next();
 		assertEquals(results.getDouble("propertyValue"), 10d);
 	}
+
+	@Test
+	public void testUpdatePlayers() throws Exception {
+		WorldAuthenticator worldAuthenticator = new WorldAuthenticator(connection);
+		List<WorldClientHandler> handlers = new LinkedList<>();
+		for (int i = 2; i < 5; i++)
+		{
+			WorldClientHandler worldClientHandler = Mockito.mock(WorldClientHandler.class);
+			Actor actor = mock(Actor.class);
+			User user = new User();
+			user.setUsername("TestAccount" + i);
+			when(actor.getVector2D()).thenReturn(new Vector2D(i, i));
+			when(worldClientHandler.getPlayer()).thenReturn(actor);
+			when(worldClientHandler.getUser()).thenReturn(user);
+			handlers.add(worldClientHandler);
+		}
+		handlers.add(Mockito.mock(WorldClientHandler.class));
+
+		worldAuthenticator.updatePlayers(handlers);
+
+		for (int i = 2; i < 5; i++)
+		{
+			String query = "SELECT * FROM jenjin_user_properties WHERE username='TestAccount" + i + "' AND " +
+				  "propertyName='yCoord'";
+			ResultSet results = connection.prepareStatement(query).executeQuery();
+			results.next();
+			assertEquals(results.getDouble("propertyValue"), (double) i);
+		}
+	}
 }